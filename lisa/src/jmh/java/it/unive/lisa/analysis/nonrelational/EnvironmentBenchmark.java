@@ -0,0 +1,124 @@
+package it.unive.lisa.analysis.nonrelational;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.symbolic.types.IntType;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Variable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the operations of {@link Environment}s (and thus of the underlying
+ * {@link it.unive.lisa.analysis.lattices.FunctionalLattice}) with an increasing
+ * number of variables, using {@link Interval} as non-relational domain. The two
+ * environments map the same variables, and they differ on half of them. Run
+ * with {@code ./gradlew jmh -PjmhArgs="EnvironmentBenchmark"}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+	/**
+	 * The number of variables in the environments
+	 */
+	@Param({ "16", "256", "4096" })
+	private int variables;
+
+	private Variable[] ids;
+
+	private Constant constant;
+
+	private ValueEnvironment<Interval> first;
+
+	private ValueEnvironment<Interval> second;
+
+	private int next;
+
+	/**
+	 * Builds the two environments.
+	 *
+	 * @throws SemanticException if an assignment fails
+	 */
+	@Setup
+	public void setup() throws SemanticException {
+		ids = new Variable[variables];
+		constant = new Constant(IntType.INSTANCE, variables);
+		first = new ValueEnvironment<>(new Interval());
+		second = new ValueEnvironment<>(new Interval());
+		for (int i = 0; i < variables; i++) {
+			ids[i] = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "x" + i);
+			first = first.assign(ids[i], new Constant(IntType.INSTANCE, i), null);
+			second = second.assign(ids[i], new Constant(IntType.INSTANCE, i % 2 == 0 ? i : -i), null);
+		}
+	}
+
+	/**
+	 * Assigns a constant to one of the variables of the first environment,
+	 * cycling through all of them.
+	 *
+	 * @return the resulting environment
+	 *
+	 * @throws SemanticException if the assignment fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> assign() throws SemanticException {
+		next = (next + 1) % variables;
+		return first.assign(ids[next], constant, null);
+	}
+
+	/**
+	 * Computes the least upper bound of the two environments.
+	 *
+	 * @return the least upper bound
+	 *
+	 * @throws SemanticException if the least upper bound fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> lub() throws SemanticException {
+		return first.lub(second);
+	}
+
+	/**
+	 * Computes the widening of the two environments.
+	 *
+	 * @return the widening
+	 *
+	 * @throws SemanticException if the widening fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> widening() throws SemanticException {
+		return first.widening(second);
+	}
+
+	/**
+	 * Checks whether the first environment is less or equal than the second
+	 * one.
+	 *
+	 * @return the result of the check
+	 *
+	 * @throws SemanticException if the check fails
+	 */
+	@Benchmark
+	public boolean lessOrEqual() throws SemanticException {
+		return first.lessOrEqual(second);
+	}
+}
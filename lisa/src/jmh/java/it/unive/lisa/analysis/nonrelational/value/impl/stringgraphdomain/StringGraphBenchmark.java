@@ -0,0 +1,94 @@
+package it.unive.lisa.analysis.nonrelational.value.impl.stringgraphdomain;
+
+import it.unive.lisa.analysis.nonrelational.value.impl.stringgraphdomain.nodes.Concat;
+import it.unive.lisa.analysis.nonrelational.value.impl.stringgraphdomain.nodes.Node;
+import it.unive.lisa.analysis.nonrelational.value.impl.stringgraphdomain.nodes.Or;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link NormalStringGraphUtils#normalize(Node)} and
+ * {@link NormalStringGraphUtils#widening(Node, Node)} on string graphs of
+ * increasing depth, shaped as the ones produced by a loop that appends to a
+ * string one of two values at each iteration. Since both operations can modify
+ * their arguments, the graphs are rebuilt before each invocation. Run with
+ * {@code ./gradlew jmh -PjmhArgs="StringGraphBenchmark"}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringGraphBenchmark {
+
+	/**
+	 * The number of nested concatenations in the graphs
+	 */
+	@Param({ "2", "4", "8" })
+	private int depth;
+
+	private Node<?> graph;
+
+	private Node<?> previous;
+
+	private Node<?> next;
+
+	/**
+	 * Builds a graph to normalize, and two normalized graphs of increasing
+	 * depth to widen.
+	 */
+	@Setup(Level.Invocation)
+	public void setup() {
+		graph = mkGraph(depth);
+		previous = NormalStringGraphUtils.normalize(mkGraph(depth));
+		next = NormalStringGraphUtils.normalize(mkGraph(depth + 1));
+	}
+
+	private static Node<?> mkGraph(int depth) {
+		Node<?> node = Node.create("seed");
+		for (int i = 0; i < depth; i++) {
+			Node<?> or = new Or();
+			or.addForwardChild(node);
+			or.addForwardChild(Node.create("alt" + i));
+			Node<?> concat = new Concat();
+			concat.addForwardChild(or);
+			concat.addForwardChild(Node.create("suffix"));
+			node = concat;
+		}
+		return node;
+	}
+
+	/**
+	 * Normalizes a graph.
+	 *
+	 * @return the normalized graph
+	 */
+	@Benchmark
+	public Node<?> normalize() {
+		return NormalStringGraphUtils.normalize(graph);
+	}
+
+	/**
+	 * Widens two normalized graphs.
+	 *
+	 * @return the widened graph
+	 */
+	@Benchmark
+	public Node<?> widening() {
+		return NormalStringGraphUtils.widening(previous, next);
+	}
+}
@@ -0,0 +1,123 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the set algebra of {@link BitExternalSet}s (union, intersection,
+ * membership and iteration) with an increasing number of elements in the
+ * {@link ExternalSetCache} they share. Each set contains roughly half of the
+ * elements of the cache, chosen at random with a fixed seed. Run with
+ * {@code ./gradlew jmh -PjmhArgs="ExternalSetBenchmark"}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalSetBenchmark {
+
+	/**
+	 * The number of elements in the cache
+	 */
+	@Param({ "64", "1024", "16384" })
+	private int universe;
+
+	private ExternalSet<String> first;
+
+	private ExternalSet<String> second;
+
+	private List<String> probes;
+
+	/**
+	 * Fills the cache, the two sets and the elements used for membership
+	 * checks.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(universe);
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		first = cache.mkEmptySet();
+		second = cache.mkEmptySet();
+		probes = new ArrayList<>(universe);
+		for (int i = 0; i < universe; i++) {
+			String element = "element" + i;
+			cache.indexOfOrAdd(element);
+			// equal but not identical, as in lookups performed by analyses
+			probes.add(new String(element));
+			if (random.nextBoolean())
+				first.add(element);
+			if (random.nextBoolean())
+				second.add(element);
+		}
+	}
+
+	/**
+	 * Computes the union of the two sets.
+	 *
+	 * @return the union
+	 */
+	@Benchmark
+	public ExternalSet<String> union() {
+		return first.union(second);
+	}
+
+	/**
+	 * Computes the intersection of the two sets.
+	 *
+	 * @return the intersection
+	 */
+	@Benchmark
+	public ExternalSet<String> intersection() {
+		return first.intersection(second);
+	}
+
+	/**
+	 * Checks whether the first set contains the second one.
+	 *
+	 * @return the result of the check
+	 */
+	@Benchmark
+	public boolean containsAll() {
+		return first.contains(second);
+	}
+
+	/**
+	 * Checks membership of all the elements of the cache in the first set.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	public void contains(Blackhole bh) {
+		for (String probe : probes)
+			bh.consume(first.contains(probe));
+	}
+
+	/**
+	 * Iterates over the first set.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	public void iterate(Blackhole bh) {
+		for (String element : first)
+			bh.consume(element);
+	}
+}
@@ -0,0 +1,169 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of read operations on {@link ExternalSet}s sharing
+ * the same {@link ExternalSetCache}, with an increasing number of threads.
+ * Iterating over a set reads elements from the cache by index, while membership
+ * checks look up the index of elements in the cache: since reads on the cache
+ * are lock-free, the throughput of each benchmark should scale with the number
+ * of threads (up to the number of available cores). Run with
+ * {@code ./gradlew jmh -PjmhArgs="ExternalSetCacheBenchmark"}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalSetCacheBenchmark {
+
+	/**
+	 * The number of elements in the cache
+	 */
+	@Param({ "64", "1024" })
+	private int elements;
+
+	private ExternalSetCache<String> cache;
+
+	private ExternalSet<String> set;
+
+	private List<String> probes;
+
+	/**
+	 * Fills the cache, the set containing half of its elements and the elements
+	 * used for membership checks.
+	 */
+	@Setup
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		set = cache.mkEmptySet();
+		probes = new ArrayList<>(elements);
+		for (int i = 0; i < elements; i++) {
+			String element = "element" + i;
+			// equal but not identical, as in lookups performed by analyses
+			probes.add(new String(element));
+			if (i % 2 == 0)
+				set.add(element);
+			else
+				cache.indexOfOrAdd(element);
+		}
+	}
+
+	private void iterate(Blackhole bh) {
+		for (String element : set)
+			bh.consume(element);
+	}
+
+	private void contains(Blackhole bh) {
+		for (String probe : probes)
+			bh.consume(set.contains(probe));
+	}
+
+	/**
+	 * Iterates over the set with a single thread.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(1)
+	public void iterate1(Blackhole bh) {
+		iterate(bh);
+	}
+
+	/**
+	 * Iterates over the set with two threads.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(2)
+	public void iterate2(Blackhole bh) {
+		iterate(bh);
+	}
+
+	/**
+	 * Iterates over the set with four threads.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(4)
+	public void iterate4(Blackhole bh) {
+		iterate(bh);
+	}
+
+	/**
+	 * Iterates over the set with one thread for each available core.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(Threads.MAX)
+	public void iterateMax(Blackhole bh) {
+		iterate(bh);
+	}
+
+	/**
+	 * Checks membership of all the probes with a single thread.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(1)
+	public void contains1(Blackhole bh) {
+		contains(bh);
+	}
+
+	/**
+	 * Checks membership of all the probes with two threads.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(2)
+	public void contains2(Blackhole bh) {
+		contains(bh);
+	}
+
+	/**
+	 * Checks membership of all the probes with four threads.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(4)
+	public void contains4(Blackhole bh) {
+		contains(bh);
+	}
+
+	/**
+	 * Checks membership of all the probes with one thread for each available
+	 * core.
+	 *
+	 * @param bh the blackhole
+	 */
+	@Benchmark
+	@Threads(Threads.MAX)
+	public void containsMax(Blackhole bh) {
+		contains(bh);
+	}
+}
@@ -0,0 +1,173 @@
+package it.unive.lisa;
+
+import it.unive.lisa.checks.warnings.CFGWarning;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.util.datastructures.graph.BudgetExhaustedException;
+import it.unive.lisa.util.datastructures.graph.FixpointBudget;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The resources available to the fixpoint computations of an analysis, as
+ * configured in a {@link LiSAConfiguration}. Each fixpoint over a {@link CFG}
+ * is bounded by a {@link FixpointBudget} obtained through
+ * {@link #mkCFGBudget()}, that limits the time and the number of statement
+ * evaluations of that fixpoint, while also charging them to the global limits
+ * of the analysis. All budgets also check the heap threshold and the
+ * {@link CancellationToken} of the configuration.<br>
+ * <br>
+ * The global clock starts when this object is created. Fixpoints whose budget
+ * runs out can be reported through {@link #exhausted(CFG, String)}: the
+ * corresponding warnings are available through {@link #getWarnings()}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class AnalysisBudget {
+
+	/**
+	 * The number of evaluations between two consecutive checks of the heap
+	 * usage
+	 */
+	private static final int HEAP_CHECK_INTERVAL = 256;
+
+	private final long cfgTimeout;
+
+	private final long cfgEvaluations;
+
+	private final long analysisTimeout;
+
+	private final long analysisEvaluations;
+
+	private final double heapThreshold;
+
+	private final CancellationToken token;
+
+	/**
+	 * The instant, in nanoseconds, when this budget has been created
+	 */
+	private final long start;
+
+	/**
+	 * The number of statement evaluations charged to this budget
+	 */
+	private final AtomicLong evaluations;
+
+	/**
+	 * The warnings about fixpoints whose budget ran out
+	 */
+	private final Collection<CFGWarning> warnings;
+
+	/**
+	 * Builds the budget of an analysis, reading the limits from the given
+	 * configuration and starting the global clock.
+	 *
+	 * @param conf the configuration of the analysis
+	 */
+	public AnalysisBudget(LiSAConfiguration conf) {
+		this.cfgTimeout = TimeUnit.MILLISECONDS.toNanos(conf.getCFGTimeout());
+		this.cfgEvaluations = conf.getCFGEvaluationsLimit();
+		this.analysisTimeout = TimeUnit.MILLISECONDS.toNanos(conf.getAnalysisTimeout());
+		this.analysisEvaluations = conf.getAnalysisEvaluationsLimit();
+		this.heapThreshold = conf.getHeapThreshold();
+		this.token = conf.getCancellationToken();
+		this.start = System.nanoTime();
+		this.evaluations = new AtomicLong();
+		this.warnings = Collections.newSetFromMap(new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Yields the number of statement evaluations charged to this budget so far.
+	 *
+	 * @return the number of evaluations
+	 */
+	public long getEvaluations() {
+		return evaluations.get();
+	}
+
+	/**
+	 * Yields {@code true} if and only if the {@link CancellationToken} of the
+	 * analysis has been cancelled.
+	 *
+	 * @return whether or not the analysis has been cancelled
+	 */
+	public boolean isCancelled() {
+		return token != null && token.isCancelled();
+	}
+
+	/**
+	 * Yields a new {@link FixpointBudget} for a fixpoint computation over a
+	 * single cfg. The per-cfg limits of the returned budget start from the
+	 * moment this method is invoked.
+	 *
+	 * @return the budget for the fixpoint
+	 */
+	public FixpointBudget mkCFGBudget() {
+		return new CFGBudget();
+	}
+
+	/**
+	 * Records that the budget of a fixpoint computation over the given cfg ran
+	 * out, generating a warning with the given reason.
+	 *
+	 * @param cfg    the cfg
+	 * @param reason the reason of the exhaustion
+	 */
+	public void exhausted(CFG cfg, String reason) {
+		warnings.add(new CFGWarning(cfg, "Fixpoint interrupted: " + reason + ". Analysis results are top"));
+	}
+
+	/**
+	 * Yields the warnings about the fixpoint computations whose budget ran out.
+	 *
+	 * @return the (unmodifiable) collection of warnings
+	 */
+	public Collection<CFGWarning> getWarnings() {
+		return Collections.unmodifiableCollection(warnings);
+	}
+
+	private final class CFGBudget implements FixpointBudget {
+
+		private final long cfgStart;
+
+		private long count;
+
+		private CFGBudget() {
+			this.cfgStart = System.nanoTime();
+		}
+
+		@Override
+		public void charge() throws FixpointException {
+			if (isCancelled())
+				throw new FixpointException("The analysis has been cancelled");
+
+			count++;
+			long global = evaluations.incrementAndGet();
+			if (cfgEvaluations > 0 && count > cfgEvaluations)
+				throw new BudgetExhaustedException(
+						"the limit of " + cfgEvaluations + " evaluations per cfg was reached");
+			if (analysisEvaluations > 0 && global > analysisEvaluations)
+				throw new BudgetExhaustedException(
+						"the limit of " + analysisEvaluations + " evaluations for the analysis was reached");
+
+			long now = System.nanoTime();
+			if (cfgTimeout > 0 && now - cfgStart > cfgTimeout)
+				throw new BudgetExhaustedException("the timeout of "
+						+ TimeUnit.NANOSECONDS.toMillis(cfgTimeout) + "ms per cfg expired");
+			if (analysisTimeout > 0 && now - start > analysisTimeout)
+				throw new BudgetExhaustedException("the timeout of "
+						+ TimeUnit.NANOSECONDS.toMillis(analysisTimeout) + "ms for the analysis expired");
+
+			if (heapThreshold > 0 && count % HEAP_CHECK_INTERVAL == 0) {
+				Runtime runtime = Runtime.getRuntime();
+				long used = runtime.totalMemory() - runtime.freeMemory();
+				if (used > heapThreshold * runtime.maxMemory())
+					throw new BudgetExhaustedException("the heap usage exceeded "
+							+ Math.round(heapThreshold * 100) + "% of the maximum heap size");
+			}
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package it.unive.lisa;
+
+/**
+ * An {@link AnalysisException} thrown by
+ * {@link LiSA#run(it.unive.lisa.program.Program)} when the analysis is aborted
+ * through its {@link CancellationToken}.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class AnalysisCancelledException extends AnalysisException {
+
+	private static final long serialVersionUID = -1739014457460932655L;
+
+	/**
+	 * Builds the exception.
+	 * 
+	 * @param message the message of this exception
+	 * @param cause   the cause of this exception
+	 */
+	public AnalysisCancelledException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
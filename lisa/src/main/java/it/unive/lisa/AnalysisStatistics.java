@@ -0,0 +1,49 @@
+package it.unive.lisa;
+
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The statistics collected during the fixpoint computations of an analysis,
+ * grouped by {@link CFG}. Statistics are collected only if
+ * {@link LiSAConfiguration#isDumpStatistics()} holds, and they are dumped by
+ * {@link LiSA} in the {@code analysis-stats.json} file.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class AnalysisStatistics {
+
+	private final Map<CFG, FixpointStatistics<Statement>> cfgs;
+
+	/**
+	 * Builds an empty statistics object.
+	 */
+	public AnalysisStatistics() {
+		this.cfgs = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields the {@link FixpointStatistics} where the statistics about fixpoint
+	 * computations over the given cfg are to be collected.
+	 *
+	 * @param cfg the cfg
+	 *
+	 * @return the statistics of {@code cfg}
+	 */
+	public FixpointStatistics<Statement> of(CFG cfg) {
+		return cfgs.computeIfAbsent(cfg, c -> new FixpointStatistics<>());
+	}
+
+	/**
+	 * Yields the statistics collected so far, indexed by cfg.
+	 *
+	 * @return an unmodifiable view of the statistics
+	 */
+	public Map<CFG, FixpointStatistics<Statement>> getCFGs() {
+		return Collections.unmodifiableMap(cfgs);
+	}
+}
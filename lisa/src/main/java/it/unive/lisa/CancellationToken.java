@@ -0,0 +1,34 @@
+package it.unive.lisa;
+
+/**
+ * A token that can be used to abort a running analysis from a different thread.
+ * The token is set in the {@link LiSAConfiguration} of the analysis (see
+ * {@link LiSAConfiguration#setCancellationToken(CancellationToken)}), and it is
+ * polled by fixpoint computations before evaluating each statement: once
+ * {@link #cancel()} is invoked, the running fixpoint is interrupted and
+ * {@link LiSA#run(it.unive.lisa.program.Program)} terminates by throwing an
+ * {@link AnalysisCancelledException}. A token cannot be reset once cancelled.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	/**
+	 * Requests the cancellation of the analyses using this token.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Yields {@code true} if and only if {@link #cancel()} has been invoked on
+	 * this token.
+	 * 
+	 * @return whether or not this token has been cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
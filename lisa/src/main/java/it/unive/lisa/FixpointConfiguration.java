@@ -0,0 +1,361 @@
+package it.unive.lisa;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.caches.ResultsCache;
+import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.callgraph.ResultsListener;
+import it.unive.lisa.logging.Tracer;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
+
+/**
+ * An immutable snapshot of the settings of a {@link LiSAConfiguration} that
+ * drive the fixpoint computations performed by a {@link CallGraph}. Instances
+ * of this class are created by {@link LiSA} before starting each fixpoint
+ * computation, and are passed to
+ * {@link CallGraph#fixpoint(it.unive.lisa.analysis.AnalysisState, FixpointConfiguration)}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class FixpointConfiguration {
+
+	/**
+	 * The number of threads that can be used for computing fixpoints over
+	 * independent {@link CFG}s
+	 */
+	private final int parallelism;
+
+	/**
+	 * The strategy used for choosing the order in which statements are
+	 * evaluated during fixpoint computations over each {@link CFG}
+	 */
+	private final IterationStrategy iterationStrategy;
+
+	/**
+	 * Whether or not variables that are not live should be removed from the
+	 * states computed during fixpoint computations over each {@link CFG}
+	 */
+	private final boolean pruneDeadVariables;
+
+	/**
+	 * The maximum number of descending iterations performed after the
+	 * post-fixpoint of each {@link CFG} has been reached
+	 */
+	private final int descendingRounds;
+
+	/**
+	 * The number of times a statement is evaluated, during fixpoint
+	 * computations over each {@link CFG}, before widening is applied to its
+	 * results
+	 */
+	private final int wideningThreshold;
+
+	/**
+	 * The budget of the analysis, that bounds the resources of each fixpoint
+	 * computation
+	 */
+	private final AnalysisBudget budget;
+
+	/**
+	 * The statistics of the analysis, where the ones of each fixpoint
+	 * computation are collected, or {@code null} if statistics are disabled
+	 */
+	private final AnalysisStatistics statistics;
+
+	/**
+	 * The tracer where the fixpoint computation over each {@link CFG} is traced
+	 */
+	private final Tracer tracer;
+
+	/**
+	 * The listener notified when the results of each {@link CFG} are final, or
+	 * {@code null} if results should be retained by the call graph
+	 */
+	private final ResultsListener listener;
+
+	/**
+	 * The cache where the results of each {@link CFG} are looked up before
+	 * computing them, or {@code null} if results should not be cached
+	 */
+	private final ResultsCache cache;
+
+	/**
+	 * Builds a fixpoint configuration with default settings, that is, the one
+	 * that would be built from a {@link LiSAConfiguration} obtained through
+	 * {@link LiSAConfiguration#LiSAConfiguration()}.
+	 */
+	public FixpointConfiguration() {
+		this(new LiSAConfiguration());
+	}
+
+	/**
+	 * Builds a fixpoint configuration by taking a snapshot of the relevant
+	 * settings of the given {@link LiSAConfiguration}. Fixpoint computations
+	 * will be bounded by a new {@link AnalysisBudget}, whose global limits
+	 * start from the creation of this object.
+	 *
+	 * @param conf the configuration to read the settings from
+	 */
+	public FixpointConfiguration(LiSAConfiguration conf) {
+		this(conf, new AnalysisBudget(conf));
+	}
+
+	/**
+	 * Builds a fixpoint configuration by taking a snapshot of the relevant
+	 * settings of the given {@link LiSAConfiguration}. Fixpoint computations
+	 * will be bounded by the given {@link AnalysisBudget}, that can thus be
+	 * shared among several fixpoint configurations of the same analysis.
+	 * Statistics are collected in a new {@link AnalysisStatistics} if
+	 * {@link LiSAConfiguration#isDumpStatistics()} holds, and fixpoint
+	 * computations are traced with {@link Tracer#NOT_COLLECTING}.
+	 *
+	 * @param conf   the configuration to read the settings from
+	 * @param budget the budget of the analysis
+	 */
+	public FixpointConfiguration(LiSAConfiguration conf, AnalysisBudget budget) {
+		this(conf, budget, conf.isDumpStatistics() ? new AnalysisStatistics() : null, Tracer.NOT_COLLECTING);
+	}
+
+	/**
+	 * Builds a fixpoint configuration by taking a snapshot of the relevant
+	 * settings of the given {@link LiSAConfiguration}. Fixpoint computations
+	 * will be bounded by the given {@link AnalysisBudget}, will collect their
+	 * statistics in the given {@link AnalysisStatistics}, and will be traced by
+	 * the given {@link Tracer}.
+	 *
+	 * @param conf       the configuration to read the settings from
+	 * @param budget     the budget of the analysis
+	 * @param statistics the statistics of the analysis, or {@code null} if
+	 *                       statistics should not be collected
+	 * @param tracer     the tracer of the analysis
+	 */
+	public FixpointConfiguration(LiSAConfiguration conf, AnalysisBudget budget, AnalysisStatistics statistics,
+			Tracer tracer) {
+		this(conf, budget, statistics, tracer, null);
+	}
+
+	/**
+	 * Builds a fixpoint configuration by taking a snapshot of the relevant
+	 * settings of the given {@link LiSAConfiguration}. Fixpoint computations
+	 * will be bounded by the given {@link AnalysisBudget}, will collect their
+	 * statistics in the given {@link AnalysisStatistics}, will be traced by the
+	 * given {@link Tracer}, and will stream the results of each {@link CFG} to
+	 * the given {@link ResultsListener}.
+	 *
+	 * @param conf       the configuration to read the settings from
+	 * @param budget     the budget of the analysis
+	 * @param statistics the statistics of the analysis, or {@code null} if
+	 *                       statistics should not be collected
+	 * @param tracer     the tracer of the analysis
+	 * @param listener   the listener to notify when the results of each cfg are
+	 *                       final, or {@code null} if results should be
+	 *                       retained by the call graph
+	 */
+	public FixpointConfiguration(LiSAConfiguration conf, AnalysisBudget budget, AnalysisStatistics statistics,
+			Tracer tracer, ResultsListener listener) {
+		this(conf, budget, statistics, tracer, listener, null);
+	}
+
+	/**
+	 * Builds a fixpoint configuration by taking a snapshot of the relevant
+	 * settings of the given {@link LiSAConfiguration}. Fixpoint computations
+	 * will be bounded by the given {@link AnalysisBudget}, will collect their
+	 * statistics in the given {@link AnalysisStatistics}, will be traced by the
+	 * given {@link Tracer}, will stream the results of each {@link CFG} to the
+	 * given {@link ResultsListener}, and will reuse the results stored in the
+	 * given {@link ResultsCache}.
+	 *
+	 * @param conf       the configuration to read the settings from
+	 * @param budget     the budget of the analysis
+	 * @param statistics the statistics of the analysis, or {@code null} if
+	 *                       statistics should not be collected
+	 * @param tracer     the tracer of the analysis
+	 * @param listener   the listener to notify when the results of each cfg are
+	 *                       final, or {@code null} if results should be
+	 *                       retained by the call graph
+	 * @param cache      the cache of the results of each cfg, or {@code null}
+	 *                       if results should not be cached
+	 */
+	public FixpointConfiguration(LiSAConfiguration conf, AnalysisBudget budget, AnalysisStatistics statistics,
+			Tracer tracer, ResultsListener listener, ResultsCache cache) {
+		this.budget = budget;
+		this.statistics = statistics;
+		this.tracer = tracer;
+		this.listener = listener;
+		this.cache = cache;
+		this.parallelism = conf.getParallelism();
+		this.iterationStrategy = conf.getIterationStrategy();
+		this.pruneDeadVariables = conf.isPruneDeadVariables();
+		this.descendingRounds = conf.getDescendingRounds();
+		this.wideningThreshold = conf.getWideningThreshold();
+	}
+
+	/**
+	 * Yields the number of threads that can be used for computing fixpoints
+	 * over independent {@link CFG}s. A value of {@code 1} means that
+	 * {@link CFG}s should be analyzed sequentially.
+	 *
+	 * @return the parallelism level
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Yields whether or not independent {@link CFG}s can be analyzed in
+	 * parallel, that is, if {@link #getParallelism()} is greater than
+	 * {@code 1}.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isParallel() {
+		return parallelism > 1;
+	}
+
+	/**
+	 * Yields the {@link IterationStrategy} used for choosing the order in which
+	 * statements are evaluated during fixpoint computations over each
+	 * {@link CFG}.
+	 *
+	 * @return the iteration strategy
+	 */
+	public IterationStrategy getIterationStrategy() {
+		return iterationStrategy;
+	}
+
+	/**
+	 * Yields whether or not the variables that are not live before a statement
+	 * (see {@link CFG#getLiveness()}) should be removed from the states flowing
+	 * into it during fixpoint computations.
+	 *
+	 * @return {@code true} if dead variables should be pruned
+	 */
+	public boolean isPruneDeadVariables() {
+		return pruneDeadVariables;
+	}
+
+	/**
+	 * Yields the maximum number of descending iterations, composing results
+	 * through {@link Lattice#narrowing(Lattice)}, that fixpoint computations
+	 * over each {@link CFG} perform after reaching a post-fixpoint. A value of
+	 * {@code 0} means that no descending iteration is performed.
+	 *
+	 * @return the maximum number of descending iterations
+	 */
+	public int getDescendingRounds() {
+		return descendingRounds;
+	}
+
+	/**
+	 * Yields the number of times a statement is evaluated, during fixpoint
+	 * computations over each {@link CFG}, before its results are composed
+	 * through {@link Lattice#widening(Lattice)} instead of
+	 * {@link Lattice#lub(Lattice)}.
+	 *
+	 * @return the widening threshold
+	 */
+	public int getWideningThreshold() {
+		return wideningThreshold;
+	}
+
+	/**
+	 * Yields the {@link AnalysisBudget} bounding the resources of fixpoint
+	 * computations. The budget is not taken into account by
+	 * {@link #equals(Object)} and {@link #hashCode()}, since it is not a
+	 * setting of the computations but it keeps track of their progress.
+	 *
+	 * @return the budget
+	 */
+	public AnalysisBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Yields the {@link AnalysisStatistics} where fixpoint computations collect
+	 * their statistics. As for {@link #getBudget()}, statistics are not taken
+	 * into account by {@link #equals(Object)} and {@link #hashCode()}.
+	 *
+	 * @return the statistics, or {@code null} if they should not be collected
+	 */
+	public AnalysisStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Yields the {@link Tracer} where the fixpoint computation over each
+	 * {@link CFG} is traced. As for {@link #getBudget()}, the tracer is not
+	 * taken into account by {@link #equals(Object)} and {@link #hashCode()}.
+	 *
+	 * @return the tracer
+	 */
+	public Tracer getTracer() {
+		return tracer;
+	}
+
+	/**
+	 * Yields the {@link ResultsListener} to notify when the results of each
+	 * {@link CFG} are final. As for {@link #getBudget()}, the listener is not
+	 * taken into account by {@link #equals(Object)} and {@link #hashCode()}.
+	 *
+	 * @return the listener, or {@code null} if results should be retained by
+	 *             the call graph
+	 */
+	public ResultsListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Yields the {@link ResultsCache} where the results of each {@link CFG} are
+	 * looked up before computing them. Call graphs are free to ignore it if the
+	 * results of a cfg do not only depend on the cfg itself and on the entry
+	 * state (see {@link it.unive.lisa.callgraph.BaseCallGraph}). As for
+	 * {@link #getBudget()}, the cache is not taken into account by
+	 * {@link #equals(Object)} and {@link #hashCode()}.
+	 *
+	 * @return the cache, or {@code null} if results should not be cached
+	 */
+	public ResultsCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + parallelism;
+		result = prime * result + ((iterationStrategy == null) ? 0 : iterationStrategy.hashCode());
+		result = prime * result + (pruneDeadVariables ? 1231 : 1237);
+		result = prime * result + descendingRounds;
+		result = prime * result + wideningThreshold;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FixpointConfiguration other = (FixpointConfiguration) obj;
+		if (parallelism != other.parallelism)
+			return false;
+		if (iterationStrategy != other.iterationStrategy)
+			return false;
+		if (pruneDeadVariables != other.pruneDeadVariables)
+			return false;
+		if (descendingRounds != other.descendingRounds)
+			return false;
+		if (wideningThreshold != other.wideningThreshold)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "fixpoint configuration [parallelism=" + parallelism + ", iterationStrategy=" + iterationStrategy
+				+ ", pruneDeadVariables=" + pruneDeadVariables + ", descendingRounds=" + descendingRounds
+				+ ", wideningThreshold=" + wideningThreshold + "]";
+	}
+}
@@ -9,18 +9,27 @@ import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.impl.types.InferredTypes;
+import it.unive.lisa.analysis.impl.types.TypeInferringState;
 import it.unive.lisa.analysis.inference.InferenceSystem;
+import it.unive.lisa.analysis.profiling.DomainProfiler;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.ResultsCache;
 import it.unive.lisa.callgraph.CallGraph;
 import it.unive.lisa.callgraph.CallGraphConstructionException;
+import it.unive.lisa.callgraph.ResultsListener;
 import it.unive.lisa.checks.ChecksExecutor;
+import it.unive.lisa.checks.ChecksExecutor.StreamedExecution;
 import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
+import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.CheckTool;
+import it.unive.lisa.checks.warnings.CFGWarning;
 import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
+import it.unive.lisa.logging.Tracer;
 import it.unive.lisa.outputs.JsonReport;
+import it.unive.lisa.outputs.JsonStatistics;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.ProgramValidationException;
 import it.unive.lisa.program.cfg.CFG;
@@ -39,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 import org.apache.logging.log4j.LogManager;
@@ -73,6 +83,18 @@ public class LiSA {
 	 */
 	private final LiSAConfiguration conf;
 
+	/**
+	 * The cache of the results of fixpoints used by the current execution, or
+	 * {@code null} if results are not cached
+	 */
+	private ResultsCache resultsCache;
+
+	/**
+	 * The profiler of the operations of the domains used by the current
+	 * execution, or {@code null} if domains are not profiled
+	 */
+	private DomainProfiler profiler;
+
 	/**
 	 * Builds a new LiSA instance.
 	 * 
@@ -88,23 +110,53 @@ public class LiSA {
 	}
 
 	/**
-	 * Runs LiSA, executing all the checks that have been added.
+	 * Runs LiSA, executing all the checks that have been added. If the program
+	 * has entrypoints, type inference, the analysis and the semantic checks
+	 * only consider the cfgs reachable from them (see
+	 * {@link CallGraph#getReachableCFGs()}). Each phase of the execution is
+	 * traced through a {@link Tracer}, and the trace is dumped in the
+	 * {@code analysis-trace.json} file if
+	 * {@link LiSAConfiguration#isDumpTrace()} holds. If
+	 * {@link LiSAConfiguration#isProfileDomains()} holds, the operations of the
+	 * domains of the analysis are recorded in a {@link DomainProfiler} owned by
+	 * this run, and their histogram is logged and dumped in the
+	 * {@code domain-profile.json} file. If
+	 * {@link LiSAConfiguration#isStreamingChecks()} holds, the semantic checks
+	 * are executed on each cfg as soon as its fixpoint completes, and its
+	 * results are released right after. If
+	 * {@link LiSAConfiguration#getResultsCache()} is set, the results of each
+	 * cfg are looked up in a {@link ResultsCache} before computing them.
 	 * 
 	 * @param program the program to analyze
 	 * 
-	 * @throws AnalysisException if anything goes wrong during the analysis
+	 * @throws AnalysisException          if anything goes wrong during the
+	 *                                        analysis
+	 * @throws AnalysisCancelledException if the analysis is aborted through the
+	 *                                        {@link CancellationToken} of its
+	 *                                        configuration
 	 */
 	public void run(Program program) throws AnalysisException {
 		printConfig();
 
+		profiler = conf.isProfileDomains() ? new DomainProfiler() : null;
+		Tracer tracer = new Tracer(conf.isDumpTrace());
 		try {
-			TimerLogger.execAction(log, "Analysis time", () -> runAux(program));
+			tracer.trace("lisa", "LiSA",
+					() -> TimerLogger.execAction(log, "Analysis time", () -> runAux(program, tracer)));
 		} catch (AnalysisExecutionException e) {
+			if (conf.getCancellationToken() != null && conf.getCancellationToken().isCancelled())
+				throw new AnalysisCancelledException("The analysis has been cancelled", e);
 			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
 		}
 
 		printStats();
 
+		if (profiler != null)
+			dumpDomainProfile();
+
+		if (conf.isDumpTrace())
+			dumpTrace(tracer);
+
 		if (conf.isJsonOutput()) {
 			log.info("Dumping reported warnings to 'report.json'");
 			JsonReport report = new JsonReport(warnings, fileManager.createdFiles());
@@ -124,26 +176,33 @@ public class LiSA {
 	private void printStats() {
 		log.info("LiSA statistics:");
 		log.info("  " + warnings.size() + " warnings generated");
+		if (resultsCache != null)
+			log.info("  " + resultsCache.getHits() + " results loaded from the cache, " + resultsCache.getMisses()
+					+ " computed");
 	}
 
 	@SuppressWarnings("unchecked")
 	private <H extends HeapDomain<H>,
 			V extends ValueDomain<V>,
-			A extends AbstractState<A, H, V>> void runAux(Program program)
+			A extends AbstractState<A, H, V>> void runAux(Program program, Tracer tracer)
 					throws AnalysisExecutionException {
-		finalizeProgram(program);
+		tracer.trace("phase", "Finalization", () -> finalizeProgram(program));
 
 		Collection<CFG> allCFGs = program.getAllCFGs();
 
 		if (conf.isDumpCFGs())
-			for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Dumping input CFGs", "cfgs"))
-				dumpCFG("", cfg, st -> "");
+			tracer.trace("dump", "Dumping input CFGs", () -> {
+				for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Dumping input CFGs", "cfgs"))
+					dumpCFG("", cfg, st -> "");
+			});
 
-		CheckTool tool = new CheckTool();
+		CheckTool syntactic = new CheckTool();
 		if (!conf.getSyntacticChecks().isEmpty())
-			ChecksExecutor.executeAll(tool, program, conf.getSyntacticChecks());
+			tracer.trace("phase", "Syntactic checks", () -> ChecksExecutor.executeAll(syntactic, program,
+					conf.getSyntacticChecks(), cfg -> true, checksParallelism()));
 		else
 			log.warn("Skipping syntactic checks execution since none have been provided");
+		CheckTool tool = syntactic;
 
 		CallGraph callGraph;
 		try {
@@ -154,60 +213,164 @@ public class LiSA {
 			throw new AnalysisExecutionException("Unable to create default call graph", e);
 		}
 
-		try {
-			callGraph.build(program);
-		} catch (CallGraphConstructionException e) {
-			log.fatal("Exception while building the call graph for the input program", e);
-			throw new AnalysisExecutionException("Exception while building the call graph for the input program", e);
-		}
+		tracer.trace("phase", "Call graph construction", () -> {
+			try {
+				callGraph.build(program);
+			} catch (CallGraphConstructionException e) {
+				log.fatal("Exception while building the call graph for the input program", e);
+				throw new AnalysisExecutionException("Exception while building the call graph for the input program",
+						e);
+			}
+		});
 
-		if (conf.isInferTypes())
-			inferTypes(allCFGs, callGraph);
+		// the global limits of the budget include type inference
+		AnalysisBudget budget = new AnalysisBudget(conf);
+		Map<String, AnalysisStatistics> statistics = new LinkedHashMap<>();
+		resultsCache = mkResultsCache();
+		if (conf.isInferTypes() && fusedTypeInference())
+			log.info("Type inference will be executed together with the analysis");
+		else if (conf.isInferTypes())
+			tracer.trace("phase", "Type inference", () -> inferTypes(reachable(program, callGraph, allCFGs),
+					callGraph, mkFixpointConfiguration(budget, statistics, tracer, "typeInference")));
 		else
 			log.warn("Type inference disabled: dynamic type information will not be available for following analysis");
 
 		if (conf.getState() != null) {
-			analyze(allCFGs, callGraph);
-			Map<CFG, CFGWithAnalysisResults<A, H, V>> results = new IdentityHashMap<>(allCFGs.size());
-			for (CFG cfg : allCFGs)
-				results.put(cfg, callGraph.getAnalysisResultsOf(cfg));
-
-			tool = new CheckToolWithAnalysisResults<>(tool, results);
-			if (!conf.getSemanticChecks().isEmpty())
-				ChecksExecutor.executeAll((CheckToolWithAnalysisResults<A, H, V>) tool, program,
-						conf.getSemanticChecks());
-			else
+			// runtime types might have restricted the targets of the calls
+			Collection<CFG> analyzed = reachable(program, callGraph, allCFGs);
+			if (conf.getSemanticChecks().isEmpty())
 				log.warn("Skipping semantic checks execution since none have been provided");
+
+			if (conf.isStreamingChecks())
+				tool = analyzeAndCheck(program, analyzed, callGraph, tool, budget, statistics, tracer);
+			else {
+				tracer.trace("phase", "Analysis", () -> analyze(analyzed, callGraph,
+						mkFixpointConfiguration(budget, statistics, tracer, "analysis")));
+				Map<CFG, CFGWithAnalysisResults<A, H, V>> results = new IdentityHashMap<>(analyzed.size());
+				for (CFG cfg : analyzed)
+					results.put(cfg, callGraph.getAnalysisResultsOf(cfg));
+
+				CheckToolWithAnalysisResults<A, H, V> semantic = new CheckToolWithAnalysisResults<>(tool, results);
+				tool = semantic;
+				if (!conf.getSemanticChecks().isEmpty())
+					tracer.trace("phase", "Semantic checks", () -> ChecksExecutor.executeAll(semantic, program,
+							conf.getSemanticChecks(), results::containsKey, checksParallelism()));
+			}
 		} else
 			log.warn("Skipping analysis execution since no abstract sate has been provided");
 
+		if (conf.isDumpStatistics())
+			tracer.trace("dump", "Dumping statistics", () -> dumpStatistics(statistics));
+
+		for (CFGWarning warning : budget.getWarnings())
+			tool.warnOn(warning.getCFG(), warning.getMessage());
+
 		warnings.addAll(tool.getWarnings());
 	}
 
+	private Collection<CFG> reachable(Program program, CallGraph callGraph, Collection<CFG> allCFGs) {
+		if (program.getEntryPoints().isEmpty())
+			return allCFGs;
+
+		Collection<CFG> reachable = callGraph.getReachableCFGs();
+		log.info(reachable.size() + " out of " + allCFGs.size() + " cfgs are reachable from the "
+				+ program.getEntryPoints().size() + " entrypoints of the program");
+		return reachable;
+	}
+
+	/**
+	 * Runs the analysis streaming the results of each cfg to the semantic
+	 * checks as soon as its fixpoint completes. Only the results of the cfg
+	 * being checked are stored in the returned tool, and the call graph
+	 * releases them right after the checks have been executed.
+	 */
 	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CheckToolWithAnalysisResults<A, H, V> analyzeAndCheck(Program program,
+					Collection<CFG> analyzed, CallGraph callGraph, CheckTool tool, AnalysisBudget budget,
+					Map<String, AnalysisStatistics> statistics, Tracer tracer) {
+		Map<CFG, CFGWithAnalysisResults<A, H, V>> results = new IdentityHashMap<>();
+		CheckToolWithAnalysisResults<A, H, V> checkTool = new CheckToolWithAnalysisResults<>(tool, results);
+		Collection<SemanticCheck> checks = conf.getSemanticChecks();
+		StreamedExecution<SemanticCheck, CheckToolWithAnalysisResults<?, ?, ?>> execution = ChecksExecutor
+				.startExecution(checkTool, checks);
+
+		ResultsListener listener = (cfg, result) -> {
+			CFGWithAnalysisResults<A, H, V> res = (CFGWithAnalysisResults<A, H, V>) result;
+			// cfgs analyzed in parallel are checked one at a time, since
+			// neither checks nor the tool are required to be thread-safe
+			synchronized (results) {
+				if (fusedTypeInference())
+					propagateFusedTypes(cfg, res);
+				if (conf.isDumpAnalysis())
+					dumpCFG("analysis___", res, st -> res.getAnalysisStateAt(st).toString());
+
+				if (checks.isEmpty())
+					return;
+
+				results.put(cfg, res);
+				try {
+					tracer.trace("check", cfg.getDescriptor().getFullSignature(),
+							() -> execution.executeOn(cfg));
+				} finally {
+					results.remove(cfg);
+				}
+			}
+		};
+
+		tracer.trace("phase", "Analysis", () -> analyze(analyzed, callGraph,
+				mkFixpointConfiguration(budget, statistics, tracer, "analysis", listener)));
+
+		if (!checks.isEmpty())
+			tracer.trace("phase", "Semantic checks",
+					() -> execution.completeExecution(program));
+		return checkTool;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private <A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void analyze(
-			Collection<CFG> allCFGs, CallGraph callGraph) {
+			Collection<CFG> allCFGs, CallGraph callGraph, FixpointConfiguration fixpointConf) {
 		A state = (A) conf.getState().top();
+		if (profiler != null)
+			state = (A) profiler.decorate(state);
+		if (fusedTypeInference())
+			state = (A) new TypeInferringState(state, typesState());
+		A entry = state;
 		TimerLogger.execAction(log, "Computing fixpoint over the whole program",
 				() -> {
 					try {
-						callGraph.fixpoint(new AnalysisState<>(state, new Skip()));
+						callGraph.fixpoint(new AnalysisState<>(entry, new Skip()),
+								fixpointConf);
 					} catch (FixpointException e) {
 						log.fatal("Exception during fixpoint computation", e);
 						throw new AnalysisExecutionException("Exception during fixpoint computation", e);
 					}
 				});
 
-		if (conf.isDumpAnalysis())
-			for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Dumping analysis results", "cfgs")) {
-				CFGWithAnalysisResults<A, H, V> result = callGraph.getAnalysisResultsOf(cfg);
-				dumpCFG("analysis___", result, st -> result.getAnalysisStateAt(st).toString());
-			}
+		// streamed results have already been typed
+		if (fusedTypeInference() && fixpointConf.getListener() == null)
+			fixpointConf.getTracer().trace("phase", "Propagating type information to cfgs", () -> {
+				for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Propagating type information to cfgs", "cfgs"))
+					propagateFusedTypes(cfg, callGraph.getAnalysisResultsOf(cfg));
+			});
+
+		// streamed results have already been dumped and released
+		if (conf.isDumpAnalysis() && fixpointConf.getListener() == null)
+			fixpointConf.getTracer().trace("dump", "Dumping analysis results", () -> {
+				for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Dumping analysis results", "cfgs")) {
+					CFGWithAnalysisResults<A, H, V> result = callGraph.getAnalysisResultsOf(cfg);
+					dumpCFG("analysis___", result, st -> result.getAnalysisStateAt(st).toString());
+				}
+			});
+	}
+
+	private boolean fusedTypeInference() {
+		return conf.isInferTypes() && conf.isFuseTypeInference() && conf.getState() != null;
 	}
 
 	@SuppressWarnings("unchecked")
-	private <H extends HeapDomain<H>> void inferTypes(Collection<CFG> allCFGs, CallGraph callGraph) {
-		SimpleAbstractState<H, InferenceSystem<InferredTypes>> typesState;
+	private <H extends HeapDomain<H>> SimpleAbstractState<H, InferenceSystem<InferredTypes>> typesState() {
 		try {
 			AbstractState<?, ?, ?> state = conf.getState();
 			HeapDomain<?> heap;
@@ -216,16 +379,34 @@ public class LiSA {
 			else
 				heap = getDefaultFor(HeapDomain.class);
 			// type inference is executed with the simplest abstract state
-			typesState = getInstance(SimpleAbstractState.class, heap, new InferenceSystem<>(new InferredTypes()))
-					.top();
+			return getInstance(SimpleAbstractState.class, heap, new InferenceSystem<>(new InferredTypes())).top();
 		} catch (AnalysisSetupException e) {
 			throw new AnalysisExecutionException("Unable to itialize type inference", e);
 		}
+	}
+
+	/**
+	 * Stores the runtime types inferred by a {@link TypeInferringState} at the
+	 * end of the fixpoint over the given cfg in its expressions, dumping them
+	 * if requested.
+	 */
+	private void propagateFusedTypes(CFG cfg, CFGWithAnalysisResults<?, ?, ?> result) {
+		if (conf.isDumpTypeInference())
+			dumpCFG("typing___", result, st -> ((TypeInferringState<?, ?, ?>) result.getAnalysisStateAt(st).getState())
+					.getTypes().toString());
+		cfg.accept(new TypesPropagator(state -> ((TypeInferringState<?, ?, ?>) state).getInferredTypes()), result);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <H extends HeapDomain<H>> void inferTypes(Collection<CFG> allCFGs, CallGraph callGraph,
+			FixpointConfiguration fixpointConf) {
+		SimpleAbstractState<H, InferenceSystem<InferredTypes>> typesState = typesState();
 
 		TimerLogger.execAction(log, "Computing type information",
 				() -> {
 					try {
-						callGraph.fixpoint(new AnalysisState<>(typesState, new Skip()));
+						callGraph.fixpoint(new AnalysisState<>(typesState, new Skip()),
+								fixpointConf);
 					} catch (FixpointException e) {
 						log.fatal("Exception during fixpoint computation", e);
 						throw new AnalysisExecutionException("Exception during fixpoint computation", e);
@@ -234,40 +415,44 @@ public class LiSA {
 
 		String message = conf.isDumpTypeInference() ? "Dumping type analysis and propagating it to cfgs"
 				: "Propagating type information to cfgs";
-		for (CFG cfg : IterationLogger.iterate(log, allCFGs, message, "cfgs")) {
-			CFGWithAnalysisResults<SimpleAbstractState<H, InferenceSystem<InferredTypes>>, H,
-					InferenceSystem<InferredTypes>> result = callGraph.getAnalysisResultsOf(cfg);
-			if (conf.isDumpTypeInference())
-				dumpCFG("typing___", result, st -> result.getAnalysisStateAt(st).toString());
-			cfg.accept(new TypesPropagator<>(), result);
-		}
+		fixpointConf.getTracer().trace(conf.isDumpTypeInference() ? "dump" : "phase", message, () -> {
+			for (CFG cfg : IterationLogger.iterate(log, allCFGs, message, "cfgs")) {
+				CFGWithAnalysisResults<SimpleAbstractState<H, InferenceSystem<InferredTypes>>, H,
+						InferenceSystem<InferredTypes>> result = callGraph.getAnalysisResultsOf(cfg);
+				if (conf.isDumpTypeInference())
+					dumpCFG("typing___", result, st -> result.getAnalysisStateAt(st).toString());
+				cfg.accept(new TypesPropagator(
+						state -> ((InferenceSystem<InferredTypes>) state.getValueState()).getInferredValue()), result);
+			}
+		});
 
 		callGraph.clear();
 	}
 
-	private static class TypesPropagator<H extends HeapDomain<H>>
-			implements GraphVisitor<CFG, Statement, Edge, CFGWithAnalysisResults<
-					SimpleAbstractState<H, InferenceSystem<InferredTypes>>, H, InferenceSystem<InferredTypes>>> {
+	private static class TypesPropagator
+			implements GraphVisitor<CFG, Statement, Edge, CFGWithAnalysisResults<?, ?, ?>> {
+
+		private final Function<AbstractState<?, ?, ?>, InferredTypes> types;
+
+		private TypesPropagator(Function<AbstractState<?, ?, ?>, InferredTypes> types) {
+			this.types = types;
+		}
 
 		@Override
-		public boolean visit(CFGWithAnalysisResults<SimpleAbstractState<H, InferenceSystem<InferredTypes>>, H,
-				InferenceSystem<InferredTypes>> tool, CFG graph) {
+		public boolean visit(CFGWithAnalysisResults<?, ?, ?> tool, CFG graph) {
 			return true;
 		}
 
 		@Override
-		public boolean visit(CFGWithAnalysisResults<SimpleAbstractState<H, InferenceSystem<InferredTypes>>, H,
-				InferenceSystem<InferredTypes>> tool, CFG graph, Edge edge) {
+		public boolean visit(CFGWithAnalysisResults<?, ?, ?> tool, CFG graph, Edge edge) {
 			return true;
 		}
 
 		@Override
-		public boolean visit(CFGWithAnalysisResults<SimpleAbstractState<H, InferenceSystem<InferredTypes>>, H,
-				InferenceSystem<InferredTypes>> tool, CFG graph, Statement node) {
-			if (node instanceof Expression) {
-				((Expression) node).setRuntimeTypes(tool.getAnalysisStateAt(node).getState().getValueState()
-						.getInferredValue().getRuntimeTypes());
-			}
+		public boolean visit(CFGWithAnalysisResults<?, ?, ?> tool, CFG graph, Statement node) {
+			if (node instanceof Expression)
+				((Expression) node).setRuntimeTypes(types.apply(tool.getAnalysisStateAt(node).getState())
+						.getRuntimeTypes());
 			return true;
 		}
 	}
@@ -278,6 +463,8 @@ public class LiSA {
 		ExternalSet<Type> types = Caches.types().mkEmptySet();
 		program.getRegisteredTypes().forEach(types::add);
 		types = null;
+		// canonical expressions refer to the old types cache
+		Caches.expressions().clear();
 
 		TimerLogger.execAction(log, "Finalizing input program", () -> {
 			try {
@@ -288,6 +475,77 @@ public class LiSA {
 		});
 	}
 
+	private int checksParallelism() {
+		return conf.isParallelChecks() ? conf.getParallelism() : 1;
+	}
+
+	private FixpointConfiguration mkFixpointConfiguration(AnalysisBudget budget,
+			Map<String, AnalysisStatistics> statistics, Tracer tracer, String phase) {
+		return mkFixpointConfiguration(budget, statistics, tracer, phase, null);
+	}
+
+	private FixpointConfiguration mkFixpointConfiguration(AnalysisBudget budget,
+			Map<String, AnalysisStatistics> statistics, Tracer tracer, String phase, ResultsListener listener) {
+		if (!conf.isDumpStatistics())
+			return new FixpointConfiguration(conf, budget, null, tracer, listener, resultsCache);
+		AnalysisStatistics stats = new AnalysisStatistics();
+		statistics.put(phase, stats);
+		return new FixpointConfiguration(conf, budget, stats, tracer, listener, resultsCache);
+	}
+
+	private ResultsCache mkResultsCache() {
+		if (conf.getResultsCache() == null)
+			return null;
+		if (conf.getStateCodec() == null) {
+			log.warn("No state codec set for the results cache: results will not be cached");
+			return null;
+		}
+
+		try {
+			return new ResultsCache(fileManager.mkDirectory(conf.getResultsCache()), conf.getResultsCacheSize(),
+					conf.getStateCodec());
+		} catch (IOException e) {
+			// the cache is just an optimization
+			log.warn("Unable to open the results cache: results will not be cached", e);
+			return null;
+		}
+	}
+
+	private void dumpStatistics(Map<String, AnalysisStatistics> statistics) {
+		log.info("Dumping fixpoint statistics to 'analysis-stats.json'");
+		JsonStatistics stats = new JsonStatistics(statistics, conf.getStatisticsTopN());
+		try (Writer writer = fileManager.mkOutputFile("analysis-stats.json")) {
+			stats.dump(writer);
+			log.info("Statistics file dumped to analysis-stats.json");
+		} catch (IOException e) {
+			log.error("Unable to dump statistics file", e);
+		}
+	}
+
+	private void dumpDomainProfile() {
+		log.info("Domain operations profile:");
+		for (String line : profiler.histogram())
+			log.info("  " + line);
+
+		log.info("Dumping domain operations profile to 'domain-profile.json'");
+		try (Writer writer = fileManager.mkOutputFile("domain-profile.json")) {
+			profiler.dump(writer);
+			log.info("Profile file dumped to domain-profile.json");
+		} catch (IOException e) {
+			log.error("Unable to dump profile file", e);
+		}
+	}
+
+	private void dumpTrace(Tracer tracer) {
+		log.info("Dumping analysis trace to 'analysis-trace.json'");
+		try (Writer writer = fileManager.mkOutputFile("analysis-trace.json")) {
+			tracer.dump(writer);
+			log.info("Trace file dumped to analysis-trace.json");
+		} catch (IOException e) {
+			log.error("Unable to dump trace file", e);
+		}
+	}
+
 	private void dumpCFG(String filePrefix, CFG cfg, Function<Statement, String> labelGenerator) {
 		try (Writer file = fileManager.mkDotFile(filePrefix + cfg.getDescriptor().getFullSignatureWithParNames())) {
 			cfg.dump(file, st -> labelGenerator.apply(st));
@@ -1,12 +1,19 @@
 package it.unive.lisa;
 
 import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.impl.types.TypeInferringState;
+import it.unive.lisa.caches.BinaryStateCodec;
+import it.unive.lisa.caches.ResultsCache;
+import it.unive.lisa.caches.StateCodec;
 import it.unive.lisa.callgraph.CallGraph;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.FixpointGraph;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
@@ -19,6 +26,17 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class LiSAConfiguration {
 
+	/**
+	 * The default number of cfgs and statements listed in the dumped statistics
+	 * about fixpoint computations.
+	 */
+	public static final int DEFAULT_STATISTICS_TOP_N = 10;
+
+	/**
+	 * The default maximum size, in bytes, of the {@link ResultsCache} (256 MB).
+	 */
+	public static final long DEFAULT_RESULTS_CACHE_SIZE = 256L * 1024 * 1024;
+
 	/**
 	 * The collection of syntactic checks to execute
 	 */
@@ -44,6 +62,12 @@ public class LiSAConfiguration {
 	 */
 	private boolean inferTypes;
 
+	/**
+	 * Whether or not type inference should be executed in the same fixpoint of
+	 * the analysis
+	 */
+	private boolean fuseTypeInference;
+
 	/**
 	 * Whether or not the input cfgs should be dumped to dot format. This is
 	 * useful for checking if the inputs that reach LiSA are well formed.
@@ -74,6 +98,122 @@ public class LiSAConfiguration {
 	 */
 	private String workdir;
 
+	/**
+	 * The number of threads that can be used for computing fixpoints over
+	 * independent {@link CFG}s
+	 */
+	private int parallelism;
+
+	/**
+	 * The strategy used for choosing the order in which statements are
+	 * evaluated during fixpoint computations over each {@link CFG}
+	 */
+	private IterationStrategy iterationStrategy;
+
+	/**
+	 * Whether or not variables that are not live should be removed from the
+	 * states computed during fixpoint computations over each {@link CFG}
+	 */
+	private boolean pruneDeadVariables;
+
+	/**
+	 * The maximum number of descending iterations performed after the
+	 * post-fixpoint of each {@link CFG} has been reached
+	 */
+	private int descendingRounds;
+
+	/**
+	 * The number of times a statement is evaluated, during fixpoint
+	 * computations over each {@link CFG}, before widening is applied to its
+	 * results
+	 */
+	private int wideningThreshold;
+
+	/**
+	 * The maximum time, in milliseconds, that can be spent computing the
+	 * fixpoint over a single {@link CFG}
+	 */
+	private long cfgTimeout;
+
+	/**
+	 * The maximum number of statement evaluations that can be performed while
+	 * computing the fixpoint over a single {@link CFG}
+	 */
+	private long cfgEvaluationsLimit;
+
+	/**
+	 * The maximum time, in milliseconds, that can be spent computing all
+	 * fixpoints of the analysis
+	 */
+	private long analysisTimeout;
+
+	/**
+	 * The maximum number of statement evaluations that can be performed by all
+	 * fixpoints of the analysis
+	 */
+	private long analysisEvaluationsLimit;
+
+	/**
+	 * The fraction of the maximum heap size that, once exceeded, interrupts
+	 * fixpoint computations
+	 */
+	private double heapThreshold;
+
+	/**
+	 * The token that can be used to cancel the analysis
+	 */
+	private CancellationToken cancellationToken;
+
+	/**
+	 * Whether or not statistics about fixpoint computations should be collected
+	 * and dumped
+	 */
+	private boolean dumpStatistics;
+
+	/**
+	 * The number of cfgs and statements listed in the dumped statistics
+	 */
+	private int statisticsTopN;
+
+	/**
+	 * Whether or not the phases of the analysis should be traced and dumped
+	 */
+	private boolean dumpTrace;
+
+	/**
+	 * Whether or not the operations of the domains of the analysis should be
+	 * profiled
+	 */
+	private boolean profileDomains;
+
+	/**
+	 * Whether or not semantic checks should be executed on each cfg as soon as
+	 * its fixpoint completes, releasing its results afterwards
+	 */
+	private boolean streamingChecks;
+
+	/**
+	 * Whether or not checks should be executed on different cfgs and
+	 * compilation units in parallel
+	 */
+	private boolean parallelChecks;
+
+	/**
+	 * The directory of the cache of the results of fixpoints over each cfg, or
+	 * {@code null} if results should not be cached
+	 */
+	private String resultsCache;
+
+	/**
+	 * The maximum size, in bytes, of the cache of the results
+	 */
+	private long resultsCacheSize;
+
+	/**
+	 * The codec used to store and load states in the cache of the results
+	 */
+	private StateCodec stateCodec;
+
 	/**
 	 * Builds a new configuration object, with default settings. By default:
 	 * <ul>
@@ -82,16 +222,59 @@ public class LiSAConfiguration {
 	 * <li>no {@link CallGraph} is set for the analysis</li>
 	 * <li>the workdir is the one where LiSA was executed</li>
 	 * <li>the input program will not be dumped</li>
-	 * <li>no type inference will be run</li>
+	 * <li>no type inference will be run, and it will be run in a separate
+	 * fixpoint when enabled</li>
 	 * <li>the type inference will not be dumped</li>
 	 * <li>the results of the analysis will not be dumped</li>
 	 * <li>the json report will not be dumped</li>
+	 * <li>fixpoints over different {@link CFG}s are computed sequentially</li>
+	 * <li>fixpoints over each {@link CFG} use the
+	 * {@link IterationStrategy#WORKLIST} strategy</li>
+	 * <li>dead variables are not removed from the states computed by
+	 * fixpoints</li>
+	 * <li>fixpoints do not perform descending iterations</li>
+	 * <li>fixpoints apply widening after
+	 * {@link FixpointGraph#DEFAULT_WIDENING_THRESHOLD} evaluations of the same
+	 * statement</li>
+	 * <li>fixpoints are not bounded in time, number of evaluations and heap
+	 * usage</li>
+	 * <li>no {@link CancellationToken} is set for the analysis</li>
+	 * <li>statistics about fixpoint computations will not be dumped, and
+	 * {@link #DEFAULT_STATISTICS_TOP_N} cfgs and statements are listed when
+	 * they are</li>
+	 * <li>the trace of the phases of the analysis will not be dumped</li>
+	 * <li>the operations of the domains of the analysis are not profiled</li>
+	 * <li>semantic checks are executed after the fixpoint over the whole
+	 * program, when the results of all {@link CFG}s are available</li>
+	 * <li>checks are executed sequentially</li>
+	 * <li>results of fixpoints are not cached, and the cache can grow up to
+	 * {@link #DEFAULT_RESULTS_CACHE_SIZE} bytes when they are</li>
+	 * <li>states are stored in the cache through a
+	 * {@link BinaryStateCodec}</li>
 	 * </ul>
 	 */
 	public LiSAConfiguration() {
 		this.syntacticChecks = Collections.newSetFromMap(new ConcurrentHashMap<>());
 		this.semanticChecks = Collections.newSetFromMap(new ConcurrentHashMap<>());
 		this.workdir = Paths.get(".").toAbsolutePath().normalize().toString();
+		this.parallelism = 1;
+		this.iterationStrategy = IterationStrategy.WORKLIST;
+		this.pruneDeadVariables = false;
+		this.descendingRounds = 0;
+		this.wideningThreshold = FixpointGraph.DEFAULT_WIDENING_THRESHOLD;
+		this.cfgTimeout = 0;
+		this.cfgEvaluationsLimit = 0;
+		this.analysisTimeout = 0;
+		this.analysisEvaluationsLimit = 0;
+		this.heapThreshold = 0;
+		this.dumpStatistics = false;
+		this.statisticsTopN = DEFAULT_STATISTICS_TOP_N;
+		this.dumpTrace = false;
+		this.profileDomains = false;
+		this.streamingChecks = false;
+		this.parallelChecks = false;
+		this.resultsCacheSize = DEFAULT_RESULTS_CACHE_SIZE;
+		this.stateCodec = new BinaryStateCodec();
 	}
 
 	/**
@@ -188,6 +371,30 @@ public class LiSAConfiguration {
 		return this;
 	}
 
+	/**
+	 * Sets whether or not type inference, if enabled through
+	 * {@link #setInferTypes(boolean)}, should be executed in the same fixpoint
+	 * of the semantic analysis. If this is the case, the abstract state of the
+	 * analysis is decorated with a {@link TypeInferringState}, that infers
+	 * types alongside the analysis, instead of running a separate whole-program
+	 * fixpoint before it. Calls are resolved as the analysis goes, using the
+	 * types that the running fixpoint inferred for their parameters, and the
+	 * symbolic expressions evaluated by the analysis carry the types inferred
+	 * for them. Since expressions are shared among the fixpoints that might run
+	 * in parallel, the inferred types are stored in the expressions of each cfg
+	 * only once its fixpoint has completed. This has no effect if no abstract
+	 * state is set. Any existing value is overwritten.
+	 * 
+	 * @param fuseTypeInference if {@code true}, type inference will be run
+	 *                              together with the semantic analysis
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setFuseTypeInference(boolean fuseTypeInference) {
+		this.fuseTypeInference = fuseTypeInference;
+		return this;
+	}
+
 	/**
 	 * Sets whether or not dot files, named {@code <cfg name>.dot}, should be
 	 * created and dumped in the working directory at the start of the
@@ -286,6 +493,398 @@ public class LiSAConfiguration {
 		return this;
 	}
 
+	/**
+	 * Sets the number of threads that can be used for computing fixpoints over
+	 * independent {@link CFG}s. With a value of {@code 1}, each {@link CFG} is
+	 * analyzed sequentially, in the thread that is executing LiSA. Higher
+	 * values enable the {@link CallGraph}s that support it to spread the
+	 * computation over a pool of worker threads: the results of the analysis,
+	 * as well as the order of the generated {@link Warning}s, are the same as
+	 * the ones of the sequential execution.
+	 * 
+	 * @param parallelism the number of threads to use, must be strictly
+	 *                        positive
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code parallelism} is not strictly
+	 *                                      positive
+	 */
+	public LiSAConfiguration setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism level must be strictly positive: " + parallelism);
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link IterationStrategy} that will be used for choosing the
+	 * order in which statements are evaluated during fixpoint computations over
+	 * each {@link CFG}. Any existing value is overwritten.
+	 * 
+	 * @param iterationStrategy the strategy to use
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setIterationStrategy(IterationStrategy iterationStrategy) {
+		this.iterationStrategy = iterationStrategy;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not the variables that are not live before a statement
+	 * (see {@link CFG#getLiveness()}) should be removed from the states flowing
+	 * into it during fixpoint computations. This yields smaller states, while
+	 * the values of live variables are not affected. Note that dead variables
+	 * will not appear in the dumped results of the analysis.
+	 * 
+	 * @param pruneDeadVariables whether or not dead variables should be pruned
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setPruneDeadVariables(boolean pruneDeadVariables) {
+		this.pruneDeadVariables = pruneDeadVariables;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of descending iterations that fixpoint
+	 * computations over each {@link CFG} perform after reaching a
+	 * post-fixpoint. Each iteration re-evaluates all statements, composing the
+	 * new results with the previous ones through
+	 * {@link Lattice#narrowing(Lattice)}: this recovers part of the precision
+	 * lost through widening (e.g., the bounds of loop counters) without
+	 * delaying the widening itself. Any existing value is overwritten.
+	 * 
+	 * @param descendingRounds the maximum number of descending iterations,
+	 *                             {@code 0} to disable them
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code descendingRounds} is negative
+	 */
+	public LiSAConfiguration setDescendingRounds(int descendingRounds) {
+		if (descendingRounds < 0)
+			throw new IllegalArgumentException("The number of descending rounds cannot be negative");
+		this.descendingRounds = descendingRounds;
+		return this;
+	}
+
+	/**
+	 * Sets the number of times a statement is evaluated, during fixpoint
+	 * computations over each {@link CFG}, before its results are composed
+	 * through {@link Lattice#widening(Lattice)} instead of
+	 * {@link Lattice#lub(Lattice)}. Any existing value is overwritten.
+	 * 
+	 * @param wideningThreshold the widening threshold, {@code 0} to
+	 *                              <b>always</b> use
+	 *                              {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code wideningThreshold} is negative
+	 */
+	public LiSAConfiguration setWideningThreshold(int wideningThreshold) {
+		if (wideningThreshold < 0)
+			throw new IllegalArgumentException("The widening threshold cannot be negative");
+		this.wideningThreshold = wideningThreshold;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum time, in milliseconds, that can be spent computing the
+	 * fixpoint over a single {@link CFG}. When the time expires, the results of
+	 * the {@link CFG} are set to top, and a warning is generated. Any existing
+	 * value is overwritten.
+	 * 
+	 * @param cfgTimeout the timeout in milliseconds, {@code 0} for no timeout
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code cfgTimeout} is negative
+	 */
+	public LiSAConfiguration setCFGTimeout(long cfgTimeout) {
+		if (cfgTimeout < 0)
+			throw new IllegalArgumentException("The timeout cannot be negative");
+		this.cfgTimeout = cfgTimeout;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of statement evaluations that can be performed
+	 * while computing the fixpoint over a single {@link CFG}. When the limit is
+	 * reached, the results of the {@link CFG} are set to top, and a warning is
+	 * generated. Any existing value is overwritten.
+	 * 
+	 * @param cfgEvaluationsLimit the maximum number of evaluations, {@code 0}
+	 *                                for no limit
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code cfgEvaluationsLimit} is
+	 *                                      negative
+	 */
+	public LiSAConfiguration setCFGEvaluationsLimit(long cfgEvaluationsLimit) {
+		if (cfgEvaluationsLimit < 0)
+			throw new IllegalArgumentException("The limit of evaluations cannot be negative");
+		this.cfgEvaluationsLimit = cfgEvaluationsLimit;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum time, in milliseconds, that can be spent computing all
+	 * the fixpoints of the analysis, including type inference. When the time
+	 * expires, the results of all the {@link CFG}s that have not been analyzed
+	 * yet are set to top, and a warning is generated for each of them. Any
+	 * existing value is overwritten.
+	 * 
+	 * @param analysisTimeout the timeout in milliseconds, {@code 0} for no
+	 *                            timeout
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code analysisTimeout} is negative
+	 */
+	public LiSAConfiguration setAnalysisTimeout(long analysisTimeout) {
+		if (analysisTimeout < 0)
+			throw new IllegalArgumentException("The timeout cannot be negative");
+		this.analysisTimeout = analysisTimeout;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of statement evaluations that can be performed by
+	 * all the fixpoints of the analysis, including type inference. When the
+	 * limit is reached, the results of all the {@link CFG}s that have not been
+	 * analyzed yet are set to top, and a warning is generated for each of them.
+	 * Any existing value is overwritten.
+	 * 
+	 * @param analysisEvaluationsLimit the maximum number of evaluations,
+	 *                                     {@code 0} for no limit
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code analysisEvaluationsLimit} is
+	 *                                      negative
+	 */
+	public LiSAConfiguration setAnalysisEvaluationsLimit(long analysisEvaluationsLimit) {
+		if (analysisEvaluationsLimit < 0)
+			throw new IllegalArgumentException("The limit of evaluations cannot be negative");
+		this.analysisEvaluationsLimit = analysisEvaluationsLimit;
+		return this;
+	}
+
+	/**
+	 * Sets the fraction of the maximum heap size (see
+	 * {@link Runtime#maxMemory()}) that, once exceeded, interrupts the running
+	 * fixpoint computation. The results of the {@link CFG} being analyzed are
+	 * then set to top, and a warning is generated. The heap usage is checked
+	 * periodically, and not before each statement evaluation. Any existing
+	 * value is overwritten.
+	 * 
+	 * @param heapThreshold the threshold, between {@code 0} (excluded) and
+	 *                          {@code 1} (included), or {@code 0} for no
+	 *                          threshold
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code heapThreshold} is not between
+	 *                                      {@code 0} and {@code 1}
+	 */
+	public LiSAConfiguration setHeapThreshold(double heapThreshold) {
+		if (heapThreshold < 0 || heapThreshold > 1)
+			throw new IllegalArgumentException("The heap threshold must be between 0 and 1");
+		this.heapThreshold = heapThreshold;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link CancellationToken} that can be used to abort the
+	 * analysis. Any existing value is overwritten.
+	 * 
+	 * @param cancellationToken the token, or {@code null} to make the analysis
+	 *                              not cancellable
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not statistics about fixpoint computations should be
+	 * collected and dumped in the {@code analysis-stats.json} file. The file
+	 * lists, for type inference and for the analysis, the
+	 * {@link #getStatisticsTopN()} cfgs and statements where the evaluation of
+	 * the semantics took the most time, together with their number of
+	 * evaluations, lubs and widenings, and the size of their largest state.
+	 * When disabled, no statistic is collected. Any existing value is
+	 * overwritten.
+	 * 
+	 * @param dumpStatistics whether or not statistics should be dumped
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setDumpStatistics(boolean dumpStatistics) {
+		this.dumpStatistics = dumpStatistics;
+		return this;
+	}
+
+	/**
+	 * Sets the number of cfgs and statements listed in the dumped statistics
+	 * (see {@link #setDumpStatistics(boolean)}). Any existing value is
+	 * overwritten.
+	 * 
+	 * @param statisticsTopN the number of cfgs and statements, must be positive
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code statisticsTopN} is not
+	 *                                      positive
+	 */
+	public LiSAConfiguration setStatisticsTopN(int statisticsTopN) {
+		if (statisticsTopN <= 0)
+			throw new IllegalArgumentException("The number of listed cfgs and statements must be positive");
+		this.statisticsTopN = statisticsTopN;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not the phases of the analysis (e.g., call graph
+	 * construction, type inference, the fixpoint over each cfg, the execution
+	 * of checks) should be traced and dumped in the {@code analysis-trace.json}
+	 * file, using the Chrome trace event format. Regardless of this setting,
+	 * phases are always emitted as JDK Flight Recorder events, that are
+	 * recorded if a Flight Recorder recording is active. Any existing value is
+	 * overwritten.
+	 * 
+	 * @param dumpTrace whether or not the trace should be dumped
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setDumpTrace(boolean dumpTrace) {
+		this.dumpTrace = dumpTrace;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not the operations of the domains of the analysis should
+	 * be profiled. If this is the case, the abstract state set through
+	 * {@link #setAbstractState(AbstractState)} is decorated by each analysis
+	 * with the profiling decorators of
+	 * {@link it.unive.lisa.analysis.profiling.DomainProfiler}, and the time
+	 * spent in each operation of each domain is dumped in the
+	 * {@code domain-profile.json} file. Any existing value is overwritten.
+	 * 
+	 * @param profileDomains whether or not domains should be profiled
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setProfileDomains(boolean profileDomains) {
+		this.profileDomains = profileDomains;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not the analysis should stream the results of each
+	 * {@link CFG} to the semantic checks. If this is the case, the per-cfg
+	 * callbacks of the checks are executed on each {@link CFG} as soon as its
+	 * fixpoint completes, and its results are released right after (also
+	 * dumping them if {@link #isDumpAnalysis()} holds), so that only the
+	 * results of the cfgs being analyzed are kept in memory. Globals,
+	 * compilation units and {@link SemanticCheck#afterExecution(Object)} are
+	 * then visited once the whole program has been analyzed. When checks are
+	 * streamed, the per-cfg callbacks of the checks cannot inspect the results
+	 * of other cfgs. Any existing value is overwritten.
+	 * 
+	 * @param streamingChecks whether or not results should be streamed to the
+	 *                            semantic checks
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setStreamingChecks(boolean streamingChecks) {
+		this.streamingChecks = streamingChecks;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not syntactic and semantic checks should be executed on
+	 * different {@link CFG}s and compilation units in parallel, using
+	 * {@link #getParallelism()} worker threads. If this is the case, the
+	 * callbacks of the checks might be invoked concurrently and must thus be
+	 * thread-safe. The generated {@link Warning}s are the same as the ones of
+	 * the sequential execution, and are reported in the same order. Any
+	 * existing value is overwritten.
+	 * 
+	 * @param parallelChecks whether or not checks should be executed in
+	 *                           parallel
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setParallelChecks(boolean parallelChecks) {
+		this.parallelChecks = parallelChecks;
+		return this;
+	}
+
+	/**
+	 * Sets the directory of the persistent cache of the results of fixpoints
+	 * over each {@link CFG} (see {@link ResultsCache}). If the path is
+	 * relative, it is resolved against the workdir. Results are looked up in
+	 * the cache before computing a fixpoint, and stored in it afterwards, so
+	 * that executions over a program where only some cfgs changed only
+	 * recompute the fixpoints over those. Results are only cached if the
+	 * {@link StateCodec} set through {@link #setStateCodec(StateCodec)} can
+	 * encode the states of the analysis, and if the {@link CallGraph} analyzes
+	 * each cfg in isolation (e.g.,
+	 * {@link it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph}).
+	 * Any existing value is overwritten.
+	 * 
+	 * @param resultsCache the directory of the cache, or {@code null} to not
+	 *                         cache results
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setResultsCache(String resultsCache) {
+		this.resultsCache = resultsCache;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum size, in bytes, of the cache of the results (see
+	 * {@link #setResultsCache(String)}). Once exceeded, the least recently used
+	 * results are evicted from the cache. Any existing value is overwritten.
+	 * 
+	 * @param resultsCacheSize the maximum size, must be positive
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code resultsCacheSize} is not
+	 *                                      positive
+	 */
+	public LiSAConfiguration setResultsCacheSize(long resultsCacheSize) {
+		if (resultsCacheSize <= 0)
+			throw new IllegalArgumentException("The maximum size of the results cache must be positive");
+		this.resultsCacheSize = resultsCacheSize;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link StateCodec} used to store and load states in the cache of
+	 * the results (see {@link #setResultsCache(String)}). The codec must be
+	 * able to handle the states of both the analysis and the type inference:
+	 * the default {@link BinaryStateCodec} handles the domains provided by
+	 * LiSA. Any existing value is overwritten.
+	 * 
+	 * @param stateCodec the codec, or {@code null} to not cache results
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setStateCodec(StateCodec stateCodec) {
+		this.stateCodec = stateCodec;
+		return this;
+	}
+
 	/**
 	 * Yields the {@link CallGraph} for the analysis. Might be {@code null} if
 	 * none was set,
@@ -335,6 +934,16 @@ public class LiSAConfiguration {
 		return inferTypes;
 	}
 
+	/**
+	 * Yields whether or not type inference should be run in the same fixpoint
+	 * of the semantic analysis.
+	 * 
+	 * @return {@code true} if type inference should be fused with the analysis
+	 */
+	public boolean isFuseTypeInference() {
+		return fuseTypeInference;
+	}
+
 	/**
 	 * Yields whether or not the input program should be dumped in the form of
 	 * dot files representing single {@link CFG}s.
@@ -385,6 +994,207 @@ public class LiSAConfiguration {
 		return workdir;
 	}
 
+	/**
+	 * Yields the number of threads that can be used for computing fixpoints
+	 * over independent {@link CFG}s.
+	 * 
+	 * @return the parallelism level
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Yields the {@link IterationStrategy} used for choosing the order in which
+	 * statements are evaluated during fixpoint computations over each
+	 * {@link CFG}.
+	 * 
+	 * @return the iteration strategy
+	 */
+	public IterationStrategy getIterationStrategy() {
+		return iterationStrategy;
+	}
+
+	/**
+	 * Yields whether or not the variables that are not live before a statement
+	 * should be removed from the states flowing into it during fixpoint
+	 * computations.
+	 * 
+	 * @return {@code true} if dead variables should be pruned
+	 */
+	public boolean isPruneDeadVariables() {
+		return pruneDeadVariables;
+	}
+
+	/**
+	 * Yields the maximum number of descending iterations that fixpoint
+	 * computations perform after reaching a post-fixpoint.
+	 * 
+	 * @return the maximum number of descending iterations
+	 */
+	public int getDescendingRounds() {
+		return descendingRounds;
+	}
+
+	/**
+	 * Yields the number of times a statement is evaluated, during fixpoint
+	 * computations, before widening is applied to its results.
+	 * 
+	 * @return the widening threshold
+	 */
+	public int getWideningThreshold() {
+		return wideningThreshold;
+	}
+
+	/**
+	 * Yields the maximum time, in milliseconds, that can be spent computing the
+	 * fixpoint over a single {@link CFG}.
+	 * 
+	 * @return the timeout, {@code 0} if there is no timeout
+	 */
+	public long getCFGTimeout() {
+		return cfgTimeout;
+	}
+
+	/**
+	 * Yields the maximum number of statement evaluations that can be performed
+	 * while computing the fixpoint over a single {@link CFG}.
+	 * 
+	 * @return the limit, {@code 0} if there is no limit
+	 */
+	public long getCFGEvaluationsLimit() {
+		return cfgEvaluationsLimit;
+	}
+
+	/**
+	 * Yields the maximum time, in milliseconds, that can be spent computing all
+	 * the fixpoints of the analysis.
+	 * 
+	 * @return the timeout, {@code 0} if there is no timeout
+	 */
+	public long getAnalysisTimeout() {
+		return analysisTimeout;
+	}
+
+	/**
+	 * Yields the maximum number of statement evaluations that can be performed
+	 * by all the fixpoints of the analysis.
+	 * 
+	 * @return the limit, {@code 0} if there is no limit
+	 */
+	public long getAnalysisEvaluationsLimit() {
+		return analysisEvaluationsLimit;
+	}
+
+	/**
+	 * Yields the fraction of the maximum heap size that, once exceeded,
+	 * interrupts the running fixpoint computation.
+	 * 
+	 * @return the threshold, {@code 0} if there is no threshold
+	 */
+	public double getHeapThreshold() {
+		return heapThreshold;
+	}
+
+	/**
+	 * Yields the {@link CancellationToken} that can be used to abort the
+	 * analysis.
+	 * 
+	 * @return the token, or {@code null} if the analysis is not cancellable
+	 */
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * Yields whether or not statistics about fixpoint computations should be
+	 * collected and dumped.
+	 * 
+	 * @return {@code true} if statistics should be dumped
+	 */
+	public boolean isDumpStatistics() {
+		return dumpStatistics;
+	}
+
+	/**
+	 * Yields the number of cfgs and statements listed in the dumped statistics.
+	 * 
+	 * @return the number of cfgs and statements
+	 */
+	public int getStatisticsTopN() {
+		return statisticsTopN;
+	}
+
+	/**
+	 * Yields whether or not the phases of the analysis should be traced and
+	 * dumped.
+	 * 
+	 * @return {@code true} if the trace should be dumped
+	 */
+	public boolean isDumpTrace() {
+		return dumpTrace;
+	}
+
+	/**
+	 * Yields whether or not the operations of the domains of the analysis
+	 * should be profiled.
+	 * 
+	 * @return {@code true} if domains should be profiled
+	 */
+	public boolean isProfileDomains() {
+		return profileDomains;
+	}
+
+	/**
+	 * Yields whether or not the results of each {@link CFG} should be streamed
+	 * to the semantic checks as soon as its fixpoint completes, and released
+	 * afterwards.
+	 * 
+	 * @return {@code true} if results should be streamed
+	 */
+	public boolean isStreamingChecks() {
+		return streamingChecks;
+	}
+
+	/**
+	 * Yields whether or not checks should be executed on different {@link CFG}s
+	 * and compilation units in parallel.
+	 * 
+	 * @return {@code true} if checks should be executed in parallel
+	 */
+	public boolean isParallelChecks() {
+		return parallelChecks;
+	}
+
+	/**
+	 * Yields the directory of the cache of the results of fixpoints over each
+	 * {@link CFG}. Might be {@code null} if results should not be cached.
+	 * 
+	 * @return the directory of the cache
+	 */
+	public String getResultsCache() {
+		return resultsCache;
+	}
+
+	/**
+	 * Yields the maximum size, in bytes, of the cache of the results.
+	 * 
+	 * @return the maximum size
+	 */
+	public long getResultsCacheSize() {
+		return resultsCacheSize;
+	}
+
+	/**
+	 * Yields the {@link StateCodec} used to store and load states in the cache
+	 * of the results. Might be {@code null} if none was set.
+	 * 
+	 * @return the codec
+	 */
+	public StateCodec getStateCodec() {
+		return stateCodec;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -394,7 +1204,29 @@ public class LiSAConfiguration {
 		result = prime * result + (dumpCFGs ? 1231 : 1237);
 		result = prime * result + (dumpTypeInference ? 1231 : 1237);
 		result = prime * result + (inferTypes ? 1231 : 1237);
+		result = prime * result + (fuseTypeInference ? 1231 : 1237);
 		result = prime * result + (jsonOutput ? 1231 : 1237);
+		result = prime * result + parallelism;
+		result = prime * result + ((iterationStrategy == null) ? 0 : iterationStrategy.hashCode());
+		result = prime * result + (pruneDeadVariables ? 1231 : 1237);
+		result = prime * result + descendingRounds;
+		result = prime * result + wideningThreshold;
+		result = prime * result + (int) (cfgTimeout ^ (cfgTimeout >>> 32));
+		result = prime * result + (int) (cfgEvaluationsLimit ^ (cfgEvaluationsLimit >>> 32));
+		result = prime * result + (int) (analysisTimeout ^ (analysisTimeout >>> 32));
+		result = prime * result + (int) (analysisEvaluationsLimit ^ (analysisEvaluationsLimit >>> 32));
+		long temp = Double.doubleToLongBits(heapThreshold);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + ((cancellationToken == null) ? 0 : cancellationToken.hashCode());
+		result = prime * result + (dumpStatistics ? 1231 : 1237);
+		result = prime * result + statisticsTopN;
+		result = prime * result + (dumpTrace ? 1231 : 1237);
+		result = prime * result + (profileDomains ? 1231 : 1237);
+		result = prime * result + (streamingChecks ? 1231 : 1237);
+		result = prime * result + (parallelChecks ? 1231 : 1237);
+		result = prime * result + ((resultsCache == null) ? 0 : resultsCache.hashCode());
+		result = prime * result + (int) (resultsCacheSize ^ (resultsCacheSize >>> 32));
+		result = prime * result + ((stateCodec == null) ? 0 : stateCodec.hashCode());
 		result = prime * result + ((state == null) ? 0 : state.hashCode());
 		result = prime * result + ((syntacticChecks == null) ? 0 : syntacticChecks.hashCode());
 		result = prime * result + ((semanticChecks == null) ? 0 : semanticChecks.hashCode());
@@ -424,8 +1256,56 @@ public class LiSAConfiguration {
 			return false;
 		if (inferTypes != other.inferTypes)
 			return false;
+		if (fuseTypeInference != other.fuseTypeInference)
+			return false;
 		if (jsonOutput != other.jsonOutput)
 			return false;
+		if (parallelism != other.parallelism)
+			return false;
+		if (iterationStrategy != other.iterationStrategy)
+			return false;
+		if (pruneDeadVariables != other.pruneDeadVariables)
+			return false;
+		if (descendingRounds != other.descendingRounds)
+			return false;
+		if (wideningThreshold != other.wideningThreshold)
+			return false;
+		if (cfgTimeout != other.cfgTimeout)
+			return false;
+		if (cfgEvaluationsLimit != other.cfgEvaluationsLimit)
+			return false;
+		if (analysisTimeout != other.analysisTimeout)
+			return false;
+		if (analysisEvaluationsLimit != other.analysisEvaluationsLimit)
+			return false;
+		if (Double.doubleToLongBits(heapThreshold) != Double.doubleToLongBits(other.heapThreshold))
+			return false;
+		if (cancellationToken != other.cancellationToken)
+			return false;
+		if (dumpStatistics != other.dumpStatistics)
+			return false;
+		if (statisticsTopN != other.statisticsTopN)
+			return false;
+		if (dumpTrace != other.dumpTrace)
+			return false;
+		if (profileDomains != other.profileDomains)
+			return false;
+		if (streamingChecks != other.streamingChecks)
+			return false;
+		if (parallelChecks != other.parallelChecks)
+			return false;
+		if (resultsCache == null) {
+			if (other.resultsCache != null)
+				return false;
+		} else if (!resultsCache.equals(other.resultsCache))
+			return false;
+		if (resultsCacheSize != other.resultsCacheSize)
+			return false;
+		if (stateCodec == null) {
+			if (other.stateCodec != null)
+				return false;
+		} else if (!stateCodec.equals(other.stateCodec))
+			return false;
 		if (state == null) {
 			if (other.state != null)
 				return false;
@@ -454,10 +1334,29 @@ public class LiSAConfiguration {
 		String res = "LiSA configuration:" +
 				"\n  workdir: " + String.valueOf(workdir) +
 				"\n  dump input cfgs: " + dumpCFGs +
-				"\n  infer types: " + inferTypes +
+				"\n  infer types: " + inferTypes + (inferTypes && fuseTypeInference ? " (fused)" : "") +
 				"\n  dump inferred types: " + dumpTypeInference +
 				"\n  dump analysis results: " + dumpAnalysis +
 				"\n  dump json report: " + jsonOutput +
+				"\n  parallelism: " + parallelism +
+				"\n  iteration strategy: " + iterationStrategy +
+				"\n  prune dead variables: " + pruneDeadVariables +
+				"\n  descending rounds: " + descendingRounds +
+				"\n  widening threshold: " + wideningThreshold +
+				"\n  cfg timeout: " + (cfgTimeout == 0 ? "none" : cfgTimeout + "ms") +
+				"\n  cfg evaluations limit: " + (cfgEvaluationsLimit == 0 ? "none" : cfgEvaluationsLimit) +
+				"\n  analysis timeout: " + (analysisTimeout == 0 ? "none" : analysisTimeout + "ms") +
+				"\n  analysis evaluations limit: "
+				+ (analysisEvaluationsLimit == 0 ? "none" : analysisEvaluationsLimit) +
+				"\n  heap threshold: " + (heapThreshold == 0 ? "none" : heapThreshold) +
+				"\n  cancellable: " + (cancellationToken != null) +
+				"\n  dump statistics: " + dumpStatistics + (dumpStatistics ? " (top " + statisticsTopN + ")" : "") +
+				"\n  dump trace: " + dumpTrace +
+				"\n  profile domains: " + profileDomains +
+				"\n  streaming checks: " + streamingChecks +
+				"\n  parallel checks: " + parallelChecks +
+				"\n  results cache: "
+				+ (resultsCache == null ? "none" : resultsCache + " (max " + resultsCacheSize + " bytes)") +
 				"\n  " + syntacticChecks.size() + " syntactic checks to execute"
 				+ (syntacticChecks.isEmpty() ? "" : ":");
 		for (SyntacticCheck check : syntacticChecks)
@@ -126,6 +126,11 @@ public class AnalysisState<A extends AbstractState<A, H, V>, H extends HeapDomai
 		return new AnalysisState<>(state.widening(other.state), computedExpressions.lub(other.computedExpressions));
 	}
 
+	@Override
+	public AnalysisState<A, H, V> narrowing(AnalysisState<A, H, V> other) throws SemanticException {
+		return new AnalysisState<>(state.narrowing(other.state), computedExpressions.lub(other.computedExpressions));
+	}
+
 	@Override
 	public boolean lessOrEqual(AnalysisState<A, H, V> other) throws SemanticException {
 		return state.lessOrEqual(other.state);
@@ -45,6 +45,32 @@ public interface Lattice<L extends Lattice<L>> {
 	 */
 	L widening(L other) throws SemanticException;
 
+	/**
+	 * Performs the narrowing operation between this lattice element and the
+	 * given one. This operation is not commutative, and it is meant to refine a
+	 * post-fixpoint reached through {@link #widening(Lattice)}: given that
+	 * {@code other} is the result of re-applying the semantics to {@code this},
+	 * the result should lay between {@code other} and {@code this}.<br>
+	 * <br>
+	 * Lattices that define a greatest lower bound should use it as narrowing if
+	 * they do not define a specific one. Since a greatest lower bound is not
+	 * part of this interface, the default implementation yields {@code other}
+	 * if it is less or equal than {@code this} (that is, the greatest lower
+	 * bound of the two elements), and {@code this} otherwise.
+	 *
+	 * @param other the other lattice element
+	 *
+	 * @return the narrowing between this and other
+	 *
+	 * @throws SemanticException if an error occurs during the computation
+	 */
+	@SuppressWarnings("unchecked")
+	public default L narrowing(L other) throws SemanticException {
+		if (other != null && other.lessOrEqual((L) this))
+			return other;
+		return (L) this;
+	}
+
 	/**
 	 * Yields {@code true} if and only if this lattice element is in relation
 	 * with (usually represented through &le;) the given one. This operation is
@@ -0,0 +1,21 @@
+package it.unive.lisa.analysis;
+
+/**
+ * A {@link Lattice} that decorates another one, e.g. to observe its operations,
+ * while representing exactly the same abstract elements. Code that inspects the
+ * structure of lattice elements (e.g., to measure their size) should look
+ * through decorators by means of {@link #getWrapped()}.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <L> the type of the decorated {@link Lattice}
+ */
+public interface LatticeDecorator<L extends Lattice<L>> {
+
+	/**
+	 * Yields the decorated lattice element.
+	 * 
+	 * @return the decorated element
+	 */
+	L getWrapped();
+}
@@ -6,10 +6,14 @@ import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
 import it.unive.lisa.analysis.impl.numeric.Interval;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 
 /**
  * An abstract state of the analysis, composed by a heap state modeling the
@@ -23,7 +27,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  */
 @DefaultParameters({ MonolithicHeap.class, Interval.class })
 public class SimpleAbstractState<H extends HeapDomain<H>, V extends ValueDomain<V>>
-		implements AbstractState<SimpleAbstractState<H, V>, H, V> {
+		implements AbstractState<SimpleAbstractState<H, V>, H, V>, BinaryEncodable<SimpleAbstractState<H, V>> {
 
 	/**
 	 * The domain containing information regarding heap structures
@@ -123,6 +127,11 @@ public class SimpleAbstractState<H extends HeapDomain<H>, V extends ValueDomain<
 		return new SimpleAbstractState<>(heapState.widening(other.heapState), valueState.widening(other.valueState));
 	}
 
+	@Override
+	public SimpleAbstractState<H, V> narrowing(SimpleAbstractState<H, V> other) throws SemanticException {
+		return new SimpleAbstractState<>(heapState.narrowing(other.heapState), valueState.narrowing(other.valueState));
+	}
+
 	@Override
 	public boolean lessOrEqual(SimpleAbstractState<H, V> other) throws SemanticException {
 		return heapState.lessOrEqual(other.heapState) && valueState.lessOrEqual(other.valueState);
@@ -184,6 +193,18 @@ public class SimpleAbstractState<H extends HeapDomain<H>, V extends ValueDomain<
 		return true;
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		out.writeDomain(heapState);
+		out.writeDomain(valueState);
+	}
+
+	@Override
+	public SimpleAbstractState<H, V> decode(StateReader in) throws IOException {
+		H heap = in.readDomain(heapState);
+		return new SimpleAbstractState<>(heap, in.readDomain(valueState));
+	}
+
 	@Override
 	public String representation() {
 		return "heap [[ " + heapState.representation() + " ]]\nvalue [[ " + valueState.representation() + " ]]";
@@ -3,9 +3,13 @@ package it.unive.lisa.analysis.combination;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 
 /**
  * A Cartesian product between two non-communicating {@link ValueDomain}s (i.e.,
@@ -21,7 +25,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  */
 public class ValueCartesianProduct<T1 extends ValueDomain<T1>, T2 extends ValueDomain<T2>>
 		extends CartesianProduct<T1, T2, ValueExpression, Identifier>
-		implements ValueDomain<ValueCartesianProduct<T1, T2>> {
+		implements ValueDomain<ValueCartesianProduct<T1, T2>>, BinaryEncodable<ValueCartesianProduct<T1, T2>> {
 
 	/**
 	 * Builds the value Cartesian product.
@@ -68,6 +72,19 @@ public class ValueCartesianProduct<T1 extends ValueDomain<T1>, T2 extends ValueD
 		return left.satisfies(expression, pp).and(right.satisfies(expression, pp));
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		out.writeDomain(left);
+		out.writeDomain(right);
+	}
+
+	@Override
+	public ValueCartesianProduct<T1, T2> decode(StateReader in) throws IOException {
+		T1 newLeft = in.readDomain(left);
+		T2 newRight = in.readDomain(right);
+		return new ValueCartesianProduct<T1, T2>(newLeft, newRight);
+	}
+
 	@Override
 	public String toString() {
 		return representation();
@@ -105,6 +122,11 @@ public class ValueCartesianProduct<T1 extends ValueDomain<T1>, T2 extends ValueD
 		return new ValueCartesianProduct<T1, T2>(left.widening(other.left), right.widening(other.right));
 	}
 
+	@Override
+	public ValueCartesianProduct<T1, T2> narrowing(ValueCartesianProduct<T1, T2> other) throws SemanticException {
+		return new ValueCartesianProduct<T1, T2>(left.narrowing(other.left), right.narrowing(other.right));
+	}
+
 	@Override
 	public boolean lessOrEqual(ValueCartesianProduct<T1, T2> other) throws SemanticException {
 		return left.lessOrEqual(other.left) && right.lessOrEqual(other.right);
@@ -0,0 +1,90 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The numbering of the {@link DataflowElement}s generated during an analysis,
+ * used by dataflow domains working in bit-vector mode. Each element is numbered
+ * the first time it is generated through an {@link ExternalSetCache}, so that
+ * sets of elements can be represented as {@link ExternalSet}s sharing such
+ * cache, where unions, intersections, differences and inclusions are computed
+ * word by word. For each {@link Identifier}, this index also keeps the set of
+ * elements associated with it, that is used as mask for the <i>kill</i>
+ * operation.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <E> the type of {@link DataflowElement}s numbered by this index
+ */
+final class DataflowElementIndex<E extends DataflowElement<?, E>> {
+
+	private final ExternalSetCache<E> cache;
+
+	/**
+	 * The elements associated with each identifier, indexed by
+	 * {@link DataflowElement#getIdentifier()}
+	 */
+	private final Map<Identifier, ExternalSet<E>> byIdentifier;
+
+	/**
+	 * Builds an empty index.
+	 */
+	DataflowElementIndex() {
+		this.cache = new ExternalSetCache<>();
+		this.byIdentifier = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields an empty set of elements.
+	 *
+	 * @return the empty set
+	 */
+	ExternalSet<E> mkEmptySet() {
+		return cache.mkEmptySet();
+	}
+
+	/**
+	 * Yields the set containing the given elements, numbering the ones that
+	 * have never been seen before. If {@code elements} already is an
+	 * {@link ExternalSet} built by this index, it is returned as-is.
+	 *
+	 * @param elements the elements
+	 *
+	 * @return the set containing the elements
+	 */
+	ExternalSet<E> mkSet(Collection<E> elements) {
+		if (elements instanceof ExternalSet && ((ExternalSet<E>) elements).getCache() == cache)
+			return (ExternalSet<E>) elements;
+
+		ExternalSet<E> result = cache.mkEmptySet();
+		for (E e : elements)
+			if (result.add(e) && e.getIdentifier() != null) {
+				ExternalSet<E> single = cache.mkSingletonSet(e);
+				byIdentifier.merge(e.getIdentifier(), single, (prev, cur) -> prev.contains(e) ? prev : prev.union(cur));
+			}
+		return result;
+	}
+
+	/**
+	 * Yields the set of all the elements numbered so far that are associated
+	 * with one of the given identifiers.
+	 *
+	 * @param ids the identifiers
+	 *
+	 * @return the set of elements associated with {@code ids}
+	 */
+	ExternalSet<E> elementsOf(Collection<Identifier> ids) {
+		ExternalSet<E> result = null;
+		for (Identifier id : ids) {
+			ExternalSet<E> elements = byIdentifier.get(id);
+			if (elements != null)
+				result = result == null ? elements : result.union(elements);
+		}
+		return result == null ? cache.mkEmptySet() : result;
+	}
+}
@@ -5,7 +5,9 @@ import it.unive.lisa.analysis.lattices.InverseSetLattice;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Set;
@@ -16,7 +18,13 @@ import java.util.TreeSet;
  * A {@link DataflowDomain} for <b>forward</b> and <b>definite</b> dataflow
  * analysis. Being definite means that this domain is an instance of
  * {@link InverseSetLattice}, i.e., is a set whose join operation is the set
- * intersection.
+ * intersection. <br>
+ * <br>
+ * When built in <i>bit-vector mode</i>, the elements generated during the
+ * analysis are numbered once, and sets of elements are represented as
+ * {@link ExternalSet}s: <i>kill</i>, <i>gen</i> and lattice operations are then
+ * computed word by word on the underlying bit vectors, yielding the same
+ * results of the default representation.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -30,6 +38,12 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	private final E domain;
 
+	/**
+	 * The numbering of the generated elements, or {@code null} if this domain
+	 * is not in bit-vector mode
+	 */
+	private final DataflowElementIndex<E> index;
+
 	/**
 	 * Builds an empty domain.
 	 * 
@@ -37,15 +51,42 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 	 *                   to perform <i>kill</i> and <i>gen</i> operations
 	 */
 	public DefiniteForwardDataflowDomain(E domain) {
-		this(domain, new HashSet<>(), true);
+		this(domain, false);
 	}
 
-	private DefiniteForwardDataflowDomain(E domain, Set<E> elements, boolean isTop) {
+	/**
+	 * Builds an empty domain, optionally in bit-vector mode.
+	 * 
+	 * @param domain     a singleton instance to be used during semantic
+	 *                       operations to perform <i>kill</i> and <i>gen</i>
+	 *                       operations
+	 * @param bitVectors whether or not sets of elements should be represented
+	 *                       as bit vectors
+	 */
+	public DefiniteForwardDataflowDomain(E domain, boolean bitVectors) {
+		this(domain, bitVectors ? new DataflowElementIndex<>() : null, true);
+	}
+
+	private DefiniteForwardDataflowDomain(E domain, DataflowElementIndex<E> index, boolean isTop) {
+		this(domain, index, index == null ? new HashSet<>() : index.mkEmptySet(), isTop);
+	}
+
+	private DefiniteForwardDataflowDomain(E domain, DataflowElementIndex<E> index, Set<E> elements, boolean isTop) {
 		super(elements);
 		this.domain = domain;
+		this.index = index;
 		this.isTop = isTop;
 	}
 
+	/**
+	 * Yields whether or not this domain is in bit-vector mode.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isBitVector() {
+		return index != null;
+	}
+
 	@Override
 	public DefiniteForwardDataflowDomain<E> assign(Identifier id, ValueExpression expression, ProgramPoint pp)
 			throws SemanticException {
@@ -53,11 +94,18 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 		// or if the expression cannot be processed, return this
 		if (!domain.tracksIdentifiers(id) || !domain.canProcess(expression))
 			return this;
+		if (index != null) {
+			ExternalSet<E> killed = ((ExternalSet<E>) elements)
+					.difference(index.elementsOf(domain.kill(id, expression, pp, this)));
+			return new DefiniteForwardDataflowDomain<E>(domain, index,
+					killed.union(index.mkSet(domain.gen(id, expression, pp, this))), false);
+		}
+
 		DefiniteForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this));
 		Set<E> updated = new HashSet<>(killed.elements);
 		for (E generated : domain.gen(id, expression, pp, this))
 			updated.add(generated);
-		return new DefiniteForwardDataflowDomain<E>(domain, updated, false);
+		return new DefiniteForwardDataflowDomain<E>(domain, index, updated, false);
 	}
 
 	@Override
@@ -78,6 +126,9 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 		if (isTop())
 			return this;
 
+		if (index != null)
+			return forgetIdentifiers(Collections.singleton(id));
+
 		Collection<E> toRemove = new LinkedList<>();
 		for (E e : elements)
 			if (e.getIdentifier().equals(id))
@@ -87,7 +138,22 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 			return this;
 		Set<E> updated = new HashSet<>(elements);
 		updated.removeAll(toRemove);
-		return new DefiniteForwardDataflowDomain<E>(domain, updated, false);
+		return new DefiniteForwardDataflowDomain<E>(domain, index, updated, false);
+	}
+
+	@Override
+	public DefiniteForwardDataflowDomain<E> forgetIdentifiers(Collection<Identifier> ids) throws SemanticException {
+		if (index == null)
+			return DataflowDomain.super.forgetIdentifiers(ids);
+
+		if (isTop())
+			return this;
+
+		ExternalSet<E> forgotten = index.elementsOf(ids);
+		ExternalSet<E> set = (ExternalSet<E>) elements;
+		if (!set.intersects(forgotten))
+			return this;
+		return new DefiniteForwardDataflowDomain<E>(domain, index, set.difference(forgotten), false);
 	}
 
 	@Override
@@ -105,7 +171,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> top() {
-		return new DefiniteForwardDataflowDomain<>(domain, new HashSet<>(), true);
+		return new DefiniteForwardDataflowDomain<>(domain, index, true);
 	}
 
 	@Override
@@ -115,7 +181,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> bottom() {
-		return new DefiniteForwardDataflowDomain<>(domain, new HashSet<>(), false);
+		return new DefiniteForwardDataflowDomain<>(domain, index, false);
 	}
 
 	@Override
@@ -125,7 +191,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	protected DefiniteForwardDataflowDomain<E> mk(Set<E> set) {
-		return new DefiniteForwardDataflowDomain<>(domain, set, false);
+		return new DefiniteForwardDataflowDomain<>(domain, index, index == null ? set : index.mkSet(set), false);
 	}
 
 	@Override
@@ -2,6 +2,7 @@ package it.unive.lisa.analysis.heap;
 
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.HeapExpression;
@@ -40,7 +41,8 @@ public abstract class BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLa
 				return sem;
 			H result = bottom();
 			for (ValueExpression expr : sem.getRewrittenExpressions())
-				result = result.lub(mk(sem, new UnaryExpression(expression.getTypes(), expr, unary.getOperator())));
+				result = result.lub(mk(sem, Caches.expressions()
+						.intern(new UnaryExpression(expression.getTypes(), expr, unary.getOperator()))));
 			return result;
 		}
 
@@ -56,7 +58,8 @@ public abstract class BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLa
 			for (ValueExpression expr1 : sem1.getRewrittenExpressions())
 				for (ValueExpression expr2 : sem2.getRewrittenExpressions())
 					result = result.lub(
-							mk(sem2, new BinaryExpression(expression.getTypes(), expr1, expr2, binary.getOperator())));
+							mk(sem2, Caches.expressions().intern(
+									new BinaryExpression(expression.getTypes(), expr1, expr2, binary.getOperator()))));
 			return result;
 		}
 
@@ -75,8 +78,8 @@ public abstract class BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLa
 			for (ValueExpression expr1 : sem1.getRewrittenExpressions())
 				for (ValueExpression expr2 : sem2.getRewrittenExpressions())
 					for (ValueExpression expr3 : sem3.getRewrittenExpressions())
-						result = result.lub(mk(sem3, new TernaryExpression(expression.getTypes(), expr1, expr2, expr3,
-								ternary.getOperator())));
+						result = result.lub(mk(sem3, Caches.expressions().intern(new TernaryExpression(
+								expression.getTypes(), expr1, expr2, expr3, ternary.getOperator()))));
 			return result;
 		}
 
@@ -3,6 +3,10 @@ package it.unive.lisa.analysis.impl.heap;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.BaseHeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.HeapExpression;
@@ -10,6 +14,7 @@ import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.Skip;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -19,7 +24,7 @@ import java.util.List;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class MonolithicHeap extends BaseHeapDomain<MonolithicHeap> {
+public class MonolithicHeap extends BaseHeapDomain<MonolithicHeap> implements BinaryEncodable<MonolithicHeap> {
 
 	private static final MonolithicHeap TOP = new MonolithicHeap();
 
@@ -71,7 +76,8 @@ public class MonolithicHeap extends BaseHeapDomain<MonolithicHeap> {
 	protected MonolithicHeap semanticsOf(HeapExpression expression, ProgramPoint pp) {
 		// any expression accessing an area of the heap or instantiating a new
 		// one is modeled through the monolith
-		return new MonolithicHeap(new HeapLocation(expression.getTypes(), MONOLITH_NAME, true));
+		return new MonolithicHeap(
+				Caches.expressions().intern(new HeapLocation(expression.getTypes(), MONOLITH_NAME, true)));
 	}
 
 	@Override
@@ -121,6 +127,20 @@ public class MonolithicHeap extends BaseHeapDomain<MonolithicHeap> {
 		return "monolith";
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (out.writeKind(this))
+			out.writeExpressions(rewritten);
+	}
+
+	@Override
+	public MonolithicHeap decode(StateReader in) throws IOException {
+		MonolithicHeap kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+		return new MonolithicHeap(in.<ValueExpression>readExpressions());
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
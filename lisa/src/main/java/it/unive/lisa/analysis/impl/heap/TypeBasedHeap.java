@@ -3,7 +3,10 @@ package it.unive.lisa.analysis.impl.heap;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.BaseHeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.caches.BinaryEncodable;
 import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
@@ -15,6 +18,8 @@ import it.unive.lisa.symbolic.value.Skip;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.CollectionUtilities;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -30,7 +35,7 @@ import org.apache.commons.collections.CollectionUtils;
  *
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> {
+public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> implements BinaryEncodable<TypeBasedHeap> {
 
 	private static final TypeBasedHeap TOP = new TypeBasedHeap();
 
@@ -128,7 +133,8 @@ public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> {
 			for (SymbolicExpression o : containerState.getRewrittenExpressions())
 				for (Type type : o.getTypes()) {
 					if (type.isPointerType()) {
-						ids.add(new HeapLocation(access.getTypes(), type.toString(), true));
+						ids.add(Caches.expressions()
+								.intern(new HeapLocation(access.getTypes(), type.toString(), true)));
 						names.add(type.toString());
 					}
 				}
@@ -141,7 +147,8 @@ public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> {
 			Set<String> names = new HashSet<>(this.names);
 			for (Type type : expression.getTypes())
 				if (type.isPointerType()) {
-					ids.add(new HeapLocation(Caches.types().mkSingletonSet(type), type.toString(), true));
+					ids.add(Caches.expressions()
+							.intern(new HeapLocation(Caches.types().mkSingletonSet(type), type.toString(), true)));
 					names.add(type.toString());
 				}
 
@@ -168,6 +175,44 @@ public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> {
 		return other.names.containsAll(names);
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (!out.writeKind(this))
+			return;
+
+		out.writeExpressions(rewritten);
+		// names are a list after a lub, and a set otherwise: since lists and
+		// sets are never equal, the kind of collection is part of the encoding
+		boolean isSet = names instanceof Set;
+		out.writeBoolean(isSet);
+		if (isSet)
+			out.writeAll(names, StateWriter::writeString);
+		else {
+			out.writeInt(names.size());
+			for (String name : names)
+				out.writeString(name);
+		}
+	}
+
+	@Override
+	public TypeBasedHeap decode(StateReader in) throws IOException {
+		TypeBasedHeap kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+
+		ExpressionSet<ValueExpression> rewritten = in.readExpressions();
+		if (in.readBoolean())
+			return new TypeBasedHeap(rewritten, new HashSet<>(in.readAll(StateReader::readString)));
+
+		int size = in.readInt();
+		if (size < 0)
+			throw new IOException("Negative number of names: " + size);
+		List<String> names = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			names.add(in.readString());
+		return new TypeBasedHeap(rewritten, names);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
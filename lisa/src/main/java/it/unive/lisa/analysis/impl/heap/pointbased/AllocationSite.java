@@ -16,6 +16,8 @@ public class AllocationSite extends HeapLocation {
 
 	private final String id;
 
+	private final SymbolicExpression field;
+
 	/**
 	 * Builds a strong allocation site from its source code location (without
 	 * field).
@@ -67,6 +69,7 @@ public class AllocationSite extends HeapLocation {
 	public AllocationSite(ExternalSet<Type> types, String id, SymbolicExpression field, boolean isWeak) {
 		super(types, "pp@" + id + (field == null ? "" : "[" + field + "]"), isWeak);
 		this.id = id;
+		this.field = field;
 	}
 
 	/**
@@ -79,4 +82,14 @@ public class AllocationSite extends HeapLocation {
 	public String getId() {
 		return id;
 	}
+
+	/**
+	 * Returns the field of this allocation site.
+	 * 
+	 * @return the field of this allocation site, or {@code null} if this
+	 *             allocation site has no field
+	 */
+	public SymbolicExpression getField() {
+		return field;
+	}
 }
@@ -6,10 +6,14 @@ import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.lattices.SetLattice;
 import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.analysis.nonrelational.heap.NonRelationalHeapDomain;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,7 +29,7 @@ import java.util.function.Predicate;
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
 public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
-		implements NonRelationalHeapDomain<AllocationSites> {
+		implements NonRelationalHeapDomain<AllocationSites>, BinaryEncodable<AllocationSites> {
 
 	private static final AllocationSites TOP = new AllocationSites(new HashSet<>(), true);
 	private static final AllocationSites BOTTOM = new AllocationSites(new HashSet<>(), false);
@@ -140,4 +144,22 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 			ProgramPoint pp) throws SemanticException {
 		return environment;
 	}
+
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		out.writeBoolean(isTop);
+		out.writeAll(elements, StateWriter::writeExpression);
+	}
+
+	@Override
+	public AllocationSites decode(StateReader in) throws IOException {
+		boolean isTop = in.readBoolean();
+		Set<AllocationSite> sites = new HashSet<>();
+		for (SymbolicExpression site : in.readAll(StateReader::readExpression)) {
+			if (!(site instanceof AllocationSite))
+				throw new IOException("Expected an allocation site, but " + site + " was read");
+			sites.add((AllocationSite) site);
+		}
+		return new AllocationSites(sites, isTop);
+	}
 }
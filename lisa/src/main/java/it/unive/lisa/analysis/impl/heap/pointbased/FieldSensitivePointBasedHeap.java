@@ -3,6 +3,7 @@ package it.unive.lisa.analysis.impl.heap.pointbased;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
+import it.unive.lisa.caches.StateReader;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
@@ -11,6 +12,7 @@ import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import it.unive.lisa.symbolic.value.Variable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -57,6 +59,14 @@ public class FieldSensitivePointBasedHeap extends PointBasedHeap {
 		return new FieldSensitivePointBasedHeap(original.getRewrittenExpressions(), original.heapEnv);
 	}
 
+	@Override
+	public FieldSensitivePointBasedHeap decode(StateReader in) throws IOException {
+		// from drops the substitutions, that are part of the encoding instead
+		ExpressionSet<ValueExpression> rewritten = in.readExpressions();
+		HeapEnvironment<AllocationSites> heap = in.readDomain(heapEnv);
+		return new FieldSensitivePointBasedHeap(rewritten, heap, in.readSubstitution());
+	}
+
 	@Override
 	protected PointBasedHeap semanticsOf(HeapExpression expression, ProgramPoint pp) throws SemanticException {
 		if (expression instanceof AccessChild) {
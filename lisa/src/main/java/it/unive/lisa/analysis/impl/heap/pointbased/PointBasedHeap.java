@@ -7,6 +7,9 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.BaseHeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
@@ -18,6 +21,7 @@ import it.unive.lisa.symbolic.value.Skip;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.util.collections.CollectionUtilities;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -43,7 +47,7 @@ import java.util.stream.Collectors;
  * @see <a href=
  *          "https://mitpress.mit.edu/books/introduction-static-analysis">https://mitpress.mit.edu/books/introduction-static-analysis</a>
  */
-public class PointBasedHeap extends BaseHeapDomain<PointBasedHeap> {
+public class PointBasedHeap extends BaseHeapDomain<PointBasedHeap> implements BinaryEncodable<PointBasedHeap> {
 
 	/**
 	 * The list of heap replacement
@@ -209,6 +213,20 @@ public class PointBasedHeap extends BaseHeapDomain<PointBasedHeap> {
 		return heapEnv.lessOrEqual(other.heapEnv);
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		out.writeExpressions(rewritten);
+		out.writeDomain(heapEnv);
+		out.writeSubstitution(substitutions);
+	}
+
+	@Override
+	public PointBasedHeap decode(StateReader in) throws IOException {
+		ExpressionSet<ValueExpression> rewritten = in.readExpressions();
+		HeapEnvironment<AllocationSites> heap = in.readDomain(heapEnv);
+		return from(new PointBasedHeap(rewritten, heap, in.readSubstitution()));
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -6,6 +6,9 @@ import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.BinaryOperator;
 import it.unive.lisa.symbolic.value.Constant;
@@ -13,6 +16,7 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 
 /**
  * The basic integer constant propagation abstract domain, tracking if a certain
@@ -26,7 +30,8 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class IntegerConstantPropagation extends BaseNonRelationalValueDomain<IntegerConstantPropagation> {
+public class IntegerConstantPropagation extends BaseNonRelationalValueDomain<IntegerConstantPropagation>
+		implements BinaryEncodable<IntegerConstantPropagation> {
 
 	private static final IntegerConstantPropagation TOP = new IntegerConstantPropagation(true, false);
 	private static final IntegerConstantPropagation BOTTOM = new IntegerConstantPropagation(false, true);
@@ -155,6 +160,20 @@ public class IntegerConstantPropagation extends BaseNonRelationalValueDomain<Int
 		return false;
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (out.writeKind(this))
+			out.writeInt(value);
+	}
+
+	@Override
+	public IntegerConstantPropagation decode(StateReader in) throws IOException {
+		IntegerConstantPropagation kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+		return new IntegerConstantPropagation(in.readInt());
+	}
+
 	@Override
 	public int hashCode() {
 		if (isTop())
@@ -5,6 +5,9 @@ import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.BinaryOperator;
 import it.unive.lisa.symbolic.value.Constant;
@@ -12,6 +15,7 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.SortedSet;
@@ -30,7 +34,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Interval extends BaseNonRelationalValueDomain<Interval> {
+public class Interval extends BaseNonRelationalValueDomain<Interval> implements BinaryEncodable<Interval> {
 
 	private static final Interval TOP = new Interval(null, null, true, false);
 	private static final Interval BOTTOM = new Interval(null, null, false, true);
@@ -171,9 +175,11 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	public Interval glbAux(Interval other) {
-		Integer newLow = lowIsMinusInfinity() ? other.low : other.lowIsMinusInfinity() ? low : Math.max(low, other.low);
+		// the casts avoid unboxing null bounds in the conditionals
+		Integer newLow = lowIsMinusInfinity() ? other.low
+				: other.lowIsMinusInfinity() ? low : (Integer) Math.max(low, other.low);
 		Integer newHigh = highIsPlusInfinity() ? other.high
-				: other.highIsPlusInfinity() ? high : Math.min(high, other.high);
+				: other.highIsPlusInfinity() ? high : (Integer) Math.min(high, other.high);
 		return new Interval(newLow, newHigh);
 	}
 
@@ -401,6 +407,31 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		}
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (!out.writeKind(this))
+			return;
+
+		// infinite bounds are represented by null
+		out.writeBoolean(low != null);
+		if (low != null)
+			out.writeInt(low);
+		out.writeBoolean(high != null);
+		if (high != null)
+			out.writeInt(high);
+	}
+
+	@Override
+	public Interval decode(StateReader in) throws IOException {
+		Interval kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+
+		Integer low = in.readBoolean() ? in.readInt() : null;
+		Integer high = in.readBoolean() ? in.readInt() : null;
+		return new Interval(low, high);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -5,12 +5,16 @@ import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.BinaryOperator;
 import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 
 /**
  * The Parity abstract domain, tracking if a numeric value is even or odd,
@@ -23,7 +27,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Parity extends BaseNonRelationalValueDomain<Parity> {
+public class Parity extends BaseNonRelationalValueDomain<Parity> implements BinaryEncodable<Parity> {
 
 	private static final Parity EVEN = new Parity(false, false);
 	private static final Parity ODD = new Parity(false, false);
@@ -149,6 +153,20 @@ public class Parity extends BaseNonRelationalValueDomain<Parity> {
 		return false;
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (out.writeKind(this))
+			out.writeBoolean(isEven());
+	}
+
+	@Override
+	public Parity decode(StateReader in) throws IOException {
+		Parity kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+		return in.readBoolean() ? EVEN : ODD;
+	}
+
 	@Override
 	public int hashCode() {
 		if (isBottom())
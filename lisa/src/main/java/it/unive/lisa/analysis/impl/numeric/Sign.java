@@ -6,6 +6,9 @@ import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.BinaryOperator;
 import it.unive.lisa.symbolic.value.Constant;
@@ -13,6 +16,7 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 
 /**
  * The basic Sign abstract domain, tracking zero, strictly positive and strictly
@@ -26,7 +30,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Sign extends BaseNonRelationalValueDomain<Sign> {
+public class Sign extends BaseNonRelationalValueDomain<Sign> implements BinaryEncodable<Sign> {
 
 	private static final Sign POS = new Sign(false, false);
 	private static final Sign NEG = new Sign(false, false);
@@ -185,6 +189,31 @@ public class Sign extends BaseNonRelationalValueDomain<Sign> {
 		return false;
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (out.writeKind(this))
+			out.writeByte(isZero() ? 0 : isPositive() ? 1 : 2);
+	}
+
+	@Override
+	public Sign decode(StateReader in) throws IOException {
+		Sign kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+
+		byte sign = in.readByte();
+		switch (sign) {
+		case 0:
+			return ZERO;
+		case 1:
+			return POS;
+		case 2:
+			return NEG;
+		default:
+			throw new IOException("Unknown sign: " + sign);
+		}
+	}
+
 	@Override
 	public int hashCode() {
 		if (this == ZERO)
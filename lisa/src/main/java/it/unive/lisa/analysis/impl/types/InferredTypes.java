@@ -6,7 +6,10 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.inference.BaseInferredValue;
 import it.unive.lisa.analysis.inference.InferenceSystem;
 import it.unive.lisa.analysis.inference.InferredValue;
+import it.unive.lisa.caches.BinaryEncodable;
 import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.symbolic.SymbolicExpression;
@@ -27,16 +30,21 @@ import it.unive.lisa.type.TypeTokenType;
 import it.unive.lisa.type.Untyped;
 import it.unive.lisa.util.collections.CollectionUtilities;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.io.IOException;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
  * An {@link InferredValue} holding a set of {@link Type}s, representing the
- * inferred runtime types of an {@link Expression}.
+ * inferred runtime types of an {@link Expression}. The sets held by instances
+ * of this class are always canonical (see
+ * {@link ExternalSetCache#canonical(ExternalSet)}): they are shared between all
+ * instances representing the same types, and can be compared by reference.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class InferredTypes extends BaseInferredValue<InferredTypes> {
+public class InferredTypes extends BaseInferredValue<InferredTypes> implements BinaryEncodable<InferredTypes> {
 
 	private static final InferredTypes TOP = new InferredTypes(Caches.types().mkUniversalSet());
 
@@ -58,7 +66,7 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * @param type the type to be included in the set of inferred types
 	 */
 	InferredTypes(Type type) {
-		this(Caches.types().mkSingletonSet(type));
+		this.elements = Caches.types().mkCanonicalSingletonSet(type);
 	}
 
 	/**
@@ -68,7 +76,7 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * @param types the types to be included in the set of inferred types
 	 */
 	InferredTypes(ExternalSet<Type> types) {
-		this.elements = types;
+		this.elements = Caches.types().canonical(types);
 	}
 
 	/**
@@ -144,13 +152,16 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		case NUMERIC_NEG:
 			if (arg.elements.noneMatch(Type::isNumericType))
 				return bottom();
+			if (arg.elements.allMatch(Type::isNumericType))
+				return arg;
 			return new InferredTypes(arg.elements.filter(Type::isNumericType));
 		case STRING_LENGTH:
 			if (arg.elements.noneMatch(Type::isStringType))
 				return bottom();
 			return new InferredTypes(IntType.INSTANCE);
 		case TYPEOF:
-			return new InferredTypes(new TypeTokenType(arg.elements.copy()));
+			// canonical sets are immutable, and do not need to be copied
+			return new InferredTypes(new TypeTokenType(arg.elements));
 		default:
 			return top();
 		}
@@ -291,6 +302,10 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 
 	@Override
 	protected InferredTypes lubAux(InferredTypes other) throws SemanticException {
+		if (elements.contains(other.elements))
+			return this;
+		if (other.elements.contains(elements))
+			return other;
 		return new InferredTypes(elements.union(other.elements));
 	}
 
@@ -304,6 +319,20 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		return other.elements.contains(elements);
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		if (out.writeKind(this))
+			out.writeTypes(elements);
+	}
+
+	@Override
+	public InferredTypes decode(StateReader in) throws IOException {
+		InferredTypes kind = in.readKind(this);
+		if (kind != null)
+			return kind;
+		return new InferredTypes(in.readTypes());
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -321,12 +350,12 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		if (getClass() != obj.getClass())
 			return false;
 		InferredTypes other = (InferredTypes) obj;
-		if (elements == null) {
-			if (other.elements != null)
-				return false;
-		} else if (!elements.equals(other.elements))
+		// elements are canonical, unless they are the universal set
+		if (elements == other.elements)
+			return true;
+		if (elements == null)
 			return false;
-		return true;
+		return elements.equals(other.elements);
 	}
 
 	/**
@@ -0,0 +1,252 @@
+package it.unive.lisa.analysis.impl.types;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.inference.InferenceSystem;
+import it.unive.lisa.analysis.inference.RuntimeTypesProvider;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * An {@link AbstractState} that decorates another one, inferring the runtime
+ * types of the expressions alongside it. Each operation is executed both on the
+ * decorated state and on a {@link SimpleAbstractState} running
+ * {@link InferredTypes} over its own copy of the heap, in the same way type
+ * inference is executed before the analysis. The types inferred for an
+ * {@link Expression} are kept in the state computed for it, and are available
+ * through {@link #getInferredRuntimeTypes()} while the fixpoint is running:
+ * {@link UnresolvedCall}s are resolved using the types inferred for their
+ * parameters. The types are evaluated first, and the decorated state receives
+ * the symbolic expressions rebuilt with the runtime types inferred for them.
+ * This state never modifies the {@link Expression}s it evaluates, since they
+ * are shared among fixpoints that might run concurrently. Apart from that, this
+ * state behaves as the decorated one: the state is bottom if either component
+ * is, and {@link #getHeapState()}, {@link #getValueState()} and
+ * {@link #representation()} are the ones of the decorated state.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the type of the decorated state
+ * @param <H> the type of {@link HeapDomain} of the decorated state
+ * @param <V> the type of {@link ValueDomain} of the decorated state
+ */
+public class TypeInferringState<A extends AbstractState<A, H, V>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>>
+		implements AbstractState<TypeInferringState<A, H, V>, H, V>, BinaryEncodable<TypeInferringState<A, H, V>>,
+		RuntimeTypesProvider {
+
+	private final A wrapped;
+
+	private final SimpleAbstractState<?, InferenceSystem<InferredTypes>> types;
+
+	/**
+	 * Builds the state.
+	 *
+	 * @param wrapped the state to decorate
+	 * @param types   the state used to infer runtime types
+	 */
+	public TypeInferringState(A wrapped, SimpleAbstractState<?, InferenceSystem<InferredTypes>> types) {
+		this.wrapped = wrapped;
+		this.types = types;
+	}
+
+	/**
+	 * Yields the decorated state.
+	 *
+	 * @return the decorated state
+	 */
+	public A getWrapped() {
+		return wrapped;
+	}
+
+	/**
+	 * Yields the state used to infer runtime types.
+	 *
+	 * @return the types state
+	 */
+	public SimpleAbstractState<?, InferenceSystem<InferredTypes>> getTypes() {
+		return types;
+	}
+
+	/**
+	 * Yields the types inferred for the last expression whose semantics has
+	 * been computed.
+	 *
+	 * @return the inferred types
+	 */
+	public InferredTypes getInferredTypes() {
+		return types.getValueState().getInferredValue();
+	}
+
+	@Override
+	public ExternalSet<Type> getInferredRuntimeTypes() {
+		return getInferredTypes().getRuntimeTypes();
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> assign(Identifier id, SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		// the inferred value of the assignment is the one of expression
+		SimpleAbstractState<?, InferenceSystem<InferredTypes>> result = types.assign(id, expression, pp);
+		return new TypeInferringState<>(wrapped.assign(id, retype(expression, result), pp), result);
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> smallStepSemantics(SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		SimpleAbstractState<?, InferenceSystem<InferredTypes>> result = types.smallStepSemantics(expression, pp);
+		return new TypeInferringState<>(wrapped.smallStepSemantics(retype(expression, result), pp), result);
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> assume(SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		// assumptions do not change the inferred value
+		SymbolicExpression typed = retype(expression, types.smallStepSemantics(expression, pp));
+		return new TypeInferringState<>(wrapped.assume(typed, pp), types.assume(expression, pp));
+	}
+
+	/**
+	 * Yields the expression to evaluate on the decorated state, that is,
+	 * {@code expression} with the runtime types inferred for it in
+	 * {@code evaluated}. Its sub-expressions are not changed, since they have
+	 * been computed by other statements, whose semantics already typed them.
+	 */
+	private static SymbolicExpression retype(SymbolicExpression expression,
+			SimpleAbstractState<?, InferenceSystem<InferredTypes>> evaluated) {
+		ExternalSet<Type> inferred = evaluated.getValueState().getInferredValue().getRuntimeTypes();
+		// no types are inferred for unreachable code
+		if (inferred.isEmpty())
+			return expression;
+		return Caches.expressions().retype(expression, inferred);
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> forgetIdentifier(Identifier id) throws SemanticException {
+		return new TypeInferringState<>(wrapped.forgetIdentifier(id), types.forgetIdentifier(id));
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> forgetIdentifiers(Collection<Identifier> ids) throws SemanticException {
+		return new TypeInferringState<>(wrapped.forgetIdentifiers(ids), types.forgetIdentifiers(ids));
+	}
+
+	@Override
+	public Satisfiability satisfies(SymbolicExpression expression, ProgramPoint pp) throws SemanticException {
+		return wrapped.satisfies(expression, pp);
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TypeInferringState<A, H, V> lub(TypeInferringState<A, H, V> other) throws SemanticException {
+		return new TypeInferringState<>(wrapped.lub(other.wrapped), ((SimpleAbstractState) types).lub(other.types));
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TypeInferringState<A, H, V> widening(TypeInferringState<A, H, V> other) throws SemanticException {
+		return new TypeInferringState<>(wrapped.widening(other.wrapped),
+				((SimpleAbstractState) types).widening(other.types));
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TypeInferringState<A, H, V> narrowing(TypeInferringState<A, H, V> other) throws SemanticException {
+		return new TypeInferringState<>(wrapped.narrowing(other.wrapped),
+				((SimpleAbstractState) types).narrowing(other.types));
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public boolean lessOrEqual(TypeInferringState<A, H, V> other) throws SemanticException {
+		return wrapped.lessOrEqual(other.wrapped) && ((SimpleAbstractState) types).lessOrEqual(other.types);
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> top() {
+		return new TypeInferringState<>(wrapped.top(), types.top());
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> bottom() {
+		return new TypeInferringState<>(wrapped.bottom(), types.bottom());
+	}
+
+	@Override
+	public boolean isTop() {
+		return wrapped.isTop() && types.isTop();
+	}
+
+	@Override
+	public boolean isBottom() {
+		return wrapped.isBottom() || types.isBottom();
+	}
+
+	@Override
+	public H getHeapState() {
+		return wrapped.getHeapState();
+	}
+
+	@Override
+	public V getValueState() {
+		return wrapped.getValueState();
+	}
+
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		out.writeDomain(wrapped);
+		out.writeDomain(types);
+	}
+
+	@Override
+	public TypeInferringState<A, H, V> decode(StateReader in) throws IOException {
+		A state = in.readDomain(wrapped);
+		return new TypeInferringState<>(state, in.readDomain(types));
+	}
+
+	@Override
+	public String representation() {
+		return wrapped.representation();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + wrapped.hashCode();
+		result = prime * result + types.hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		TypeInferringState<?, ?, ?> other = (TypeInferringState<?, ?, ?>) obj;
+		return wrapped.equals(other.wrapped) && types.equals(other.types);
+	}
+
+	@Override
+	public String toString() {
+		return wrapped.toString();
+	}
+}
@@ -3,10 +3,14 @@ package it.unive.lisa.analysis.inference;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.Environment;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -21,7 +25,7 @@ import java.util.Map;
  * @param <T> the type of {@link InferredValue} in this inference system
  */
 public class InferenceSystem<T extends InferredValue<T>> extends Environment<InferenceSystem<T>, ValueExpression, T>
-		implements ValueDomain<InferenceSystem<T>> {
+		implements ValueDomain<InferenceSystem<T>>, BinaryEncodable<InferenceSystem<T>> {
 
 	private final T inferredValue;
 
@@ -121,6 +125,19 @@ public class InferenceSystem<T extends InferredValue<T>> extends Environment<Inf
 		return inferredValue.lessOrEqual(other.inferredValue);
 	}
 
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		encodeEnvironment(out);
+		out.writeDomain(inferredValue);
+	}
+
+	@Override
+	public InferenceSystem<T> decode(StateReader in) throws IOException {
+		T domain = decodeLattice(in);
+		Map<Identifier, T> function = decodeFunction(in, domain);
+		return new InferenceSystem<>(domain, function, in.readDomain(inferredValue));
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,26 @@
+package it.unive.lisa.analysis.inference;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+
+/**
+ * An {@link AbstractState} that infers the runtime types of the expressions it
+ * evaluates while the analysis is running. Since such types are part of the
+ * state computed by a fixpoint, they are private to it: {@link UnresolvedCall}s
+ * use them to resolve their targets in place of the runtime types stored in
+ * their parameters, that are shared among all fixpoints.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public interface RuntimeTypesProvider {
+
+	/**
+	 * Yields the runtime types inferred for the last expression whose semantics
+	 * has been computed.
+	 *
+	 * @return the runtime types of the last expression
+	 */
+	ExternalSet<Type> getInferredRuntimeTypes();
+}
@@ -3,6 +3,8 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.PersistentHashMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,7 +61,11 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. Subclasses that
+	 * copy their function frequently can override this method to return a
+	 * {@link PersistentHashMap}, that can be copied in constant time and
+	 * enables faster lattice operations between functions that share part of
+	 * their structure.
 	 *
 	 * @param other an optional function to copy, can be {@code null}
 	 *
@@ -110,6 +116,24 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2), (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The narrowing of two functions is computed pointwise on the keys that are
+	 * mapped by both of them.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public F narrowing(F other) throws SemanticException {
+		if (other == null || this.isBottom() || other.isTop() || this == other || this.equals(other))
+			return (F) this;
+
+		if (other.isBottom() || this.isTop())
+			return other;
+
+		return functionalLift(other, (f1, f2) -> glbKeys(f1, f2), (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
+	}
+
 	/**
 	 * Interface for the lift of lattice elements.
 	 *
@@ -157,7 +181,16 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	}
 
 	/**
-	 * Yields the functional lift between {@code this} and {@code other}.
+	 * Yields the functional lift between {@code this} and {@code other}.<br>
+	 * <br>
+	 * If both functions are {@link PersistentHashMap}s (see
+	 * {@link #mkNewFunction(Map)}), the lift is computed only on the keys that
+	 * are not part of subtrees shared by the two functions, while the shared
+	 * ones are copied as-is into the result. This assumes that
+	 * {@code valueLifter} yields {@code first} when {@code first} and
+	 * {@code second} are the same object, and that {@code keyLifter} preserves
+	 * keys that are in both sets, as is the case for least upper bounds,
+	 * greatest lower bounds and widenings.
 	 *
 	 * @param other       the other functional lattice
 	 * @param keyLifter   the key lifter
@@ -171,8 +204,21 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	protected final F functionalLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
 			throws SemanticException {
 		F result = bottom();
-		result.function = mkNewFunction(null);
-		Set<K> keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
+		Set<K> keys;
+		if (function instanceof PersistentHashMap && other.function instanceof PersistentHashMap) {
+			Set<K> mine = new HashSet<>(), theirs = new HashSet<>();
+			((PersistentHashMap<K, V>) function).collectUnsharedKeys((PersistentHashMap<K, V>) other.function, mine,
+					theirs);
+			keys = keyLifter.keyLift(mine, theirs);
+			result.function = mkNewFunction(function);
+			for (K key : mine)
+				if (!keys.contains(key))
+					result.function.remove(key);
+		} else {
+			keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
+			result.function = mkNewFunction(null);
+		}
+
 		for (K key : keys)
 			try {
 				result.function.put(key, valueLifter.lift(getState(key), other.getState(key)));
@@ -217,7 +263,15 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 
 	@Override
 	public boolean lessOrEqualAux(F other) throws SemanticException {
-		for (K key : function.keySet())
+		Collection<K> keys = function.keySet();
+		if (function instanceof PersistentHashMap && other.function instanceof PersistentHashMap) {
+			// shared entries are equal, and thus they satisfy the relation
+			keys = new ArrayList<>();
+			((PersistentHashMap<K, V>) function).collectUnsharedKeys((PersistentHashMap<K, V>) other.function, keys,
+					new ArrayList<>());
+		}
+
+		for (K key : keys)
 			if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
 				return false;
 
@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.util.collections.CollectionUtilities;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -58,7 +59,11 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 	protected abstract S mk(Set<E> set);
 
 	@Override
+	@SuppressWarnings("unchecked")
 	protected final S lubAux(S other) throws SemanticException {
+		if (areExternal(elements, other.elements))
+			return mk(((ExternalSet<E>) elements).intersection((ExternalSet<E>) other.elements));
+
 		Set<E> lub = new HashSet<>(elements);
 		lub.retainAll(other.elements);
 		return mk(lub);
@@ -83,6 +88,9 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 		if (other.isBottom() || this.isTop() || other.lessOrEqual((S) this))
 			return (S) other;
 
+		if (areExternal(elements, other.elements))
+			return mk(((ExternalSet<E>) elements).union((ExternalSet<E>) other.elements));
+
 		Set<E> glb = new HashSet<>(elements);
 		glb.addAll(other.elements);
 		return mk(glb);
@@ -99,10 +107,24 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	protected final boolean lessOrEqualAux(S other) throws SemanticException {
+		if (areExternal(elements, other.elements))
+			return ((ExternalSet<E>) elements).contains((ExternalSet<E>) other.elements);
 		return elements.containsAll(other.elements);
 	}
 
+	/**
+	 * Yields whether {@code left} and {@code right} are both
+	 * {@link ExternalSet}s sharing the same cache. In that case, set operations
+	 * can be computed word by word on their bit vectors.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> boolean areExternal(Set<E> left, Set<E> right) {
+		return left instanceof ExternalSet && right instanceof ExternalSet
+				&& ((ExternalSet<E>) left).getCache() == ((ExternalSet<E>) right).getCache();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.util.collections.CollectionUtilities;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -59,7 +60,11 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 	protected abstract S mk(Set<E> set);
 
 	@Override
+	@SuppressWarnings("unchecked")
 	protected S lubAux(S other) throws SemanticException {
+		if (areExternal(elements, other.elements))
+			return mk(((ExternalSet<E>) elements).union((ExternalSet<E>) other.elements));
+
 		Set<E> lub = new HashSet<>(elements);
 		lub.addAll(other.elements);
 		return mk(lub);
@@ -84,6 +89,9 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 		if (other.isBottom() || this.isTop() || other.lessOrEqual((S) this))
 			return (S) other;
 
+		if (areExternal(elements, other.elements))
+			return mk(((ExternalSet<E>) elements).intersection((ExternalSet<E>) other.elements));
+
 		Set<E> glb = new HashSet<>(elements);
 		glb.retainAll(other.elements);
 		return mk(glb);
@@ -95,7 +103,10 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	protected boolean lessOrEqualAux(S other) throws SemanticException {
+		if (areExternal(elements, other.elements))
+			return ((ExternalSet<E>) other.elements).contains((ExternalSet<E>) elements);
 		return other.elements.containsAll(elements);
 	}
 
@@ -120,6 +131,17 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 		return elements;
 	}
 
+	/**
+	 * Yields whether {@code left} and {@code right} are both
+	 * {@link ExternalSet}s sharing the same cache. In that case, set operations
+	 * can be computed word by word on their bit vectors.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> boolean areExternal(Set<E> left, Set<E> right) {
+		return left instanceof ExternalSet && right instanceof ExternalSet
+				&& ((ExternalSet<E>) left).getCache() == ((ExternalSet<E>) right).getCache();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
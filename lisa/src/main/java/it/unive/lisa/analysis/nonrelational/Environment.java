@@ -4,10 +4,15 @@ import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticDomain;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.collections.CollectionsDiffBuilder;
+import it.unive.lisa.util.collections.PersistentHashMap;
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Map;
@@ -63,6 +68,20 @@ public abstract class Environment<M extends Environment<M, E, T>,
 		super(domain, function);
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Environments are copied at every assignment: this method yields
+	 * {@link PersistentHashMap}s, that are copied in constant time and that
+	 * share most of their structure with the functions they are copied from.
+	 */
+	@Override
+	protected Map<Identifier, T> mkNewFunction(Map<Identifier, T> other) {
+		if (other == null)
+			return new PersistentHashMap<>();
+		return new PersistentHashMap<>(other);
+	}
+
 	/**
 	 * Copies this environment. The function of the returned environment
 	 * <b>must</b> be a (shallow) copy of the one of the given environment.
@@ -183,6 +202,64 @@ public abstract class Environment<M extends Environment<M, E, T>,
 		return result;
 	}
 
+	/**
+	 * Writes the underlying lattice and the function of this environment to
+	 * {@code out}, for environments that are {@link BinaryEncodable}. Both the
+	 * lattice and the values of the function must be {@link BinaryEncodable}s.
+	 * 
+	 * @param out the output where the environment must be written
+	 * 
+	 * @throws IOException if the environment cannot be encoded or written
+	 */
+	protected final void encodeEnvironment(StateWriter out) throws IOException {
+		out.writeDomain(lattice);
+		out.writeBoolean(function != null);
+		if (function != null)
+			out.writeAll(function.entrySet(), (w, entry) -> {
+				w.writeExpression(entry.getKey());
+				w.writeDomain(entry.getValue());
+			});
+	}
+
+	/**
+	 * Reads the underlying lattice written by
+	 * {@link #encodeEnvironment(StateWriter)}, using the one of this
+	 * environment as a factory. This must be invoked before
+	 * {@link #decodeFunction(StateReader, NonRelationalDomain)}.
+	 * 
+	 * @param in the input where the lattice must be read from
+	 * 
+	 * @return the lattice that has been read
+	 * 
+	 * @throws IOException if the lattice cannot be read or decoded
+	 */
+	protected final T decodeLattice(StateReader in) throws IOException {
+		return in.readDomain(lattice);
+	}
+
+	/**
+	 * Reads the function written by {@link #encodeEnvironment(StateWriter)},
+	 * after its lattice has been read through
+	 * {@link #decodeLattice(StateReader)}.
+	 * 
+	 * @param in     the input where the function must be read from
+	 * @param domain the lattice that has been read, used as a factory for the
+	 *                   values of the function
+	 * 
+	 * @return the function that has been read, or {@code null}
+	 * 
+	 * @throws IOException if the function cannot be read or decoded
+	 */
+	protected final Map<Identifier, T> decodeFunction(StateReader in, T domain) throws IOException {
+		if (!in.readBoolean())
+			return null;
+
+		Map<Identifier, T> func = mkNewFunction(null);
+		for (Pair<Identifier, T> entry : in.readAll(r -> Pair.of(r.readIdentifier(), r.readDomain(domain))))
+			func.put(entry.getLeft(), entry.getRight());
+		return func;
+	}
+
 	@Override
 	public final String toString() {
 		return representation();
@@ -94,6 +94,17 @@ public interface NonRelationalDomain<T extends NonRelationalDomain<T, E, F>,
 	 */
 	public T glb(T other) throws SemanticException;
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Non-relational domains that do not define a specific narrowing use
+	 * {@link #glb(NonRelationalDomain)}.
+	 */
+	@Override
+	public default T narrowing(T other) throws SemanticException {
+		return glb(other);
+	}
+
 	/**
 	 * Yields a textual representation of the content of this domain's instance.
 	 * 
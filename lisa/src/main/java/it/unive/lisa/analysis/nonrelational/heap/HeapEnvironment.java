@@ -5,10 +5,14 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.nonrelational.Environment;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,7 +32,8 @@ import java.util.Map;
  *                instances are mapped in this environment
  */
 public final class HeapEnvironment<T extends NonRelationalHeapDomain<T>>
-		extends Environment<HeapEnvironment<T>, SymbolicExpression, T> implements HeapDomain<HeapEnvironment<T>> {
+		extends Environment<HeapEnvironment<T>, SymbolicExpression, T>
+		implements HeapDomain<HeapEnvironment<T>>, BinaryEncodable<HeapEnvironment<T>> {
 
 	/**
 	 * The rewritten expressions
@@ -126,4 +131,19 @@ public final class HeapEnvironment<T extends NonRelationalHeapDomain<T>>
 				: new HeapEnvironment<>(lattice.bottom(), null, new ExpressionSet<ValueExpression>(),
 						Collections.emptyList());
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		encodeEnvironment(out);
+		out.writeExpressions(rewritten);
+		out.writeSubstitution(substitution);
+	}
+
+	@Override
+	public HeapEnvironment<T> decode(StateReader in) throws IOException {
+		T domain = decodeLattice(in);
+		Map<Identifier, T> function = decodeFunction(in, domain);
+		ExpressionSet<ValueExpression> rewritten = in.readExpressions();
+		return new HeapEnvironment<>(domain, function, rewritten, in.readSubstitution());
+	}
+}
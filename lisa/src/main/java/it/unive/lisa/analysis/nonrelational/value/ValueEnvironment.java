@@ -4,9 +4,13 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.nonrelational.Environment;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.BinaryEncodable;
+import it.unive.lisa.caches.StateReader;
+import it.unive.lisa.caches.StateWriter;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -23,7 +27,8 @@ import java.util.Map;
  *                whose instances are mapped in this environment
  */
 public final class ValueEnvironment<T extends NonRelationalValueDomain<T>>
-		extends Environment<ValueEnvironment<T>, ValueExpression, T> implements ValueDomain<ValueEnvironment<T>> {
+		extends Environment<ValueEnvironment<T>, ValueExpression, T>
+		implements ValueDomain<ValueEnvironment<T>>, BinaryEncodable<ValueEnvironment<T>> {
 
 	/**
 	 * Builds an empty environment.
@@ -73,4 +78,15 @@ public final class ValueEnvironment<T extends NonRelationalValueDomain<T>>
 	public ValueEnvironment<T> bottom() {
 		return isBottom() ? this : new ValueEnvironment<T>(lattice.bottom(), null);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void encode(StateWriter out) throws IOException {
+		encodeEnvironment(out);
+	}
+
+	@Override
+	public ValueEnvironment<T> decode(StateReader in) throws IOException {
+		T domain = decodeLattice(in);
+		return new ValueEnvironment<>(domain, decodeFunction(in, domain));
+	}
+}
@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.nonrelational.value.impl.stringgraphdomain.NormalS
 import it.unive.lisa.analysis.nonrelational.value.impl.stringgraphdomain.nodes.Const.ConstValues;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 
@@ -14,7 +15,7 @@ public abstract class Node<V> implements Serializable {
     protected Node<?> forwardParent;
     protected final List<Edge> childrenEdges;
     protected final List<Node<?>> backwardParents;
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
     private final Set<Node<?>> is;
 
     public Node() {
@@ -22,8 +23,7 @@ public abstract class Node<V> implements Serializable {
         this.forwardParent = null;
         this.childrenEdges = new ArrayList<>();
         this.backwardParents = new ArrayList<>();
-        this.id = "id_" + Node.counter;
-        Node.counter += 1;
+        this.id = "id_" + Node.counter.getAndIncrement();
     }
 
     public static <T extends Node<?>, V extends Node<?>>
@@ -0,0 +1,342 @@
+package it.unive.lisa.analysis.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A profiler of the operations of abstract domains, that counts and times the
+ * invocations of each {@link Operation} on each concrete domain class. The
+ * operations are recorded by the profiling decorators
+ * {@link ProfilingHeapDomain}, {@link ProfilingValueDomain} and
+ * {@link ProfilingAbstractState}, that can wrap any domain without changing its
+ * code, and that can be built through {@link #decorate(AbstractState)}. When
+ * {@link LiSAConfiguration#isProfileDomains()} holds, each analysis creates its
+ * own profiler, decorates the configured state with it, and dumps its histogram
+ * at the end of the analysis.<br>
+ * <br>
+ * Note that times are inclusive: the time spent in an operation of an abstract
+ * state also accounts for the time spent in the operations of its (profiled)
+ * heap and value domains.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class DomainProfiler {
+
+	/**
+	 * The length of the longest bar of the histogram
+	 */
+	private static final int BAR_LENGTH = 40;
+
+	/**
+	 * The profiled operations of abstract domains.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public enum Operation {
+		/**
+		 * An assignment.
+		 */
+		ASSIGN("assign"),
+
+		/**
+		 * The evaluation of a small step semantics.
+		 */
+		SMALL_STEP_SEMANTICS("smallStepSemantics"),
+
+		/**
+		 * An assumption.
+		 */
+		ASSUME("assume"),
+
+		/**
+		 * A least upper bound.
+		 */
+		LUB("lub"),
+
+		/**
+		 * A widening.
+		 */
+		WIDENING("widening"),
+
+		/**
+		 * A narrowing.
+		 */
+		NARROWING("narrowing"),
+
+		/**
+		 * A partial order check.
+		 */
+		LESS_OR_EQUAL("lessOrEqual"),
+
+		/**
+		 * The removal of an identifier.
+		 */
+		FORGET_IDENTIFIER("forgetIdentifier");
+
+		private final String name;
+
+		private Operation(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * A profiled operation.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <T> the type of the result of the operation
+	 */
+	@FunctionalInterface
+	interface ProfiledOperation<T> {
+
+		/**
+		 * Executes the operation.
+		 *
+		 * @return the result of the operation
+		 *
+		 * @throws SemanticException if the operation fails
+		 */
+		T execute() throws SemanticException;
+	}
+
+	private final Map<Class<?>, Map<Operation, OperationStatistics>> domains;
+
+	/**
+	 * Builds an empty profiler.
+	 */
+	public DomainProfiler() {
+		this.domains = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Decorates the given state so that its operations are recorded in this
+	 * profiler. If the state is a {@link SimpleAbstractState}, its heap and
+	 * value domains are decorated as well, through a
+	 * {@link ProfilingHeapDomain} and a {@link ProfilingValueDomain}.
+	 *
+	 * @param state the state to decorate
+	 *
+	 * @return the decorated state
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public AbstractState<?, ?, ?> decorate(AbstractState<?, ?, ?> state) {
+		AbstractState inner = state;
+		if (state instanceof SimpleAbstractState)
+			inner = new SimpleAbstractState(new ProfilingHeapDomain(state.getHeapState(), this),
+					new ProfilingValueDomain(state.getValueState(), this));
+		return new ProfilingAbstractState(inner, this);
+	}
+
+	/**
+	 * Executes the given operation of the given domain, recording its execution
+	 * time.
+	 *
+	 * @param <T>       the type of the result of the operation
+	 * @param domain    the concrete class of the domain
+	 * @param operation the operation being executed
+	 * @param action    the operation itself
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	<T> T profile(Class<?> domain, Operation operation, ProfiledOperation<T> action) throws SemanticException {
+		long start = System.nanoTime();
+		try {
+			return action.execute();
+		} finally {
+			record(domain, operation, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records an invocation of the given operation on the given domain.
+	 *
+	 * @param domain    the concrete class of the domain
+	 * @param operation the operation
+	 * @param nanos     the time spent executing the operation, in nanoseconds
+	 */
+	public void record(Class<?> domain, Operation operation, long nanos) {
+		OperationStatistics stats = domains
+				.computeIfAbsent(domain, d -> new ConcurrentHashMap<>())
+				.computeIfAbsent(operation, o -> new OperationStatistics());
+		stats.count.increment();
+		stats.nanos.add(nanos);
+	}
+
+	/**
+	 * Yields whether or not no operation has been recorded since the last
+	 * invocation of {@link #clear()}.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isEmpty() {
+		return domains.isEmpty();
+	}
+
+	/**
+	 * Forgets all the recorded operations.
+	 */
+	public void clear() {
+		domains.clear();
+	}
+
+	/**
+	 * Yields the statistics of the operations recorded on the given domain.
+	 *
+	 * @param domain the concrete class of the domain
+	 *
+	 * @return the statistics of each operation recorded on {@code domain}
+	 */
+	public Map<Operation, OperationStatistics> of(Class<?> domain) {
+		Map<Operation, OperationStatistics> result = new EnumMap<>(Operation.class);
+		Map<Operation, OperationStatistics> stats = domains.get(domain);
+		if (stats != null)
+			result.putAll(stats);
+		return result;
+	}
+
+	private List<Row> rows() {
+		List<Row> rows = new ArrayList<>();
+		for (Entry<Class<?>, Map<Operation, OperationStatistics>> domain : domains.entrySet())
+			for (Entry<Operation, OperationStatistics> op : domain.getValue().entrySet())
+				rows.add(new Row(domain.getKey().getName(), op.getKey(), op.getValue()));
+		rows.sort(Comparator.comparingLong((Row r) -> r.stats.getNanos()).reversed()
+				.thenComparing(r -> r.domain).thenComparing(r -> r.operation));
+		return rows;
+	}
+
+	private static final class Row {
+
+		private final String domain;
+
+		private final Operation operation;
+
+		private final OperationStatistics stats;
+
+		private Row(String domain, Operation operation, OperationStatistics stats) {
+			this.domain = domain;
+			this.operation = operation;
+			this.stats = stats;
+		}
+
+		@Override
+		public String toString() {
+			return domain + "." + operation;
+		}
+	}
+
+	/**
+	 * Yields a textual histogram of the time spent in each operation of each
+	 * domain, sorted by descending time.
+	 *
+	 * @return the histogram, one line per operation
+	 */
+	public List<String> histogram() {
+		List<Row> rows = rows();
+		List<String> lines = new ArrayList<>();
+		if (rows.isEmpty())
+			return lines;
+
+		long max = Math.max(1, rows.get(0).stats.getNanos());
+		int width = rows.stream().mapToInt(r -> r.toString().length()).max().getAsInt();
+		for (Row row : rows) {
+			OperationStatistics stats = row.stats;
+			int bar = (int) Math.round((double) stats.getNanos() * BAR_LENGTH / max);
+			lines.add(String.format("%s %s %10d calls %12.3f ms", StringUtils.rightPad(row.toString(), width),
+					StringUtils.rightPad(StringUtils.repeat('#', bar), BAR_LENGTH), stats.getCount(),
+					stats.getMillis()));
+		}
+		return lines;
+	}
+
+	/**
+	 * Dumps the recorded operations to the given {@link Writer} instance,
+	 * serializing them as a json object mapping each domain to the statistics
+	 * of its operations.
+	 *
+	 * @param writer the writer to write to
+	 *
+	 * @throws IOException if some I/O error happens while writing to the writer
+	 */
+	public void dump(Writer writer) throws IOException {
+		Map<String, Map<String, Map<String, Object>>> json = new LinkedHashMap<>();
+		for (Row row : rows()) {
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("count", row.stats.getCount());
+			stats.put("timeMillis", row.stats.getMillis());
+			json.computeIfAbsent(row.domain, d -> new LinkedHashMap<>()).put(row.operation.toString(), stats);
+		}
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		mapper.writeValue(writer, json);
+	}
+
+	/**
+	 * The statistics of an operation of a domain.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static final class OperationStatistics {
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder nanos = new LongAdder();
+
+		private OperationStatistics() {
+		}
+
+		/**
+		 * Yields the number of invocations of the operation.
+		 *
+		 * @return the number of invocations
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Yields the cumulative time spent executing the operation, in
+		 * nanoseconds.
+		 *
+		 * @return the cumulative time
+		 */
+		public long getNanos() {
+			return nanos.sum();
+		}
+
+		/**
+		 * Yields the cumulative time spent executing the operation, in
+		 * milliseconds.
+		 *
+		 * @return the cumulative time
+		 */
+		public double getMillis() {
+			return getNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+		}
+	}
+}
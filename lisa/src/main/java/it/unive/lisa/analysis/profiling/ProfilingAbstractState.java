@@ -0,0 +1,177 @@
+package it.unive.lisa.analysis.profiling;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.LatticeDecorator;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.profiling.DomainProfiler.Operation;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.Collection;
+
+/**
+ * An {@link AbstractState} that decorates another one, recording the
+ * invocations of its operations in a {@link DomainProfiler} under the concrete
+ * class of the decorated state. Apart from that, this state behaves exactly as
+ * the decorated one, and can thus be passed to
+ * {@link it.unive.lisa.LiSAConfiguration#setAbstractState(AbstractState)}. The
+ * heap and value domains of the decorated state can be profiled as well by
+ * building it over a {@link ProfilingHeapDomain} and a
+ * {@link ProfilingValueDomain}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the type of the decorated state
+ * @param <H> the type of {@link HeapDomain} of the decorated state
+ * @param <V> the type of {@link ValueDomain} of the decorated state
+ */
+public class ProfilingAbstractState<A extends AbstractState<A, H, V>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>> implements AbstractState<ProfilingAbstractState<A, H, V>, H, V>, LatticeDecorator<A> {
+
+	private final A wrapped;
+
+	private final DomainProfiler profiler;
+
+	/**
+	 * Builds the state.
+	 *
+	 * @param wrapped  the state to decorate
+	 * @param profiler the profiler where operations are recorded
+	 */
+	public ProfilingAbstractState(A wrapped, DomainProfiler profiler) {
+		this.wrapped = wrapped;
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Yields the profiler where the operations of this state are recorded.
+	 *
+	 * @return the profiler
+	 */
+	public DomainProfiler getProfiler() {
+		return profiler;
+	}
+
+	@Override
+	public A getWrapped() {
+		return wrapped;
+	}
+
+	private ProfilingAbstractState<A, H, V> profile(Operation operation, DomainProfiler.ProfiledOperation<A> action)
+			throws SemanticException {
+		return new ProfilingAbstractState<>(profiler.profile(wrapped.getClass(), operation, action), profiler);
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> assign(Identifier id, SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.ASSIGN, () -> wrapped.assign(id, expression, pp));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> smallStepSemantics(SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.SMALL_STEP_SEMANTICS, () -> wrapped.smallStepSemantics(expression, pp));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> assume(SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.ASSUME, () -> wrapped.assume(expression, pp));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> forgetIdentifier(Identifier id) throws SemanticException {
+		return profile(Operation.FORGET_IDENTIFIER, () -> wrapped.forgetIdentifier(id));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> forgetIdentifiers(Collection<Identifier> ids) throws SemanticException {
+		return profile(Operation.FORGET_IDENTIFIER, () -> wrapped.forgetIdentifiers(ids));
+	}
+
+	@Override
+	public Satisfiability satisfies(SymbolicExpression expression, ProgramPoint pp) throws SemanticException {
+		return wrapped.satisfies(expression, pp);
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> lub(ProfilingAbstractState<A, H, V> other) throws SemanticException {
+		return profile(Operation.LUB, () -> wrapped.lub(other.wrapped));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> widening(ProfilingAbstractState<A, H, V> other) throws SemanticException {
+		return profile(Operation.WIDENING, () -> wrapped.widening(other.wrapped));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> narrowing(ProfilingAbstractState<A, H, V> other) throws SemanticException {
+		return profile(Operation.NARROWING, () -> wrapped.narrowing(other.wrapped));
+	}
+
+	@Override
+	public boolean lessOrEqual(ProfilingAbstractState<A, H, V> other) throws SemanticException {
+		return profiler.profile(wrapped.getClass(), Operation.LESS_OR_EQUAL,
+				() -> wrapped.lessOrEqual(other.wrapped));
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> top() {
+		return new ProfilingAbstractState<>(wrapped.top(), profiler);
+	}
+
+	@Override
+	public ProfilingAbstractState<A, H, V> bottom() {
+		return new ProfilingAbstractState<>(wrapped.bottom(), profiler);
+	}
+
+	@Override
+	public boolean isTop() {
+		return wrapped.isTop();
+	}
+
+	@Override
+	public boolean isBottom() {
+		return wrapped.isBottom();
+	}
+
+	@Override
+	public H getHeapState() {
+		return wrapped.getHeapState();
+	}
+
+	@Override
+	public V getValueState() {
+		return wrapped.getValueState();
+	}
+
+	@Override
+	public String representation() {
+		return wrapped.representation();
+	}
+
+	@Override
+	public int hashCode() {
+		return wrapped.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		return wrapped.equals(((ProfilingAbstractState<?, ?, ?>) obj).wrapped);
+	}
+
+	@Override
+	public String toString() {
+		return wrapped.toString();
+	}
+}
@@ -0,0 +1,172 @@
+package it.unive.lisa.analysis.profiling;
+
+import it.unive.lisa.analysis.LatticeDecorator;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.profiling.DomainProfiler.Operation;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link HeapDomain} that decorates another one, recording the invocations of
+ * its operations in a {@link DomainProfiler} under the concrete class of the
+ * decorated domain. Apart from that, this domain behaves exactly as the
+ * decorated one, and can thus be used wherever a heap domain is expected, e.g.
+ * when building an abstract state through
+ * {@link it.unive.lisa.LiSAFactory#getDefaultFor(Class, Object...)}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <H> the type of the decorated domain
+ */
+public class ProfilingHeapDomain<H extends HeapDomain<H>>
+		implements HeapDomain<ProfilingHeapDomain<H>>, LatticeDecorator<H> {
+
+	private final H wrapped;
+
+	private final DomainProfiler profiler;
+
+	/**
+	 * Builds the domain.
+	 *
+	 * @param wrapped  the domain to decorate
+	 * @param profiler the profiler where operations are recorded
+	 */
+	public ProfilingHeapDomain(H wrapped, DomainProfiler profiler) {
+		this.wrapped = wrapped;
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Yields the profiler where the operations of this domain are recorded.
+	 *
+	 * @return the profiler
+	 */
+	public DomainProfiler getProfiler() {
+		return profiler;
+	}
+
+	@Override
+	public H getWrapped() {
+		return wrapped;
+	}
+
+	private ProfilingHeapDomain<H> profile(Operation operation, DomainProfiler.ProfiledOperation<H> action)
+			throws SemanticException {
+		return new ProfilingHeapDomain<>(profiler.profile(wrapped.getClass(), operation, action), profiler);
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> assign(Identifier id, SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.ASSIGN, () -> wrapped.assign(id, expression, pp));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> smallStepSemantics(SymbolicExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.SMALL_STEP_SEMANTICS, () -> wrapped.smallStepSemantics(expression, pp));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> assume(SymbolicExpression expression, ProgramPoint pp) throws SemanticException {
+		return profile(Operation.ASSUME, () -> wrapped.assume(expression, pp));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> forgetIdentifier(Identifier id) throws SemanticException {
+		return profile(Operation.FORGET_IDENTIFIER, () -> wrapped.forgetIdentifier(id));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> forgetIdentifiers(Collection<Identifier> ids) throws SemanticException {
+		return profile(Operation.FORGET_IDENTIFIER, () -> wrapped.forgetIdentifiers(ids));
+	}
+
+	@Override
+	public Satisfiability satisfies(SymbolicExpression expression, ProgramPoint pp) throws SemanticException {
+		return wrapped.satisfies(expression, pp);
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> lub(ProfilingHeapDomain<H> other) throws SemanticException {
+		return profile(Operation.LUB, () -> wrapped.lub(other.wrapped));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> widening(ProfilingHeapDomain<H> other) throws SemanticException {
+		return profile(Operation.WIDENING, () -> wrapped.widening(other.wrapped));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> narrowing(ProfilingHeapDomain<H> other) throws SemanticException {
+		return profile(Operation.NARROWING, () -> wrapped.narrowing(other.wrapped));
+	}
+
+	@Override
+	public boolean lessOrEqual(ProfilingHeapDomain<H> other) throws SemanticException {
+		return profiler.profile(wrapped.getClass(), Operation.LESS_OR_EQUAL,
+				() -> wrapped.lessOrEqual(other.wrapped));
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> top() {
+		return new ProfilingHeapDomain<>(wrapped.top(), profiler);
+	}
+
+	@Override
+	public ProfilingHeapDomain<H> bottom() {
+		return new ProfilingHeapDomain<>(wrapped.bottom(), profiler);
+	}
+
+	@Override
+	public boolean isTop() {
+		return wrapped.isTop();
+	}
+
+	@Override
+	public boolean isBottom() {
+		return wrapped.isBottom();
+	}
+
+	@Override
+	public ExpressionSet<ValueExpression> getRewrittenExpressions() {
+		return wrapped.getRewrittenExpressions();
+	}
+
+	@Override
+	public List<HeapReplacement> getSubstitution() {
+		return wrapped.getSubstitution();
+	}
+
+	@Override
+	public String representation() {
+		return wrapped.representation();
+	}
+
+	@Override
+	public int hashCode() {
+		return wrapped.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		return wrapped.equals(((ProfilingHeapDomain<?>) obj).wrapped);
+	}
+
+	@Override
+	public String toString() {
+		return wrapped.toString();
+	}
+}
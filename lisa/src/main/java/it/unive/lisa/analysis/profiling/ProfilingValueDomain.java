@@ -0,0 +1,167 @@
+package it.unive.lisa.analysis.profiling;
+
+import it.unive.lisa.analysis.LatticeDecorator;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapSemanticOperation.HeapReplacement;
+import it.unive.lisa.analysis.profiling.DomainProfiler.Operation;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link ValueDomain} that decorates another one, recording the invocations
+ * of its operations in a {@link DomainProfiler} under the concrete class of the
+ * decorated domain. Apart from that, this domain behaves exactly as the
+ * decorated one, and can thus be used wherever a value domain is expected, e.g.
+ * when building an abstract state through
+ * {@link it.unive.lisa.LiSAFactory#getDefaultFor(Class, Object...)}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <V> the type of the decorated domain
+ */
+public class ProfilingValueDomain<V extends ValueDomain<V>>
+		implements ValueDomain<ProfilingValueDomain<V>>, LatticeDecorator<V> {
+
+	private final V wrapped;
+
+	private final DomainProfiler profiler;
+
+	/**
+	 * Builds the domain.
+	 *
+	 * @param wrapped  the domain to decorate
+	 * @param profiler the profiler where operations are recorded
+	 */
+	public ProfilingValueDomain(V wrapped, DomainProfiler profiler) {
+		this.wrapped = wrapped;
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Yields the profiler where the operations of this domain are recorded.
+	 *
+	 * @return the profiler
+	 */
+	public DomainProfiler getProfiler() {
+		return profiler;
+	}
+
+	@Override
+	public V getWrapped() {
+		return wrapped;
+	}
+
+	private ProfilingValueDomain<V> profile(Operation operation, DomainProfiler.ProfiledOperation<V> action)
+			throws SemanticException {
+		return new ProfilingValueDomain<>(profiler.profile(wrapped.getClass(), operation, action), profiler);
+	}
+
+	@Override
+	public ProfilingValueDomain<V> assign(Identifier id, ValueExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.ASSIGN, () -> wrapped.assign(id, expression, pp));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> smallStepSemantics(ValueExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		return profile(Operation.SMALL_STEP_SEMANTICS, () -> wrapped.smallStepSemantics(expression, pp));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> assume(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		return profile(Operation.ASSUME, () -> wrapped.assume(expression, pp));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> forgetIdentifier(Identifier id) throws SemanticException {
+		return profile(Operation.FORGET_IDENTIFIER, () -> wrapped.forgetIdentifier(id));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> forgetIdentifiers(Collection<Identifier> ids) throws SemanticException {
+		return profile(Operation.FORGET_IDENTIFIER, () -> wrapped.forgetIdentifiers(ids));
+	}
+
+	@Override
+	public Satisfiability satisfies(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		return wrapped.satisfies(expression, pp);
+	}
+
+	@Override
+	public ProfilingValueDomain<V> lub(ProfilingValueDomain<V> other) throws SemanticException {
+		return profile(Operation.LUB, () -> wrapped.lub(other.wrapped));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> widening(ProfilingValueDomain<V> other) throws SemanticException {
+		return profile(Operation.WIDENING, () -> wrapped.widening(other.wrapped));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> narrowing(ProfilingValueDomain<V> other) throws SemanticException {
+		return profile(Operation.NARROWING, () -> wrapped.narrowing(other.wrapped));
+	}
+
+	@Override
+	public boolean lessOrEqual(ProfilingValueDomain<V> other) throws SemanticException {
+		return profiler.profile(wrapped.getClass(), Operation.LESS_OR_EQUAL,
+				() -> wrapped.lessOrEqual(other.wrapped));
+	}
+
+	@Override
+	public ProfilingValueDomain<V> top() {
+		return new ProfilingValueDomain<>(wrapped.top(), profiler);
+	}
+
+	@Override
+	public ProfilingValueDomain<V> bottom() {
+		return new ProfilingValueDomain<>(wrapped.bottom(), profiler);
+	}
+
+	@Override
+	public boolean isTop() {
+		return wrapped.isTop();
+	}
+
+	@Override
+	public boolean isBottom() {
+		return wrapped.isBottom();
+	}
+
+	@Override
+	public ProfilingValueDomain<V> applySubstitution(List<HeapReplacement> substitution, ProgramPoint pp)
+			throws SemanticException {
+		return new ProfilingValueDomain<>(wrapped.applySubstitution(substitution, pp), profiler);
+	}
+
+	@Override
+	public String representation() {
+		return wrapped.representation();
+	}
+
+	@Override
+	public int hashCode() {
+		return wrapped.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		return wrapped.equals(((ProfilingValueDomain<?>) obj).wrapped);
+	}
+
+	@Override
+	public String toString() {
+		return wrapped.toString();
+	}
+}
@@ -0,0 +1,46 @@
+package it.unive.lisa.caches;
+
+import java.io.IOException;
+
+/**
+ * A domain whose instances can be written to, and read from, the binary format
+ * of {@link BinaryStateCodec}, so that the results of fixpoints computed with
+ * it can be stored in a {@link ResultsCache}. Reading is performed by an
+ * instance of the domain acting as a factory: the one in the same position of
+ * the entry state of the fixpoint that computed the instance being read.
+ * Parameters of the domain that are not part of the encoding are thus copied
+ * from the factory.<br>
+ * <br>
+ * Since {@link ResultsCache} uses the encoding of the entry state of a fixpoint
+ * as part of the key of its results, the encoding of an instance must be
+ * deterministic (e.g., elements of unordered collections must be written
+ * through {@link StateWriter#writeAll}), and must include any parameter of the
+ * domain that affects its semantics.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the concrete type of the domain
+ */
+public interface BinaryEncodable<T> {
+
+	/**
+	 * Writes this instance to {@code out}.
+	 *
+	 * @param out the output where this instance must be written
+	 *
+	 * @throws IOException if this instance cannot be encoded or written
+	 */
+	void encode(StateWriter out) throws IOException;
+
+	/**
+	 * Reads an instance written by {@link #encode(StateWriter)} from
+	 * {@code in}, using this instance as a factory.
+	 *
+	 * @param in the input where the instance must be read from
+	 *
+	 * @return the instance that has been read
+	 *
+	 * @throws IOException if the instance cannot be read or decoded
+	 */
+	T decode(StateReader in) throws IOException;
+}
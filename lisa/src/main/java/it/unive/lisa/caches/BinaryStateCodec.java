@@ -0,0 +1,51 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link StateCodec} for states whose domains are {@link BinaryEncodable}s,
+ * as the ones provided by LiSA. A state is written as its {@link AbstractState}
+ * followed by its computed expressions. Each domain is preceded by the name of
+ * its class, and domains are read using the ones of the entry state of the
+ * fixpoint as factories: reading fails if the classes do not match. States
+ * containing domains that are not {@link BinaryEncodable}s cannot be encoded,
+ * and their results are thus not cached.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class BinaryStateCodec implements StateCodec {
+
+	@Override
+	public void encode(AnalysisState<?, ?, ?> state, DataOutput out) throws IOException {
+		StateWriter writer = new StateWriter(out);
+		writer.writeDomain(state.getState());
+		writer.writeExpressions(state.getComputedExpressions());
+	}
+
+	@Override
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> decode(AnalysisState<A, H, V> entryState, DataInput in)
+					throws IOException {
+		StateReader reader = new StateReader(in);
+		A state = reader.readDomain(entryState.getState());
+		return new AnalysisState<>(state, reader.readExpressions());
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		// the codec is stateless
+		return obj != null && getClass() == obj.getClass();
+	}
+}
@@ -0,0 +1,155 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A structural fingerprint of a {@link CFG}, that does not depend on the
+ * identity of its statements and is thus stable across different executions
+ * over the same program. The fingerprint sorts all the statements of the cfg
+ * (including the expressions nested into other statements) by their class,
+ * source location and textual representation, assigning to each of them an
+ * index in that order. The cfg is then described by its signature, by its
+ * statements (together with the runtime types of its {@link Expression}s), by
+ * its entrypoints and by its edges, both referring to statements through their
+ * index. If two statements have the same description, the fingerprint is
+ * ambiguous since their results could not be told apart.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class CFGFingerprint {
+
+	/**
+	 * The statements of the cfg, in the order of their index
+	 */
+	private final List<Statement> statements;
+
+	/**
+	 * The index of each statement
+	 */
+	private final Map<Statement, Integer> indexes;
+
+	/**
+	 * Whether or not two statements share the same description
+	 */
+	private final boolean ambiguous;
+
+	/**
+	 * The textual description of the cfg, used for hashing
+	 */
+	private final List<String> description;
+
+	/**
+	 * Builds the fingerprint of the given cfg.
+	 *
+	 * @param cfg the cfg
+	 */
+	CFGFingerprint(CFG cfg) {
+		Map<String, Statement> sorted = new TreeMap<>();
+		boolean clash = false;
+		for (Statement st : collect(cfg))
+			clash |= sorted.put(key(st), st) != null;
+		this.ambiguous = clash;
+
+		this.statements = new ArrayList<>(sorted.values());
+		this.indexes = new IdentityHashMap<>();
+		this.description = new ArrayList<>();
+		description.add(cfg.getDescriptor().getFullSignatureWithParNames());
+		for (Map.Entry<String, Statement> entry : sorted.entrySet()) {
+			indexes.put(entry.getValue(), indexes.size());
+			description.add(entry.getKey() + types(entry.getValue()));
+		}
+
+		TreeSet<Integer> entrypoints = new TreeSet<>();
+		for (Statement entry : cfg.getEntrypoints())
+			entrypoints.add(indexes.get(entry));
+		description.add("entrypoints: " + entrypoints);
+
+		TreeSet<String> edges = new TreeSet<>();
+		for (Edge edge : cfg.getEdges())
+			edges.add(edge.getClass().getName() + ": " + indexes.get(edge.getSource()) + " -> "
+					+ indexes.get(edge.getDestination()));
+		description.addAll(edges);
+	}
+
+	private static List<Statement> collect(CFG cfg) {
+		List<Statement> all = new ArrayList<>();
+		// nested expressions are visited as well, since they have their own
+		// results
+		cfg.accept(new GraphVisitor<CFG, Statement, Edge, List<Statement>>() {
+
+			@Override
+			public boolean visit(List<Statement> tool, CFG graph) {
+				return true;
+			}
+
+			@Override
+			public boolean visit(List<Statement> tool, CFG graph, Statement node) {
+				tool.add(node);
+				return true;
+			}
+
+			@Override
+			public boolean visit(List<Statement> tool, CFG graph, Edge edge) {
+				return true;
+			}
+		}, all);
+		return all;
+	}
+
+	private static String key(Statement st) {
+		return st.getClass().getName() + "@" + st.getLocation() + ": " + st;
+	}
+
+	private static String types(Statement st) {
+		if (!(st instanceof Expression) || ((Expression) st).getRuntimeTypes() == null)
+			return "";
+		TreeSet<String> names = new TreeSet<>();
+		for (Type type : ((Expression) st).getRuntimeTypes())
+			names.add(type.toString());
+		return " :: " + names;
+	}
+
+	/**
+	 * Yields whether or not two statements of the cfg share the same
+	 * description, making it impossible to tell apart their results.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean isAmbiguous() {
+		return ambiguous;
+	}
+
+	/**
+	 * Yields the statements of the cfg, in the order of their index.
+	 *
+	 * @return the statements
+	 */
+	List<Statement> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Feeds the description of the cfg to the given digest.
+	 *
+	 * @param digest the digest to update
+	 */
+	void update(MessageDigest digest) {
+		for (String line : description) {
+			digest.update(line.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) '\n');
+		}
+	}
+}
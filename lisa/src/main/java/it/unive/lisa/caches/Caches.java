@@ -1,5 +1,7 @@
 package it.unive.lisa.caches;
 
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.SymbolicExpressionInterner;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
@@ -7,7 +9,8 @@ import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 /**
  * A holder of {@link ExternalSetCache}s, to ensure that all
  * {@link ExternalSet}s built to hold a given element type will share the same
- * <i>unique</i> cache.
+ * <i>unique</i> cache, and of the {@link SymbolicExpressionInterner} used to
+ * share {@link SymbolicExpression}s.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -27,4 +30,18 @@ public class Caches {
 	public static ExternalSetCache<Type> types() {
 		return types;
 	}
+
+	/**
+	 * The interner of symbolic expressions
+	 */
+	private static final SymbolicExpressionInterner expressions = new SymbolicExpressionInterner();
+
+	/**
+	 * Yields the globally defined interner for {@link SymbolicExpression}s.
+	 * 
+	 * @return the expressions interner
+	 */
+	public static SymbolicExpressionInterner expressions() {
+		return expressions;
+	}
 }
@@ -0,0 +1,436 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persistent, content-addressed cache of the results of fixpoint computations
+ * over {@link CFG}s. Each entry is stored in its own file, whose name is the
+ * SHA-256 hash of:
+ * <ul>
+ * <li>the {@link #VERSION} of the cache format, and the version of LiSA;</li>
+ * <li>a structural fingerprint of the cfg, that covers its signature, its
+ * statements (including their runtime types), its entrypoints and its edges,
+ * but not the identity of its objects;</li>
+ * <li>a textual description of the configuration of the fixpoint, provided by
+ * the caller;</li>
+ * <li>the classes of the domains of the entry state, together with the versions
+ * of the libraries defining them, and the {@link StateCodec} used to encode the
+ * results;</li>
+ * <li>the encoding of the entry state, produced by the {@link StateCodec} (that
+ * must thus be deterministic).</li>
+ * </ul>
+ * The key of an entry is built through {@link #key(CFG, AnalysisState, String)}
+ * before the fixpoint is computed, and it is used both to look up the results
+ * and to store them. Versions are read from the {@code Implementation-Version}
+ * attribute of the manifest of each library: when running from a build without
+ * one (e.g., from an IDE), changes to the semantics of the domains are not
+ * detected, and the cache should be cleared manually. Entries are thus shared
+ * among different executions over the same program, and a cfg whose content
+ * changes simply misses the cache. The file of an entry contains, in
+ * gzip-compressed binary form, a header followed by the result of each
+ * statement of the cfg (in the order of the fingerprint), encoded through the
+ * {@link StateCodec} of this cache. Entries are stored in the
+ * {@code v<VERSION>} subdirectory of the root of the cache, and the
+ * subdirectories of other versions are deleted when the cache is created. The
+ * total size of the entries is bounded: whenever it exceeds the maximum size,
+ * the least recently used entries (according to the last modification time of
+ * their files, that is updated on each hit) are evicted.<br>
+ * <br>
+ * Entries that cannot be read or decoded are deleted and treated as misses,
+ * while results that cannot be encoded are not stored: the cache can never make
+ * an analysis fail. Instances of this class can be used by multiple threads
+ * concurrently.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class ResultsCache {
+
+	private static final Logger log = LogManager.getLogger(ResultsCache.class);
+
+	/**
+	 * The version of the format of the entries. Changing it invalidates all the
+	 * existing entries.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The version used for libraries whose manifest does not define one
+	 */
+	private static final String UNVERSIONED = "unversioned";
+
+	/**
+	 * The magic number at the beginning of each entry
+	 */
+	private static final int MAGIC = 0x4C695341;
+
+	/**
+	 * The extension of the files of the entries
+	 */
+	private static final String EXTENSION = ".bin";
+
+	/**
+	 * The directory containing the entries of the current version
+	 */
+	private final File directory;
+
+	/**
+	 * The maximum size, in bytes, of the entries
+	 */
+	private final long maxSize;
+
+	/**
+	 * The codec used to encode and decode states
+	 */
+	private final StateCodec codec;
+
+	/**
+	 * The (approximate) current size, in bytes, of the entries
+	 */
+	private long size;
+
+	/**
+	 * The number of lookups that found an entry
+	 */
+	private final AtomicInteger hits = new AtomicInteger();
+
+	/**
+	 * The number of lookups that did not find an entry
+	 */
+	private final AtomicInteger misses = new AtomicInteger();
+
+	/**
+	 * Builds the cache, creating its directory if needed and deleting the
+	 * entries of other versions of the format.
+	 *
+	 * @param root    the root directory of the cache
+	 * @param maxSize the maximum size, in bytes, of the entries
+	 * @param codec   the codec used to encode and decode states
+	 *
+	 * @throws IOException              if the directory of the cache cannot be
+	 *                                      created
+	 * @throws IllegalArgumentException if {@code maxSize} is not positive
+	 */
+	public ResultsCache(File root, long maxSize, StateCodec codec) throws IOException {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("The maximum size of the cache must be positive");
+		this.directory = new File(root, "v" + VERSION);
+		this.maxSize = maxSize;
+		this.codec = codec;
+
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Unable to create the results cache directory " + directory);
+
+		File[] versions = root.listFiles(f -> f.isDirectory() && f.getName().matches("v\\d+"));
+		if (versions != null)
+			for (File version : versions)
+				if (!version.equals(directory)) {
+					log.info("Deleting the results cache of format " + version.getName());
+					deleteAll(version);
+				}
+
+		synchronized (this) {
+			evict();
+		}
+	}
+
+	private static void deleteAll(File dir) {
+		File[] files = dir.listFiles();
+		if (files != null)
+			for (File file : files)
+				if (file.isDirectory())
+					deleteAll(file);
+				else
+					file.delete();
+		dir.delete();
+	}
+
+	/**
+	 * Yields the directory containing the entries of this cache.
+	 *
+	 * @return the directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Yields the number of lookups that found an entry.
+	 *
+	 * @return the number of hits
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Yields the number of lookups that did not find an entry.
+	 *
+	 * @return the number of misses
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * The key of the results of a fixpoint computation, built through
+	 * {@link ResultsCache#key(CFG, AnalysisState, String)}. The same key must
+	 * be used both to look up the results and to store them, since the fixpoint
+	 * might modify the cfg (e.g., the runtime types of its expressions) in ways
+	 * that change its fingerprint.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static final class Key {
+
+		private final CFG cfg;
+
+		private final CFGFingerprint fingerprint;
+
+		private final String hash;
+
+		private Key(CFG cfg, CFGFingerprint fingerprint, String hash) {
+			this.cfg = cfg;
+			this.fingerprint = fingerprint;
+			this.hash = hash;
+		}
+
+		@Override
+		public String toString() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Builds the key of the results of the fixpoint over the given {@link CFG},
+	 * starting from the given entry state and with the given configuration.
+	 * This must be invoked before the fixpoint is computed. No key is built
+	 * (and the lookup is counted as a miss) if some statements of the cfg
+	 * cannot be told apart, or if the entry state cannot be encoded: the
+	 * results of the fixpoint cannot be cached in those cases.
+	 *
+	 * @param cfg           the cfg
+	 * @param entryState    the entry state of the fixpoint
+	 * @param configuration a description of the configuration of the fixpoint
+	 *
+	 * @return the key, or {@code null} if the results cannot be cached
+	 */
+	public Key key(CFG cfg, AnalysisState<?, ?, ?> entryState, String configuration) {
+		CFGFingerprint fingerprint = new CFGFingerprint(cfg);
+		if (fingerprint.isAmbiguous()) {
+			log.debug("Results of " + cfg + " will not be cached since some of its statements cannot be told apart");
+			misses.incrementAndGet();
+			return null;
+		}
+
+		// the entry state is hashed through its encoding, so that everything
+		// that is part of the state (including the parameters of its domains)
+		// is also part of the key
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(encoded)) {
+			codec.encode(entryState, out);
+		} catch (IOException | RuntimeException e) {
+			log.debug("Results of " + cfg + " will not be cached since its entry state cannot be encoded: "
+					+ e.getMessage());
+			misses.incrementAndGet();
+			return null;
+		}
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every java platform is required to support SHA-256
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+
+		update(digest, "results v" + VERSION);
+		update(digest, versionOf(ResultsCache.class));
+		fingerprint.update(digest);
+		update(digest, configuration);
+		update(digest, entryState.getState().getClass());
+		update(digest, entryState.getState().getHeapState().getClass());
+		update(digest, entryState.getState().getValueState().getClass());
+		update(digest, codec.getClass());
+		digest.update(encoded.toByteArray());
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest())
+			hex.append(String.format("%02x", b));
+		return new Key(cfg, fingerprint, hex.toString());
+	}
+
+	/**
+	 * Looks up the results identified by the given key.
+	 *
+	 * @param <A>        the type of {@link AbstractState} contained into the
+	 *                       results
+	 * @param <H>        the type of {@link HeapDomain} contained into the
+	 *                       results
+	 * @param <V>        the type of {@link ValueDomain} contained into the
+	 *                       results
+	 * @param key        the key of the results, built by
+	 *                       {@link #key(CFG, AnalysisState, String)}
+	 * @param entryState the entry state of the fixpoint, that has been used to
+	 *                       build {@code key}
+	 *
+	 * @return the cached results, or {@code null} if no entry exists
+	 */
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> load(Key key,
+					AnalysisState<A, H, V> entryState) {
+		File file = new File(directory, key.hash + EXTENSION);
+		if (!file.isFile()) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		List<Statement> statements = key.fingerprint.getStatements();
+		Map<Statement, AnalysisState<A, H, V>> results = new HashMap<>(statements.size());
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.hash.equals(in.readUTF())
+					|| in.readInt() != statements.size())
+				throw new IOException("Unexpected header");
+			for (Statement st : statements)
+				if (in.readBoolean())
+					results.put(st, codec.decode(entryState, in));
+		} catch (IOException | RuntimeException e) {
+			log.warn("Discarding corrupted results cache entry " + file.getName() + " for " + key.cfg + ": "
+					+ e.getMessage());
+			file.delete();
+			misses.incrementAndGet();
+			return null;
+		}
+
+		// entries are evicted following the time of their last use
+		file.setLastModified(System.currentTimeMillis());
+		hits.incrementAndGet();
+		return new CFGWithAnalysisResults<>(key.cfg, results);
+	}
+
+	/**
+	 * Stores the results identified by the given key, evicting the least
+	 * recently used entries if the cache grows over its maximum size. If the
+	 * results cannot be encoded, nothing is stored.
+	 *
+	 * @param key     the key of the results, built by
+	 *                    {@link #key(CFG, AnalysisState, String)} before the
+	 *                    fixpoint was computed
+	 * @param results the results of the fixpoint
+	 */
+	public void store(Key key, CFGWithAnalysisResults<?, ?, ?> results) {
+		File file = new File(directory, key.hash + EXTENSION);
+		File tmp = null;
+		try {
+			tmp = File.createTempFile(key.hash, ".tmp", directory);
+			List<Statement> statements = key.fingerprint.getStatements();
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(key.hash);
+				out.writeInt(statements.size());
+				for (Statement st : statements) {
+					AnalysisState<?, ?, ?> state = results.getAnalysisStateAt(st);
+					out.writeBoolean(state != null);
+					if (state != null)
+						codec.encode(state, out);
+				}
+			}
+
+			long written = tmp.length();
+			// the entry becomes visible only once it has been fully written
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			synchronized (this) {
+				size += written;
+				if (size > maxSize)
+					evict();
+			}
+		} catch (IOException | RuntimeException e) {
+			log.debug("Results of " + key.cfg + " will not be cached: " + e.getMessage());
+			if (tmp != null)
+				tmp.delete();
+		}
+	}
+
+	private static void update(MessageDigest digest, String str) {
+		digest.update(str.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) '\n');
+	}
+
+	private static void update(MessageDigest digest, Class<?> type) {
+		update(digest, type.getName());
+		update(digest, versionOf(type));
+	}
+
+	private static String versionOf(Class<?> type) {
+		Package pkg = type.getPackage();
+		String version = pkg == null ? null : pkg.getImplementationVersion();
+		return version == null ? UNVERSIONED : version;
+	}
+
+	/**
+	 * Recomputes the size of the entries from the file system (that might have
+	 * been modified by other executions sharing the same directory), and
+	 * deletes the least recently used ones until the size is within the bounds.
+	 * Must be invoked while holding the lock of this cache.
+	 */
+	private void evict() {
+		File[] entries = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+		if (entries == null)
+			return;
+
+		size = 0;
+		Map<File, Long> lastUse = new HashMap<>(entries.length);
+		for (File entry : entries) {
+			size += entry.length();
+			// snapshot, since hits might update it while sorting
+			lastUse.put(entry, entry.lastModified());
+		}
+		if (size <= maxSize)
+			return;
+
+		Arrays.sort(entries, Comparator.comparingLong(lastUse::get));
+		int evicted = 0;
+		for (int i = 0; i < entries.length && size > maxSize; i++) {
+			long length = entries[i].length();
+			if (entries[i].delete()) {
+				size -= length;
+				evicted++;
+			}
+		}
+		log.debug("Evicted " + evicted + " entries from the results cache");
+	}
+}
@@ -0,0 +1,58 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A codec that converts {@link AnalysisState}s to and from a binary format,
+ * used by {@link ResultsCache} to store the results of fixpoint computations on
+ * disk. Since {@link AbstractState}s are arbitrary, the codec must be provided
+ * together with the domains it is able to handle. A codec is free to refuse to
+ * encode a state (e.g., if it contains elements it does not know how to
+ * represent) by throwing an {@link IOException}: the results of the cfg where
+ * that state has been computed are then simply not cached. Since
+ * {@link ResultsCache} hashes the encoding of the entry state of a fixpoint to
+ * build the key of its results, the encoding must be deterministic: equal
+ * states must always be written in the same way. {@link BinaryStateCodec} is
+ * the codec for the domains provided by LiSA.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public interface StateCodec {
+
+	/**
+	 * Writes the given state to {@code out}.
+	 *
+	 * @param state the state to encode
+	 * @param out   the output where the state must be written
+	 *
+	 * @throws IOException if the state cannot be encoded or written
+	 */
+	void encode(AnalysisState<?, ?, ?> state, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a state written by {@link #encode(AnalysisState, DataOutput)} from
+	 * {@code in}.
+	 *
+	 * @param <A>        the type of {@link AbstractState} to read
+	 * @param <H>        the type of {@link HeapDomain} to read
+	 * @param <V>        the type of {@link ValueDomain} to read
+	 * @param entryState the entry state of the fixpoint that computed the state
+	 *                       being read, that can be used as a factory for the
+	 *                       domain instances to build
+	 * @param in         the input where the state must be read from
+	 *
+	 * @return the state that has been read
+	 *
+	 * @throws IOException if the state cannot be read or decoded
+	 */
+	<A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> decode(AnalysisState<A, H, V> entryState, DataInput in)
+					throws IOException;
+}
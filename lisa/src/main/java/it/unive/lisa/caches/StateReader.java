@@ -0,0 +1,433 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.heap.HeapSemanticOperation.HeapReplacement;
+import it.unive.lisa.analysis.impl.heap.pointbased.AllocationSite;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapAllocation;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.NullConstant;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.TernaryOperator;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The input of {@link BinaryStateCodec}, where {@link BinaryEncodable} domains
+ * read their instances from. This is the counterpart of {@link StateWriter}:
+ * each method reads what the corresponding method of {@link StateWriter}
+ * writes. {@link Type}s are resolved among the ones in {@link Caches#types()}
+ * or, if they are not there yet, through the {@code INSTANCE} field of their
+ * class.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class StateReader {
+
+	/**
+	 * A function reading an element of a collection.
+	 *
+	 * @param <E> the type of the elements
+	 */
+	@FunctionalInterface
+	public interface ElementReader<E> {
+
+		/**
+		 * Reads an element from {@code in}.
+		 *
+		 * @param in the input
+		 *
+		 * @return the element that has been read
+		 *
+		 * @throws IOException if the element cannot be read or decoded
+		 */
+		E read(StateReader in) throws IOException;
+	}
+
+	private final DataInput in;
+
+	/**
+	 * The known types, indexed by their class and name, lazily built
+	 */
+	private Map<String, Type> types;
+
+	/**
+	 * Builds the reader.
+	 *
+	 * @param in the input where data is read from
+	 */
+	StateReader(DataInput in) {
+		this.in = in;
+	}
+
+	/**
+	 * Reads a boolean.
+	 *
+	 * @return the value that has been read
+	 *
+	 * @throws IOException if the value cannot be read
+	 */
+	public boolean readBoolean() throws IOException {
+		return in.readBoolean();
+	}
+
+	/**
+	 * Reads a byte.
+	 *
+	 * @return the value that has been read
+	 *
+	 * @throws IOException if the value cannot be read
+	 */
+	public byte readByte() throws IOException {
+		return in.readByte();
+	}
+
+	/**
+	 * Reads an integer.
+	 *
+	 * @return the value that has been read
+	 *
+	 * @throws IOException if the value cannot be read
+	 */
+	public int readInt() throws IOException {
+		return in.readInt();
+	}
+
+	/**
+	 * Reads a string, that can also be {@code null}.
+	 *
+	 * @return the value that has been read
+	 *
+	 * @throws IOException if the value cannot be read
+	 */
+	public String readString() throws IOException {
+		int length = in.readInt();
+		if (length == -1)
+			return null;
+		if (length < 0)
+			throw new IOException("Negative string length: " + length);
+
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the kind written by {@link StateWriter#writeKind(Lattice)}.
+	 *
+	 * @param <L>     the type of the lattice
+	 * @param factory an element of the lattice
+	 *
+	 * @return {@link Lattice#top()} or {@link Lattice#bottom()} of
+	 *             {@code factory} if the kind is the one of the top or of the
+	 *             bottom element, {@code null} otherwise (the content of the
+	 *             element must then be read)
+	 *
+	 * @throws IOException if the kind cannot be read
+	 */
+	public <L extends Lattice<L>> L readKind(L factory) throws IOException {
+		byte kind = in.readByte();
+		switch (kind) {
+		case StateWriter.ELEMENT:
+			return null;
+		case StateWriter.TOP:
+			return factory.top();
+		case StateWriter.BOTTOM:
+			return factory.bottom();
+		default:
+			throw new IOException("Unknown lattice element kind: " + kind);
+		}
+	}
+
+	/**
+	 * Reads a nested domain, using the given instance as a factory. The domain
+	 * must have been written by an instance of the same class of
+	 * {@code factory}.
+	 *
+	 * @param <T>     the type of the domain
+	 * @param factory the instance of the domain used to read the new one, that
+	 *                    must be a {@link BinaryEncodable}
+	 *
+	 * @return the domain that has been read
+	 *
+	 * @throws IOException if the factory is not a {@link BinaryEncodable}, if
+	 *                         the domain has been written by an instance of
+	 *                         another class, or if it cannot be read or decoded
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T readDomain(T factory) throws IOException {
+		if (!(factory instanceof BinaryEncodable))
+			throw new IOException(factory.getClass().getName() + " does not support binary encoding");
+		String kind = readString();
+		if (!factory.getClass().getName().equals(kind))
+			throw new IOException("Expected an instance of " + factory.getClass().getName() + ", but one of " + kind
+					+ " was written");
+		Object read = ((BinaryEncodable<?>) factory).decode(this);
+		if (!factory.getClass().isInstance(read))
+			throw new IOException("Expected an instance of " + factory.getClass().getName() + ", but "
+					+ read.getClass().getName() + " was read");
+		return (T) read;
+	}
+
+	/**
+	 * Reads the elements written by
+	 * {@link StateWriter#writeAll(java.util.Collection, StateWriter.ElementWriter)}.
+	 *
+	 * @param <E>    the type of the elements
+	 * @param reader the function reading each element
+	 *
+	 * @return the elements that have been read
+	 *
+	 * @throws IOException if an element cannot be read or decoded
+	 */
+	public <E> List<E> readAll(ElementReader<E> reader) throws IOException {
+		int size = in.readInt();
+		if (size < 0)
+			throw new IOException("Negative collection size: " + size);
+
+		List<E> elements = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			elements.add(reader.read(this));
+		return elements;
+	}
+
+	/**
+	 * Reads a {@link Type}.
+	 *
+	 * @return the type that has been read
+	 *
+	 * @throws IOException if the type cannot be read, or if it cannot be
+	 *                         resolved
+	 */
+	public Type readType() throws IOException {
+		String kind = readString();
+		String name = readString();
+		if (types == null) {
+			types = new HashMap<>();
+			for (Type type : Caches.types().mkUniversalSet())
+				types.putIfAbsent(key(type.getClass().getName(), type.toString()), type);
+		}
+
+		Type type = types.get(key(kind, name));
+		if (type != null)
+			return type;
+
+		// types that are not registered in the program are usually singletons
+		try {
+			Object instance = Class.forName(kind).getField("INSTANCE").get(null);
+			if (instance instanceof Type && name.equals(instance.toString())) {
+				types.put(key(kind, name), (Type) instance);
+				return (Type) instance;
+			}
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// handled below
+		}
+		throw new IOException("Unknown type " + name + " (" + kind + ")");
+	}
+
+	private static String key(String kind, String name) {
+		return kind + ":" + name;
+	}
+
+	/**
+	 * Reads a set of {@link Type}s.
+	 *
+	 * @return the types that have been read
+	 *
+	 * @throws IOException if the types cannot be read, or if they cannot be
+	 *                         resolved
+	 */
+	public ExternalSet<Type> readTypes() throws IOException {
+		return Caches.types().canonical(Caches.types().mkSet(readAll(StateReader::readType)));
+	}
+
+	/**
+	 * Reads an {@link ExpressionSet}.
+	 *
+	 * @param <T> the type of the expressions in the set
+	 *
+	 * @return the expressions that have been read
+	 *
+	 * @throws IOException if an expression cannot be read or decoded
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends SymbolicExpression> ExpressionSet<T> readExpressions() throws IOException {
+		boolean isTop = in.readBoolean();
+		List<SymbolicExpression> elements = readAll(StateReader::readExpression);
+		if (isTop)
+			return new ExpressionSet<T>().top();
+		Set<T> set = new HashSet<>();
+		for (SymbolicExpression element : elements)
+			set.add((T) element);
+		return new ExpressionSet<>(set);
+	}
+
+	/**
+	 * Reads a list of {@link HeapReplacement}s.
+	 *
+	 * @return the replacements that have been read
+	 *
+	 * @throws IOException if a replacement cannot be read or decoded
+	 */
+	public List<HeapReplacement> readSubstitution() throws IOException {
+		int size = in.readInt();
+		if (size < 0)
+			throw new IOException("Negative substitution size: " + size);
+
+		List<HeapReplacement> substitution = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			HeapReplacement replacement = new HeapReplacement();
+			for (SymbolicExpression source : readAll(StateReader::readExpression))
+				replacement.addSource(identifier(source));
+			for (SymbolicExpression target : readAll(StateReader::readExpression))
+				replacement.addTarget(identifier(target));
+			substitution.add(replacement);
+		}
+		return substitution;
+	}
+
+	/**
+	 * Reads an {@link Identifier}.
+	 *
+	 * @return the identifier that has been read
+	 *
+	 * @throws IOException if the identifier cannot be read or decoded
+	 */
+	public Identifier readIdentifier() throws IOException {
+		return identifier(readExpression());
+	}
+
+	private static Identifier identifier(SymbolicExpression expression) throws IOException {
+		if (!(expression instanceof Identifier))
+			throw new IOException("Expected an identifier, but " + expression + " was read");
+		return (Identifier) expression;
+	}
+
+	/**
+	 * Reads a {@link SymbolicExpression}, that can also be {@code null}.
+	 * Expressions are interned through {@link Caches#expressions()}.
+	 *
+	 * @return the expression that has been read
+	 *
+	 * @throws IOException if the expression cannot be read or decoded
+	 */
+	public SymbolicExpression readExpression() throws IOException {
+		byte kind = in.readByte();
+		try {
+			switch (kind) {
+			case StateWriter.NULL:
+				return null;
+			case StateWriter.VARIABLE:
+				return Caches.expressions().intern(new Variable(readTypes(), readString()));
+			case StateWriter.HEAP_LOCATION:
+				return Caches.expressions().intern(new HeapLocation(readTypes(), readString(), in.readBoolean()));
+			case StateWriter.ALLOCATION_SITE:
+				return Caches.expressions()
+						.intern(new AllocationSite(readTypes(), readString(), readExpression(), in.readBoolean()));
+			case StateWriter.NULL_CONSTANT:
+				return NullConstant.INSTANCE;
+			case StateWriter.CONSTANT:
+				return readConstant();
+			case StateWriter.PUSH_ANY:
+				return Caches.expressions().intern(new PushAny(readTypes()));
+			case StateWriter.SKIP:
+				return new Skip();
+			case StateWriter.UNARY:
+				return readUnary();
+			case StateWriter.BINARY:
+				return readBinary();
+			case StateWriter.TERNARY:
+				return readTernary();
+			case StateWriter.ACCESS_CHILD:
+				return Caches.expressions()
+						.intern(new AccessChild(readTypes(), readExpression(), readExpression()));
+			case StateWriter.HEAP_ALLOCATION:
+				return Caches.expressions().intern(new HeapAllocation(readTypes()));
+			default:
+				throw new IOException("Unknown expression kind: " + kind);
+			}
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new IOException("Malformed expression of kind " + kind, e);
+		}
+	}
+
+	// arguments are read in the order they are written, so they cannot be
+	// read while building the expressions
+
+	private SymbolicExpression readUnary() throws IOException {
+		ExternalSet<Type> types = readTypes();
+		UnaryOperator operator = UnaryOperator.valueOf(readString());
+		SymbolicExpression expression = readExpression();
+		return Caches.expressions().intern(new UnaryExpression(types, expression, operator));
+	}
+
+	private SymbolicExpression readBinary() throws IOException {
+		ExternalSet<Type> types = readTypes();
+		BinaryOperator operator = BinaryOperator.valueOf(readString());
+		SymbolicExpression left = readExpression();
+		SymbolicExpression right = readExpression();
+		return Caches.expressions().intern(new BinaryExpression(types, left, right, operator));
+	}
+
+	private SymbolicExpression readTernary() throws IOException {
+		ExternalSet<Type> types = readTypes();
+		TernaryOperator operator = TernaryOperator.valueOf(readString());
+		SymbolicExpression left = readExpression();
+		SymbolicExpression middle = readExpression();
+		SymbolicExpression right = readExpression();
+		return Caches.expressions().intern(new TernaryExpression(types, left, middle, right, operator));
+	}
+
+	private SymbolicExpression readConstant() throws IOException {
+		ExternalSet<Type> types = readTypes();
+		if (types.size() != 1)
+			throw new IOException("Constants must have exactly one type");
+		return Caches.expressions().intern(new Constant(types.first(), readValue()));
+	}
+
+	private Object readValue() throws IOException {
+		byte kind = in.readByte();
+		switch (kind) {
+		case StateWriter.BOOLEAN:
+			return in.readBoolean();
+		case StateWriter.BYTE:
+			return in.readByte();
+		case StateWriter.SHORT:
+			return in.readShort();
+		case StateWriter.CHAR:
+			return in.readChar();
+		case StateWriter.INT:
+			return in.readInt();
+		case StateWriter.LONG:
+			return in.readLong();
+		case StateWriter.FLOAT:
+			return in.readFloat();
+		case StateWriter.DOUBLE:
+			return in.readDouble();
+		case StateWriter.STRING:
+			return readString();
+		default:
+			throw new IOException("Unknown constant kind: " + kind);
+		}
+	}
+}
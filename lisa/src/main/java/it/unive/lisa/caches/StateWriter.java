@@ -0,0 +1,455 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.heap.HeapSemanticOperation.HeapReplacement;
+import it.unive.lisa.analysis.impl.heap.pointbased.AllocationSite;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapAllocation;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.NullConstant;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The output of {@link BinaryStateCodec}, where {@link BinaryEncodable} domains
+ * write their instances. Besides primitive values, it can write {@link Type}s
+ * (through their name), {@link SymbolicExpression}s and nested domains.
+ * Elements of unordered collections are written in the order of their encoding,
+ * so that the same collection is always written in the same way (see
+ * {@link #writeAll(Collection, ElementWriter)}).
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class StateWriter {
+
+	/**
+	 * The tag of a missing ({@code null}) expression.
+	 */
+	static final byte NULL = 0;
+	/**
+	 * The tag of a {@link Variable}.
+	 */
+	static final byte VARIABLE = 1;
+	/**
+	 * The tag of a {@link HeapLocation}.
+	 */
+	static final byte HEAP_LOCATION = 2;
+	/**
+	 * The tag of an {@link AllocationSite}.
+	 */
+	static final byte ALLOCATION_SITE = 3;
+	/**
+	 * The tag of a {@link Constant}.
+	 */
+	static final byte CONSTANT = 4;
+	/**
+	 * The tag of a {@link NullConstant}.
+	 */
+	static final byte NULL_CONSTANT = 5;
+	/**
+	 * The tag of a {@link PushAny}.
+	 */
+	static final byte PUSH_ANY = 6;
+	/**
+	 * The tag of a {@link Skip}.
+	 */
+	static final byte SKIP = 7;
+	/**
+	 * The tag of a {@link UnaryExpression}.
+	 */
+	static final byte UNARY = 8;
+	/**
+	 * The tag of a {@link BinaryExpression}.
+	 */
+	static final byte BINARY = 9;
+	/**
+	 * The tag of a {@link TernaryExpression}.
+	 */
+	static final byte TERNARY = 10;
+	/**
+	 * The tag of an {@link AccessChild}.
+	 */
+	static final byte ACCESS_CHILD = 11;
+	/**
+	 * The tag of a {@link HeapAllocation}.
+	 */
+	static final byte HEAP_ALLOCATION = 12;
+
+	/**
+	 * The tag of a domain instance that is neither top nor bottom.
+	 */
+	static final byte ELEMENT = 0;
+	/**
+	 * The tag of the top element of a domain.
+	 */
+	static final byte TOP = 1;
+	/**
+	 * The tag of the bottom element of a domain.
+	 */
+	static final byte BOTTOM = 2;
+
+	/**
+	 * The tag of a boolean constant.
+	 */
+	static final byte BOOLEAN = 0;
+	/**
+	 * The tag of a byte constant.
+	 */
+	static final byte BYTE = 1;
+	/**
+	 * The tag of a short constant.
+	 */
+	static final byte SHORT = 2;
+	/**
+	 * The tag of a char constant.
+	 */
+	static final byte CHAR = 3;
+	/**
+	 * The tag of an int constant.
+	 */
+	static final byte INT = 4;
+	/**
+	 * The tag of a long constant.
+	 */
+	static final byte LONG = 5;
+	/**
+	 * The tag of a float constant.
+	 */
+	static final byte FLOAT = 6;
+	/**
+	 * The tag of a double constant.
+	 */
+	static final byte DOUBLE = 7;
+	/**
+	 * The tag of a string constant.
+	 */
+	static final byte STRING = 8;
+
+	/**
+	 * A function writing an element of a collection.
+	 *
+	 * @param <E> the type of the elements
+	 */
+	@FunctionalInterface
+	public interface ElementWriter<E> {
+
+		/**
+		 * Writes the given element to {@code out}.
+		 *
+		 * @param out     the output
+		 * @param element the element to write
+		 *
+		 * @throws IOException if the element cannot be encoded or written
+		 */
+		void write(StateWriter out, E element) throws IOException;
+	}
+
+	private final DataOutput out;
+
+	/**
+	 * Builds the writer.
+	 *
+	 * @param out the output where data is written
+	 */
+	StateWriter(DataOutput out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes a boolean.
+	 *
+	 * @param value the value to write
+	 *
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeBoolean(boolean value) throws IOException {
+		out.writeBoolean(value);
+	}
+
+	/**
+	 * Writes a byte.
+	 *
+	 * @param value the value to write
+	 *
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeByte(int value) throws IOException {
+		out.writeByte(value);
+	}
+
+	/**
+	 * Writes an integer.
+	 *
+	 * @param value the value to write
+	 *
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeInt(int value) throws IOException {
+		out.writeInt(value);
+	}
+
+	/**
+	 * Writes a string, that can also be {@code null}.
+	 *
+	 * @param value the value to write
+	 *
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeString(String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Writes whether the given element is the top, the bottom or another
+	 * element of its lattice. This is meant for domains whose top and bottom
+	 * elements are singletons: {@link StateReader#readKind(Lattice)} yields
+	 * back {@link Lattice#top()} or {@link Lattice#bottom()}, while the content
+	 * of the other elements must be written after their kind.
+	 *
+	 * @param element the element
+	 *
+	 * @return {@code true} if {@code element} is neither the top nor the bottom
+	 *             element, and its content must thus be written
+	 *
+	 * @throws IOException if the kind cannot be written
+	 */
+	public boolean writeKind(Lattice<?> element) throws IOException {
+		byte kind = element.isTop() ? TOP : element.isBottom() ? BOTTOM : ELEMENT;
+		out.writeByte(kind);
+		return kind == ELEMENT;
+	}
+
+	/**
+	 * Writes a nested domain, that must be a {@link BinaryEncodable}. The name
+	 * of its class is written before its content: domains of different classes,
+	 * that might have the same content (e.g., the top elements of two
+	 * non-relational domains inside an environment), are thus never written in
+	 * the same way.
+	 *
+	 * @param domain the domain to write
+	 *
+	 * @throws IOException if the domain is not a {@link BinaryEncodable}, or if
+	 *                         it cannot be encoded or written
+	 */
+	public void writeDomain(Object domain) throws IOException {
+		if (!(domain instanceof BinaryEncodable))
+			throw new IOException(domain.getClass().getName() + " does not support binary encoding");
+		writeString(domain.getClass().getName());
+		((BinaryEncodable<?>) domain).encode(this);
+	}
+
+	/**
+	 * Writes the elements of a collection. Each element is encoded on its own,
+	 * and encodings are written in lexicographic order: the same elements are
+	 * thus written in the same way regardless of the order in which
+	 * {@code elements} yields them. Since encodings are written one after the
+	 * other, elements can be read back in the order they are written through
+	 * {@link StateReader#readAll(StateReader.ElementReader)}.
+	 *
+	 * @param <E>      the type of the elements
+	 * @param elements the elements to write
+	 * @param writer   the function writing each element
+	 *
+	 * @throws IOException if an element cannot be encoded or written
+	 */
+	public <E> void writeAll(Collection<? extends E> elements, ElementWriter<E> writer) throws IOException {
+		List<byte[]> encoded = new ArrayList<>(elements.size());
+		for (E element : elements) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			writer.write(new StateWriter(new DataOutputStream(bytes)), element);
+			encoded.add(bytes.toByteArray());
+		}
+		encoded.sort(Arrays::compare);
+
+		out.writeInt(encoded.size());
+		for (byte[] element : encoded)
+			out.write(element);
+	}
+
+	/**
+	 * Writes a {@link Type}, through its class and its name (types of different
+	 * languages can share the same name).
+	 *
+	 * @param type the type to write
+	 *
+	 * @throws IOException if the type cannot be written
+	 */
+	public void writeType(Type type) throws IOException {
+		writeString(type.getClass().getName());
+		writeString(type.toString());
+	}
+
+	/**
+	 * Writes a set of {@link Type}s.
+	 *
+	 * @param types the types to write
+	 *
+	 * @throws IOException if the types cannot be written
+	 */
+	public void writeTypes(ExternalSet<Type> types) throws IOException {
+		writeAll(types, StateWriter::writeType);
+	}
+
+	/**
+	 * Writes an {@link ExpressionSet}.
+	 *
+	 * @param expressions the expressions to write
+	 *
+	 * @throws IOException if an expression cannot be encoded or written
+	 */
+	public void writeExpressions(ExpressionSet<? extends SymbolicExpression> expressions) throws IOException {
+		out.writeBoolean(expressions.isTop());
+		writeAll(expressions.elements(), StateWriter::writeExpression);
+	}
+
+	/**
+	 * Writes a list of {@link HeapReplacement}s, preserving its order.
+	 *
+	 * @param substitution the replacements to write
+	 *
+	 * @throws IOException if a replacement cannot be encoded or written
+	 */
+	public void writeSubstitution(List<HeapReplacement> substitution) throws IOException {
+		out.writeInt(substitution.size());
+		for (HeapReplacement replacement : substitution) {
+			writeAll(replacement.getSources(), StateWriter::writeExpression);
+			writeAll(replacement.getTargets(), StateWriter::writeExpression);
+		}
+	}
+
+	/**
+	 * Writes a {@link SymbolicExpression}, that can also be {@code null}. Only
+	 * the expressions defined by LiSA are supported.
+	 *
+	 * @param expression the expression to write
+	 *
+	 * @throws IOException if the expression cannot be encoded or written
+	 */
+	public void writeExpression(SymbolicExpression expression) throws IOException {
+		if (expression == null) {
+			out.writeByte(NULL);
+			return;
+		}
+
+		Class<?> kind = expression.getClass();
+		if (kind == Variable.class) {
+			out.writeByte(VARIABLE);
+			writeTypes(expression.getTypes());
+			writeString(((Identifier) expression).getName());
+		} else if (kind == HeapLocation.class) {
+			Identifier location = (Identifier) expression;
+			out.writeByte(HEAP_LOCATION);
+			writeTypes(location.getTypes());
+			writeString(location.getName());
+			out.writeBoolean(location.isWeak());
+		} else if (kind == AllocationSite.class) {
+			AllocationSite site = (AllocationSite) expression;
+			out.writeByte(ALLOCATION_SITE);
+			writeTypes(site.getTypes());
+			writeString(site.getId());
+			writeExpression(site.getField());
+			out.writeBoolean(site.isWeak());
+		} else if (kind == NullConstant.class)
+			out.writeByte(NULL_CONSTANT);
+		else if (kind == Constant.class) {
+			out.writeByte(CONSTANT);
+			writeTypes(expression.getTypes());
+			writeConstant(((Constant) expression).getValue());
+		} else if (kind == PushAny.class) {
+			out.writeByte(PUSH_ANY);
+			writeTypes(expression.getTypes());
+		} else if (kind == Skip.class)
+			out.writeByte(SKIP);
+		else if (kind == UnaryExpression.class) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			out.writeByte(UNARY);
+			writeTypes(unary.getTypes());
+			writeString(unary.getOperator().name());
+			writeExpression(unary.getExpression());
+		} else if (kind == BinaryExpression.class) {
+			BinaryExpression binary = (BinaryExpression) expression;
+			out.writeByte(BINARY);
+			writeTypes(binary.getTypes());
+			writeString(binary.getOperator().name());
+			writeExpression(binary.getLeft());
+			writeExpression(binary.getRight());
+		} else if (kind == TernaryExpression.class) {
+			TernaryExpression ternary = (TernaryExpression) expression;
+			out.writeByte(TERNARY);
+			writeTypes(ternary.getTypes());
+			writeString(ternary.getOperator().name());
+			writeExpression(ternary.getLeft());
+			writeExpression(ternary.getMiddle());
+			writeExpression(ternary.getRight());
+		} else if (kind == AccessChild.class) {
+			AccessChild access = (AccessChild) expression;
+			out.writeByte(ACCESS_CHILD);
+			writeTypes(access.getTypes());
+			writeExpression(access.getContainer());
+			writeExpression(access.getChild());
+		} else if (kind == HeapAllocation.class) {
+			out.writeByte(HEAP_ALLOCATION);
+			writeTypes(expression.getTypes());
+		} else
+			throw new IOException("Expressions of type " + kind.getName() + " do not support binary encoding");
+	}
+
+	private void writeConstant(Object value) throws IOException {
+		if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		} else if (value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		} else if (value instanceof Character) {
+			out.writeByte(CHAR);
+			out.writeChar((Character) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(INT);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString((String) value);
+		} else
+			throw new IOException("Constants of type " + (value == null ? "null" : value.getClass().getName())
+					+ " do not support binary encoding");
+	}
+}
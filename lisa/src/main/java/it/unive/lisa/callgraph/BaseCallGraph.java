@@ -0,0 +1,574 @@
+package it.unive.lisa.callgraph;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.ResultsCache;
+import it.unive.lisa.checks.warnings.CFGWarning;
+import it.unive.lisa.logging.Counter;
+import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.NativeCFG;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.VariableTableEntry;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Call;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.OpenCall;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A base implementation of the {@link CallGraph} interface, that:
+ * <ul>
+ * <li>resolves {@link UnresolvedCall} to all the {@link CFG}s that match the
+ * target's signature</li>
+ * <li>computes the fixpoint of each {@link CFG} reachable from the entrypoints
+ * of the program (or of all of them, if the program has no entrypoints)
+ * starting from an entry state where its parameters are bound to any possible
+ * value</li>
+ * </ul>
+ * The abstraction of {@link CFGCall}s is left to subclasses. Fixpoints over
+ * different {@link CFG}s are computed in parallel whenever the
+ * {@link FixpointConfiguration} allows it.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public abstract class BaseCallGraph implements CallGraph {
+
+	private static final Logger log = LogManager.getLogger(BaseCallGraph.class);
+
+	private static final String FIXPOINT_MESSAGE = "Computing fixpoint over the whole program";
+
+	/**
+	 * The cash of the fixpoints' results. {@link Map#keySet()} will contain all
+	 * the cfgs that have been added. If a key's values's
+	 * {@link Optional#isEmpty()} yields true, then the fixpoint for that key
+	 * has not be computed yet.
+	 */
+	private final Map<CFG, Optional<CFGWithAnalysisResults<?, ?, ?>>> results;
+
+	private Program program;
+
+	/**
+	 * The local variables of each cfg, lazily computed
+	 */
+	private final Map<CFG, Collection<Identifier>> locals;
+
+	/**
+	 * The targets of the {@link UnresolvedCall}s resolved so far. Since
+	 * different targets can be selected depending on the runtime types of the
+	 * parameters, these are part of the key.
+	 */
+	private final Map<ResolutionKey, Collection<CodeMember>> resolutions;
+
+	/**
+	 * The configuration of the last fixpoint computation
+	 */
+	private FixpointConfiguration conf;
+
+	/**
+	 * Builds the call graph.
+	 */
+	protected BaseCallGraph() {
+		this.results = new ConcurrentHashMap<>();
+		this.locals = new ConcurrentHashMap<>();
+		this.resolutions = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields the program whose call graph has been built.
+	 * 
+	 * @return the program
+	 */
+	protected Program getProgram() {
+		return program;
+	}
+
+	/**
+	 * Yields the {@link FixpointConfiguration} of the last invocation of
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)}, or a default one
+	 * if no fixpoint has been computed yet.
+	 * 
+	 * @return the configuration
+	 */
+	protected FixpointConfiguration getFixpointConfiguration() {
+		return conf == null ? new FixpointConfiguration() : conf;
+	}
+
+	@Override
+	public void build(Program program) throws CallGraphConstructionException {
+		this.program = program;
+		resolutions.clear();
+	}
+
+	@Override
+	public void clear() {
+		results.clear();
+	}
+
+	@Override
+	public Call resolve(UnresolvedCall call) throws CallResolutionException {
+		Expression[] parameters = call.getParameters();
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		ExternalSet<Type>[] types = new ExternalSet[parameters.length];
+		for (int i = 0; i < parameters.length; i++)
+			types[i] = parameters[i].getRuntimeTypes();
+		return resolve(call, types);
+	}
+
+	@Override
+	public Call resolve(UnresolvedCall call, ExternalSet<Type>[] types) throws CallResolutionException {
+		if (call.isInstanceCall() && call.getParameters().length == 0)
+			throw new CallResolutionException(
+					"An instance call should have at least one parameter to be used as the receiver of the call");
+
+		Collection<CodeMember> targets = resolutions.computeIfAbsent(new ResolutionKey(call, types),
+				k -> findTargets(call, types));
+
+		Call resolved;
+		if (targets.isEmpty())
+			resolved = new OpenCall(call.getCFG(), call.getLocation(), call.getTargetName(), call.getStaticType(),
+					call.getParameters());
+		else if (targets.size() == 1 && targets.iterator().next() instanceof NativeCFG)
+			resolved = ((NativeCFG) targets.iterator().next()).rewrite(call, call.getParameters());
+		else {
+			if (targets.stream().anyMatch(t -> t instanceof NativeCFG))
+				throw new CallResolutionException(
+						"Hybrid resolution is not supported: when more than one target is present, they must all be CFGs and not NativeCFGs");
+
+			resolved = new CFGCall(call.getCFG(), call.getLocation(), call.getTargetName(),
+					targets.stream().map(t -> (CFG) t).collect(Collectors.toList()), call.getParameters());
+		}
+
+		resolved.setOffset(call.getOffset());
+		return resolved;
+	}
+
+	/**
+	 * Finds the code members that are targeted by the given call, looking up
+	 * the dispatch tables of the units of the receiver for instance calls, and
+	 * the code members of the program having the same name and arity otherwise.
+	 * The runtime types of the parameters are the given ones.
+	 */
+	private Collection<CodeMember> findTargets(UnresolvedCall call, ExternalSet<Type>[] types) {
+		Expression[] parameters = call.getParameters();
+		Collection<CodeMember> targets = new ArrayList<>();
+		if (call.isInstanceCall()) {
+			for (Type recType : types[0]) {
+				if (!recType.isUnitType())
+					continue;
+
+				CompilationUnit unit = recType.asUnitType().getUnit();
+				for (CodeMember candidate : unit.getInstanceCodeMembersByName(call.getTargetName(), parameters.length))
+					if (call.getStrategy().matches(candidate.getDescriptor().getArgs(), parameters, types))
+						targets.add(candidate);
+			}
+		} else {
+			for (CodeMember cm : program.getAllCodeMembersByName(call.getTargetName(), parameters.length))
+				if (cm.getDescriptor().isInstance()
+						&& call.getStrategy().matches(cm.getDescriptor().getArgs(), parameters, types))
+					targets.add(cm);
+		}
+		return targets;
+	}
+
+	@Override
+	public Collection<CFG> getReachableCFGs() {
+		Collection<CFG> all = program.getAllCFGs();
+		if (program.getEntryPoints().isEmpty())
+			return all;
+
+		// cfgs are compared structurally by equals
+		Set<CFG> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<CFG> worklist = new ArrayDeque<>();
+		for (CFG entryPoint : program.getEntryPoints())
+			if (reachable.add(entryPoint))
+				worklist.add(entryPoint);
+
+		CalleesCollector collector = new CalleesCollector();
+		while (!worklist.isEmpty()) {
+			Collection<CFG> callees = new ArrayList<>();
+			worklist.poll().accept(collector, callees);
+			for (CFG callee : callees)
+				if (reachable.add(callee))
+					worklist.add(callee);
+		}
+
+		// the order of the program is preserved
+		return all.stream().filter(reachable::contains).collect(Collectors.toList());
+	}
+
+	@Override
+	public <A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void fixpoint(
+			AnalysisState<A, H, V> entryState, FixpointConfiguration conf) throws FixpointException {
+		this.conf = conf;
+		Collection<CFG> cfgs = getReachableCFGs();
+		if (conf.isParallel() && cfgs.size() > 1)
+			parallelFixpoint(entryState, cfgs, conf);
+		else
+			for (CFG cfg : IterationLogger.iterate(log, cfgs, FIXPOINT_MESSAGE, "cfgs")) {
+				fixpoint(entryState, cfg, conf);
+				completed(cfg, conf);
+			}
+	}
+
+	/**
+	 * Computes the fixpoints of the given {@link CFG}s using a
+	 * {@link ForkJoinPool} with {@link FixpointConfiguration#getParallelism()}
+	 * worker threads. Since the analysis of each {@link CFG} does not depend on
+	 * the results of the others, the results are the same of the ones of the
+	 * sequential execution. As soon as one of the fixpoints fails, all the ones
+	 * that have not been started yet are cancelled and the exception is
+	 * propagated to the caller.
+	 */
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> void parallelFixpoint(AnalysisState<A, H, V> entryState, Collection<CFG> cfgs,
+					FixpointConfiguration conf) throws FixpointException {
+		Counter counter = new Counter(log, Level.INFO, FIXPOINT_MESSAGE, "cfgs", cfgs.size(), 0.025);
+		ForkJoinPool pool = new ForkJoinPool(conf.getParallelism());
+		CompletionService<CFG> service = new ExecutorCompletionService<>(pool);
+		List<Future<CFG>> futures = new ArrayList<>(cfgs.size());
+
+		counter.on();
+		try {
+			for (CFG cfg : cfgs)
+				futures.add(service.submit(() -> {
+					fixpoint(entryState, cfg, conf);
+					completed(cfg, conf);
+					return cfg;
+				}));
+
+			for (int i = 0; i < futures.size(); i++)
+				try {
+					service.take().get();
+					counter.count();
+				} catch (ExecutionException e) {
+					futures.forEach(f -> f.cancel(true));
+					Throwable cause = e.getCause();
+					if (cause instanceof FixpointException)
+						throw (FixpointException) cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new FixpointException("Error while computing the fixpoint over the whole program", cause);
+				} catch (InterruptedException e) {
+					futures.forEach(f -> f.cancel(true));
+					Thread.currentThread().interrupt();
+					throw new FixpointException("Interrupted while computing the fixpoint over the whole program", e);
+				}
+		} finally {
+			pool.shutdownNow();
+			counter.off();
+		}
+	}
+
+	/**
+	 * Computes the fixpoint over the given {@link CFG}, starting from the entry
+	 * state built by {@link #prepare(AnalysisState, CFG)}. The results are
+	 * stored in this call graph, and are then available through
+	 * {@link #getAnalysisResultsOf(CFG)}. If {@link #hasIndependentResults()}
+	 * holds and the given configuration has a {@link ResultsCache}, the results
+	 * are first looked up in the cache, and the fixpoint is computed (storing
+	 * its results in the cache) only if they are not found there.
+	 * 
+	 * @param <A>        the type of {@link AbstractState} to compute
+	 * @param <H>        the type of {@link HeapDomain} to compute
+	 * @param <V>        the type of {@link ValueDomain} to compute
+	 * @param entryState the entry state of the whole program
+	 * @param cfg        the cfg to analyze
+	 * @param conf       the settings of the fixpoint computation
+	 * 
+	 * @return the results of the fixpoint over {@code cfg}
+	 * 
+	 * @throws FixpointException if something goes wrong while evaluating the
+	 *                               fixpoint
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(AnalysisState<A, H, V> entryState,
+					CFG cfg, FixpointConfiguration conf) throws FixpointException {
+		AnalysisState<A, H, V> prepared;
+		try {
+			prepared = prepare(entryState, cfg);
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
+
+		ResultsCache cache = hasIndependentResults() ? conf.getCache() : null;
+		// the key is built before the fixpoint, that might change the cfg
+		ResultsCache.Key key = cache == null ? null : cache.key(cfg, prepared, cacheConfiguration(conf));
+		CFGWithAnalysisResults<A, H, V> result = key == null ? null : cache.load(key, prepared);
+		if (result == null) {
+			result = cfg.fixpoint(prepared, this, conf);
+			// interrupted fixpoints only yield top results
+			if (key != null && !exhausted(cfg, conf))
+				cache.store(key, result);
+		}
+		results.put(cfg, Optional.of(result));
+		return result;
+	}
+
+	/**
+	 * Yields whether or not the results of the fixpoint over each {@link CFG}
+	 * only depend on the {@link CFG} itself and on the entry state of the whole
+	 * program, and not on the results of other {@link CFG}s. Only in this case
+	 * results can be reused from the {@link ResultsCache} of the
+	 * {@link FixpointConfiguration}. Defaults to {@code false}.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	protected boolean hasIndependentResults() {
+		return false;
+	}
+
+	private String cacheConfiguration(FixpointConfiguration conf) {
+		return getClass().getName() + ", " + conf.getIterationStrategy() + ", prune=" + conf.isPruneDeadVariables()
+				+ ", descending=" + conf.getDescendingRounds() + ", widening=" + conf.getWideningThreshold();
+	}
+
+	private static boolean exhausted(CFG cfg, FixpointConfiguration conf) {
+		for (CFGWarning warning : conf.getBudget().getWarnings())
+			if (warning.getCFG() == cfg)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Marks the results of the given {@link CFG} as final. If the given
+	 * {@link FixpointConfiguration} has a {@link ResultsListener}, this
+	 * notifies it and releases the results of {@code cfg}. Subclasses must
+	 * invoke this method exactly once for each analyzed {@link CFG}, as soon as
+	 * its results will not change anymore.
+	 * 
+	 * @param cfg  the cfg whose results are final
+	 * @param conf the settings of the fixpoint computation
+	 */
+	protected void completed(CFG cfg, FixpointConfiguration conf) {
+		ResultsListener listener = conf.getListener();
+		if (listener == null)
+			return;
+
+		Optional<CFGWithAnalysisResults<?, ?, ?>> result = results.remove(cfg);
+		if (result != null && result.isPresent())
+			listener.completed(cfg, result.get());
+	}
+
+	/**
+	 * Prepares the entry state for the fixpoint computation over the given
+	 * {@link CFG}, binding each of its parameters to any possible value.
+	 * 
+	 * @param <A>        the type of {@link AbstractState} contained into the
+	 *                       analysis state
+	 * @param <H>        the type of {@link HeapDomain} contained into the
+	 *                       computed abstract state
+	 * @param <V>        the type of {@link ValueDomain} contained into the
+	 *                       computed abstract state
+	 * @param entryState the entry state of the whole program
+	 * @param cfg        the cfg to analyze
+	 * 
+	 * @return the entry state for {@code cfg}
+	 * 
+	 * @throws SemanticException if something goes wrong during the preparation
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> prepare(
+					AnalysisState<A, H, V> entryState, CFG cfg) throws SemanticException {
+		AnalysisState<A, H, V> prepared = entryState;
+		for (Parameter arg : cfg.getDescriptor().getArgs()) {
+			Collection<Type> all = arg.getStaticType().allInstances();
+			Variable id = Caches.expressions().intern(new Variable(Caches.types().mkSet(all), arg.getName()));
+			prepared = prepared.assign(id, new PushAny(Caches.types().mkSet(all)),
+					cfg.getGenericProgramPoint());
+		}
+		return prepared;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> getAnalysisResultsOf(
+					CFG cfg) {
+		return (CFGWithAnalysisResults<A, H, V>) results.getOrDefault(cfg, Optional.empty()).orElse(null);
+	}
+
+	/**
+	 * Yields the local variables of the given {@link CFG}, including its formal
+	 * parameters.
+	 * 
+	 * @param cfg the cfg
+	 * 
+	 * @return the local variables of {@code cfg}
+	 */
+	protected Collection<Identifier> getLocals(CFG cfg) {
+		return locals.computeIfAbsent(cfg, c -> {
+			// the variable table also contains the formal parameters
+			Collection<Identifier> ids = new ArrayList<>();
+			for (VariableTableEntry entry : c.getDescriptor().getVariables())
+				ids.add(entry.createReference(c).getVariable());
+			return ids;
+		});
+	}
+
+	/**
+	 * Yields the meta variable where the {@link Return}s of the given target
+	 * store the returned value, typed with the runtime types of the given call.
+	 * 
+	 * @param call   the call
+	 * @param target the target of the call
+	 * 
+	 * @return the variable containing the returned value
+	 */
+	protected static Identifier getReturnedVariable(CFGCall call, CFG target) {
+		return Caches.expressions()
+				.intern(new Variable(call.getRuntimeTypes(), "ret_value@" + target.getDescriptor().getName()));
+	}
+
+	/**
+	 * A visitor that collects the targets of the calls contained in a
+	 * {@link CFG}, resolving them with this call graph. Calls that cannot be
+	 * resolved, or that are resolved to {@link OpenCall}s (e.g., since no type
+	 * information is available yet), are conservatively assumed to target all
+	 * the cfgs of the program with the same name and arity.
+	 */
+	private final class CalleesCollector implements GraphVisitor<CFG, Statement, Edge, Collection<CFG>> {
+
+		@Override
+		public boolean visit(Collection<CFG> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<CFG> tool, CFG graph, Statement node) {
+			if (node instanceof CFGCall)
+				tool.addAll(((CFGCall) node).getTargets());
+			else if (node instanceof UnresolvedCall) {
+				UnresolvedCall call = (UnresolvedCall) node;
+				Call resolved;
+				try {
+					resolved = resolve(call);
+				} catch (CallResolutionException e) {
+					resolved = null;
+				}
+
+				if (resolved instanceof CFGCall)
+					tool.addAll(((CFGCall) resolved).getTargets());
+				else if (resolved == null || resolved instanceof OpenCall)
+					for (CodeMember cm : program.getAllCodeMembersByName(call.getTargetName(),
+							call.getParameters().length))
+						if (cm instanceof CFG)
+							tool.add((CFG) cm);
+			}
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<CFG> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+
+	/**
+	 * The key of a resolution: the call being resolved, together with the
+	 * runtime types of the parameters that can influence its resolution. The
+	 * runtime types of the receiver of instance calls always determine the
+	 * units where targets are looked up, while the ones of the other parameters
+	 * are relevant only for strategies that match them against the formal
+	 * parameters.
+	 */
+	private static final class ResolutionKey {
+
+		private final UnresolvedCall call;
+
+		private final List<ExternalSet<Type>> types;
+
+		private final int hash;
+
+		private ResolutionKey(UnresolvedCall call, ExternalSet<Type>[] runtimeTypes) {
+			this.call = call;
+			this.types = new ArrayList<>(runtimeTypes.length);
+			for (int i = 0; i < runtimeTypes.length; i++)
+				if (isRelevant(call, i))
+					types.add(key(runtimeTypes[i]));
+				else
+					types.add(null);
+			this.hash = 31 * System.identityHashCode(call) + types.hashCode();
+		}
+
+		private static ExternalSet<Type> key(ExternalSet<Type> runtimeTypes) {
+			// canonical sets are immutable and can be used as they are, while
+			// other ones (e.g., universal sets) might change after the
+			// resolution
+			ExternalSet<Type> canonical = runtimeTypes.getCache().canonical(runtimeTypes);
+			return runtimeTypes.getCache().isCanonical(canonical) ? canonical : runtimeTypes.copy();
+		}
+
+		private static boolean isRelevant(UnresolvedCall call, int pos) {
+			switch (call.getStrategy()) {
+			case DYNAMIC_TYPES:
+				return true;
+			case FIRST_DYNAMIC_THEN_STATIC:
+				return pos == 0;
+			case STATIC_TYPES:
+			default:
+				return pos == 0 && call.isInstanceCall();
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof ResolutionKey))
+				return false;
+			ResolutionKey other = (ResolutionKey) obj;
+			return call == other.call && hash == other.hash && types.equals(other.types);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package it.unive.lisa.callgraph;
 
 import it.unive.lisa.DefaultImplementation;
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
@@ -17,7 +18,10 @@ import it.unive.lisa.program.cfg.statement.OpenCall;
 import it.unive.lisa.program.cfg.statement.UnresolvedCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.util.Collection;
 
 /**
  * A callgraph of the program to analyze, that knows how to resolve dynamic
@@ -59,10 +63,68 @@ public interface CallGraph {
 	 */
 	Call resolve(UnresolvedCall call) throws CallResolutionException;
 
+	/**
+	 * Yields a {@link Call} implementation that corresponds to the resolution
+	 * of the given {@link UnresolvedCall}, as {@link #resolve(UnresolvedCall)}
+	 * does, assuming that the runtime types of its parameters are the given
+	 * ones instead of the ones stored in them. This is used to resolve calls
+	 * with the types inferred by the fixpoint that is evaluating them.
+	 * 
+	 * @param call  the call to resolve
+	 * @param types the runtime types of the parameters of the call, one for
+	 *                  each parameter
+	 * 
+	 * @return a collection of all the possible runtime targets
+	 * 
+	 * @throws CallResolutionException if this call graph is unable to resolve
+	 *                                     the given call
+	 */
+	Call resolve(UnresolvedCall call, ExternalSet<Type>[] types) throws CallResolutionException;
+
+	/**
+	 * Yields the {@link CFG}s that are analyzed by
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)}. If the program
+	 * has no entrypoints (see {@link Program#getEntryPoints()}), these are all
+	 * the cfgs of the program. Otherwise, these are the cfgs that are
+	 * transitively reachable from the entrypoints through the calls resolved by
+	 * this call graph. Since resolution depends on the runtime types of the
+	 * parameters, the result can shrink after type information has been
+	 * propagated to the cfgs.
+	 * 
+	 * @return the cfgs to analyze
+	 */
+	Collection<CFG> getReachableCFGs();
+
+	/**
+	 * Computes a fixpoint over the whole control flow graph, producing a
+	 * {@link CFGWithAnalysisResults} for each {@link CFG} contained in this
+	 * callgraph that is returned by {@link #getReachableCFGs()}. Each result is
+	 * computed with {@link CFG#fixpoint(AnalysisState, CallGraph)} or one of
+	 * its overloads. Results of individual cfgs are then available through
+	 * {@link #getAnalysisResultsOf(CFG)}. This is equivalent to invoking
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)} with a default
+	 * {@link FixpointConfiguration}.
+	 * 
+	 * @param <A>        the type of {@link AbstractState} to compute
+	 * @param <H>        the type of {@link HeapDomain} to compute
+	 * @param <V>        the type of {@link ValueDomain} to compute
+	 * @param entryState the entry state for the {@link CFG}s that are the
+	 *                       entrypoints of the computation
+	 * 
+	 * @throws FixpointException if something goes wrong while evaluating the
+	 *                               fixpoint
+	 */
+	default <A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void fixpoint(
+			AnalysisState<A, H, V> entryState)
+			throws FixpointException {
+		fixpoint(entryState, new FixpointConfiguration());
+	}
+
 	/**
 	 * Computes a fixpoint over the whole control flow graph, producing a
 	 * {@link CFGWithAnalysisResults} for each {@link CFG} contained in this
-	 * callgraph. Each result is computed with
+	 * callgraph, following the settings contained in the given
+	 * {@link FixpointConfiguration}. Each result is computed with
 	 * {@link CFG#fixpoint(AnalysisState, CallGraph)} or one of its overloads.
 	 * Results of individual cfgs are then available through
 	 * {@link #getAnalysisResultsOf(CFG)}.
@@ -72,12 +134,13 @@ public interface CallGraph {
 	 * @param <V>        the type of {@link ValueDomain} to compute
 	 * @param entryState the entry state for the {@link CFG}s that are the
 	 *                       entrypoints of the computation
+	 * @param conf       the settings of the fixpoint computation
 	 * 
 	 * @throws FixpointException if something goes wrong while evaluating the
 	 *                               fixpoint
 	 */
 	<A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void fixpoint(
-			AnalysisState<A, H, V> entryState)
+			AnalysisState<A, H, V> entryState, FixpointConfiguration conf)
 			throws FixpointException;
 
 	/**
@@ -0,0 +1,32 @@
+package it.unive.lisa.callgraph;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.program.cfg.CFG;
+
+/**
+ * A listener that is notified by a {@link CallGraph} each time the results of
+ * the fixpoint over a {@link CFG} become final, that is, they will not change
+ * during the rest of
+ * {@link CallGraph#fixpoint(AnalysisState, FixpointConfiguration)}. When a
+ * listener is part of the {@link FixpointConfiguration} of a computation, the
+ * call graph releases the results of each {@link CFG} right after notifying
+ * them, and they are thus not available through
+ * {@link CallGraph#getAnalysisResultsOf(CFG)}.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@FunctionalInterface
+public interface ResultsListener {
+
+	/**
+	 * Notifies that the results of the given {@link CFG} are final. If
+	 * fixpoints over different {@link CFG}s are computed in parallel, this
+	 * method can be invoked concurrently by different threads.
+	 * 
+	 * @param cfg     the cfg
+	 * @param results the results of the fixpoint over {@code cfg}
+	 */
+	void completed(CFG cfg, CFGWithAnalysisResults<?, ?, ?> results);
+}
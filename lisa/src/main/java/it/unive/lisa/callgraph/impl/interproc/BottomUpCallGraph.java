@@ -0,0 +1,478 @@
+package it.unive.lisa.callgraph.impl.interproc;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.callgraph.BaseCallGraph;
+import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.callgraph.CallGraphConstructionException;
+import it.unive.lisa.logging.Counter;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An instance of {@link CallGraph} that analyzes the program bottom-up, from
+ * callees to callers. When the call graph is built, the calls contained in each
+ * {@link CFG} are collected (over-approximating their targets with all the
+ * {@link CFG}s having the same name and number of parameters), and the
+ * resulting graph is condensed into its strongly connected components. Each
+ * {@link CFG} is then analyzed once, starting from an entry state where its
+ * parameters are bound to any possible value, and after all of its callees:
+ * calls are abstracted using the <i>summary</i> of their targets (the lub of
+ * the states at their exitpoints, without their local variables), that is thus
+ * context-insensitive.<br>
+ * <br>
+ * Components that contain recursive calls are analyzed repeatedly, starting
+ * from bottom summaries, until the summaries of all of their {@link CFG}s
+ * stabilize (applying widening after
+ * {@link FixpointConfiguration#getWideningThreshold()} rounds). When the
+ * {@link FixpointConfiguration} allows it, components are analyzed in parallel
+ * on a {@link ForkJoinPool}, starting each one as soon as all the components
+ * containing its callees have been analyzed. Components that do not contain any
+ * of the cfgs returned by {@link #getReachableCFGs()} are not analyzed.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class BottomUpCallGraph extends BaseCallGraph {
+
+	private static final Logger log = LogManager.getLogger(BottomUpCallGraph.class);
+
+	private static final String FIXPOINT_MESSAGE = "Computing fixpoint over the strongly connected components";
+
+	/**
+	 * The strongly connected components of the call graph, sorted with callees
+	 * before their callers
+	 */
+	private final List<Component> components;
+
+	/**
+	 * The summary of each analyzed cfg
+	 */
+	private final Map<CFG, AnalysisState<?, ?, ?>> summaries;
+
+	/**
+	 * Builds the call graph.
+	 */
+	public BottomUpCallGraph() {
+		this.components = new ArrayList<>();
+		this.summaries = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void build(Program program) throws CallGraphConstructionException {
+		super.build(program);
+		components.clear();
+
+		Collection<CFG> cfgs = program.getAllCFGs();
+		Map<CFG, Set<CFG>> callees = new IdentityHashMap<>(cfgs.size());
+		for (CFG cfg : cfgs) {
+			Set<CFG> targets = new LinkedHashSet<>();
+			cfg.accept(new CallsCollector(program), targets);
+			callees.put(cfg, targets);
+		}
+
+		components.addAll(new Tarjan(callees).compute(cfgs));
+		long recursive = components.stream().filter(c -> c.recursive).count();
+		log.info("Call graph condensed into " + components.size() + " components (" + recursive + " recursive)");
+	}
+
+	/**
+	 * Yields the strongly connected components of this call graph, each one as
+	 * the collection of its {@link CFG}s. Components are sorted such that the
+	 * callees of a {@link CFG} are contained in the same component of the
+	 * {@link CFG} or in one that comes before it.
+	 *
+	 * @return the components
+	 */
+	public List<Collection<CFG>> getComponents() {
+		List<Collection<CFG>> result = new ArrayList<>(components.size());
+		for (Component component : components)
+			result.add(Collections.unmodifiableList(component.cfgs));
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		summaries.clear();
+	}
+
+	@Override
+	public <A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void fixpoint(
+			AnalysisState<A, H, V> entryState, FixpointConfiguration conf) throws FixpointException {
+		summaries.clear();
+		// recursive components are analyzed as a whole as soon as one of
+		// their cfgs is reachable
+		Set<CFG> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+		reachable.addAll(getReachableCFGs());
+		List<Component> analyzed = components.stream().filter(c -> c.cfgs.stream().anyMatch(reachable::contains))
+				.collect(Collectors.toList());
+
+		Counter counter = new Counter(log, Level.INFO, FIXPOINT_MESSAGE, "components", analyzed.size(), 0.025);
+		counter.on();
+		try {
+			if (conf.isParallel() && analyzed.size() > 1)
+				parallelFixpoint(entryState, analyzed, conf, counter);
+			else
+				for (Component component : analyzed) {
+					fixpoint(entryState, component, conf);
+					for (CFG cfg : component.cfgs)
+						completed(cfg, conf);
+					counter.count();
+				}
+		} finally {
+			counter.off();
+		}
+	}
+
+	/**
+	 * Analyzes the given components on a {@link ForkJoinPool}: each component
+	 * keeps track of the number of given components containing its callees that
+	 * have not been analyzed yet, and it is submitted to the pool when that
+	 * number reaches zero. As soon as the analysis of a component fails, no
+	 * other component is submitted and the exception is propagated to the
+	 * caller.
+	 */
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> void parallelFixpoint(AnalysisState<A, H, V> entryState,
+					List<Component> analyzed, FixpointConfiguration conf, Counter counter) throws FixpointException {
+		ForkJoinPool pool = new ForkJoinPool(conf.getParallelism());
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		AtomicInteger remaining = new AtomicInteger(analyzed.size());
+		Map<Component, AtomicInteger> pending = new IdentityHashMap<>(analyzed.size());
+		for (Component component : analyzed)
+			pending.put(component, new AtomicInteger(0));
+		for (Component component : analyzed)
+			for (Component callee : component.callees)
+				if (pending.containsKey(callee))
+					pending.get(component).incrementAndGet();
+
+		try {
+			for (Component component : analyzed)
+				if (pending.get(component).get() == 0)
+					submit(pool, component, entryState, conf, counter, pending, remaining, done);
+
+			done.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof FixpointException)
+				throw (FixpointException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new FixpointException("Error while computing the fixpoint over the whole program", cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FixpointException("Interrupted while computing the fixpoint over the whole program", e);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> void submit(ForkJoinPool pool, Component component,
+					AnalysisState<A, H, V> entryState, FixpointConfiguration conf, Counter counter,
+					Map<Component, AtomicInteger> pending, AtomicInteger remaining, CompletableFuture<Void> done) {
+		pool.execute(() -> {
+			if (done.isDone())
+				// a failure happened
+				return;
+
+			try {
+				fixpoint(entryState, component, conf);
+				for (CFG cfg : component.cfgs)
+					completed(cfg, conf);
+			} catch (Throwable t) {
+				done.completeExceptionally(t);
+				return;
+			}
+
+			counter.count();
+			for (Component caller : component.callers)
+				if (pending.containsKey(caller) && pending.get(caller).decrementAndGet() == 0)
+					submit(pool, caller, entryState, conf, counter, pending, remaining, done);
+			if (remaining.decrementAndGet() == 0)
+				done.complete(null);
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> void fixpoint(AnalysisState<A, H, V> entryState, Component component,
+					FixpointConfiguration conf) throws FixpointException {
+		if (!component.recursive) {
+			CFG cfg = component.cfgs.get(0);
+			summaries.put(cfg, summarize(entryState, cfg, fixpoint(entryState, cfg, conf)));
+			return;
+		}
+
+		for (CFG cfg : component.cfgs)
+			summaries.put(cfg, entryState.bottom());
+
+		int round = 0;
+		boolean stable;
+		do {
+			round++;
+			stable = true;
+			for (CFG cfg : component.cfgs) {
+				AnalysisState<A, H, V> previous = (AnalysisState<A, H, V>) summaries.get(cfg);
+				AnalysisState<A, H, V> current = summarize(entryState, cfg, fixpoint(entryState, cfg, conf));
+				try {
+					if (current.lessOrEqual(previous))
+						continue;
+
+					stable = false;
+					if (round > conf.getWideningThreshold())
+						summaries.put(cfg, previous.widening(current));
+					else
+						summaries.put(cfg, previous.lub(current));
+				} catch (SemanticException e) {
+					throw new FixpointException("Error while updating the summary of " + cfg, e);
+				}
+			}
+		} while (!stable);
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> summarize(AnalysisState<A, H, V> entryState, CFG cfg,
+					CFGWithAnalysisResults<A, H, V> results) throws FixpointException {
+		try {
+			AnalysisState<A, H, V> summary = null;
+			for (Statement exit : cfg.getNormalExitpoints()) {
+				AnalysisState<A, H, V> state = results.getAnalysisStateAt(exit);
+				summary = summary == null ? state : summary.lub(state);
+			}
+
+			if (summary == null)
+				// the cfg never returns
+				return entryState.bottom();
+
+			return summary.forgetIdentifiers(getLocals(cfg));
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while computing the summary of " + cfg, e);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> getAbstractResultOf(
+					CFGCall call, AnalysisState<A, H, V> entryState, ExpressionSet<SymbolicExpression>[] parameters)
+					throws SemanticException {
+		AnalysisState<A, H, V> result = null;
+		for (CFG target : call.getTargets()) {
+			AnalysisState<A, H, V> summary = (AnalysisState<A, H, V>) summaries.get(target);
+			AnalysisState<A, H, V> returned;
+			if (summary == null)
+				// not analyzed yet: this happens only if the target was not
+				// found when building the call graph
+				returned = call.getStaticType().isVoidType() ? entryState.top()
+						: entryState.top().smallStepSemantics(getReturnedVariable(call, target), call);
+			else
+				returned = call.getStaticType().isVoidType() ? summary.smallStepSemantics(new Skip(), call)
+						: summary.smallStepSemantics(getReturnedVariable(call, target), call);
+
+			result = result == null ? returned : result.lub(returned);
+		}
+
+		return result;
+	}
+
+	/**
+	 * A strongly connected component of the call graph.
+	 */
+	private static final class Component {
+
+		/**
+		 * The cfgs in this component
+		 */
+		private final List<CFG> cfgs = new ArrayList<>();
+
+		/**
+		 * The other components containing callees of the cfgs of this one
+		 */
+		private final Set<Component> callees = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		/**
+		 * The other components containing callers of the cfgs of this one
+		 */
+		private final Set<Component> callers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		/**
+		 * Whether or not the cfgs of this component contain recursive calls
+		 */
+		private boolean recursive;
+	}
+
+	/**
+	 * An iterative implementation of Tarjan's algorithm for computing the
+	 * strongly connected components of the call graph. Components are
+	 * discovered after all the ones reachable from them, that is, callees
+	 * before callers.
+	 */
+	private static final class Tarjan {
+
+		private final Map<CFG, Set<CFG>> callees;
+
+		private final Map<CFG, Integer> index = new IdentityHashMap<>();
+
+		private final Map<CFG, Integer> lowlink = new IdentityHashMap<>();
+
+		private final Map<CFG, Component> component = new IdentityHashMap<>();
+
+		private final Deque<CFG> stack = new ArrayDeque<>();
+
+		private final Set<CFG> onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private final List<Component> result = new ArrayList<>();
+
+		private Tarjan(Map<CFG, Set<CFG>> callees) {
+			this.callees = callees;
+		}
+
+		private List<Component> compute(Collection<CFG> cfgs) {
+			for (CFG cfg : cfgs)
+				if (!index.containsKey(cfg))
+					visit(cfg);
+
+			for (Map.Entry<CFG, Set<CFG>> entry : callees.entrySet()) {
+				Component caller = component.get(entry.getKey());
+				for (CFG callee : entry.getValue()) {
+					Component target = component.get(callee);
+					if (target == caller)
+						caller.recursive = true;
+					else {
+						caller.callees.add(target);
+						target.callers.add(caller);
+					}
+				}
+			}
+
+			return result;
+		}
+
+		private void visit(CFG root) {
+			// each frame holds a cfg and the iterator over its callees
+			Deque<Object[]> frames = new ArrayDeque<>();
+			open(root, frames);
+			while (!frames.isEmpty()) {
+				Object[] frame = frames.peek();
+				CFG cfg = (CFG) frame[0];
+				@SuppressWarnings("unchecked")
+				Iterator<CFG> it = (Iterator<CFG>) frame[1];
+				if (it.hasNext()) {
+					CFG callee = it.next();
+					if (!index.containsKey(callee))
+						open(callee, frames);
+					else if (onStack.contains(callee))
+						lowlink.put(cfg, Math.min(lowlink.get(cfg), index.get(callee)));
+					continue;
+				}
+
+				frames.pop();
+				if (!frames.isEmpty()) {
+					CFG parent = (CFG) frames.peek()[0];
+					lowlink.put(parent, Math.min(lowlink.get(parent), lowlink.get(cfg)));
+				}
+
+				if (lowlink.get(cfg).equals(index.get(cfg))) {
+					Component scc = new Component();
+					CFG member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						scc.cfgs.add(member);
+						component.put(member, scc);
+					} while (member != cfg);
+					result.add(scc);
+				}
+			}
+		}
+
+		private void open(CFG cfg, Deque<Object[]> frames) {
+			int i = index.size();
+			index.put(cfg, i);
+			lowlink.put(cfg, i);
+			stack.push(cfg);
+			onStack.add(cfg);
+			frames.push(new Object[] { cfg, callees.getOrDefault(cfg, Collections.emptySet()).iterator() });
+		}
+	}
+
+	/**
+	 * A visitor that collects the possible targets of the calls contained in a
+	 * {@link CFG}.
+	 */
+	private static final class CallsCollector implements GraphVisitor<CFG, Statement, Edge, Set<CFG>> {
+
+		private final Program program;
+
+		private CallsCollector(Program program) {
+			this.program = program;
+		}
+
+		@Override
+		public boolean visit(Set<CFG> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Set<CFG> tool, CFG graph, Statement node) {
+			if (node instanceof CFGCall)
+				tool.addAll(((CFGCall) node).getTargets());
+			else if (node instanceof UnresolvedCall) {
+				UnresolvedCall call = (UnresolvedCall) node;
+				for (CodeMember cm : program.getAllCodeMembersByName(call.getTargetName(),
+						call.getParameters().length))
+					if (cm instanceof CFG)
+						tool.add((CFG) cm);
+			}
+			return true;
+		}
+
+		@Override
+		public boolean visit(Set<CFG> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package it.unive.lisa.callgraph.impl.interproc;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.callgraph.BaseCallGraph;
+import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An instance of {@link CallGraph} that analyzes the targets of
+ * {@link CFGCall}s on demand. When a call is reached, the entry state of each
+ * target is built from the state of the caller, binding the actual parameters
+ * to the formal ones and removing the local variables of the caller. The target
+ * is then analyzed starting from such entry state, and its <i>summary</i> (the
+ * lub of the states at its exitpoints, without its local variables) is joined
+ * with the state of the caller.<br>
+ * <br>
+ * Summaries are cached using the target and its entry state as key, so that
+ * calls reaching the same target with an equivalent entry state are answered
+ * without computing a new fixpoint. The cache is bounded, evicting the least
+ * recently used summaries when more than {@link #getMaxSummaries()} are stored.
+ * Statistics about the cache are logged after each fixpoint, and are available
+ * through {@link #getHits()}, {@link #getMisses()} and
+ * {@link #getEvictions()}.<br>
+ * <br>
+ * Recursion is not unrolled: a call towards a {@link CFG} whose summary is
+ * being computed on the same thread is abstracted with top, as in
+ * {@link it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class InterproceduralCallGraph extends BaseCallGraph {
+
+	private static final Logger log = LogManager.getLogger(InterproceduralCallGraph.class);
+
+	/**
+	 * The default maximum number of summaries kept in the cache.
+	 */
+	public static final int DEFAULT_MAX_SUMMARIES = 1024;
+
+	/**
+	 * The cache of the summaries, in access order
+	 */
+	private final Map<SummaryKey, AnalysisState<?, ?, ?>> summaries;
+
+	/**
+	 * The maximum number of summaries kept in {@link #summaries}
+	 */
+	private final int maxSummaries;
+
+	/**
+	 * The cfgs whose summary is being computed by each thread
+	 */
+	private final ThreadLocal<Deque<CFG>> computing;
+
+	private final AtomicLong hits;
+
+	private final AtomicLong misses;
+
+	private final AtomicLong evictions;
+
+	/**
+	 * Builds the call graph, keeping at most {@link #DEFAULT_MAX_SUMMARIES}
+	 * summaries.
+	 */
+	public InterproceduralCallGraph() {
+		this(DEFAULT_MAX_SUMMARIES);
+	}
+
+	/**
+	 * Builds the call graph, keeping at most {@code maxSummaries} summaries.
+	 *
+	 * @param maxSummaries the maximum number of summaries to keep, must be
+	 *                         positive
+	 * 
+	 * @throws IllegalArgumentException if {@code maxSummaries} is not positive
+	 */
+	public InterproceduralCallGraph(int maxSummaries) {
+		if (maxSummaries <= 0)
+			throw new IllegalArgumentException("The maximum number of summaries must be positive");
+		this.maxSummaries = maxSummaries;
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+		this.evictions = new AtomicLong();
+		this.computing = ThreadLocal.withInitial(ArrayDeque::new);
+		this.summaries = Collections.synchronizedMap(new LinkedHashMap<SummaryKey, AnalysisState<?, ?, ?>>(16, 0.75f,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<SummaryKey, AnalysisState<?, ?, ?>> eldest) {
+				if (size() <= InterproceduralCallGraph.this.maxSummaries)
+					return false;
+				evictions.incrementAndGet();
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Yields the maximum number of summaries kept by this call graph.
+	 *
+	 * @return the maximum number of summaries
+	 */
+	public int getMaxSummaries() {
+		return maxSummaries;
+	}
+
+	/**
+	 * Yields the number of calls whose result has been retrieved from the cache
+	 * of summaries since the last {@link #clear()}.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Yields the number of calls that required the computation of a new summary
+	 * since the last {@link #clear()}.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Yields the number of summaries that have been evicted from the cache
+	 * since the last {@link #clear()}.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		summaries.clear();
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+	@Override
+	public <A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void fixpoint(
+			AnalysisState<A, H, V> entryState, FixpointConfiguration conf) throws FixpointException {
+		super.fixpoint(entryState, conf);
+		log.info("Summaries cache: " + hits.get() + " hits, " + misses.get() + " misses, " + evictions.get()
+				+ " evictions");
+	}
+
+	@Override
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> getAbstractResultOf(
+					CFGCall call, AnalysisState<A, H, V> entryState, ExpressionSet<SymbolicExpression>[] parameters)
+					throws SemanticException {
+		Deque<CFG> stack = computing.get();
+		AnalysisState<A, H, V> result = null;
+		for (CFG target : call.getTargets()) {
+			AnalysisState<A, H, V> returned;
+			if (stack.contains(target))
+				// recursive call
+				returned = call.getStaticType().isVoidType() ? entryState.top()
+						: entryState.top().smallStepSemantics(getReturnedVariable(call, target), call);
+			else {
+				AnalysisState<A, H, V> summary = getSummary(target, bind(call, target, entryState, parameters));
+				returned = call.getStaticType().isVoidType() ? summary.smallStepSemantics(new Skip(), call)
+						: summary.smallStepSemantics(getReturnedVariable(call, target), call);
+			}
+
+			result = result == null ? returned : result.lub(returned);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Builds the entry state of {@code target} from the state of the caller:
+	 * actual parameters are first stored in temporary variables, that are then
+	 * assigned to the formal parameters after the local variables of the caller
+	 * have been forgotten. This avoids clashes between the names of the formal
+	 * parameters and the ones of the variables of the caller.
+	 */
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> bind(CFGCall call, CFG target,
+					AnalysisState<A, H, V> entryState, ExpressionSet<SymbolicExpression>[] parameters)
+					throws SemanticException {
+		Parameter[] formals = target.getDescriptor().getArgs();
+		int count = Math.min(formals.length, parameters.length);
+		List<Identifier> temporaries = new ArrayList<>(count);
+		AnalysisState<A, H, V> state = entryState;
+		for (int i = 0; i < count; i++) {
+			Variable temp = new Variable(call.getParameters()[i].getRuntimeTypes(), "param@" + i);
+			temporaries.add(temp);
+			AnalysisState<A, H, V> assigned = null;
+			for (SymbolicExpression actual : parameters[i]) {
+				AnalysisState<A, H, V> tmp = state.assign(temp, actual, call);
+				assigned = assigned == null ? tmp : assigned.lub(tmp);
+			}
+			if (assigned != null)
+				state = assigned;
+		}
+
+		state = state.forgetIdentifiers(getLocals(call.getCFG()));
+		for (int i = 0; i < count; i++) {
+			Variable formal = Caches.expressions().intern(new Variable(
+					Caches.types().mkSet(formals[i].getStaticType().allInstances()), formals[i].getName()));
+			state = state.assign(formal, temporaries.get(i), call);
+		}
+		state = state.forgetIdentifiers(temporaries);
+
+		// the expressions computed by the caller are not relevant
+		return new AnalysisState<>(state.getState(), new Skip());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> getSummary(CFG target, AnalysisState<A, H, V> entryState)
+					throws SemanticException {
+		SummaryKey key = new SummaryKey(target, entryState);
+		AnalysisState<A, H, V> summary = (AnalysisState<A, H, V>) summaries.get(key);
+		if (summary != null) {
+			hits.incrementAndGet();
+			return summary;
+		}
+
+		misses.incrementAndGet();
+		Deque<CFG> stack = computing.get();
+		stack.push(target);
+		CFGWithAnalysisResults<A, H, V> results;
+		try {
+			results = target.fixpoint(entryState, this, getFixpointConfiguration());
+		} catch (FixpointException e) {
+			throw new SemanticException("Exception while computing the summary of " + target, e);
+		} finally {
+			stack.pop();
+		}
+
+		summary = null;
+		for (Statement exit : target.getNormalExitpoints()) {
+			AnalysisState<A, H, V> state = results.getAnalysisStateAt(exit);
+			summary = summary == null ? state : summary.lub(state);
+		}
+
+		if (summary == null)
+			// the target never returns
+			summary = entryState.bottom();
+		else
+			summary = summary.forgetIdentifiers(getLocals(target));
+
+		summaries.put(key, summary);
+		return summary;
+	}
+
+	/**
+	 * The key of a summary: the target of the call, together with its entry
+	 * state.
+	 */
+	private static final class SummaryKey {
+
+		private final CFG target;
+
+		private final AnalysisState<?, ?, ?> entryState;
+
+		private final int hash;
+
+		private SummaryKey(CFG target, AnalysisState<?, ?, ?> entryState) {
+			this.target = target;
+			this.entryState = entryState;
+			this.hash = 31 * System.identityHashCode(target) + entryState.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof SummaryKey))
+				return false;
+			SummaryKey other = (SummaryKey) obj;
+			return target == other.target && hash == other.hash && entryState.equals(other.entryState);
+		}
+	}
+}
@@ -2,40 +2,18 @@ package it.unive.lisa.callgraph.impl.intraproc;
 
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
-import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.caches.Caches;
+import it.unive.lisa.callgraph.BaseCallGraph;
 import it.unive.lisa.callgraph.CallGraph;
-import it.unive.lisa.callgraph.CallGraphConstructionException;
-import it.unive.lisa.callgraph.CallResolutionException;
-import it.unive.lisa.logging.IterationLogger;
-import it.unive.lisa.program.CompilationUnit;
-import it.unive.lisa.program.Program;
 import it.unive.lisa.program.cfg.CFG;
-import it.unive.lisa.program.cfg.CodeMember;
-import it.unive.lisa.program.cfg.NativeCFG;
-import it.unive.lisa.program.cfg.Parameter;
 import it.unive.lisa.program.cfg.statement.CFGCall;
-import it.unive.lisa.program.cfg.statement.Call;
-import it.unive.lisa.program.cfg.statement.Expression;
-import it.unive.lisa.program.cfg.statement.OpenCall;
 import it.unive.lisa.program.cfg.statement.UnresolvedCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
-import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.symbolic.value.Variable;
-import it.unive.lisa.type.Type;
-import it.unive.lisa.util.datastructures.graph.FixpointException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 /**
  * An instance of {@link CallGraph} that does not handle interprocedurality. In
@@ -45,118 +23,18 @@ import org.apache.logging.log4j.Logger;
  * target's signature</li>
  * <li>returns top when asked for the abstract result of a {@link CFGCall}</li>
  * </ul>
+ * Since each {@link CFG} is analyzed in isolation, fixpoints over different
+ * {@link CFG}s are computed in parallel whenever the
+ * {@link it.unive.lisa.FixpointConfiguration} allows it, and their results can
+ * be reused from its {@link it.unive.lisa.caches.ResultsCache}.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class IntraproceduralCallGraph implements CallGraph {
-
-	private static final Logger log = LogManager.getLogger(IntraproceduralCallGraph.class);
-
-	/**
-	 * The cash of the fixpoints' results. {@link Map#keySet()} will contain all
-	 * the cfgs that have been added. If a key's values's
-	 * {@link Optional#isEmpty()} yields true, then the fixpoint for that key
-	 * has not be computed yet.
-	 */
-	private final Map<CFG, Optional<CFGWithAnalysisResults<?, ?, ?>>> results;
-
-	private Program program;
-
-	/**
-	 * Builds the call graph.
-	 */
-	public IntraproceduralCallGraph() {
-		this.results = new ConcurrentHashMap<>();
-	}
-
-	@Override
-	public void build(Program program) throws CallGraphConstructionException {
-		this.program = program;
-	}
-
-	@Override
-	public void clear() {
-		results.clear();
-	}
-
-	@Override
-	public Call resolve(UnresolvedCall call) throws CallResolutionException {
-		Collection<CodeMember> targets = new ArrayList<>();
-
-		if (call.isInstanceCall()) {
-			if (call.getParameters().length == 0)
-				throw new CallResolutionException(
-						"An instance call should have at least one parameter to be used as the receiver of the call");
-			Expression receiver = call.getParameters()[0];
-			for (Type recType : receiver.getRuntimeTypes()) {
-				if (!recType.isUnitType())
-					continue;
-
-				CompilationUnit unit = recType.asUnitType().getUnit();
-				Collection<CodeMember> candidates = unit.getInstanceCodeMembersByName(call.getTargetName(), true);
-				for (CodeMember candidate : candidates)
-					if (call.getStrategy().matches(candidate.getDescriptor().getArgs(), call.getParameters()))
-						targets.add(candidate);
-			}
-		} else {
-			for (CodeMember cm : program.getAllCodeMembers())
-				if (cm.getDescriptor().isInstance() && cm.getDescriptor().getName().equals(call.getTargetName())
-						&& call.getStrategy().matches(cm.getDescriptor().getArgs(), call.getParameters()))
-					targets.add(cm);
-		}
-
-		Call resolved;
-		if (targets.isEmpty())
-			resolved = new OpenCall(call.getCFG(), call.getLocation(), call.getTargetName(), call.getStaticType(),
-					call.getParameters());
-		else if (targets.size() == 1 && targets.iterator().next() instanceof NativeCFG)
-			resolved = ((NativeCFG) targets.iterator().next()).rewrite(call, call.getParameters());
-		else {
-			if (targets.stream().anyMatch(t -> t instanceof NativeCFG))
-				throw new CallResolutionException(
-						"Hybrid resolution is not supported: when more than one target is present, they must all be CFGs and not NativeCFGs");
-
-			resolved = new CFGCall(call.getCFG(), call.getLocation(), call.getTargetName(),
-					targets.stream().map(t -> (CFG) t).collect(Collectors.toList()), call.getParameters());
-		}
-
-		resolved.setOffset(call.getOffset());
-		return resolved;
-	}
-
-	@Override
-	public <A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>> void fixpoint(
-			AnalysisState<A, H, V> entryState) throws FixpointException {
-		for (CFG cfg : IterationLogger.iterate(log, program.getAllCFGs(), "Computing fixpoint over the whole program",
-				"cfgs"))
-			try {
-				results.put(cfg, Optional.of(cfg.fixpoint(prepare(entryState, cfg), this)));
-			} catch (SemanticException e) {
-				throw new FixpointException("Error while creating the entrystate for " + cfg, e);
-			}
-	}
-
-	private <A extends AbstractState<A, H, V>,
-			H extends HeapDomain<H>,
-			V extends ValueDomain<V>> AnalysisState<A, H, V> prepare(
-					AnalysisState<A, H, V> entryState, CFG cfg) throws SemanticException {
-		AnalysisState<A, H, V> prepared = entryState;
-		for (Parameter arg : cfg.getDescriptor().getArgs()) {
-			Collection<Type> all = arg.getStaticType().allInstances();
-			Variable id = new Variable(Caches.types().mkSet(all), arg.getName());
-			prepared = prepared.assign(id, new PushAny(Caches.types().mkSet(all)),
-					cfg.getGenericProgramPoint());
-		}
-		return prepared;
-	}
+public class IntraproceduralCallGraph extends BaseCallGraph {
 
 	@Override
-	@SuppressWarnings("unchecked")
-	public <A extends AbstractState<A, H, V>,
-			H extends HeapDomain<H>,
-			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> getAnalysisResultsOf(
-					CFG cfg) {
-		return (CFGWithAnalysisResults<A, H, V>) results.get(cfg).orElse(null);
+	protected boolean hasIndependentResults() {
+		return true;
 	}
 
 	@Override
@@ -168,7 +46,7 @@ public class IntraproceduralCallGraph implements CallGraph {
 		if (call.getStaticType().isVoidType())
 			return entryState.top();
 
-		return entryState.top().smallStepSemantics(new Variable(call.getRuntimeTypes(), "ret_value"), call);
+		return entryState.top().smallStepSemantics(
+				Caches.expressions().intern(new Variable(call.getRuntimeTypes(), "ret_value")), call);
 	}
-
 }
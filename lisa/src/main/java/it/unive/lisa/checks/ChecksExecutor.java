@@ -2,16 +2,36 @@ package it.unive.lisa.checks;
 
 import static it.unive.lisa.logging.IterationLogger.iterate;
 
+import it.unive.lisa.AnalysisExecutionException;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Utility class that handles the execution of {@link Check}s.
+ * Utility class that handles the execution of {@link Check}s. Each {@link CFG}
+ * is traversed only once, forwarding each node and edge to all the checks that
+ * are still visiting it.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -30,34 +50,280 @@ public class ChecksExecutor {
 	 */
 	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
 			Collection<C> checks) {
+		executeAll(tool, program, checks, cfg -> true);
+	}
+
+	/**
+	 * Executes all the given checks on the given inputs cfgs, skipping the cfgs
+	 * that do not satisfy the given filter. Globals and compilation units are
+	 * always visited.
+	 * 
+	 * @param <C>     the type of the checks to execute
+	 * @param <T>     the type of the auxiliary tool used by the check
+	 * @param tool    the auxiliary tool to be used during the checks execution
+	 * @param program the program to analyze
+	 * @param checks  the checks to execute
+	 * @param filter  the filter selecting the cfgs to visit
+	 */
+	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
+			Collection<C> checks, Predicate<CFG> filter) {
+		executeAll(tool, program, checks, filter, 1);
+	}
+
+	/**
+	 * Executes all the given checks on the given inputs cfgs, skipping the cfgs
+	 * that do not satisfy the given filter. Globals and compilation units are
+	 * always visited. If {@code parallelism} is greater than {@code 1}, the
+	 * cfgs and the compilation units of the program are visited concurrently by
+	 * a pool of {@code parallelism} worker threads: both the checks and the
+	 * tool must then be thread-safe.
+	 * 
+	 * @param <C>         the type of the checks to execute
+	 * @param <T>         the type of the auxiliary tool used by the check
+	 * @param tool        the auxiliary tool to be used during the checks
+	 *                        execution
+	 * @param program     the program to analyze
+	 * @param checks      the checks to execute
+	 * @param filter      the filter selecting the cfgs to visit
+	 * @param parallelism the number of threads to use
+	 */
+	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
+			Collection<C> checks, Predicate<CFG> filter, int parallelism) {
+		checks.forEach(c -> c.beforeExecution(tool));
+		if (parallelism > 1)
+			parallelVisitAll(tool, program, checks, filter, parallelism);
+		else
+			visitAll(tool, program, checks, filter);
+		checks.forEach(c -> c.afterExecution(tool));
+	}
+
+	/**
+	 * Starts the execution of the given checks one cfg at a time, invoking
+	 * {@link Check#beforeExecution(Object)} on each of them. Cfgs are then
+	 * visited through {@link StreamedExecution#executeOn(CFG)}, and the
+	 * execution is completed through
+	 * {@link StreamedExecution#completeExecution(Program)}.
+	 * 
+	 * @param <C>    the type of the checks to execute
+	 * @param <T>    the type of the auxiliary tool used by the check
+	 * @param tool   the auxiliary tool to be used during the checks execution
+	 * @param checks the checks to execute
+	 * 
+	 * @return the started execution
+	 */
+	public static <C extends Check<T>, T> StreamedExecution<C, T> startExecution(T tool, Collection<C> checks) {
 		checks.forEach(c -> c.beforeExecution(tool));
+		return new StreamedExecution<>(tool, checks);
+	}
+
+	/**
+	 * An execution of checks, started with
+	 * {@link ChecksExecutor#startExecution(Object, Collection)}, that visits
+	 * the cfgs of the program one at a time. The checks that visit the cfgs of
+	 * a {@link CompilationUnit} are the ones whose
+	 * {@link Check#visitCompilationUnit(Object, CompilationUnit)} returns
+	 * {@code true}: that method is invoked once for each unit, when the first
+	 * of its cfgs is visited or, if none is, when the execution completes.
+	 * Instances of this class are not thread-safe.
+	 * 
+	 * @param <C> the type of the checks to execute
+	 * @param <T> the type of the auxiliary tool used by the check
+	 */
+	public static final class StreamedExecution<C extends Check<T>, T> {
+
+		private final T tool;
+
+		private final Collection<C> checks;
 
+		/**
+		 * The checks that visit each compilation unit
+		 */
+		private final Map<CompilationUnit, List<C>> active;
+
+		private StreamedExecution(T tool, Collection<C> checks) {
+			this.tool = tool;
+			this.checks = checks;
+			this.active = new IdentityHashMap<>();
+		}
+
+		/**
+		 * Executes the checks on the given cfg. If the cfg belongs to a
+		 * {@link CompilationUnit}, only the checks that visit that unit are
+		 * executed.
+		 * 
+		 * @param cfg the cfg to visit
+		 */
+		public void executeOn(CFG cfg) {
+			Unit unit = cfg.getDescriptor().getUnit();
+			if (unit instanceof CompilationUnit)
+				visitCFG(tool, cfg, activeOn((CompilationUnit) unit));
+			else
+				visitCFG(tool, cfg, checks);
+		}
+
+		/**
+		 * Completes the execution, visiting the globals of the given program
+		 * and of its compilation units (but not their cfgs) and then invoking
+		 * {@link Check#afterExecution(Object)} on each check.
+		 * 
+		 * @param program the program to analyze
+		 */
+		public void completeExecution(Program program) {
+			for (Global global : iterate(log, program.getGlobals(), "Analyzing program globals...", "Globals"))
+				checks.forEach(c -> c.visitGlobal(tool, program, global, false));
+
+			for (CompilationUnit unit : iterate(log, program.getUnits(), "Analyzing compilation units...", "Units"))
+				visitUnit(tool, unit, activeOn(unit), cfg -> false);
+
+			checks.forEach(c -> c.afterExecution(tool));
+		}
+
+		private List<C> activeOn(CompilationUnit unit) {
+			return active.computeIfAbsent(unit, u -> visitingChecks(tool, u, checks));
+		}
+	}
+
+	private static <C extends Check<T>, T> void visitAll(T tool, Program program, Collection<C> checks,
+			Predicate<CFG> filter) {
 		for (Global global : iterate(log, program.getGlobals(), "Analyzing program globals...", "Globals"))
 			checks.forEach(c -> c.visitGlobal(tool, program, global, false));
 
 		for (CFG cfg : iterate(log, program.getCFGs(), "Analyzing program cfgs...", "CFGs"))
-			checks.forEach(c -> cfg.accept(c, tool));
+			if (filter.test(cfg))
+				visitCFG(tool, cfg, checks);
 
 		for (CompilationUnit unit : iterate(log, program.getUnits(), "Analyzing compilation units...", "Units"))
-			checks.forEach(c -> visitUnit(tool, unit, c));
+			visitUnit(tool, unit, visitingChecks(tool, unit, checks), filter);
+	}
 
-		checks.forEach(c -> c.afterExecution(tool));
+	/**
+	 * Visits the globals of the program sequentially, and then submits one task
+	 * for each cfg and for each compilation unit of the program to a
+	 * {@link ForkJoinPool} with {@code parallelism} worker threads. The first
+	 * failure of a task cancels the ones that have not been started yet and is
+	 * propagated to the caller.
+	 */
+	private static <C extends Check<T>, T> void parallelVisitAll(T tool, Program program, Collection<C> checks,
+			Predicate<CFG> filter, int parallelism) {
+		for (Global global : program.getGlobals())
+			checks.forEach(c -> c.visitGlobal(tool, program, global, false));
+
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (CFG cfg : program.getCFGs())
+			if (filter.test(cfg))
+				tasks.add(() -> {
+					visitCFG(tool, cfg, checks);
+					return null;
+				});
+		for (CompilationUnit unit : program.getUnits())
+			tasks.add(() -> {
+				visitUnit(tool, unit, visitingChecks(tool, unit, checks), filter);
+				return null;
+			});
+
+		Counter counter = new Counter(log, Level.INFO, "Executing checks in parallel", "tasks", tasks.size(), 0.025);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		CompletionService<Void> service = new ExecutorCompletionService<>(pool);
+		List<Future<Void>> futures = new ArrayList<>(tasks.size());
+
+		counter.on();
+		try {
+			for (Callable<Void> task : tasks)
+				futures.add(service.submit(task));
+
+			for (int i = 0; i < futures.size(); i++)
+				try {
+					service.take().get();
+					counter.count();
+				} catch (ExecutionException e) {
+					futures.forEach(f -> f.cancel(true));
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new AnalysisExecutionException("Error while executing checks", cause);
+				} catch (InterruptedException e) {
+					futures.forEach(f -> f.cancel(true));
+					Thread.currentThread().interrupt();
+					throw new AnalysisExecutionException("Interrupted while executing checks", e);
+				}
+		} finally {
+			pool.shutdownNow();
+			counter.off();
+		}
+	}
+
+	private static <C extends Check<T>, T> List<C> visitingChecks(T tool, CompilationUnit unit,
+			Collection<C> checks) {
+		List<C> active = new ArrayList<>(checks.size());
+		for (C c : checks)
+			if (c.visitCompilationUnit(tool, unit))
+				active.add(c);
+		return active;
 	}
 
-	private static <C extends Check<T>, T> void visitUnit(T tool, CompilationUnit unit, C c) {
-		if (!c.visitCompilationUnit(tool, unit))
+	private static <C extends Check<T>, T> void visitUnit(T tool, CompilationUnit unit, List<C> active,
+			Predicate<CFG> filter) {
+		if (active.isEmpty())
 			return;
 
 		for (Global global : unit.getGlobals())
-			c.visitGlobal(tool, unit, global, false);
+			active.forEach(c -> c.visitGlobal(tool, unit, global, false));
 
 		for (Global global : unit.getInstanceGlobals(false))
-			c.visitGlobal(tool, unit, global, true);
+			active.forEach(c -> c.visitGlobal(tool, unit, global, true));
 
 		for (CFG cfg : unit.getCFGs())
-			cfg.accept(c, tool);
+			if (filter.test(cfg))
+				visitCFG(tool, cfg, active);
 
 		for (CFG cfg : unit.getInstanceCFGs(false))
-			cfg.accept(c, tool);
+			if (filter.test(cfg))
+				visitCFG(tool, cfg, active);
+	}
+
+	private static <C extends Check<T>, T> void visitCFG(T tool, CFG cfg, Collection<C> checks) {
+		if (checks.size() == 1)
+			cfg.accept(checks.iterator().next(), tool);
+		else if (!checks.isEmpty())
+			cfg.accept(new FusedVisitor<>(checks), tool);
+	}
+
+	/**
+	 * A {@link GraphVisitor} that visits a {@link CFG} once on behalf of
+	 * several checks, forwarding each callback to all of them. A check that
+	 * returns {@code false} from one of its callbacks is no longer notified,
+	 * exactly as if it was visiting the cfg on its own, and the traversal stops
+	 * when no check is left.
+	 * 
+	 * @param <C> the type of the checks to execute
+	 * @param <T> the type of the auxiliary tool used by the check
+	 */
+	private static class FusedVisitor<C extends Check<T>, T> implements GraphVisitor<CFG, Statement, Edge, T> {
+
+		private final List<C> active;
+
+		private FusedVisitor(Collection<C> checks) {
+			this.active = new ArrayList<>(checks);
+		}
+
+		@Override
+		public boolean visit(T tool, CFG graph) {
+			active.removeIf(c -> !c.visit(tool, graph));
+			return !active.isEmpty();
+		}
+
+		@Override
+		public boolean visit(T tool, CFG graph, Statement node) {
+			active.removeIf(c -> !c.visit(tool, graph, node));
+			return !active.isEmpty();
+		}
+
+		@Override
+		public boolean visit(T tool, CFG graph, Edge edge) {
+			active.removeIf(c -> !c.visit(tool, graph, edge));
+			return !active.isEmpty();
+		}
 	}
 }
@@ -0,0 +1,35 @@
+package it.unive.lisa.logging;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event corresponding to a {@link Span} traced by a
+ * {@link Tracer}. Events are recorded only when a Flight Recorder recording is
+ * active (e.g., when the JVM is started with {@code -XX:StartFlightRecording}).
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@Name("it.unive.lisa.Span")
+@Label("LiSA Span")
+@Category("LiSA")
+@Description("A phase of a LiSA analysis")
+@StackTrace(false)
+class SpanEvent extends Event {
+
+	/**
+	 * The category of the traced span (e.g., {@code fixpoint}).
+	 */
+	@Label("Category")
+	String category;
+
+	/**
+	 * The name of the traced span (e.g., the signature of the analyzed cfg).
+	 */
+	@Label("Name")
+	String name;
+}
@@ -0,0 +1,279 @@
+package it.unive.lisa.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.logging.TimerLogger.LoggableAction;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import jdk.jfr.EventType;
+
+/**
+ * A tracer of the phases of an analysis. Each phase is represented by a
+ * {@link Span}, opened through {@link #begin(String, String)} and closed
+ * through {@link Span#close()}, and is traced on the thread that opened it:
+ * spans opened while another one is open on the same thread are thus nested
+ * into it.<br>
+ * <br>
+ * Closed spans are always emitted as JDK Flight Recorder events (that are
+ * recorded only if a Flight Recorder recording is active). If the tracer is
+ * collecting, closed spans are also stored in memory, and they can be dumped
+ * through {@link #dump(Writer)} in the Chrome trace event format, that can be
+ * loaded in profilers such as {@code chrome://tracing} or Perfetto to inspect
+ * the timeline of each thread. When neither collecting nor recording, tracing a
+ * span costs a single check.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class Tracer {
+
+	/**
+	 * A tracer that does not collect spans, and that only emits them as Flight
+	 * Recorder events.
+	 */
+	public static final Tracer NOT_COLLECTING = new Tracer(false);
+
+	private static final EventType SPAN_EVENT = EventType.getEventType(SpanEvent.class);
+
+	private static final Span NO_SPAN = new Span(null, null, null, 0, null);
+
+	/**
+	 * Whether or not closed spans are stored in memory
+	 */
+	private final boolean collecting;
+
+	/**
+	 * The instant, in nanoseconds, used as origin of the timeline
+	 */
+	private final long origin;
+
+	/**
+	 * The closed spans
+	 */
+	private final Collection<Span> spans;
+
+	/**
+	 * The names of the threads that opened at least one span, indexed by thread
+	 * id
+	 */
+	private final Map<Long, String> threads;
+
+	/**
+	 * Builds a tracer, starting its timeline.
+	 *
+	 * @param collecting whether or not closed spans should be stored in memory
+	 *                       to be later dumped through {@link #dump(Writer)}
+	 */
+	public Tracer(boolean collecting) {
+		this.collecting = collecting;
+		this.origin = System.nanoTime();
+		this.spans = new ConcurrentLinkedQueue<>();
+		this.threads = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields whether or not closed spans are stored in memory by this tracer.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isCollecting() {
+		return collecting;
+	}
+
+	/**
+	 * Opens a new span on the current thread. The returned span must be closed
+	 * on the same thread. Code that does not need to access the span should
+	 * rather be traced through {@link #trace(String, String, LoggableAction)}.
+	 *
+	 * @param category the category of the span (e.g., {@code phase})
+	 * @param name     the name of the span
+	 *
+	 * @return the opened span
+	 */
+	public Span begin(String category, String name) {
+		SpanEvent event = null;
+		if (SPAN_EVENT.isEnabled()) {
+			event = new SpanEvent();
+			event.category = category;
+			event.name = name;
+			event.begin();
+		} else if (!collecting)
+			return NO_SPAN;
+
+		Thread current = Thread.currentThread();
+		if (collecting)
+			threads.putIfAbsent(current.getId(), current.getName());
+		return new Span(collecting ? this : null, category, name, current.getId(), event);
+	}
+
+	/**
+	 * Executes the given action inside a new span.
+	 *
+	 * @param category the category of the span
+	 * @param name     the name of the span
+	 * @param action   the action to execute
+	 */
+	public void trace(String category, String name, LoggableAction action) {
+		Span span = begin(category, name);
+		try {
+			action.run();
+		} finally {
+			span.close();
+		}
+	}
+
+	/**
+	 * Yields the spans that have been closed so far, if this tracer is
+	 * collecting.
+	 *
+	 * @return an unmodifiable view of the closed spans
+	 */
+	public Collection<Span> getSpans() {
+		return Collections.unmodifiableCollection(spans);
+	}
+
+	/**
+	 * Dumps the spans closed so far to the given {@link Writer} instance, in
+	 * the Chrome trace event format. Each span is dumped as a complete event,
+	 * and each thread is named through a metadata event.
+	 *
+	 * @param writer the writer to write to
+	 *
+	 * @throws IOException if some I/O error happens while writing to the writer
+	 */
+	public void dump(Writer writer) throws IOException {
+		long pid = ProcessHandle.current().pid();
+		List<Map<String, Object>> events = new ArrayList<>();
+		for (Entry<Long, String> thread : threads.entrySet()) {
+			Map<String, Object> event = new LinkedHashMap<>();
+			event.put("name", "thread_name");
+			event.put("ph", "M");
+			event.put("pid", pid);
+			event.put("tid", thread.getKey());
+			event.put("args", Collections.singletonMap("name", thread.getValue()));
+			events.add(event);
+		}
+
+		for (Span span : spans) {
+			Map<String, Object> event = new LinkedHashMap<>();
+			event.put("name", span.name);
+			event.put("cat", span.category);
+			event.put("ph", "X");
+			event.put("ts", (span.start - origin) / 1000.0);
+			event.put("dur", (span.end - span.start) / 1000.0);
+			event.put("pid", pid);
+			event.put("tid", span.thread);
+			events.add(event);
+		}
+
+		Map<String, Object> trace = new LinkedHashMap<>();
+		trace.put("traceEvents", events);
+		trace.put("displayTimeUnit", "ms");
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		mapper.writeValue(writer, trace);
+	}
+
+	/**
+	 * A traced phase of the analysis.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static final class Span implements AutoCloseable {
+
+		private final Tracer tracer;
+
+		private final String category;
+
+		private final String name;
+
+		private final long thread;
+
+		private final SpanEvent event;
+
+		private final long start;
+
+		private long end;
+
+		private Span(Tracer tracer, String category, String name, long thread, SpanEvent event) {
+			this.tracer = tracer;
+			this.category = category;
+			this.name = name;
+			this.thread = thread;
+			this.event = event;
+			this.start = tracer == null ? 0 : System.nanoTime();
+		}
+
+		/**
+		 * Yields the category of this span.
+		 *
+		 * @return the category
+		 */
+		public String getCategory() {
+			return category;
+		}
+
+		/**
+		 * Yields the name of this span.
+		 *
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Yields the id of the thread that opened this span.
+		 *
+		 * @return the thread id
+		 */
+		public long getThread() {
+			return thread;
+		}
+
+		/**
+		 * Yields the instant, in nanoseconds, when this span has been opened.
+		 *
+		 * @return the start of this span
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * Yields the instant, in nanoseconds, when this span has been closed.
+		 *
+		 * @return the end of this span, or {@code 0} if it is still open
+		 */
+		public long getEnd() {
+			return end;
+		}
+
+		/**
+		 * Closes this span, emitting it as a Flight Recorder event and storing
+		 * it in the tracer that opened it, if that is collecting.
+		 */
+		@Override
+		public void close() {
+			if (event != null) {
+				event.end();
+				if (event.shouldCommit())
+					event.commit();
+			}
+
+			if (tracer != null) {
+				end = System.nanoTime();
+				tracer.spans.add(this);
+			}
+		}
+	}
+}
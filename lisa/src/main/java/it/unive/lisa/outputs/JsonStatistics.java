@@ -0,0 +1,265 @@
+package it.unive.lisa.outputs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.AnalysisStatistics;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics.NodeStatistics;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A report of the statistics collected during the fixpoint computations of an
+ * analysis, that can be dumped in json format. For each phase of the analysis
+ * (e.g., type inference), the report contains the totals of the phase, and the
+ * cfgs and statements where the evaluation of the semantics took the most time.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class JsonStatistics {
+
+	private final Map<String, JsonPhase> phases;
+
+	/**
+	 * Builds the report.
+	 *
+	 * @param phases the statistics of each phase of the analysis, indexed by
+	 *                   the name of the phase
+	 * @param topN   the number of cfgs and statements to list for each phase
+	 */
+	public JsonStatistics(Map<String, AnalysisStatistics> phases, int topN) {
+		this.phases = new LinkedHashMap<>();
+		for (Entry<String, AnalysisStatistics> phase : phases.entrySet())
+			this.phases.put(phase.getKey(), new JsonPhase(phase.getValue(), topN));
+	}
+
+	/**
+	 * Yields the statistics of each phase, indexed by the name of the phase.
+	 *
+	 * @return the statistics of the phases
+	 */
+	public Map<String, JsonPhase> getPhases() {
+		return phases;
+	}
+
+	/**
+	 * Dumps this report to the given {@link Writer} instance, serializing it as
+	 * a json object.
+	 *
+	 * @param writer the writer to write to
+	 *
+	 * @throws IOException if some I/O error happens while writing to the writer
+	 */
+	public void dump(Writer writer) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		mapper.writeValue(writer, this);
+	}
+
+	private static final Comparator<JsonEntry> HOTTEST_FIRST = Comparator
+			.comparingDouble(JsonEntry::getTimeMillis).reversed()
+			.thenComparing(Comparator.comparingLong(JsonEntry::getEvaluations).reversed())
+			.thenComparing(JsonEntry::getName);
+
+	/**
+	 * The statistics of a phase of the analysis.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class JsonPhase {
+
+		private final JsonEntry totals;
+
+		private final List<JsonEntry> hottestCFGs;
+
+		private final List<JsonEntry> hottestStatements;
+
+		private JsonPhase(AnalysisStatistics stats, int topN) {
+			List<JsonEntry> cfgs = new ArrayList<>();
+			List<JsonEntry> statements = new ArrayList<>();
+			long fixpoints = 0, evaluations = 0, lubs = 0, widenings = 0, nanos = 0;
+			int maxStateSize = 0;
+			for (Entry<CFG, FixpointStatistics<Statement>> cfg : stats.getCFGs().entrySet()) {
+				String signature = cfg.getKey().getDescriptor().getFullSignature();
+				NodeStatistics cfgTotals = cfg.getValue().getTotals();
+				cfgs.add(new JsonEntry(signature, cfg.getKey().getDescriptor().getLocation(),
+						cfg.getValue().getFixpoints(), cfgTotals));
+				for (Entry<Statement, NodeStatistics> st : cfg.getValue().getNodes().entrySet())
+					statements.add(new JsonEntry(signature + ": " + st.getKey(), st.getKey().getLocation(), 0,
+							st.getValue()));
+
+				fixpoints += cfg.getValue().getFixpoints();
+				evaluations += cfgTotals.getEvaluations();
+				lubs += cfgTotals.getLubs();
+				widenings += cfgTotals.getWidenings();
+				nanos += cfgTotals.getNanos();
+				maxStateSize = Math.max(maxStateSize, cfgTotals.getMaxStateSize());
+			}
+
+			this.totals = new JsonEntry("totals", null, fixpoints, evaluations, lubs, widenings, nanos,
+					maxStateSize);
+			cfgs.sort(HOTTEST_FIRST);
+			statements.sort(HOTTEST_FIRST);
+			this.hottestCFGs = new ArrayList<>(cfgs.subList(0, Math.min(topN, cfgs.size())));
+			this.hottestStatements = new ArrayList<>(statements.subList(0, Math.min(topN, statements.size())));
+		}
+
+		/**
+		 * Yields the totals of the phase. Note that the time spent in cfgs that
+		 * call other cfgs might include the time spent analyzing the callees,
+		 * and thus the total time might be greater than the actual duration of
+		 * the phase.
+		 *
+		 * @return the totals
+		 */
+		public JsonEntry getTotals() {
+			return totals;
+		}
+
+		/**
+		 * Yields the cfgs where the evaluation of the semantics took the most
+		 * time, in descending order of time.
+		 *
+		 * @return the hottest cfgs
+		 */
+		public List<JsonEntry> getHottestCFGs() {
+			return hottestCFGs;
+		}
+
+		/**
+		 * Yields the statements where the evaluation of the semantics took the
+		 * most time, in descending order of time.
+		 *
+		 * @return the hottest statements
+		 */
+		public List<JsonEntry> getHottestStatements() {
+			return hottestStatements;
+		}
+	}
+
+	/**
+	 * The statistics of a cfg or of a statement.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class JsonEntry {
+
+		private final String name;
+
+		private final String location;
+
+		private final long fixpoints;
+
+		private final long evaluations;
+
+		private final long lubs;
+
+		private final long widenings;
+
+		private final double timeMillis;
+
+		private final int maxStateSize;
+
+		private JsonEntry(String name, Object location, long fixpoints, NodeStatistics stats) {
+			this(name, location, fixpoints, stats.getEvaluations(), stats.getLubs(), stats.getWidenings(),
+					stats.getNanos(), stats.getMaxStateSize());
+		}
+
+		private JsonEntry(String name, Object location, long fixpoints, long evaluations, long lubs,
+				long widenings, long nanos, int maxStateSize) {
+			this.name = name;
+			this.location = location == null ? null : location.toString();
+			this.fixpoints = fixpoints;
+			this.evaluations = evaluations;
+			this.lubs = lubs;
+			this.widenings = widenings;
+			this.timeMillis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+			this.maxStateSize = maxStateSize;
+		}
+
+		/**
+		 * Yields the name of the cfg or statement.
+		 *
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Yields the location of the cfg or statement in the program.
+		 *
+		 * @return the location, or {@code null} if it is unknown
+		 */
+		public String getLocation() {
+			return location;
+		}
+
+		/**
+		 * Yields the number of fixpoint computations over the cfg. This is
+		 * always {@code 0} for statements.
+		 *
+		 * @return the number of fixpoints
+		 */
+		public long getFixpoints() {
+			return fixpoints;
+		}
+
+		/**
+		 * Yields the number of evaluations of the semantics.
+		 *
+		 * @return the number of evaluations
+		 */
+		public long getEvaluations() {
+			return evaluations;
+		}
+
+		/**
+		 * Yields the number of lubs with the results of previous iterations.
+		 *
+		 * @return the number of lubs
+		 */
+		public long getLubs() {
+			return lubs;
+		}
+
+		/**
+		 * Yields the number of widenings with the results of previous
+		 * iterations.
+		 *
+		 * @return the number of widenings
+		 */
+		public long getWidenings() {
+			return widenings;
+		}
+
+		/**
+		 * Yields the cumulative time spent evaluating the semantics, in
+		 * milliseconds.
+		 *
+		 * @return the cumulative time
+		 */
+		public double getTimeMillis() {
+			return timeMillis;
+		}
+
+		/**
+		 * Yields the size of the largest state computed (see
+		 * {@link FixpointStatistics#sizeOf(it.unive.lisa.analysis.AnalysisState)}).
+		 *
+		 * @return the maximum state size
+		 */
+		public int getMaxStateSize() {
+			return maxStateSize;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package it.unive.lisa.program;
+
+import it.unive.lisa.program.cfg.CodeMember;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable index of {@link CodeMember}s, grouped by name and number of
+ * parameters. Since both have to match for a code member to be the target of a
+ * call, looking up the index yields the only candidates that need to be checked
+ * against the actual parameters of the call.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class CodeMemberIndex {
+
+	/**
+	 * The indexed code members, grouped by name and then by arity
+	 */
+	private final Map<String, Map<Integer, Collection<CodeMember>>> index;
+
+	/**
+	 * Builds the index of the given code members.
+	 *
+	 * @param members the code members to index
+	 */
+	CodeMemberIndex(Collection<? extends CodeMember> members) {
+		Map<String, Map<Integer, Collection<CodeMember>>> index = new HashMap<>();
+		for (CodeMember cm : members)
+			index.computeIfAbsent(cm.getDescriptor().getName(), n -> new HashMap<>())
+					.computeIfAbsent(cm.getDescriptor().getArgs().length, a -> new ArrayList<>()).add(cm);
+
+		for (Map<Integer, Collection<CodeMember>> byArity : index.values())
+			byArity.replaceAll((arity, cms) -> Collections.unmodifiableCollection(cms));
+		this.index = index;
+	}
+
+	/**
+	 * Yields the indexed code members with the given name and arity.
+	 *
+	 * @param name  the name of the code members
+	 * @param arity the number of parameters of the code members
+	 *
+	 * @return the (unmodifiable) collection of matching code members
+	 */
+	Collection<CodeMember> get(String name, int arity) {
+		Map<Integer, Collection<CodeMember>> byArity = index.get(name);
+		if (byArity == null)
+			return Collections.emptyList();
+		return byArity.getOrDefault(arity, Collections.emptyList());
+	}
+}
@@ -65,6 +65,14 @@ public class CompilationUnit extends Unit {
 	 */
 	private boolean hierarchyComputed;
 
+	/**
+	 * The virtual dispatch table of this unit, indexing all the instance code
+	 * members visible from this unit (that is, the ones defined in this unit
+	 * and the ones inherited and not overridden), built by
+	 * {@link #validateAndFinalize()}
+	 */
+	private CodeMemberIndex dispatchTable;
+
 	/**
 	 * Builds a compilation unit, defined at the given program point.
 	 * 
@@ -360,6 +368,28 @@ public class CompilationUnit extends Unit {
 		return searchCodeMembers(cm -> cm.getDescriptor().getName().equals(name), true, true, traverseHierarchy);
 	}
 
+	/**
+	 * Yields the collection of all instance {@link CodeMember}s visible from
+	 * this unit that have the given name and number of parameters, that is, the
+	 * ones returned by {@link #getInstanceCodeMembersByName(String, boolean)}
+	 * when traversing the hierarchy, filtered by arity. After
+	 * {@link #validateAndFinalize()} has been called, this method looks up the
+	 * dispatch table of this unit built during the validation, instead of
+	 * traversing the hierarchy.
+	 * 
+	 * @param name  the name of the code members to include
+	 * @param arity the number of parameters of the code members to include
+	 * 
+	 * @return the collection of matching code members
+	 */
+	public final Collection<CodeMember> getInstanceCodeMembersByName(String name, int arity) {
+		if (dispatchTable != null)
+			return dispatchTable.get(name, arity);
+		return searchCodeMembers(
+				cm -> cm.getDescriptor().getName().equals(name) && cm.getDescriptor().getArgs().length == arity,
+				true, true, true);
+	}
+
 	/**
 	 * Finds all the instance code members whose signature matches the one of
 	 * the given {@link CFGDescriptor}, according to
@@ -547,7 +577,8 @@ public class CompilationUnit extends Unit {
 	 * call resolutions. Instance code members are also linked to other ones in
 	 * the hierarchy, populating the collections
 	 * {@link CFGDescriptor#overriddenBy()} and
-	 * {@link CFGDescriptor#overrides()}.
+	 * {@link CFGDescriptor#overrides()}. Finally, the dispatch table of the
+	 * unit is built (see {@link #getInstanceCodeMembersByName(String, int)}).
 	 */
 	@Override
 	public final void validateAndFinalize() throws ProgramValidationException {
@@ -589,6 +620,7 @@ public class CompilationUnit extends Unit {
 					}
 			}
 
+		dispatchTable = new CodeMemberIndex(getInstanceCodeMembers(true));
 		hierarchyComputed = true;
 	}
 }
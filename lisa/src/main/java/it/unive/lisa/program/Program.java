@@ -1,11 +1,15 @@
 package it.unive.lisa.program;
 
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.NativeCFG;
 import it.unive.lisa.type.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -34,6 +38,18 @@ public class Program extends Unit {
 	 */
 	private Collection<Type> types;
 
+	/**
+	 * The index of all the code members of this program, built by
+	 * {@link #validateAndFinalize()}
+	 */
+	private CodeMemberIndex codeMembers;
+
+	/**
+	 * The cfgs from which the analysis starts. If empty, all the cfgs of the
+	 * program are analyzed.
+	 */
+	private final Collection<CFG> entryPoints;
+
 	/**
 	 * Builds an empty program.
 	 */
@@ -41,6 +57,37 @@ public class Program extends Unit {
 		super(null, PROGRAM_NAME);
 		units = new ConcurrentHashMap<>();
 		types = new ArrayList<>();
+		entryPoints = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a new {@link CFG} to the entrypoints of this program. When a program
+	 * has at least one entrypoint, only the cfgs that are transitively
+	 * reachable from the entrypoints through calls are analyzed. Otherwise, all
+	 * the cfgs of the program are analyzed. The given cfg must be defined in
+	 * this program, or one of its {@link CompilationUnit}s.
+	 * 
+	 * @param cfg the entrypoint to add
+	 * 
+	 * @return {@code true} if the collection of entrypoints changed as a result
+	 *             of the call
+	 */
+	public final boolean addEntryPoint(CFG cfg) {
+		// cfgs are compared structurally by equals
+		if (entryPoints.stream().anyMatch(e -> e == cfg))
+			return false;
+		return entryPoints.add(cfg);
+	}
+
+	/**
+	 * Yields the collection of {@link CFG}s that are the entrypoints of this
+	 * program. If this collection is empty, all the cfgs of the program are
+	 * analyzed.
+	 * 
+	 * @return the entrypoints
+	 */
+	public final Collection<CFG> getEntryPoints() {
+		return entryPoints;
 	}
 
 	/**
@@ -151,7 +198,13 @@ public class Program extends Unit {
 	 * Validating a program simply causes the validation of all the
 	 * {@link CompilationUnit}s defined inside it. Validation also clears (by
 	 * setting it to {@code null}) the set of registered types, in order to
-	 * shrink the memory fingerprint of the program.
+	 * shrink the memory fingerprint of the program, and indexes all the code
+	 * members of the program by name and arity (see
+	 * {@link #getAllCodeMembersByName(String, int)}).
+	 * 
+	 * @throws ProgramValidationException if the program is not valid, or if one
+	 *                                        of its entrypoints is not defined
+	 *                                        in it
 	 */
 	@Override
 	public final void validateAndFinalize() throws ProgramValidationException {
@@ -162,5 +215,38 @@ public class Program extends Unit {
 
 		for (CompilationUnit unit : getUnits())
 			unit.validateAndFinalize();
+
+		codeMembers = new CodeMemberIndex(getAllCodeMembers());
+
+		Set<CFG> cfgs = Collections.newSetFromMap(new IdentityHashMap<>());
+		cfgs.addAll(getAllCFGs());
+		for (CFG entryPoint : entryPoints)
+			if (!cfgs.contains(entryPoint))
+				throw new ProgramValidationException(
+						"Entrypoint " + entryPoint.getDescriptor().getFullSignatureWithParNames()
+								+ " is not defined in the program");
+	}
+
+	/**
+	 * Yields the collection of <b>all</b> the {@link CodeMember}s defined in
+	 * this program (see {@link #getAllCodeMembers()}) that have the given name
+	 * and number of parameters. After {@link #validateAndFinalize()} has been
+	 * called, this method looks up an index built during the validation,
+	 * instead of scanning all the code members of the program.
+	 * 
+	 * @param name  the name of the code members to include
+	 * @param arity the number of parameters of the code members to include
+	 * 
+	 * @return the collection of matching code members
+	 */
+	public final Collection<CodeMember> getAllCodeMembersByName(String name, int arity) {
+		if (codeMembers != null)
+			return codeMembers.get(name, arity);
+
+		Collection<CodeMember> result = new ArrayList<>();
+		for (CodeMember cm : getAllCodeMembers())
+			if (cm.getDescriptor().getName().equals(name) && cm.getDescriptor().getArgs().length == arity)
+				result.add(cm);
+		return result;
 	}
 }
@@ -359,7 +359,8 @@ public abstract class Unit implements CodeElement {
 	 * code members exist in this unit whose signatures matches one another,
 	 * according to {@link CFGDescriptor#matchesSignature(CFGDescriptor)}. This
 	 * avoids ambiguous call resolution. Moreover, this ensures that all
-	 * {@link CFG}s are valid, according to {@link CFG#validate()}.
+	 * {@link CFG}s are valid, according to {@link CFG#validate()}, and freezes
+	 * their structure through {@link CFG#compact()}.
 	 * 
 	 * @throws ProgramValidationException if the program has an invalid
 	 *                                        structure
@@ -372,8 +373,12 @@ public abstract class Unit implements CodeElement {
 						cfg.getDescriptor().getSignature() + " is duplicated within unit " + this);
 		}
 
-		for (CFG cfg : getAllCFGs())
+		for (CFG cfg : getAllCFGs()) {
 			cfg.validate();
+			// the structure of the cfg will not change anymore: we freeze it
+			// to speed up the traversals performed by fixpoint computations
+			cfg.compact();
+		}
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package it.unive.lisa.program.cfg;
 
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
@@ -10,6 +11,7 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.logging.Tracer.Span;
 import it.unive.lisa.outputs.DotCFG;
 import it.unive.lisa.program.ProgramValidationException;
 import it.unive.lisa.program.cfg.controlFlow.ControlFlowExtractor;
@@ -25,8 +27,14 @@ import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
+import it.unive.lisa.util.datastructures.graph.BudgetExhaustedException;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
 import it.unive.lisa.util.datastructures.graph.FixpointGraph;
+import it.unive.lisa.util.datastructures.graph.FixpointParameters;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.workset.FIFOWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
 import java.util.Collection;
@@ -70,6 +78,17 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 	 */
 	private boolean cfsExtracted;
 
+	/**
+	 * The last {@link Liveness} computed on this cfg, if any
+	 */
+	private Liveness liveness;
+
+	/**
+	 * The value of {@link AdjacencyMatrix#getModificationCount()} when
+	 * {@link #liveness} has been computed
+	 */
+	private int livenessModifications;
+
 	/**
 	 * Builds the control flow graph.
 	 * 
@@ -802,6 +821,221 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 						(StatementStore) expressions)));
 	}
 
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation
+	 * follows the {@link IterationStrategy} returned by
+	 * {@link FixpointConfiguration#getIterationStrategy()}: with
+	 * {@link IterationStrategy#WORKLIST}, this is equivalent to
+	 * {@link #fixpoint(AnalysisState, CallGraph)}, while with
+	 * {@link IterationStrategy#WEAK_TOPOLOGICAL_ORDER} statements are evaluated
+	 * following a {@link WeakTopologicalOrder} of this cfg (see
+	 * {@link #wtoFixpoint(Map, CallGraph, int)}). In both cases,
+	 * {@link FixpointConfiguration#getWideningThreshold()} is used as widening
+	 * threshold. The computation starts at the statements returned by
+	 * {@link #getEntrypoints()}, using {@code entryState} as entry state for
+	 * all of them. {@code cg} will be invoked to get the approximation of all
+	 * invoked cfgs.
+	 * 
+	 * @param <A>        the type of {@link AbstractState} contained into the
+	 *                       analysis state
+	 * @param <H>        the type of {@link HeapDomain} contained into the
+	 *                       computed abstract state
+	 * @param <V>        the type of {@link ValueDomain} contained into the
+	 *                       computed abstract state
+	 * @param entryState the entry states to apply to each {@link Statement}
+	 *                       returned by {@link #getEntrypoints()}
+	 * @param cg         the callgraph that can be queried when a call towards
+	 *                       an other cfg is encountered
+	 * @param conf       the {@link FixpointConfiguration} containing the
+	 *                       settings of the computation
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> entryState, CallGraph cg, FixpointConfiguration conf)
+					throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(start, cg, conf);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation
+	 * follows the {@link IterationStrategy} returned by
+	 * {@link FixpointConfiguration#getIterationStrategy()}: with
+	 * {@link IterationStrategy#WORKLIST}, this is equivalent to
+	 * {@link #fixpoint(Map, CallGraph)}, while with
+	 * {@link IterationStrategy#WEAK_TOPOLOGICAL_ORDER} statements are evaluated
+	 * following a {@link WeakTopologicalOrder} of this cfg (see
+	 * {@link #wtoFixpoint(Map, CallGraph, int)}). In both cases,
+	 * {@link FixpointConfiguration#getWideningThreshold()} is used as widening
+	 * threshold. If {@link FixpointConfiguration#isPruneDeadVariables()} holds,
+	 * the variables that are not live before each statement (see
+	 * {@link #getLiveness()}) are removed from the states flowing into it. Once
+	 * a post-fixpoint has been reached, at most
+	 * {@link FixpointConfiguration#getDescendingRounds()} descending iterations
+	 * are performed to refine it through {@link Lattice#narrowing(Lattice)}.
+	 * The computation is bounded by a budget obtained through
+	 * {@link FixpointConfiguration#getBudget()}: if it runs out, the
+	 * computation is interrupted, every statement is mapped to the top state
+	 * and the exhaustion is reported to the budget. If
+	 * {@link FixpointConfiguration#getStatistics()} is not {@code null},
+	 * statistics about the computation are collected in it. The computation is
+	 * traced as a span of {@link FixpointConfiguration#getTracer()}. The
+	 * computation starts at the statements in {@code startingPoints}, using as
+	 * its entry state their respective value. {@code cg} will be invoked to get
+	 * the approximation of all invoked cfgs.
+	 * 
+	 * @param <A>            the type of {@link AbstractState} contained into
+	 *                           the analysis state
+	 * @param <H>            the type of {@link HeapDomain} contained into the
+	 *                           computed abstract state
+	 * @param <V>            the type of {@link ValueDomain} contained into the
+	 *                           computed abstract state
+	 * @param startingPoints a map between {@link Statement}s that to use as a
+	 *                           starting point of the computation (that must be
+	 *                           nodes of this cfg) and the entry states to
+	 *                           apply on it
+	 * @param cg             the callgraph that can be queried when a call
+	 *                           towards an other cfg is encountered
+	 * @param conf           the {@link FixpointConfiguration} containing the
+	 *                           settings of the computation
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					Map<Statement, AnalysisState<A, H, V>> startingPoints, CallGraph cg, FixpointConfiguration conf)
+					throws FixpointException {
+		SemanticFunction<Statement, Edge, CFG, A, H, V, StatementStore<A, H, V>> semantics = (st, entryState,
+				callGraph, expressions) -> st.semantics(entryState, callGraph, expressions);
+		FixpointStatistics<Statement> stats = conf.getStatistics() == null ? null : conf.getStatistics().of(this);
+		FixpointParameters<Statement> params = new FixpointParameters<>(conf.getWideningThreshold(),
+				conf.isPruneDeadVariables(), conf.getDescendingRounds(), conf.getBudget().mkCFGBudget(), stats);
+		// the fixpoint throws checked exceptions, and cannot be traced through
+		// Tracer.trace
+		Span span = conf.getTracer().begin("fixpoint", getDescriptor().getFullSignature());
+		try {
+			if (conf.getIterationStrategy() == IterationStrategy.WEAK_TOPOLOGICAL_ORDER)
+				return new CFGWithAnalysisResults<A, H, V>(this,
+						super.wtoFixpoint(startingPoints, cg, semantics, params));
+			return new CFGWithAnalysisResults<A, H, V>(this,
+					super.fixpoint(startingPoints, cg, FIFOWorkingSet.mk(), semantics, params));
+		} catch (BudgetExhaustedException e) {
+			log.warn("Fixpoint over '" + this + "' interrupted since " + e.getMessage()
+					+ ": all of its statements will be mapped to top");
+			conf.getBudget().exhausted(this, e.getMessage());
+			return new CFGWithAnalysisResults<A, H, V>(this, mkTopResults(startingPoints.values()));
+		} finally {
+			span.close();
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> Map<Statement, AnalysisState<A, H, V>> mkTopResults(
+					Collection<AnalysisState<A, H, V>> entryStates) {
+		Map<Statement, AnalysisState<A, H, V>> results = new HashMap<>();
+		if (entryStates.isEmpty())
+			return results;
+
+		AnalysisState<A, H, V> top = entryStates.iterator().next().top();
+		// inner expressions have their own results
+		accept(new GraphVisitor<CFG, Statement, Edge, Map<Statement, AnalysisState<A, H, V>>>() {
+
+			@Override
+			public boolean visit(Map<Statement, AnalysisState<A, H, V>> tool, CFG graph) {
+				return true;
+			}
+
+			@Override
+			public boolean visit(Map<Statement, AnalysisState<A, H, V>> tool, CFG graph, Statement node) {
+				tool.put(node, top);
+				return true;
+			}
+
+			@Override
+			public boolean visit(Map<Statement, AnalysisState<A, H, V>> tool, CFG graph, Edge edge) {
+				return true;
+			}
+		}, results);
+		return results;
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, evaluating statements
+	 * following a {@link WeakTopologicalOrder} of this cfg. This method returns
+	 * a {@link CFGWithAnalysisResults} instance mapping each {@link Statement}
+	 * to the {@link AnalysisState} computed by this method. Loops are
+	 * stabilized from the innermost to the outermost one, and only the
+	 * statements that are heads of loops compose the results obtained at
+	 * different iterations: {@link Lattice#lub(Lattice)} is used for the first
+	 * {@code widenAfter} iterations of each loop, after which
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements in {@code startingPoints}, using as its entry state their
+	 * respective value. {@code cg} will be invoked to get the approximation of
+	 * all invoked cfgs.
+	 * 
+	 * @param <A>            the type of {@link AbstractState} contained into
+	 *                           the analysis state
+	 * @param <H>            the type of {@link HeapDomain} contained into the
+	 *                           computed abstract state
+	 * @param <V>            the type of {@link ValueDomain} contained into the
+	 *                           computed abstract state
+	 * @param startingPoints a map between {@link Statement}s that to use as a
+	 *                           starting point of the computation (that must be
+	 *                           nodes of this cfg) and the entry states to
+	 *                           apply on it
+	 * @param cg             the callgraph that can be queried when a call
+	 *                           towards an other cfg is encountered
+	 * @param widenAfter     the number of iterations of a loop after which the
+	 *                           {@link Lattice#lub(Lattice)} invocation on its
+	 *                           head gets replaced by the
+	 *                           {@link Lattice#widening(Lattice)} call. Use
+	 *                           {@code 0} to <b>always</b> use
+	 *                           {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement is used as
+	 *                               starting point
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> wtoFixpoint(
+					Map<Statement, AnalysisState<A, H, V>> startingPoints, CallGraph cg, int widenAfter)
+					throws FixpointException {
+		return new CFGWithAnalysisResults<A, H, V>(this, super.wtoFixpoint(startingPoints, cg, widenAfter,
+				(st, entryState, callGraph, expressions) -> st.semantics(entryState, callGraph,
+						(StatementStore) expressions)));
+	}
+
 	@Override
 	protected <A extends AbstractState<A, H, V>,
 			H extends HeapDomain<H>,
@@ -833,6 +1067,48 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		return computedState;
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The variables of this cfg that are not live before {@code node},
+	 * according to {@link #getLiveness()}, are removed from the given state.
+	 * This is performed only by fixpoints whose {@link FixpointConfiguration}
+	 * enables {@link FixpointConfiguration#isPruneDeadVariables()}.
+	 */
+	@Override
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> cleanUpEntryState(Statement node,
+					AnalysisState<A, H, V> entryState) throws SemanticException {
+		Collection<VariableTableEntry> dead = getLiveness().getDeadBefore(node);
+		if (dead.isEmpty())
+			return entryState;
+
+		Collection<Identifier> ids = new LinkedList<>();
+		for (VariableTableEntry entry : dead) {
+			SymbolicExpression v = entry.createReference(this).getVariable();
+			for (SymbolicExpression expr : entryState.smallStepSemantics(v, node).getComputedExpressions())
+				ids.add((Identifier) expr);
+		}
+
+		return entryState.forgetIdentifiers(ids);
+	}
+
+	/**
+	 * Yields the {@link Liveness} of the variables of this cfg, computing it
+	 * only if the one computed at the previous invocation is not valid anymore.
+	 * 
+	 * @return the liveness of the variables of this cfg
+	 */
+	public synchronized Liveness getLiveness() {
+		int modifications = adjacencyMatrix.getModificationCount();
+		if (liveness == null || livenessModifications != modifications) {
+			livenessModifications = modifications;
+			liveness = new Liveness(this);
+		}
+		return liveness;
+	}
+
 	@Override
 	protected DotCFG toDot(Function<Statement, String> labelGenerator) {
 		return DotCFG.fromCFG(this, labelGenerator);
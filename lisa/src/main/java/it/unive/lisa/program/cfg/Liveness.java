@@ -0,0 +1,154 @@
+package it.unive.lisa.program.cfg;
+
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.AccessUnitGlobal;
+import it.unive.lisa.program.cfg.statement.Assignment;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A backward liveness analysis of the local variables of a {@link CFG}. A
+ * variable is live before a {@link Statement} if its value might be read by the
+ * statement itself, or by one of the statements that can be executed after it
+ * before the variable is assigned again.<br>
+ * <br>
+ * Variables are tracked by name: each {@link VariableRef} appearing in a
+ * statement, including the ones in the receivers of {@link AccessUnitGlobal}s
+ * and in the parameters of calls, is a read of the variable, with the exception
+ * of the target of an {@link Assignment}, that is a write. The analysis is thus
+ * conservative w.r.t. variables that are declared more than once in different
+ * scopes.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class Liveness {
+
+	/**
+	 * The cfg whose liveness has been computed
+	 */
+	private final CFG cfg;
+
+	/**
+	 * The names of the variables that are live before each statement
+	 */
+	private final Map<Statement, Set<String>> liveBefore;
+
+	/**
+	 * The variables of {@link #cfg} that are dead before each statement, lazily
+	 * computed
+	 */
+	private final Map<Statement, Collection<VariableTableEntry>> deadBefore;
+
+	/**
+	 * Computes the liveness of the variables of the given cfg.
+	 *
+	 * @param cfg the cfg
+	 */
+	public Liveness(CFG cfg) {
+		this.cfg = cfg;
+		this.liveBefore = new HashMap<>();
+		this.deadBefore = new HashMap<>();
+
+		Map<Statement, Set<String>> uses = new HashMap<>();
+		Map<Statement, String> defs = new HashMap<>();
+		Deque<Statement> ws = new ArrayDeque<>();
+		// the statements in ws, to check membership in constant time
+		Set<Statement> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Statement node : cfg.getNodes()) {
+			Set<String> used = new HashSet<>();
+			if (node instanceof Assignment && ((Assignment) node).getLeft() instanceof VariableRef) {
+				Assignment assign = (Assignment) node;
+				defs.put(node, ((VariableRef) assign.getLeft()).getName());
+				assign.getRight().accept(new ReadsCollector(), used);
+			} else
+				node.accept(new ReadsCollector(), used);
+			uses.put(node, used);
+			liveBefore.put(node, new HashSet<>(used));
+			ws.add(node);
+			queued.add(node);
+		}
+
+		while (!ws.isEmpty()) {
+			Statement node = ws.removeFirst();
+			queued.remove(node);
+			Set<String> live = new HashSet<>();
+			for (Statement follower : cfg.followersOf(node))
+				live.addAll(liveBefore.get(follower));
+			live.remove(defs.get(node));
+			live.addAll(uses.get(node));
+
+			if (!live.equals(liveBefore.get(node))) {
+				liveBefore.put(node, live);
+				for (Statement pred : cfg.predecessorsOf(node))
+					if (queued.add(pred))
+						ws.addLast(pred);
+			}
+		}
+	}
+
+	/**
+	 * Yields the names of the variables that are live before the given
+	 * statement.
+	 *
+	 * @param node the statement
+	 *
+	 * @return the names of the live variables
+	 */
+	public Set<String> getLiveBefore(Statement node) {
+		return Collections.unmodifiableSet(liveBefore.getOrDefault(node, Collections.emptySet()));
+	}
+
+	/**
+	 * Yields the variables of the cfg (see
+	 * {@link CFGDescriptor#getVariables()}) that are not live before the given
+	 * statement.
+	 *
+	 * @param node the statement
+	 *
+	 * @return the dead variables
+	 */
+	public synchronized Collection<VariableTableEntry> getDeadBefore(Statement node) {
+		return deadBefore.computeIfAbsent(node, n -> {
+			Set<String> live = liveBefore.getOrDefault(n, Collections.emptySet());
+			Collection<VariableTableEntry> dead = new LinkedList<>();
+			for (VariableTableEntry entry : cfg.getDescriptor().getVariables())
+				if (!live.contains(entry.getName()))
+					dead.add(entry);
+			return dead;
+		});
+	}
+
+	private static final class ReadsCollector implements GraphVisitor<CFG, Statement, Edge, Set<String>> {
+
+		@Override
+		public boolean visit(Set<String> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Set<String> tool, CFG graph, Statement node) {
+			if (node instanceof VariableRef)
+				tool.add(((VariableRef) node).getName());
+			else if (node instanceof AccessUnitGlobal)
+				// accesses do not visit their receiver
+				((AccessUnitGlobal) node).getReceiver().accept(this, tool);
+			return true;
+		}
+
+		@Override
+		public boolean visit(Set<String> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
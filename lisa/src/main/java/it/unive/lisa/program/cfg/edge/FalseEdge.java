@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.UnaryExpression;
@@ -45,7 +46,8 @@ public class FalseEdge extends Edge {
 		AnalysisState<A, H, V> result = null;
 		for (SymbolicExpression expr : exprs) {
 			AnalysisState<A, H, V> tmp = sourceState
-					.assume(new UnaryExpression(expr.getTypes(), expr, UnaryOperator.LOGICAL_NOT), getSource());
+					.assume(Caches.expressions().intern(
+							new UnaryExpression(expr.getTypes(), expr, UnaryOperator.LOGICAL_NOT)), getSource());
 			if (result == null)
 				result = tmp;
 			else
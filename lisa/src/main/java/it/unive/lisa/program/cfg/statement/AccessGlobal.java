@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.callgraph.CallGraph;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Unit;
@@ -82,7 +83,8 @@ public class AccessGlobal extends Expression {
 			V extends ValueDomain<V>> AnalysisState<A, H, V> semantics(AnalysisState<A, H, V> entryState,
 					CallGraph callGraph, StatementStore<A, H, V> expressions) throws SemanticException {
 		// unit globals are unique, we can directly access those
-		return entryState.smallStepSemantics(new Variable(getRuntimeTypes(), toString()), this);
+		return entryState.smallStepSemantics(Caches.expressions().intern(new Variable(getRuntimeTypes(), toString())),
+				this);
 	}
 
 }
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.callgraph.CallGraph;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
@@ -64,6 +65,15 @@ public class AccessUnitGlobal extends Expression {
 		receiver.setParentStatement(this);
 	}
 
+	/**
+	 * Yields the expression that determines the accessed instance.
+	 * 
+	 * @return the receiver of the access
+	 */
+	public Expression getReceiver() {
+		return receiver;
+	}
+
 	@Override
 	public int setOffset(int offset) {
 		return this.offset = offset;
@@ -89,9 +99,10 @@ public class AccessUnitGlobal extends Expression {
 		expressions.put(receiver, rec);
 
 		AnalysisState<A, H, V> result = null;
-		Variable v = new Variable(getRuntimeTypes(), target.getName());
+		Variable v = Caches.expressions().intern(new Variable(getRuntimeTypes(), target.getName()));
 		for (SymbolicExpression expr : rec.getComputedExpressions()) {
-			AnalysisState<A, H, V> tmp = rec.smallStepSemantics(new AccessChild(getRuntimeTypes(), expr, v), this);
+			AnalysisState<A, H, V> tmp = rec.smallStepSemantics(
+					Caches.expressions().intern(new AccessChild(getRuntimeTypes(), expr, v)), this);
 			if (result == null)
 				result = tmp;
 			else
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.callgraph.CallGraph;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
@@ -176,7 +177,7 @@ public class CFGCall extends Call implements MetaVariableCreator {
 
 	@Override
 	public final Identifier getMetaVariable() {
-		return new Variable(getRuntimeTypes(), "call_ret_value@" + offset);
+		return Caches.expressions().intern(new Variable(getRuntimeTypes(), "call_ret_value@" + offset));
 	}
 
 	@Override
@@ -211,7 +212,9 @@ public class CFGCall extends Call implements MetaVariableCreator {
 		getMetaVariables().add(meta);
 
 		AnalysisState<A, H, V> result = null;
-		for (SymbolicExpression expr : lub.getComputedExpressions()) {
+		// the expressions computed by the lub also contain the ones of the
+		// last parameter
+		for (SymbolicExpression expr : returned.getComputedExpressions()) {
 			AnalysisState<A, H, V> tmp = lub.assign(meta, expr, this);
 			if (result == null)
 				result = tmp;
@@ -10,9 +10,10 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.Untyped;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An expression that is part of a statement of the program.
@@ -68,7 +69,9 @@ public abstract class Expression extends Statement {
 		super(cfg, location);
 		Objects.requireNonNull(staticType, "The expression type of a CFG cannot be null");
 		this.staticType = staticType;
-		this.metaVariables = new HashSet<>();
+		// meta variables might be added by analyses running on different
+		// threads
+		this.metaVariables = ConcurrentHashMap.newKeySet();
 	}
 
 	/**
@@ -93,10 +96,12 @@ public abstract class Expression extends Statement {
 		if (this.runtimeTypes != null && (this.runtimeTypes == runtimeTypes || this.runtimeTypes.equals(runtimeTypes)))
 			return;
 
-		if (this.runtimeTypes != null && runtimeTypes.isEmpty())
-			this.runtimeTypes.clear();
-		else
-			this.runtimeTypes = runtimeTypes.copy();
+		// canonical sets are immutable and shared, so that expressions with
+		// the same runtime types do not hold a copy each. Sets that cannot be
+		// canonicalized (e.g., universal ones) might change, and are copied
+		ExternalSetCache<Type> cache = runtimeTypes.getCache();
+		ExternalSet<Type> canonical = cache.canonical(runtimeTypes);
+		this.runtimeTypes = cache.isCanonical(canonical) ? canonical : cache.canonical(runtimeTypes.copy());
 	}
 
 	/**
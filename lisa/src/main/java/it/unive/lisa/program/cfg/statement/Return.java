@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.callgraph.CallGraph;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
@@ -59,8 +60,8 @@ public class Return extends UnaryStatement implements MetaVariableCreator {
 
 	@Override
 	public final Identifier getMetaVariable() {
-		return new Variable(getExpression().getRuntimeTypes(),
-				"ret_value@" + getCFG().getDescriptor().getName());
+		return Caches.expressions().intern(new Variable(getExpression().getRuntimeTypes(),
+				"ret_value@" + getCFG().getDescriptor().getName()));
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.inference.RuntimeTypesProvider;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.callgraph.CallGraph;
@@ -12,7 +13,9 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.program.cfg.Parameter;
 import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.type.Type;
 import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Objects;
 import org.apache.commons.lang3.StringUtils;
 
@@ -48,7 +51,7 @@ public class UnresolvedCall extends Call {
 		 */
 		STATIC_TYPES {
 			@Override
-			protected boolean matches(int pos, Parameter formal, Expression actual) {
+			protected boolean matches(int pos, Parameter formal, Expression actual, ExternalSet<Type> types) {
 				return actual.getStaticType().canBeAssignedTo(formal.getStaticType());
 			}
 		},
@@ -62,8 +65,8 @@ public class UnresolvedCall extends Call {
 		 */
 		DYNAMIC_TYPES {
 			@Override
-			protected boolean matches(int pos, Parameter formal, Expression actual) {
-				return actual.getRuntimeTypes().anyMatch(rt -> rt.canBeAssignedTo(formal.getStaticType()));
+			protected boolean matches(int pos, Parameter formal, Expression actual, ExternalSet<Type> types) {
+				return types.anyMatch(rt -> rt.canBeAssignedTo(formal.getStaticType()));
 			}
 		},
 
@@ -74,9 +77,9 @@ public class UnresolvedCall extends Call {
 		 */
 		FIRST_DYNAMIC_THEN_STATIC {
 			@Override
-			protected boolean matches(int pos, Parameter formal, Expression actual) {
-				return pos == 0 ? DYNAMIC_TYPES.matches(pos, formal, actual)
-						: STATIC_TYPES.matches(pos, formal, actual);
+			protected boolean matches(int pos, Parameter formal, Expression actual, ExternalSet<Type> types) {
+				return pos == 0 ? DYNAMIC_TYPES.matches(pos, formal, actual, types)
+						: STATIC_TYPES.matches(pos, formal, actual, types);
 			}
 		};
 
@@ -91,11 +94,31 @@ public class UnresolvedCall extends Call {
 		 * @return {@code true} if and only if that condition holds
 		 */
 		public final boolean matches(Parameter[] formals, Expression[] actuals) {
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			ExternalSet<Type>[] types = new ExternalSet[actuals.length];
+			for (int i = 0; i < actuals.length; i++)
+				types[i] = actuals[i].getRuntimeTypes();
+			return matches(formals, actuals, types);
+		}
+
+		/**
+		 * Yields {@code true} if and only if the signature of a cfg (i.e. the
+		 * types of its parameters) is matched by the given actual parameters,
+		 * according to this strategy, assuming that their runtime types are the
+		 * given ones instead of the ones stored in them.
+		 * 
+		 * @param formals the parameters definition of the cfg
+		 * @param actuals the expression that are used as call parameters
+		 * @param types   the runtime types of the actual parameters
+		 * 
+		 * @return {@code true} if and only if that condition holds
+		 */
+		public final boolean matches(Parameter[] formals, Expression[] actuals, ExternalSet<Type>[] types) {
 			if (formals.length != actuals.length)
 				return false;
 
 			for (int i = 0; i < formals.length; i++)
-				if (!matches(i, formals[i], actuals[i]))
+				if (!matches(i, formals[i], actuals[i], types[i]))
 					return false;
 
 			return true;
@@ -109,10 +132,11 @@ public class UnresolvedCall extends Call {
 		 * @param pos    the position of the parameter being evaluated
 		 * @param formal the parameter definition of the cfg
 		 * @param actual the expression that is used as parameter
+		 * @param types  the runtime types of the actual parameter
 		 * 
 		 * @return {@code true} if and only if that condition holds
 		 */
-		protected abstract boolean matches(int pos, Parameter formal, Expression actual);
+		protected abstract boolean matches(int pos, Parameter formal, Expression actual, ExternalSet<Type> types);
 	}
 
 	/**
@@ -238,9 +262,19 @@ public class UnresolvedCall extends Call {
 					AnalysisState<A, H, V> entryState, CallGraph callGraph, AnalysisState<A, H, V>[] computedStates,
 					ExpressionSet<SymbolicExpression>[] params)
 					throws SemanticException {
+		// types inferred during the fixpoint are private to it, and take
+		// precedence over the ones stored in the parameters
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		ExternalSet<Type>[] types = new ExternalSet[computedStates.length];
+		for (int i = 0; i < types.length; i++)
+			if (computedStates[i].getState() instanceof RuntimeTypesProvider)
+				types[i] = ((RuntimeTypesProvider) computedStates[i].getState()).getInferredRuntimeTypes();
+			else
+				types[i] = getParameters()[i].getRuntimeTypes();
+
 		Call resolved;
 		try {
-			resolved = callGraph.resolve(this);
+			resolved = callGraph.resolve(this, types);
 		} catch (CallResolutionException e) {
 			throw new SemanticException("Unable to resolve call " + this, e);
 		}
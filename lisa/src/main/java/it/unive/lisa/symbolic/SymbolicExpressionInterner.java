@@ -0,0 +1,365 @@
+package it.unive.lisa.symbolic;
+
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapAllocation;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A factory that interns {@link SymbolicExpression}s, yielding a canonical
+ * instance for each distinct expression. Two expressions share the same
+ * canonical instance if they have the same class, the same runtime types, the
+ * same fields and canonical sub-expressions that are the same object: note that
+ * this is stricter than {@link SymbolicExpression#equals(Object)}, since
+ * {@link Identifier}s are equal regardless of their runtime types, and
+ * interning must not change the types of the expressions that reach the
+ * analysis. Sub-expressions are interned before their containing expression, so
+ * that canonical expressions are made only of canonical expressions.<br>
+ * <br>
+ * Canonical expressions compute their hash code only once, and their equality
+ * checks usually end with a reference comparison, making them cheap to use as
+ * keys of maps and sets. Only expressions whose class is one of the ones
+ * defined in this package (and not a subclass of them) are interned: other
+ * expressions are returned as-is.<br>
+ * <br>
+ * Canonical instances are only weakly referenced by the interner: once no
+ * longer reachable from the analysis (or from other canonical expressions),
+ * they are released by the garbage collector, so that the interner does not
+ * grow indefinitely across analyses. This class is thread-safe. The globally
+ * defined instance can be retrieved through {@link Caches#expressions()}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class SymbolicExpressionInterner {
+
+	/**
+	 * The canonical expressions, each mapped to itself. Keys are either
+	 * {@link Canonical}s (stored in the map) or {@link Key}s (used for lookups)
+	 */
+	private final Map<Object, Canonical> canonical;
+
+	/**
+	 * The queue where the canonical expressions collected by the garbage
+	 * collector are enqueued
+	 */
+	private final ReferenceQueue<SymbolicExpression> collected;
+
+	/**
+	 * Builds an empty interner.
+	 */
+	public SymbolicExpressionInterner() {
+		canonical = new ConcurrentHashMap<>();
+		collected = new ReferenceQueue<>();
+	}
+
+	/**
+	 * Yields the canonical instance of the given expression, registering it
+	 * (after interning its sub-expressions) if no such instance exists yet.
+	 *
+	 * @param <T>        the type of the expression
+	 * @param expression the expression to intern
+	 *
+	 * @return the canonical instance, or {@code expression} itself if it cannot
+	 *             be interned
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends SymbolicExpression> T intern(T expression) {
+		if (expression == null)
+			return null;
+
+		SymbolicExpression rebuilt = internChildren(expression);
+		if (rebuilt == null)
+			return expression;
+
+		expunge();
+		Canonical existing = canonical.get(new Key(rebuilt));
+		SymbolicExpression instance = existing == null ? null : existing.get();
+		if (instance != null)
+			return (T) instance;
+
+		// the runtime types of expressions might be shared with the statement
+		// that generated them, that can modify them in place: canonical
+		// instances must own their types
+		SymbolicExpression detached = detach(rebuilt);
+		Canonical entry = new Canonical(detached, collected);
+		while (true) {
+			existing = canonical.putIfAbsent(entry, entry);
+			if (existing == null)
+				return (T) detached;
+			instance = existing.get();
+			if (instance != null)
+				return (T) instance;
+			// the existing instance has been collected in the meantime
+			canonical.remove(existing, existing);
+		}
+	}
+
+	/**
+	 * Yields the number of canonical instances registered in this interner.
+	 *
+	 * @return the number of canonical instances
+	 */
+	public int size() {
+		expunge();
+		return canonical.size();
+	}
+
+	/**
+	 * Removes all the canonical instances registered in this interner.
+	 */
+	public void clear() {
+		canonical.clear();
+		expunge();
+	}
+
+	/**
+	 * Removes the canonical instances that have been collected by the garbage
+	 * collector.
+	 */
+	private void expunge() {
+		Reference<? extends SymbolicExpression> ref;
+		while ((ref = collected.poll()) != null)
+			canonical.remove(ref, ref);
+	}
+
+	private SymbolicExpression internChildren(SymbolicExpression expression) {
+		Class<?> type = expression.getClass();
+		if (type == Variable.class || type == HeapLocation.class || type == Constant.class
+				|| type == HeapAllocation.class || type == PushAny.class || type == Skip.class)
+			return expression;
+
+		if (type == UnaryExpression.class) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			SymbolicExpression inner = intern(unary.getExpression());
+			if (inner == unary.getExpression())
+				return expression;
+			return new UnaryExpression(unary.getTypes(), inner, unary.getOperator());
+		}
+
+		if (type == BinaryExpression.class) {
+			BinaryExpression binary = (BinaryExpression) expression;
+			SymbolicExpression left = intern(binary.getLeft());
+			SymbolicExpression right = intern(binary.getRight());
+			if (left == binary.getLeft() && right == binary.getRight())
+				return expression;
+			return new BinaryExpression(binary.getTypes(), left, right, binary.getOperator());
+		}
+
+		if (type == TernaryExpression.class) {
+			TernaryExpression ternary = (TernaryExpression) expression;
+			SymbolicExpression left = intern(ternary.getLeft());
+			SymbolicExpression middle = intern(ternary.getMiddle());
+			SymbolicExpression right = intern(ternary.getRight());
+			if (left == ternary.getLeft() && middle == ternary.getMiddle() && right == ternary.getRight())
+				return expression;
+			return new TernaryExpression(ternary.getTypes(), left, middle, right, ternary.getOperator());
+		}
+
+		if (type == AccessChild.class) {
+			AccessChild access = (AccessChild) expression;
+			SymbolicExpression container = intern(access.getContainer());
+			SymbolicExpression child = intern(access.getChild());
+			if (container == access.getContainer() && child == access.getChild())
+				return expression;
+			return new AccessChild(access.getTypes(), container, child);
+		}
+
+		// unknown expression
+		return null;
+	}
+
+	private static SymbolicExpression detach(SymbolicExpression expression) {
+		Class<?> type = expression.getClass();
+		if (type == Constant.class || type == Skip.class)
+			// these always own their types
+			return expression;
+
+		SymbolicExpression rebuilt = rebuild(expression, expression.getTypes().copy());
+		return rebuilt == null ? expression : rebuilt;
+	}
+
+	/**
+	 * Yields the canonical instance of an expression that is the same as the
+	 * given one, but whose runtime types are {@code types}. Only the runtime
+	 * types of the outermost expression are changed, while its sub-expressions
+	 * are left untouched. {@link Constant}s and {@link Skip}s, whose types are
+	 * determined by their contents, and expressions that cannot be interned are
+	 * returned as-is, as well as expressions that already have the given types.
+	 *
+	 * @param <T>        the type of the expression
+	 * @param expression the expression
+	 * @param types      the runtime types of the expression to yield
+	 *
+	 * @return the canonical expression with the given runtime types
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends SymbolicExpression> T retype(T expression, ExternalSet<Type> types) {
+		Class<?> type = expression.getClass();
+		if (type == Constant.class || type == Skip.class || expression.getTypes().equals(types))
+			return expression;
+
+		SymbolicExpression rebuilt = rebuild(expression, types);
+		return rebuilt == null ? expression : (T) intern(rebuilt);
+	}
+
+	private static SymbolicExpression rebuild(SymbolicExpression expression, ExternalSet<Type> types) {
+		Class<?> type = expression.getClass();
+		if (type == Variable.class)
+			return new Variable(types, ((Variable) expression).getName());
+		if (type == HeapLocation.class) {
+			HeapLocation location = (HeapLocation) expression;
+			return new HeapLocation(types, location.getName(), location.isWeak());
+		}
+		if (type == HeapAllocation.class)
+			return new HeapAllocation(types);
+		if (type == PushAny.class)
+			return new PushAny(types);
+		if (type == UnaryExpression.class) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			return new UnaryExpression(types, unary.getExpression(), unary.getOperator());
+		}
+		if (type == BinaryExpression.class) {
+			BinaryExpression binary = (BinaryExpression) expression;
+			return new BinaryExpression(types, binary.getLeft(), binary.getRight(), binary.getOperator());
+		}
+		if (type == TernaryExpression.class) {
+			TernaryExpression ternary = (TernaryExpression) expression;
+			return new TernaryExpression(types, ternary.getLeft(), ternary.getMiddle(), ternary.getRight(),
+					ternary.getOperator());
+		}
+		if (type == AccessChild.class) {
+			AccessChild access = (AccessChild) expression;
+			return new AccessChild(types, access.getContainer(), access.getChild());
+		}
+
+		return null;
+	}
+
+	/**
+	 * A weak reference to a canonical expression, stored in the interner. Its
+	 * hash code is the one of the expression, and it implements the strict
+	 * equality used for interning as long as the expression has not been
+	 * collected. After that, it is equal only to itself, so that it can still
+	 * be removed from the interner.
+	 */
+	private static final class Canonical extends WeakReference<SymbolicExpression> {
+
+		private final int hash;
+
+		private Canonical(SymbolicExpression expression, ReferenceQueue<SymbolicExpression> queue) {
+			super(expression, queue);
+			this.hash = expression.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			SymbolicExpression expression = get();
+			if (expression == null)
+				return false;
+			if (obj instanceof Canonical) {
+				SymbolicExpression other = ((Canonical) obj).get();
+				return other != null && strictlyEquals(expression, other);
+			}
+			return obj instanceof Key && strictlyEquals(expression, ((Key) obj).expression);
+		}
+	}
+
+	/**
+	 * A wrapper of expressions used to look up canonical instances, that
+	 * implements the strict equality used for interning.
+	 */
+	private static final class Key {
+
+		private final SymbolicExpression expression;
+
+		private Key(SymbolicExpression expression) {
+			this.expression = expression;
+		}
+
+		@Override
+		public int hashCode() {
+			// strictly equal expressions are also equal
+			return expression.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj instanceof Key)
+				return strictlyEquals(expression, ((Key) obj).expression);
+			if (obj instanceof Canonical) {
+				SymbolicExpression other = ((Canonical) obj).get();
+				return other != null && strictlyEquals(expression, other);
+			}
+			return false;
+		}
+	}
+
+	private static boolean strictlyEquals(SymbolicExpression expression, SymbolicExpression other) {
+		if (expression.getClass() != other.getClass()
+				|| !Objects.equals(expression.getTypes(), other.getTypes()))
+			return false;
+
+		if (expression instanceof Identifier) {
+			Identifier first = (Identifier) expression, second = (Identifier) other;
+			return first.isWeak() == second.isWeak() && Objects.equals(first.getName(), second.getName());
+		}
+
+		if (expression instanceof Constant)
+			return Objects.equals(((Constant) expression).getValue(), ((Constant) other).getValue());
+
+		// sub-expressions are canonical: they can be compared by reference
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression first = (UnaryExpression) expression, second = (UnaryExpression) other;
+			return first.getOperator() == second.getOperator()
+					&& first.getExpression() == second.getExpression();
+		}
+
+		if (expression instanceof BinaryExpression) {
+			BinaryExpression first = (BinaryExpression) expression, second = (BinaryExpression) other;
+			return first.getOperator() == second.getOperator()
+					&& first.getLeft() == second.getLeft()
+					&& first.getRight() == second.getRight();
+		}
+
+		if (expression instanceof TernaryExpression) {
+			TernaryExpression first = (TernaryExpression) expression, second = (TernaryExpression) other;
+			return first.getOperator() == second.getOperator()
+					&& first.getLeft() == second.getLeft()
+					&& first.getMiddle() == second.getMiddle()
+					&& first.getRight() == second.getRight();
+		}
+
+		if (expression instanceof AccessChild) {
+			AccessChild first = (AccessChild) expression, second = (AccessChild) other;
+			return first.getContainer() == second.getContainer() && first.getChild() == second.getChild();
+		}
+
+		// expressions with no fields other than their types
+		return true;
+	}
+}
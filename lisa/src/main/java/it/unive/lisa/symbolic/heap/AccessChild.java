@@ -22,6 +22,12 @@ public class AccessChild extends HeapExpression {
 	 */
 	private final SymbolicExpression child;
 
+	/**
+	 * The hash code of this expression, cached since expressions are immutable
+	 * ({@code 0} if it has not been computed yet)
+	 */
+	private int hash;
+
 	/**
 	 * Builds the child access.
 	 * 
@@ -55,6 +61,13 @@ public class AccessChild extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		int h = hash;
+		if (h == 0)
+			hash = h = computeHashCode();
+		return h;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((container == null) ? 0 : container.hashCode());
@@ -66,6 +79,9 @@ public class AccessChild extends HeapExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj == null || hashCode() != obj.hashCode())
+			// hash codes are cached, making this check cheap
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
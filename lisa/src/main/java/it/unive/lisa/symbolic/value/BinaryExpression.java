@@ -27,6 +27,12 @@ public class BinaryExpression extends ValueExpression {
 	 */
 	private final BinaryOperator operator;
 
+	/**
+	 * The hash code of this expression, cached since expressions are immutable
+	 * ({@code 0} if it has not been computed yet)
+	 */
+	private int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -73,6 +79,13 @@ public class BinaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		int h = hash;
+		if (h == 0)
+			hash = h = computeHashCode();
+		return h;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
@@ -85,6 +98,9 @@ public class BinaryExpression extends ValueExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj == null || hashCode() != obj.hashCode())
+			// hash codes are cached, making this check cheap
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
@@ -15,6 +15,12 @@ public class Constant extends ValueExpression {
 	 */
 	private final Object value;
 
+	/**
+	 * The hash code of this expression, cached since expressions are immutable
+	 * ({@code 0} if it has not been computed yet)
+	 */
+	private int hash;
+
 	/**
 	 * Builds the constant.
 	 * 
@@ -37,6 +43,13 @@ public class Constant extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		int h = hash;
+		if (h == 0)
+			hash = h = computeHashCode();
+		return h;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((value == null) ? 0 : value.hashCode());
@@ -47,6 +60,9 @@ public class Constant extends ValueExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj == null || hashCode() != obj.hashCode())
+			// hash codes are cached, making this check cheap
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
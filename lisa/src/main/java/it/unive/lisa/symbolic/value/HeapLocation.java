@@ -12,6 +12,12 @@ import it.unive.lisa.util.collections.externalSet.ExternalSet;
  */
 public class HeapLocation extends Identifier {
 
+	/**
+	 * The hash code of this expression, cached since expressions are immutable
+	 * ({@code 0} if it has not been computed yet)
+	 */
+	private int hash;
+
 	/**
 	 * Builds the heap location.
 	 * 
@@ -31,6 +37,13 @@ public class HeapLocation extends Identifier {
 
 	@Override
 	public int hashCode() {
+		int h = hash;
+		if (h == 0)
+			hash = h = computeHashCode();
+		return h;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + (isWeak() ? 1231 : 1237);
@@ -41,6 +54,9 @@ public class HeapLocation extends Identifier {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj == null || hashCode() != obj.hashCode())
+			// hash codes are cached, making this check cheap
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
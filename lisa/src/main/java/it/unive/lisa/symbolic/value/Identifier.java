@@ -24,6 +24,12 @@ public abstract class Identifier extends ValueExpression {
 	 */
 	private final boolean weak;
 
+	/**
+	 * The hash code of this expression, cached since expressions are immutable
+	 * ({@code 0} if it has not been computed yet)
+	 */
+	private int hash;
+
 	/**
 	 * Builds the identifier.
 	 * 
@@ -62,6 +68,13 @@ public abstract class Identifier extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		int h = hash;
+		if (h == 0)
+			hash = h = computeHashCode();
+		return h;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		// we do not call super here since variables should be uniquely
 		// identified by their name, regardless of their type
@@ -74,7 +87,8 @@ public abstract class Identifier extends ValueExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
+		if (obj == null || hashCode() != obj.hashCode())
+			// hash codes are cached, making this check cheap
 			return false;
 		// we do not call super here since variables should be uniquely
 		// identified by their name, regardless of their type
@@ -0,0 +1,620 @@
+package it.unive.lisa.util.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie. The trie is made
+ * of immutable nodes: copying a map through {@link #PersistentHashMap(Map)}
+ * costs {@code O(1)}, since the copy shares the whole trie with the original
+ * one, while {@link #put(Object, Object)} and {@link #remove(Object)} cost
+ * {@code O(log n)}, since they only copy the path from the root to the modified
+ * entry. All other subtrees remain shared between the map and its copies.<br>
+ * <br>
+ * Shared subtrees can be exploited when comparing two maps:
+ * {@link #equals(Object)} skips the subtrees that the two maps share by
+ * reference, while
+ * {@link #collectUnsharedKeys(PersistentHashMap, Collection, Collection)}
+ * yields the keys of the entries that are not part of shared subtrees, that are
+ * the only ones where the two maps can differ.<br>
+ * <br>
+ * This map supports {@code null} keys and values. Iterators work on a snapshot
+ * of the map taken when they are created, and thus never throw
+ * {@link java.util.ConcurrentModificationException}s. Entries are immutable.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+	/**
+	 * The number of bits of the hash consumed at each level of the trie
+	 */
+	private static final int BITS = 5;
+
+	/**
+	 * The mask to extract {@link #BITS} bits from a hash
+	 */
+	private static final int MASK = (1 << BITS) - 1;
+
+	/**
+	 * The root of the trie: either {@code null} (empty map), a {@link Leaf}, a
+	 * {@link Collision} or a {@link Branch}
+	 */
+	private Object root;
+
+	/**
+	 * The number of entries in this map
+	 */
+	private int size;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public PersistentHashMap() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Builds a map containing the same entries of the given one. If the given
+	 * map is a {@link PersistentHashMap}, this costs {@code O(1)}, and the two
+	 * maps will share their structure until they are modified.
+	 *
+	 * @param other the map to copy
+	 */
+	public PersistentHashMap(Map<? extends K, ? extends V> other) {
+		this();
+		if (other instanceof PersistentHashMap) {
+			root = ((PersistentHashMap<?, ?>) other).root;
+			size = ((PersistentHashMap<?, ?>) other).size;
+		} else
+			for (Map.Entry<? extends K, ? extends V> entry : other.entrySet())
+				put(entry.getKey(), entry.getValue());
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(root, hash(key), key, 0) != null;
+	}
+
+	@Override
+	public V get(Object key) {
+		Leaf<K, V> leaf = find(root, hash(key), key, 0);
+		return leaf == null ? null : leaf.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		int hash = hash(key);
+		Leaf<K, V> old = find(root, hash, key, 0);
+		if (old != null && old.value == value)
+			return value;
+
+		root = insert(root, new Leaf<>(hash, key, value), 0);
+		if (old == null) {
+			size++;
+			return null;
+		}
+		return old.value;
+	}
+
+	@Override
+	public V remove(Object key) {
+		int hash = hash(key);
+		Leaf<K, V> old = find(root, hash, key, 0);
+		if (old == null)
+			return null;
+
+		root = delete(root, hash, key, 0);
+		size--;
+		return old.value;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * Collects the keys of the entries of this map and of {@code other} that
+	 * are not part of subtrees shared by reference between the two maps. All
+	 * the entries that are not collected are contained, with the same value, in
+	 * both maps. A key can be collected in both collections, if both maps
+	 * contain it but with different values (or with equal values that are not
+	 * shared).
+	 *
+	 * @param other  the other map
+	 * @param mine   the collection where the keys of this map will be added
+	 * @param theirs the collection where the keys of {@code other} will be
+	 *                   added
+	 */
+	public void collectUnsharedKeys(PersistentHashMap<K, V> other, Collection<? super K> mine,
+			Collection<? super K> theirs) {
+		PersistentHashMap.<K, V>unshared(root, other.root, leaf -> mine.add(leaf.key), leaf -> theirs.add(leaf.key));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof PersistentHashMap))
+			return super.equals(o);
+
+		PersistentHashMap<?, ?> other = (PersistentHashMap<?, ?>) o;
+		if (size != other.size)
+			return false;
+		if (root == other.root)
+			return true;
+
+		// since the two maps have the same size, they are equal if all the
+		// entries of this map that are not shared are also in the other one
+		boolean[] result = { true };
+		unshared(root, other.root, leaf -> {
+			if (result[0]) {
+				Leaf<?, ?> match = find(other.root, leaf.hash, leaf.key, 0);
+				result[0] = match != null && Objects.equals(leaf.value, match.value);
+			}
+		}, leaf -> {
+		});
+		return result[0];
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode(root);
+	}
+
+	private static int hash(Object key) {
+		int h = key == null ? 0 : key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int fragment(int hash, int shift) {
+		return (hash >>> shift) & MASK;
+	}
+
+	private static int index(int bitmap, int bit) {
+		return Integer.bitCount(bitmap & (bit - 1));
+	}
+
+	private static int hashOf(Object node) {
+		return node instanceof Leaf ? ((Leaf<?, ?>) node).hash : ((Collision) node).hash;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Leaf<K, V> find(Object node, int hash, Object key, int shift) {
+		while (node != null) {
+			if (node instanceof Leaf) {
+				Leaf<K, V> leaf = (Leaf<K, V>) node;
+				return leaf.hash == hash && Objects.equals(leaf.key, key) ? leaf : null;
+			}
+
+			if (node instanceof Collision) {
+				Collision collision = (Collision) node;
+				if (collision.hash != hash)
+					return null;
+				for (Leaf<?, ?> leaf : collision.leaves)
+					if (Objects.equals(leaf.key, key))
+						return (Leaf<K, V>) leaf;
+				return null;
+			}
+
+			Branch branch = (Branch) node;
+			int bit = 1 << fragment(hash, shift);
+			if ((branch.bitmap & bit) == 0)
+				return null;
+			node = branch.children[index(branch.bitmap, bit)];
+			shift += BITS;
+		}
+
+		return null;
+	}
+
+	private static Object insert(Object node, Leaf<?, ?> leaf, int shift) {
+		if (node == null)
+			return leaf;
+
+		if (node instanceof Leaf) {
+			Leaf<?, ?> existing = (Leaf<?, ?>) node;
+			if (existing.hash != leaf.hash)
+				return merge(existing, leaf, shift);
+			if (Objects.equals(existing.key, leaf.key))
+				return leaf;
+			return new Collision(leaf.hash, new Leaf<?, ?>[] { existing, leaf });
+		}
+
+		if (node instanceof Collision) {
+			Collision collision = (Collision) node;
+			if (collision.hash != leaf.hash)
+				return merge(collision, leaf, shift);
+
+			Leaf<?, ?>[] leaves = collision.leaves;
+			for (int i = 0; i < leaves.length; i++)
+				if (Objects.equals(leaves[i].key, leaf.key)) {
+					Leaf<?, ?>[] copy = leaves.clone();
+					copy[i] = leaf;
+					return new Collision(leaf.hash, copy);
+				}
+			Leaf<?, ?>[] copy = new Leaf<?, ?>[leaves.length + 1];
+			System.arraycopy(leaves, 0, copy, 0, leaves.length);
+			copy[leaves.length] = leaf;
+			return new Collision(leaf.hash, copy);
+		}
+
+		Branch branch = (Branch) node;
+		int bit = 1 << fragment(leaf.hash, shift);
+		int idx = index(branch.bitmap, bit);
+		if ((branch.bitmap & bit) == 0) {
+			Object[] children = new Object[branch.children.length + 1];
+			System.arraycopy(branch.children, 0, children, 0, idx);
+			children[idx] = leaf;
+			System.arraycopy(branch.children, idx, children, idx + 1, branch.children.length - idx);
+			return new Branch(branch.bitmap | bit, children);
+		}
+
+		Object child = branch.children[idx];
+		Object updated = insert(child, leaf, shift + BITS);
+		if (updated == child)
+			return branch;
+		Object[] children = branch.children.clone();
+		children[idx] = updated;
+		return new Branch(branch.bitmap, children);
+	}
+
+	private static Object merge(Object first, Object second, int shift) {
+		// the two nodes are leaves or collisions with different hashes, thus
+		// they will end up in different positions at some level
+		int f1 = fragment(hashOf(first), shift);
+		int f2 = fragment(hashOf(second), shift);
+		if (f1 == f2)
+			return new Branch(1 << f1, new Object[] { merge(first, second, shift + BITS) });
+		if (f1 < f2)
+			return new Branch((1 << f1) | (1 << f2), new Object[] { first, second });
+		return new Branch((1 << f1) | (1 << f2), new Object[] { second, first });
+	}
+
+	private static Object delete(Object node, int hash, Object key, int shift) {
+		if (node == null)
+			return null;
+
+		if (node instanceof Leaf) {
+			Leaf<?, ?> leaf = (Leaf<?, ?>) node;
+			return leaf.hash == hash && Objects.equals(leaf.key, key) ? null : node;
+		}
+
+		if (node instanceof Collision) {
+			Collision collision = (Collision) node;
+			if (collision.hash != hash)
+				return node;
+
+			Leaf<?, ?>[] leaves = collision.leaves;
+			for (int i = 0; i < leaves.length; i++)
+				if (Objects.equals(leaves[i].key, key)) {
+					if (leaves.length == 2)
+						return leaves[1 - i];
+					Leaf<?, ?>[] copy = new Leaf<?, ?>[leaves.length - 1];
+					System.arraycopy(leaves, 0, copy, 0, i);
+					System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+					return new Collision(hash, copy);
+				}
+			return node;
+		}
+
+		Branch branch = (Branch) node;
+		int bit = 1 << fragment(hash, shift);
+		if ((branch.bitmap & bit) == 0)
+			return node;
+
+		int idx = index(branch.bitmap, bit);
+		Object child = branch.children[idx];
+		Object updated = delete(child, hash, key, shift + BITS);
+		if (updated == child)
+			return node;
+
+		if (updated == null) {
+			if (branch.children.length == 1)
+				return null;
+			Object[] children = new Object[branch.children.length - 1];
+			System.arraycopy(branch.children, 0, children, 0, idx);
+			System.arraycopy(branch.children, idx + 1, children, idx, children.length - idx);
+			if (children.length == 1 && !(children[0] instanceof Branch))
+				// a branch with a single leaf is collapsed into the leaf,
+				// keeping the trie canonical
+				return children[0];
+			return new Branch(branch.bitmap & ~bit, children);
+		}
+
+		if (branch.children.length == 1 && !(updated instanceof Branch))
+			return updated;
+
+		Object[] children = branch.children.clone();
+		children[idx] = updated;
+		return new Branch(branch.bitmap, children);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> void forEachLeaf(Object node, Consumer<Leaf<K, V>> action) {
+		if (node == null)
+			return;
+		if (node instanceof Leaf)
+			action.accept((Leaf<K, V>) node);
+		else if (node instanceof Collision)
+			for (Leaf<?, ?> leaf : ((Collision) node).leaves)
+				action.accept((Leaf<K, V>) leaf);
+		else
+			for (Object child : ((Branch) node).children)
+				forEachLeaf(child, action);
+	}
+
+	private static <K, V> void unshared(Object first, Object second, Consumer<Leaf<K, V>> onFirst,
+			Consumer<Leaf<K, V>> onSecond) {
+		if (first == second)
+			return;
+
+		if (first instanceof Branch && second instanceof Branch) {
+			Branch b1 = (Branch) first, b2 = (Branch) second;
+			int bitmap = b1.bitmap | b2.bitmap;
+			while (bitmap != 0) {
+				int bit = Integer.lowestOneBit(bitmap);
+				bitmap &= ~bit;
+				Object c1 = (b1.bitmap & bit) == 0 ? null : b1.children[index(b1.bitmap, bit)];
+				Object c2 = (b2.bitmap & bit) == 0 ? null : b2.children[index(b2.bitmap, bit)];
+				unshared(c1, c2, onFirst, onSecond);
+			}
+			return;
+		}
+
+		if (first instanceof Leaf && second instanceof Leaf) {
+			Leaf<?, ?> l1 = (Leaf<?, ?>) first, l2 = (Leaf<?, ?>) second;
+			if (l1.hash == l2.hash && l1.value == l2.value && Objects.equals(l1.key, l2.key))
+				return;
+		}
+
+		forEachLeaf(first, onFirst);
+		forEachLeaf(second, onSecond);
+	}
+
+	private static int hashCode(Object node) {
+		if (node == null)
+			return 0;
+		if (node instanceof Leaf)
+			return node.hashCode();
+		if (node instanceof Collision) {
+			int h = 0;
+			for (Leaf<?, ?> leaf : ((Collision) node).leaves)
+				h += leaf.hashCode();
+			return h;
+		}
+
+		// nodes are immutable, thus the hash can be cached: as in
+		// String.hashCode(), 0 means that it has not been computed yet
+		Branch branch = (Branch) node;
+		int h = branch.hash;
+		if (h == 0) {
+			for (Object child : branch.children)
+				h += hashCode(child);
+			branch.hash = h;
+		}
+		return h;
+	}
+
+	/**
+	 * An entry of the map, that is also a node of the trie.
+	 */
+	private static final class Leaf<K, V> implements Map.Entry<K, V> {
+
+		private final int hash;
+
+		private final K key;
+
+		private final V value;
+
+		private Leaf(int hash, K key, V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException("Entries of persistent maps cannot be modified");
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * A node of the trie holding entries whose keys have the same hash.
+	 */
+	private static final class Collision {
+
+		private final int hash;
+
+		private final Leaf<?, ?>[] leaves;
+
+		private Collision(int hash, Leaf<?, ?>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+	}
+
+	/**
+	 * An inner node of the trie, whose children are indexed by a fragment of
+	 * the hashes of the keys they contain. The {@code bitmap} marks which
+	 * fragments have a child, and children are stored in fragment order.
+	 */
+	private static final class Branch {
+
+		private final int bitmap;
+
+		private final Object[] children;
+
+		private int hash;
+
+		private Branch(int bitmap, Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator(root);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			Leaf<K, V> leaf = find(root, hash(e.getKey()), e.getKey(), 0);
+			return leaf != null && Objects.equals(leaf.value, e.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o))
+				return false;
+			PersistentHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			PersistentHashMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		private final Deque<Object> stack = new ArrayDeque<>();
+
+		private Leaf<?, ?>[] collision;
+
+		private int collisionIndex;
+
+		private Leaf<K, V> next;
+
+		private Leaf<K, V> last;
+
+		private EntryIterator(Object root) {
+			if (root != null)
+				stack.push(root);
+			advance();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			if (collision != null) {
+				if (collisionIndex < collision.length) {
+					next = (Leaf<K, V>) collision[collisionIndex++];
+					return;
+				}
+				collision = null;
+			}
+
+			while (!stack.isEmpty()) {
+				Object node = stack.pop();
+				if (node instanceof Leaf) {
+					next = (Leaf<K, V>) node;
+					return;
+				}
+
+				if (node instanceof Collision) {
+					collision = ((Collision) node).leaves;
+					collisionIndex = 1;
+					next = (Leaf<K, V>) collision[0];
+					return;
+				}
+
+				Object[] children = ((Branch) node).children;
+				for (int i = children.length - 1; i >= 0; i--)
+					stack.push(children[i]);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			last = next;
+			advance();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			PersistentHashMap.this.remove(last.key);
+			last = null;
+		}
+	}
+}
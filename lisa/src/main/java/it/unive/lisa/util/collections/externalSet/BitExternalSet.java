@@ -261,6 +261,20 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 		return bits.length == 1 && bits[0] == 0L;
 	}
 
+	/**
+	 * Yields a copy of the bits of this set, without the trailing bitvectors
+	 * that have no bit set to 1.
+	 * 
+	 * @return the trimmed bits
+	 */
+	long[] trimmedBits() {
+		long[] localbits = bits;
+		int length = localbits.length;
+		while (length > 1 && localbits[length - 1] == 0L)
+			length--;
+		return Arrays.copyOf(localbits, length);
+	}
+
 	private void removeTrailingZeros() {
 		long[] localbits = bits;
 		int length = localbits.length;
@@ -302,7 +316,9 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			return false;
 		if (this == obj)
 			return true;
-		if (obj.getClass() != getClass())
+		if (!(obj instanceof BitExternalSet))
+			// canonical sets are equal to the mutable sets with the same
+			// elements
 			return false;
 		BitExternalSet<?> other = (BitExternalSet<?>) obj;
 		if (cache != other.cache)
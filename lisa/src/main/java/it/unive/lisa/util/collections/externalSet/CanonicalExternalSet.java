@@ -0,0 +1,104 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.Collection;
+
+/**
+ * An immutable {@link BitExternalSet} that is the canonical instance of its
+ * elements inside an {@link ExternalSetCache}: canonical sets can thus be
+ * shared freely, and two canonical sets of the same cache are equal if and only
+ * if they are the same object. Canonical sets are only built through
+ * {@link ExternalSetCache#canonical(ExternalSet)} and
+ * {@link ExternalSetCache#mkCanonicalSingletonSet(Object)}. All the operations
+ * that would modify the set throw an {@link UnsupportedOperationException},
+ * while {@link #copy()} yields a mutable {@link BitExternalSet}. Since
+ * {@link ExternalSetCache#clear()} releases canonical sets, two canonical sets
+ * with the same elements might coexist if one of them was created before
+ * clearing the cache: they are still equal, but they are compared through their
+ * elements.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the type of elements inside this set
+ */
+final class CanonicalExternalSet<T> extends BitExternalSet<T> {
+
+	/**
+	 * The hash code of this set, computed only once
+	 */
+	private final int hash;
+
+	/**
+	 * The number of elements in this set, computed only once
+	 */
+	private final int size;
+
+	/**
+	 * Builds the canonical set containing the same elements of the given one.
+	 *
+	 * @param other the set to copy
+	 */
+	CanonicalExternalSet(BitExternalSet<T> other) {
+		super(other.trimmedBits(), other.getCache());
+		this.hash = super.hashCode();
+		this.size = super.size();
+	}
+
+	@Override
+	public boolean add(T e) {
+		throw new UnsupportedOperationException("Cannot add an element to a canonical external set");
+	}
+
+	@Override
+	public void addAll(ExternalSet<T> other) {
+		throw new UnsupportedOperationException("Cannot add elements to a canonical external set");
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		throw new UnsupportedOperationException("Cannot add elements to a canonical external set");
+	}
+
+	@Override
+	public boolean remove(Object e) {
+		throw new UnsupportedOperationException("Cannot remove an element from a canonical external set");
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException("Cannot remove elements from a canonical external set");
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException("Cannot remove elements from a canonical external set");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Cannot remove elements from a canonical external set");
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof CanonicalExternalSet && hash != ((CanonicalExternalSet<?>) obj).hash)
+			return false;
+		return super.equals(obj);
+	}
+}
@@ -1,15 +1,28 @@
 package it.unive.lisa.util.collections.externalSet;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A cache for creating {@link ExternalSet}s of the elements contained in this
- * cache.
+ * cache.<br>
+ * <br>
+ * Elements are never removed from the cache (unless {@link #clear()} is
+ * invoked), and are stored in an append-only array split in fixed-size chunks,
+ * together with a concurrent map from the elements to their index. This makes
+ * all the read operations ({@link #indexOf(Object)}, {@link #get(int)},
+ * {@link #size()}) lock-free, since a chunk is never moved once allocated and
+ * an index is published only after its element has been stored. Only the
+ * addition of new elements is serialized. {@link #clear()} is not meant to be
+ * invoked while other threads are using the cache.<br>
+ * <br>
+ * The cache can also hand out canonical, immutable sets through
+ * {@link #canonical(ExternalSet)}, so that owners holding sets with the same
+ * elements can share a single instance.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -18,24 +31,59 @@ import java.util.Map;
 public class ExternalSetCache<T> {
 
 	/**
-	 * The collection of elements in this cache
+	 * The number of bits used to address elements inside a chunk
 	 */
-	private final List<T> elements = new ArrayList<>(16);
+	private static final int CHUNK_BITS = 6;
+
+	/**
+	 * The number of elements in each chunk
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	/**
+	 * The mask for retrieving the position of an element inside its chunk
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * The chunks containing the elements in this cache. The array is replaced
+	 * when it needs to grow, but the chunks it contains are shared with its
+	 * replacement.
+	 */
+	private volatile Object[][] chunks = new Object[1][];
 
 	/**
 	 * A map from the elements to their index
 	 */
-	private final Map<T, Integer> indexes = new HashMap<>(16);
+	private final Map<T, Integer> indexes = new ConcurrentHashMap<>(16);
 
 	/**
-	 * The next index available for new elements
+	 * The number of elements stored in this cache, that is also the next index
+	 * available for new elements. This is written only after the new element
+	 * has been stored, publishing it to other threads.
 	 */
-	private int nextIndex;
+	private volatile int size;
 
 	/**
 	 * The index assigned to the {@code null} key, if any.
 	 */
-	private int indexOfNull = -1;
+	private volatile int indexOfNull = -1;
+
+	/**
+	 * The lock coordinating the additions to this cache
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * The canonical sets handed out by this cache, each mapped to itself
+	 */
+	private final Map<ExternalSet<T>, CanonicalExternalSet<T>> canonicals = new ConcurrentHashMap<>();
+
+	/**
+	 * The canonical singleton sets handed out by this cache, indexed by their
+	 * element
+	 */
+	private final Map<T, CanonicalExternalSet<T>> singletons = new ConcurrentHashMap<>();
 
 	/**
 	 * Builds an empty {@link ExternalSet} that uses this cache.
@@ -70,6 +118,65 @@ public class ExternalSetCache<T> {
 		return new BitExternalSet<T>(this, element);
 	}
 
+	/**
+	 * Yields the canonical instance of the given set, that is an immutable
+	 * {@link ExternalSet} containing the same elements. There is only one
+	 * canonical instance for each distinct set of elements of this cache: the
+	 * ones returned by this method can thus be shared between different owners
+	 * and compared by reference (until {@link #clear()} is invoked). Sets that
+	 * are not connected to this cache, as well as the ones built through
+	 * {@link #mkUniversalSet()}, are returned as-is.
+	 * 
+	 * @param set the set to canonicalize
+	 * 
+	 * @return the canonical instance
+	 */
+	public ExternalSet<T> canonical(ExternalSet<T> set) {
+		if (set instanceof CanonicalExternalSet || !(set instanceof BitExternalSet) || set.getCache() != this)
+			return set;
+
+		CanonicalExternalSet<T> existing = canonicals.get(set);
+		if (existing != null)
+			return existing;
+
+		CanonicalExternalSet<T> result = new CanonicalExternalSet<>((BitExternalSet<T>) set);
+		existing = canonicals.putIfAbsent(result, result);
+		return existing == null ? result : existing;
+	}
+
+	/**
+	 * Yields whether or not the given set is a canonical instance handed out by
+	 * this cache (see {@link #canonical(ExternalSet)}).
+	 * 
+	 * @param set the set
+	 * 
+	 * @return {@code true} if {@code set} is canonical
+	 */
+	public boolean isCanonical(ExternalSet<T> set) {
+		return set instanceof CanonicalExternalSet && set.getCache() == this;
+	}
+
+	/**
+	 * Yields the canonical instance (see {@link #canonical(ExternalSet)}) of
+	 * the set containing only the given element. The result is cached, so that
+	 * repeated invocations with the same element do not allocate new sets.
+	 * 
+	 * @param element the element
+	 * 
+	 * @return the canonical singleton set
+	 */
+	public ExternalSet<T> mkCanonicalSingletonSet(T element) {
+		if (element == null)
+			return canonical(mkSingletonSet(element));
+
+		CanonicalExternalSet<T> result = singletons.get(element);
+		if (result == null) {
+			result = (CanonicalExternalSet<T>) canonical(mkSingletonSet(element));
+			singletons.putIfAbsent(element, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Builds an {@link ExternalSet} that uses this cache and contains all of
 	 * its elements. The returned set will stay up to date with this cache.
@@ -87,7 +194,7 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}, or {@code -1}
 	 */
-	protected synchronized final int indexOf(T e) {
+	protected final int indexOf(T e) {
 		if (e == null)
 			return indexOfNull;
 
@@ -103,23 +210,49 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}
 	 */
-	protected synchronized final int indexOfOrAdd(T e) {
-		if (e == null) {
-			if (indexOfNull == -1) {
-				elements.add(null);
-				indexOfNull = nextIndex++;
-			}
-			return indexOfNull;
-		}
+	protected final int indexOfOrAdd(T e) {
+		int result = indexOf(e);
+		if (result != -1)
+			return result;
 
-		Integer result = indexes.get(e);
-		if (result == null)
-			return indexes.computeIfAbsent(e, el -> {
-				elements.add(e);
-				return nextIndex++;
-			});
+		synchronized (lock) {
+			// another thread might have added the element in the meantime
+			result = indexOf(e);
+			if (result != -1)
+				return result;
 
-		return result;
+			result = append(e);
+			if (e == null)
+				indexOfNull = result;
+			else
+				indexes.put(e, result);
+			return result;
+		}
+	}
+
+	/**
+	 * Stores the given element after the last one in this cache. Must be
+	 * invoked while holding {@link #lock}.
+	 * 
+	 * @param e the element
+	 * 
+	 * @return the index of {@code e}
+	 */
+	private int append(T e) {
+		int index = size;
+		int chunk = index >>> CHUNK_BITS;
+		Object[][] current = chunks;
+		if (chunk == current.length) {
+			Object[][] grown = new Object[current.length * 2][];
+			System.arraycopy(current, 0, grown, 0, current.length);
+			current = grown;
+		}
+		if (current[chunk] == null)
+			current[chunk] = new Object[CHUNK_SIZE];
+		current[chunk][index & CHUNK_MASK] = e;
+		chunks = current;
+		size = index + 1;
+		return index;
 	}
 
 	/**
@@ -128,19 +261,33 @@ public class ExternalSetCache<T> {
 	 * @param pos the position
 	 * 
 	 * @return the element
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code pos} is negative, or not
+	 *                                       lower than {@link #size()}
 	 */
-	protected final synchronized T get(int pos) {
-		return elements.get(pos);
+	@SuppressWarnings("unchecked")
+	protected final T get(int pos) {
+		if (pos < 0 || pos >= size)
+			throw new IndexOutOfBoundsException("Index: " + pos + ", Size: " + size);
+		return (T) chunks[pos >>> CHUNK_BITS][pos & CHUNK_MASK];
 	}
 
 	/**
-	 * Cleans the cache, removing all elements.
+	 * Cleans the cache, removing all elements. This should not be invoked while
+	 * other threads are using this cache. Canonical sets are released as well,
+	 * so that they do not outlive the analysis that created them: the ones
+	 * handed out before clearing the cache are still valid sets, but they are
+	 * no longer the canonical instances of their elements.
 	 */
-	public final synchronized void clear() {
-		elements.clear();
-		indexes.clear();
-		indexOfNull = -1;
-		nextIndex = 0;
+	public final void clear() {
+		synchronized (lock) {
+			indexes.clear();
+			canonicals.clear();
+			singletons.clear();
+			indexOfNull = -1;
+			size = 0;
+			chunks = new Object[1][];
+		}
 	}
 
 	/**
@@ -148,13 +295,13 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the number of elements
 	 */
-	public final synchronized int size() {
-		return elements.size();
+	public final int size() {
+		return size;
 	}
 
 	@Override
-	public final synchronized String toString() {
-		return elements.toString();
+	public final String toString() {
+		return getAllElements().toString();
 	}
 
 	/**
@@ -163,7 +310,21 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return a view of the elements inside this cache
 	 */
-	synchronized Collection<T> getAllElements() {
-		return Collections.unmodifiableCollection(elements);
+	Collection<T> getAllElements() {
+		int count = size;
+		List<T> view = new AbstractList<T>() {
+			@Override
+			public T get(int index) {
+				if (index >= count)
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+				return ExternalSetCache.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+		return Collections.unmodifiableCollection(view);
 	}
-}
\ No newline at end of file
+}
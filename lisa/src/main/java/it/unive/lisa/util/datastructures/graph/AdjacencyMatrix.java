@@ -55,6 +55,17 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 */
 	private int nextOffset;
 
+	/**
+	 * The number of structural modifications (that is, additions or removals of
+	 * nodes and edges) that have been applied to this matrix
+	 */
+	private int modifications;
+
+	/**
+	 * The last {@link CompactAdjacency} built from this matrix, if any
+	 */
+	private CompactAdjacency<N, E, G> compact;
+
 	/**
 	 * Builds a new matrix.
 	 */
@@ -99,6 +110,35 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		return edgeFactory;
 	}
 
+	/**
+	 * Yields the number of structural modifications (that is, additions or
+	 * removals of nodes and edges) that have been applied to this matrix. Two
+	 * invocations of this method that return the same value ensure that the
+	 * structure of the matrix has not changed between the two calls, and can
+	 * thus be used to detect when information computed on the structure of this
+	 * matrix needs to be recomputed.
+	 * 
+	 * @return the number of modifications
+	 */
+	public int getModificationCount() {
+		return modifications;
+	}
+
+	/**
+	 * Yields a {@link CompactAdjacency} snapshot of the current structure of
+	 * this matrix, that enables allocation-free iteration over the neighbours
+	 * of each node. The snapshot is cached, and it is rebuilt only if this
+	 * matrix has been modified since its creation (according to
+	 * {@link #getModificationCount()}).
+	 * 
+	 * @return the compact snapshot of this matrix
+	 */
+	public synchronized CompactAdjacency<N, E, G> compact() {
+		if (compact == null || compact.getModificationCount() != modifications)
+			compact = new CompactAdjacency<>(this);
+		return compact;
+	}
+
 	/**
 	 * Adds the given node to the set of nodes. Note that, if the given node is
 	 * already present in the matrix, all existing edges are kept.
@@ -106,8 +146,10 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @param node the node to add
 	 */
 	public void addNode(N node) {
-		if (matrix.putIfAbsent(node, Pair.of(edgeFactory.mkEmptySet(), edgeFactory.mkEmptySet())) == null)
+		if (matrix.putIfAbsent(node, Pair.of(edgeFactory.mkEmptySet(), edgeFactory.mkEmptySet())) == null) {
 			nextOffset = node.setOffset(nextOffset) + 1;
+			modifications++;
+		}
 	}
 
 	/**
@@ -124,6 +166,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		edges.getLeft().forEach(this::removeEdge);
 		edges.getRight().forEach(this::removeEdge);
 		matrix.remove(node);
+		modifications++;
 	}
 
 	/**
@@ -153,6 +196,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 
 		matrix.get(e.getSource()).getRight().add(e);
 		matrix.get(e.getDestination()).getLeft().add(e);
+		modifications++;
 	}
 
 	/**
@@ -166,6 +210,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 
 		matrix.get(e.getSource()).getRight().remove(e);
 		matrix.get(e.getDestination()).getLeft().remove(e);
+		modifications++;
 	}
 
 	/**
@@ -288,6 +333,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 			Map<Pair<E, E>, E> replacedEdges) {
 		removedEdges.clear();
 		replacedEdges.clear();
+		modifications++;
 
 		for (N t : targets) {
 			ExternalSet<E> ingoing = matrix.get(t).getLeft();
@@ -0,0 +1,23 @@
+package it.unive.lisa.util.datastructures.graph;
+
+/**
+ * A {@link FixpointException} raised when a fixpoint computation is interrupted
+ * since its {@link FixpointBudget} has run out. The results computed so far are
+ * not sound, and they are discarded.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class BudgetExhaustedException extends FixpointException {
+
+	private static final long serialVersionUID = -3319513432578146029L;
+
+	/**
+	 * Builds the exception.
+	 * 
+	 * @param message the message associated with this exception, describing the
+	 *                    budget that has run out
+	 */
+	public BudgetExhaustedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,334 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the structure of an {@link AdjacencyMatrix}, stored
+ * in compressed sparse row format. Each node of the matrix is assigned a dense
+ * index in {@code [0, size())} (following the order of their offsets), and the
+ * followers and predecessors of each node are stored as contiguous ranges of
+ * indexes inside primitive arrays, each paired with the {@link Edge} connecting
+ * the two nodes. This enables iterating over the neighbours of a node, and
+ * retrieving the edge connecting two nodes, without allocating any object or
+ * hashing any node:
+ *
+ * <pre>
+* int i = compact.indexOf(node);
+* for (int k = 0; k &lt; compact.followersCount(i); k++) {
+* 	N follower = compact.nodeAt(compact.follower(i, k));
+* 	E edge = compact.outgoingEdge(i, k);
+* 	...
+* }
+ * </pre>
+ *
+ * Neighbours are deduplicated: if more than one edge connects the same pair of
+ * nodes, only the first one (in the iteration order of the matrix) is
+ * recorded.<br>
+ * <br>
+ * Instances of this class are obtained through
+ * {@link AdjacencyMatrix#compact()}, that rebuilds the snapshot only when the
+ * matrix has been modified since the last invocation.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the {@link Node}s in this structure
+ * @param <E> the type of the {@link Edge}s in this structure
+ * @param <G> the type of the {@link Graph}s this structure can be used in
+ */
+public final class CompactAdjacency<N extends Node<N, E, G>, E extends Edge<N, E, G>, G extends Graph<G, N, E>> {
+
+	/**
+	 * The value of {@link AdjacencyMatrix#getModificationCount()} when this
+	 * snapshot has been built
+	 */
+	private final int modifications;
+
+	/**
+	 * The nodes, indexed by their dense index
+	 */
+	private final Object[] nodes;
+
+	/**
+	 * For each offset, the dense index of the node that had that offset when
+	 * this snapshot has been built, or {@code -1}
+	 */
+	private final int[] indexByOffset;
+
+	/**
+	 * The map used for retrieving the index of nodes whose offset does not
+	 * match {@link #indexByOffset}, lazily initialized
+	 */
+	private volatile Map<N, Integer> fallback;
+
+	/**
+	 * The position of the first follower of each node inside
+	 * {@link #followers}, with an additional trailing element
+	 */
+	private final int[] followersStart;
+
+	/**
+	 * The indexes of the followers of all nodes
+	 */
+	private final int[] followers;
+
+	/**
+	 * The edges towards the nodes in {@link #followers}
+	 */
+	private final Object[] outgoing;
+
+	/**
+	 * The position of the first predecessor of each node inside
+	 * {@link #predecessors}, with an additional trailing element
+	 */
+	private final int[] predecessorsStart;
+
+	/**
+	 * The indexes of the predecessors of all nodes
+	 */
+	private final int[] predecessors;
+
+	/**
+	 * The edges from the nodes in {@link #predecessors}
+	 */
+	private final Object[] ingoing;
+
+	/**
+	 * Builds the snapshot of the given matrix.
+	 *
+	 * @param matrix the matrix
+	 */
+	CompactAdjacency(AdjacencyMatrix<N, E, G> matrix) {
+		modifications = matrix.getModificationCount();
+
+		List<N> sorted = new ArrayList<>(matrix.getNodes());
+		sorted.sort(Comparator.comparingInt(Node::getOffset));
+		int size = sorted.size();
+		nodes = sorted.toArray();
+
+		int maxOffset = -1;
+		for (N node : sorted)
+			maxOffset = Math.max(maxOffset, node.getOffset());
+		indexByOffset = new int[maxOffset + 1];
+		Arrays.fill(indexByOffset, -1);
+		for (int i = 0; i < size; i++) {
+			int offset = sorted.get(i).getOffset();
+			if (offset < 0)
+				continue;
+			if (indexByOffset[offset] == -1)
+				indexByOffset[offset] = i;
+			else
+				// duplicated offsets: none of the nodes can be found through
+				// the offset
+				indexByOffset[offset] = size;
+		}
+
+		int edges = 0;
+		for (N node : sorted)
+			edges += matrix.getOutgoingEdges(node).size();
+
+		followersStart = new int[size + 1];
+		followers = new int[edges];
+		outgoing = new Object[edges];
+		int[] predecessorsCount = new int[size + 1];
+		int pos = 0;
+		for (int i = 0; i < size; i++) {
+			followersStart[i] = pos;
+			for (E edge : matrix.getOutgoingEdges(sorted.get(i))) {
+				int dest = indexOf(edge.getDestination());
+				if (dest == -1 || contains(followers, followersStart[i], pos, dest))
+					continue;
+				followers[pos] = dest;
+				outgoing[pos] = edge;
+				predecessorsCount[dest]++;
+				pos++;
+			}
+		}
+		followersStart[size] = pos;
+
+		predecessorsStart = new int[size + 1];
+		for (int i = 0; i < size; i++)
+			predecessorsStart[i + 1] = predecessorsStart[i] + predecessorsCount[i];
+		predecessors = new int[pos];
+		ingoing = new Object[pos];
+		int[] fill = Arrays.copyOf(predecessorsStart, size);
+		for (int i = 0; i < size; i++)
+			for (int k = followersStart[i]; k < followersStart[i + 1]; k++) {
+				int dest = followers[k];
+				predecessors[fill[dest]] = i;
+				ingoing[fill[dest]] = outgoing[k];
+				fill[dest]++;
+			}
+	}
+
+	private static boolean contains(int[] array, int from, int to, int value) {
+		for (int i = from; i < to; i++)
+			if (array[i] == value)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Yields the value of {@link AdjacencyMatrix#getModificationCount()} when
+	 * this snapshot has been built.
+	 *
+	 * @return the number of modifications of the matrix
+	 */
+	public int getModificationCount() {
+		return modifications;
+	}
+
+	/**
+	 * Yields the number of nodes in this snapshot.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Yields the node with the given index.
+	 *
+	 * @param index the index of the node, in {@code [0, size())}
+	 *
+	 * @return the node
+	 */
+	@SuppressWarnings("unchecked")
+	public N nodeAt(int index) {
+		return (N) nodes[index];
+	}
+
+	/**
+	 * Yields the index of the given node, or {@code -1} if the node is not part
+	 * of this snapshot. Nodes are compared by identity.
+	 *
+	 * @param node the node
+	 *
+	 * @return the index of the node, or {@code -1}
+	 */
+	public int indexOf(N node) {
+		int offset = node.getOffset();
+		if (offset >= 0 && offset < indexByOffset.length) {
+			int index = indexByOffset[offset];
+			if (index >= 0 && index < nodes.length && nodes[index] == node)
+				return index;
+		}
+
+		// the offset might have been reassigned after this snapshot has been
+		// built
+		Integer index = getFallback().get(node);
+		return index == null ? -1 : index;
+	}
+
+	private Map<N, Integer> getFallback() {
+		Map<N, Integer> map = fallback;
+		if (map == null) {
+			map = new IdentityHashMap<>(nodes.length);
+			for (int i = 0; i < nodes.length; i++)
+				map.put(nodeAt(i), i);
+			fallback = map;
+		}
+		return map;
+	}
+
+	/**
+	 * Yields the number of followers of the node with the given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the number of followers
+	 */
+	public int followersCount(int index) {
+		return followersStart[index + 1] - followersStart[index];
+	}
+
+	/**
+	 * Yields the index of the {@code k}-th follower of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 * @param k     the position of the follower, in
+	 *                  {@code [0, followersCount(index))}
+	 *
+	 * @return the index of the follower
+	 */
+	public int follower(int index, int k) {
+		return followers[followersStart[index] + k];
+	}
+
+	/**
+	 * Yields the edge going from the node with the given index to its
+	 * {@code k}-th follower.
+	 *
+	 * @param index the index of the node
+	 * @param k     the position of the follower, in
+	 *                  {@code [0, followersCount(index))}
+	 *
+	 * @return the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E outgoingEdge(int index, int k) {
+		return (E) outgoing[followersStart[index] + k];
+	}
+
+	/**
+	 * Yields the number of predecessors of the node with the given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the number of predecessors
+	 */
+	public int predecessorsCount(int index) {
+		return predecessorsStart[index + 1] - predecessorsStart[index];
+	}
+
+	/**
+	 * Yields the index of the {@code k}-th predecessor of the node with the
+	 * given index.
+	 *
+	 * @param index the index of the node
+	 * @param k     the position of the predecessor, in
+	 *                  {@code [0, predecessorsCount(index))}
+	 *
+	 * @return the index of the predecessor
+	 */
+	public int predecessor(int index, int k) {
+		return predecessors[predecessorsStart[index] + k];
+	}
+
+	/**
+	 * Yields the edge going from the {@code k}-th predecessor of the node with
+	 * the given index to the node itself.
+	 *
+	 * @param index the index of the node
+	 * @param k     the position of the predecessor, in
+	 *                  {@code [0, predecessorsCount(index))}
+	 *
+	 * @return the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E ingoingEdge(int index, int k) {
+		return (E) ingoing[predecessorsStart[index] + k];
+	}
+
+	/**
+	 * Yields the edge connecting the two nodes with the given indexes, if any.
+	 *
+	 * @param source      the index of the source node
+	 * @param destination the index of the destination node
+	 *
+	 * @return the edge connecting the two nodes, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public E getEdgeConnecting(int source, int destination) {
+		for (int k = followersStart[source]; k < followersStart[source + 1]; k++)
+			if (followers[k] == destination)
+				return (E) outgoing[k];
+		return null;
+	}
+}
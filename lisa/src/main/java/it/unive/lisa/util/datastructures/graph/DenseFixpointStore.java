@@ -0,0 +1,177 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import java.util.Arrays;
+
+/**
+ * An array-backed store for the intermediate results of a fixpoint computation
+ * over a {@link FixpointGraph}. Results are indexed by the dense index that a
+ * {@link CompactAdjacency} assigns to each {@link Node}: this avoids hashing,
+ * boxing and the allocation of entry objects when storing and retrieving
+ * results. For each node, the store holds its approximation, the approximation
+ * of its inner nodes, its entry state (if the node is a starting point of the
+ * computation) and a primitive counter used for deciding when to apply
+ * widening.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <S> the type of approximation of each node
+ * @param <F> the type of approximation of inner nodes
+ */
+final class DenseFixpointStore<S, F> {
+
+	/**
+	 * The value of a counter that has not been initialized yet
+	 */
+	private static final int UNSET = Integer.MIN_VALUE;
+
+	/**
+	 * The entry states of the starting points
+	 */
+	private final Object[] entries;
+
+	/**
+	 * The approximations of the nodes
+	 */
+	private final Object[] states;
+
+	/**
+	 * The approximations of the inner nodes
+	 */
+	private final Object[] intermediates;
+
+	/**
+	 * The widening counters
+	 */
+	private final int[] counters;
+
+	/**
+	 * Builds the store.
+	 *
+	 * @param size the number of nodes whose results will be stored
+	 */
+	DenseFixpointStore(int size) {
+		this.entries = new Object[size];
+		this.states = new Object[size];
+		this.intermediates = new Object[size];
+		this.counters = new int[size];
+		Arrays.fill(counters, UNSET);
+	}
+
+	/**
+	 * Yields the number of nodes whose results can be stored.
+	 *
+	 * @return the number of nodes
+	 */
+	int size() {
+		return states.length;
+	}
+
+	/**
+	 * Sets the entry state of the node with the given index, marking it as a
+	 * starting point of the computation.
+	 *
+	 * @param index the index of the node
+	 * @param entry the entry state
+	 */
+	void setEntry(int index, S entry) {
+		entries[index] = entry;
+	}
+
+	/**
+	 * Yields the entry state of the node with the given index, if it is a
+	 * starting point of the computation.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the entry state, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	S getEntry(int index) {
+		return (S) entries[index];
+	}
+
+	/**
+	 * Yields whether or not an approximation has been stored for the node with
+	 * the given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean hasState(int index) {
+		return states[index] != null;
+	}
+
+	/**
+	 * Yields the approximation stored for the node with the given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the approximation, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	S getState(int index) {
+		return (S) states[index];
+	}
+
+	/**
+	 * Yields the approximation of the inner nodes stored for the node with the
+	 * given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the approximation, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	F getIntermediate(int index) {
+		return (F) intermediates[index];
+	}
+
+	/**
+	 * Stores the given approximations for the node with the given index,
+	 * overwriting any existing one.
+	 *
+	 * @param index        the index of the node
+	 * @param state        the approximation of the node
+	 * @param intermediate the approximation of the inner nodes
+	 */
+	void put(int index, S state, F intermediate) {
+		states[index] = state;
+		intermediates[index] = intermediate;
+	}
+
+	/**
+	 * Yields whether or not the widening counter of the node with the given
+	 * index has been initialized through {@link #setCounter(int, int)}.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean hasCounter(int index) {
+		return counters[index] != UNSET;
+	}
+
+	/**
+	 * Sets the widening counter of the node with the given index to the given
+	 * value.
+	 *
+	 * @param index the index of the node
+	 * @param value the value of the counter
+	 */
+	void setCounter(int index, int value) {
+		counters[index] = value;
+	}
+
+	/**
+	 * Decrements the widening counter of the node with the given index,
+	 * yielding its value before the decrement.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the value of the counter before the decrement
+	 */
+	int getAndDecrement(int index) {
+		return counters[index]--;
+	}
+}
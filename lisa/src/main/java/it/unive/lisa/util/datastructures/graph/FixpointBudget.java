@@ -0,0 +1,30 @@
+package it.unive.lisa.util.datastructures.graph;
+
+/**
+ * A budget bounding the resources that a fixpoint computation over a
+ * {@link FixpointGraph} can consume. The budget is charged before each
+ * evaluation of a node, and it interrupts the computation by throwing an
+ * exception as soon as it runs out.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@FunctionalInterface
+public interface FixpointBudget {
+
+	/**
+	 * A budget that never runs out.
+	 */
+	public static final FixpointBudget UNLIMITED = () -> {
+	};
+
+	/**
+	 * Charges the evaluation of a node to this budget.
+	 * 
+	 * @throws BudgetExhaustedException if this budget has run out, and the
+	 *                                      fixpoint computation should be
+	 *                                      interrupted
+	 * @throws FixpointException        if the fixpoint computation has been
+	 *                                      cancelled
+	 */
+	void charge() throws FixpointException;
+}
@@ -8,15 +8,17 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Component;
 import it.unive.lisa.util.workset.WorkingSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
-import org.apache.commons.lang3.tuple.Pair;
+import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -44,6 +46,22 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 	 */
 	public static final int DEFAULT_WIDENING_THRESHOLD = 5;
 
+	/**
+	 * The last {@link WeakTopologicalOrder} computed on this graph, if any
+	 */
+	private List<Component<N>> wto;
+
+	/**
+	 * The roots used for computing {@link #wto}
+	 */
+	private Set<N> wtoRoots;
+
+	/**
+	 * The value of {@link AdjacencyMatrix#getModificationCount()} when
+	 * {@link #wto} has been computed
+	 */
+	private int wtoModifications;
+
 	/**
 	 * Builds the graph.
 	 */
@@ -172,7 +190,6 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 	 *                               unknown/invalid node ends up in the working
 	 *                               set
 	 */
-	@SuppressWarnings("unchecked")
 	protected <A extends AbstractState<A, H, V>,
 			H extends HeapDomain<H>,
 			V extends ValueDomain<V>,
@@ -180,71 +197,115 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 			Map<N, AnalysisState<A, H, V>> startingPoints, CallGraph cg, WorkingSet<N> ws, int widenAfter,
 			SemanticFunction<N, E, G, A, H, V, F> semantics)
 			throws FixpointException {
-		int size = adjacencyMatrix.getNodes().size();
-		Map<N, AtomicInteger> lubs = new HashMap<>(size);
-		Map<N, Pair<AnalysisState<A, H, V>, F>> result = new HashMap<>(size);
+		return fixpoint(startingPoints, cg, ws, semantics, new FixpointParameters<>(widenAfter));
+	}
+
+	/**
+	 * Computes a fixpoint over this graph, as
+	 * {@link #fixpoint(Map, CallGraph, WorkingSet, int, SemanticFunction)},
+	 * with the given {@link FixpointParameters}. If entry states have to be
+	 * cleaned, the state flowing through each edge is also cleaned with
+	 * {@link #cleanUpEntryState(Node, AnalysisState)}, using the destination of
+	 * the edge, before it is joined with the ones flowing through the other
+	 * ingoing edges. If descending iterations are enabled, the post-fixpoint
+	 * reached by the computation is then refined through at most
+	 * {@link FixpointParameters#getDescendingRounds()} descending iterations,
+	 * each re-evaluating all nodes following a {@link WeakTopologicalOrder} and
+	 * composing the new results with the previous ones through
+	 * {@link Lattice#narrowing(Lattice)}. The descending phase stops earlier if
+	 * a round does not refine any result. The budget is charged before each
+	 * evaluation of a node: if it runs out, the computation is interrupted with
+	 * a {@link BudgetExhaustedException}. If statistics are enabled,
+	 * information about the evaluations of each node are collected in them.
+	 *
+	 * @param <A>            the type of {@link AbstractState}
+	 * @param <H>            the type of {@link HeapDomain} contained into the
+	 *                           computed abstract state
+	 * @param <V>            the type of {@link ValueDomain} contained into the
+	 *                           computed abstract state
+	 * @param <F>            the type of {@link FunctionalLattice} that will
+	 *                           hold analysis states computed on intermediate
+	 *                           nodes
+	 * @param startingPoints a map between {@link Node}s that to use as a
+	 *                           starting point of the computation (that must be
+	 *                           nodes of this graph) and the entry states to
+	 *                           apply on it
+	 * @param cg             the callgraph that can be queried when a call
+	 *                           towards an other graph is encountered
+	 * @param ws             the {@link WorkingSet} instance to use for this
+	 *                           computation
+	 * @param semantics      the {@link SemanticFunction} that will be used for
+	 *                           computing the abstract post-state of nodes
+	 * @param params         the {@link FixpointParameters} of the computation
+	 *
+	 * @return a map that stores for each {@link Node} the result of the
+	 *             fixpoint computation
+	 *
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a node, or if some
+	 *                               unknown/invalid node ends up in the working
+	 *                               set
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> fixpoint(
+			Map<N, AnalysisState<A, H, V>> startingPoints, CallGraph cg, WorkingSet<N> ws,
+			SemanticFunction<N, E, G, A, H, V, F> semantics, FixpointParameters<N> params)
+			throws FixpointException {
+		int widenAfter = params.getWidenAfter();
+		FixpointStatistics<N> stats = params.getStatistics();
 		startingPoints.keySet().forEach(ws::push);
 
 		AnalysisState<A, H, V> oldApprox = null, newApprox;
 		F oldIntermediate = null, newIntermediate;
 		try {
+			CompactAdjacency<N, E, G> graph = compact();
+			if (stats != null)
+				stats.fixpointStarted();
+			DenseFixpointStore<AnalysisState<A, H, V>, F> store = mkStore(graph, startingPoints);
 			while (!ws.isEmpty()) {
 				N current = ws.pop();
 
 				if (current == null)
 					throw new FixpointException(
 							"Unknown node encountered during fixpoint execution in '" + this + "'");
-				if (!adjacencyMatrix.getNodes().contains(current))
+				int index = graph.indexOf(current);
+				if (index == -1)
 					throw new FixpointException("'" + current
 							+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
 
-				AnalysisState<A, H, V> entrystate;
-				try {
-					entrystate = getEntryState(current, startingPoints, result);
-				} catch (SemanticException e) {
-					throw new FixpointException(
-							"Exception while computing the entry state for '" + current + "' in " + this, e);
-				}
-
-				if (entrystate == null)
-					throw new FixpointException(current + " does not have an entry state");
+				oldApprox = store.getState(index);
+				oldIntermediate = store.getIntermediate(index);
 
-				if (result.containsKey(current)) {
-					oldApprox = result.get(current).getLeft();
-					oldIntermediate = result.get(current).getRight();
-				} else {
-					oldApprox = null;
-					oldIntermediate = null;
-				}
-
-				try {
-					newIntermediate = (F) mkInternalStore(entrystate);
-					newApprox = semantics.compute(current, entrystate, cg, newIntermediate);
-				} catch (SemanticException e) {
-					log.error("Evaluation of the semantics of '" + current + "' in " + this
-							+ " led to an exception: " + e);
-					throw new FixpointException("Semantic exception during fixpoint computation", e);
-				}
+				AnalysisState<A, H, V> entrystate = getEntryState(graph, index, store, params.isCleanEntries());
+				newIntermediate = mkIntermediateStore(entrystate);
+				newApprox = evaluate(current, entrystate, newIntermediate, cg, semantics, params);
 
 				if (oldApprox != null && oldIntermediate != null)
 					try {
 						if (widenAfter == 0) {
 							newApprox = newApprox.lub(oldApprox);
 							newIntermediate = newIntermediate.lub(oldIntermediate);
+							if (stats != null)
+								stats.lubbed(current);
 						} else {
 							// we multiply by the number of predecessors since
 							// if we have more than one
 							// the threshold will be reached faster
-							int lub = lubs
-									.computeIfAbsent(current,
-											e -> new AtomicInteger(widenAfter * predecessorsOf(e).size()))
-									.getAndDecrement();
+							if (!store.hasCounter(index))
+								store.setCounter(index, widenAfter * graph.predecessorsCount(index));
+							int lub = store.getAndDecrement(index);
 							if (lub > 0) {
 								newApprox = newApprox.lub(oldApprox);
 								newIntermediate = newIntermediate.lub(oldIntermediate);
+								if (stats != null)
+									stats.lubbed(current);
 							} else {
 								newApprox = oldApprox.widening(newApprox);
 								newIntermediate = oldIntermediate.widening(newIntermediate);
+								if (stats != null)
+									stats.widened(current);
 							}
 						}
 					} catch (SemanticException e) {
@@ -255,26 +316,358 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 
 				if ((oldApprox == null && oldIntermediate == null) || !newApprox.lessOrEqual(oldApprox)
 						|| !newIntermediate.lessOrEqual(oldIntermediate)) {
-					result.put(current, Pair.of(newApprox, newIntermediate));
-					for (N instr : followersOf(current))
-						ws.push(instr);
+					store.put(index, newApprox, newIntermediate);
+					for (int k = 0; k < graph.followersCount(index); k++)
+						ws.push(graph.nodeAt(graph.follower(index, k)));
 				}
 			}
 
-			HashMap<N, AnalysisState<A, H, V>> finalResults = new HashMap<>(result.size());
-			for (Entry<N, Pair<AnalysisState<A, H, V>, F>> e : result.entrySet()) {
-				finalResults.put(e.getKey(), e.getValue().getLeft());
-				for (Entry<N, AnalysisState<A, H, V>> ee : e.getValue().getRight())
-					finalResults.put(ee.getKey(), ee.getValue());
-			}
+			if (params.getDescendingRounds() > 0)
+				descend(startingPoints.keySet(), graph, store, cg, semantics, params);
+			return flatten(graph, store);
+		} catch (BudgetExhaustedException e) {
+			throw e;
+		} catch (Exception e) {
+			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
+			throw new FixpointException("Unexpected exception during fixpoint computation", e);
+		}
+	}
+
+	/**
+	 * Computes a fixpoint over this graph, following a
+	 * {@link WeakTopologicalOrder} of its nodes. This method returns a
+	 * {@code Map<N, AnalysisState<A, H, V>>} instance mapping each {@link Node}
+	 * to the {@link AnalysisState} computed by this method. Note that the
+	 * returned map has entries also for inner nodes. The ordering, that is
+	 * computed starting from the nodes in {@code startingPoints}, is cached and
+	 * reused by subsequent computations as long as the structure of the graph
+	 * and the starting nodes do not change. Each loop of the ordering is
+	 * stabilized, after stabilizing all of the loops nested in it, by
+	 * iteratively evaluating its head and its body. Only the heads of the loops
+	 * retain the results of previous iterations: {@link Lattice#lub(Lattice)}
+	 * is used to compose them for the first {@code widenAfter} iterations of
+	 * each loop, after which {@link Lattice#widening(Lattice)} is used. All
+	 * other nodes are evaluated exactly once per iteration of their innermost
+	 * enclosing loop. The computation starts at the nodes in
+	 * {@code startingPoints}, using as its entry state their respective value.
+	 * {@code cg} will be invoked to get the approximation of all invoked
+	 * graphs.
+	 *
+	 * @param <A>            the type of {@link AbstractState}
+	 * @param <H>            the type of {@link HeapDomain} contained into the
+	 *                           computed abstract state
+	 * @param <V>            the type of {@link ValueDomain} contained into the
+	 *                           computed abstract state
+	 * @param <F>            the type of {@link FunctionalLattice} that will
+	 *                           hold analysis states computed on intermediate
+	 *                           nodes
+	 * @param startingPoints a map between {@link Node}s that to use as a
+	 *                           starting point of the computation (that must be
+	 *                           nodes of this graph) and the entry states to
+	 *                           apply on it
+	 * @param cg             the callgraph that can be queried when a call
+	 *                           towards an other graph is encountered
+	 * @param widenAfter     the number of iterations of a loop after which the
+	 *                           {@link Lattice#lub(Lattice)} invocation on its
+	 *                           head gets replaced by the
+	 *                           {@link Lattice#widening(Lattice)} call. Use
+	 *                           {@code 0} to <b>always</b> use
+	 *                           {@link Lattice#lub(Lattice)}
+	 * @param semantics      the {@link SemanticFunction} that will be used for
+	 *                           computing the abstract post-state of nodes
+	 *
+	 * @return a map that stores for each {@link Node} the result of the
+	 *             fixpoint computation
+	 *
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a node, or if some
+	 *                               unknown/invalid node is used as starting
+	 *                               point
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> wtoFixpoint(
+			Map<N, AnalysisState<A, H, V>> startingPoints, CallGraph cg, int widenAfter,
+			SemanticFunction<N, E, G, A, H, V, F> semantics)
+			throws FixpointException {
+		return wtoFixpoint(startingPoints, cg, semantics, new FixpointParameters<>(widenAfter));
+	}
+
+	/**
+	 * Computes a fixpoint over this graph, following a
+	 * {@link WeakTopologicalOrder} of its nodes, as
+	 * {@link #wtoFixpoint(Map, CallGraph, int, SemanticFunction)}, with the
+	 * given {@link FixpointParameters}. Entry states are cleaned, the
+	 * post-fixpoint reached by the computation is refined, the budget is
+	 * charged and statistics are collected as in
+	 * {@link #fixpoint(Map, CallGraph, WorkingSet, SemanticFunction, FixpointParameters)}.
+	 * The widening threshold is the number of iterations of a loop after which
+	 * {@link Lattice#lub(Lattice)} on its head gets replaced by
+	 * {@link Lattice#widening(Lattice)}.
+	 *
+	 * @param <A>            the type of {@link AbstractState}
+	 * @param <H>            the type of {@link HeapDomain} contained into the
+	 *                           computed abstract state
+	 * @param <V>            the type of {@link ValueDomain} contained into the
+	 *                           computed abstract state
+	 * @param <F>            the type of {@link FunctionalLattice} that will
+	 *                           hold analysis states computed on intermediate
+	 *                           nodes
+	 * @param startingPoints a map between {@link Node}s that to use as a
+	 *                           starting point of the computation (that must be
+	 *                           nodes of this graph) and the entry states to
+	 *                           apply on it
+	 * @param cg             the callgraph that can be queried when a call
+	 *                           towards an other graph is encountered
+	 * @param semantics      the {@link SemanticFunction} that will be used for
+	 *                           computing the abstract post-state of nodes
+	 * @param params         the {@link FixpointParameters} of the computation
+	 *
+	 * @return a map that stores for each {@link Node} the result of the
+	 *             fixpoint computation
+	 *
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a node, or if some
+	 *                               unknown/invalid node is used as starting
+	 *                               point
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> wtoFixpoint(
+			Map<N, AnalysisState<A, H, V>> startingPoints, CallGraph cg,
+			SemanticFunction<N, E, G, A, H, V, F> semantics, FixpointParameters<N> params)
+			throws FixpointException {
+		for (N start : startingPoints.keySet())
+			if (!adjacencyMatrix.getNodes().contains(start))
+				throw new FixpointException("'" + start
+						+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
+
+		try {
+			CompactAdjacency<N, E, G> graph = compact();
+			if (params.getStatistics() != null)
+				params.getStatistics().fixpointStarted();
+			DenseFixpointStore<AnalysisState<A, H, V>, F> store = mkStore(graph, startingPoints);
+			for (Component<N> component : getWeakTopologicalOrder(startingPoints.keySet()))
+				stabilize(component, graph, store, cg, semantics, params);
 
-			return finalResults;
+			if (params.getDescendingRounds() > 0)
+				descend(startingPoints.keySet(), graph, store, cg, semantics, params);
+			return flatten(graph, store);
+		} catch (BudgetExhaustedException e) {
+			throw e;
 		} catch (Exception e) {
 			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
 			throw new FixpointException("Unexpected exception during fixpoint computation", e);
 		}
 	}
 
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> void stabilize(
+			Component<N> component,
+			CompactAdjacency<N, E, G> graph,
+			DenseFixpointStore<AnalysisState<A, H, V>, F> store,
+			CallGraph cg,
+			SemanticFunction<N, E, G, A, H, V, F> semantics,
+			FixpointParameters<N> params)
+			throws FixpointException {
+		int widenAfter = params.getWidenAfter();
+		FixpointStatistics<N> stats = params.getStatistics();
+		N head = component.getHead();
+		int index = graph.indexOf(head);
+		if (!component.isLoop()) {
+			AnalysisState<A, H, V> entrystate = getEntryState(graph, index, store, params.isCleanEntries());
+			F intermediate = mkIntermediateStore(entrystate);
+			store.put(index, evaluate(head, entrystate, intermediate, cg, semantics, params), intermediate);
+			return;
+		}
+
+		for (int iteration = 0;; iteration++) {
+			AnalysisState<A, H, V> entrystate = getEntryState(graph, index, store, params.isCleanEntries());
+			F newIntermediate = mkIntermediateStore(entrystate);
+			AnalysisState<A, H, V> newApprox = evaluate(head, entrystate, newIntermediate, cg, semantics, params);
+
+			// the head might have a previous approximation also at the first
+			// iteration, if it has been computed while stabilizing an outer
+			// loop
+			if (store.hasState(index)) {
+				AnalysisState<A, H, V> oldApprox = store.getState(index);
+				F oldIntermediate = store.getIntermediate(index);
+				try {
+					if (widenAfter == 0 || iteration < widenAfter) {
+						newApprox = newApprox.lub(oldApprox);
+						newIntermediate = newIntermediate.lub(oldIntermediate);
+						if (stats != null)
+							stats.lubbed(head);
+					} else {
+						newApprox = oldApprox.widening(newApprox);
+						newIntermediate = oldIntermediate.widening(newIntermediate);
+						if (stats != null)
+							stats.widened(head);
+					}
+
+					// the body is always evaluated at least once, since
+					// its nodes might have other predecessors outside of the
+					// loop whose approximation changed
+					if (iteration > 0 && newApprox.lessOrEqual(oldApprox)
+							&& newIntermediate.lessOrEqual(oldIntermediate))
+						return;
+				} catch (SemanticException e) {
+					throw new FixpointException(
+							"Exception while updating the analysis results of '" + head + "' in " + this, e);
+				}
+			}
+
+			store.put(index, newApprox, newIntermediate);
+			for (Component<N> inner : component.getBody())
+				stabilize(inner, graph, store, cg, semantics, params);
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> void descend(
+			Collection<N> roots,
+			CompactAdjacency<N, E, G> graph,
+			DenseFixpointStore<AnalysisState<A, H, V>, F> store,
+			CallGraph cg,
+			SemanticFunction<N, E, G, A, H, V, F> semantics,
+			FixpointParameters<N> params)
+			throws FixpointException {
+		List<Integer> order = new ArrayList<>(graph.size());
+		linearize(getWeakTopologicalOrder(roots), graph, order);
+
+		for (int round = 0; round < params.getDescendingRounds(); round++) {
+			boolean refined = false;
+			for (int index : order) {
+				if (!store.hasState(index))
+					continue;
+
+				N current = graph.nodeAt(index);
+				AnalysisState<A, H, V> oldApprox = store.getState(index);
+				F oldIntermediate = store.getIntermediate(index);
+				AnalysisState<A, H, V> entrystate = getEntryState(graph, index, store, params.isCleanEntries());
+				F newIntermediate = mkIntermediateStore(entrystate);
+				AnalysisState<A, H, V> newApprox = evaluate(current, entrystate, newIntermediate, cg, semantics,
+						params);
+
+				try {
+					newApprox = oldApprox.narrowing(newApprox);
+					newIntermediate = oldIntermediate.narrowing(newIntermediate);
+					if (!oldApprox.lessOrEqual(newApprox) || !oldIntermediate.lessOrEqual(newIntermediate)) {
+						store.put(index, newApprox, newIntermediate);
+						refined = true;
+					}
+				} catch (SemanticException e) {
+					throw new FixpointException(
+							"Exception while refining the analysis results of '" + current + "' in " + this, e);
+				}
+			}
+
+			if (!refined)
+				return;
+		}
+	}
+
+	private void linearize(List<Component<N>> components, CompactAdjacency<N, E, G> graph, List<Integer> order) {
+		for (Component<N> component : components) {
+			order.add(graph.indexOf(component.getHead()));
+			if (component.isLoop())
+				linearize(component.getBody(), graph, order);
+		}
+	}
+
+	/**
+	 * Yields the {@link WeakTopologicalOrder} of this graph starting from the
+	 * given roots, computing it only if the one computed at the previous
+	 * invocation is not valid anymore.
+	 */
+	@SuppressWarnings("unchecked")
+	private synchronized List<Component<N>> getWeakTopologicalOrder(Collection<N> roots) {
+		int modifications = adjacencyMatrix.getModificationCount();
+		if (wto == null || wtoModifications != modifications || !wtoRoots.equals(roots)) {
+			wtoRoots = new HashSet<>(roots);
+			wtoModifications = modifications;
+			wto = new WeakTopologicalOrder<G, N, E>().build((G) this, roots);
+		}
+		return wto;
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> AnalysisState<A, H, V> evaluate(
+			N current,
+			AnalysisState<A, H, V> entrystate,
+			F intermediate,
+			CallGraph cg,
+			SemanticFunction<N, E, G, A, H, V, F> semantics,
+			FixpointParameters<N> params)
+			throws FixpointException {
+		params.getBudget().charge();
+		FixpointStatistics<N> stats = params.getStatistics();
+		try {
+			if (stats == null)
+				return semantics.compute(current, entrystate, cg, intermediate);
+
+			long start = System.nanoTime();
+			AnalysisState<A, H, V> result = semantics.compute(current, entrystate, cg, intermediate);
+			stats.evaluated(current, System.nanoTime() - start, result);
+			return result;
+		} catch (SemanticException e) {
+			log.error("Evaluation of the semantics of '" + current + "' in " + this
+					+ " led to an exception: " + e);
+			throw new FixpointException("Semantic exception during fixpoint computation", e);
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>>
+			DenseFixpointStore<AnalysisState<A, H, V>, F> mkStore(
+			CompactAdjacency<N, E, G> graph,
+			Map<N, AnalysisState<A, H, V>> startingPoints) {
+		DenseFixpointStore<AnalysisState<A, H, V>, F> store = new DenseFixpointStore<>(graph.size());
+		for (Entry<N, AnalysisState<A, H, V>> entry : startingPoints.entrySet()) {
+			int index = graph.indexOf(entry.getKey());
+			if (index != -1)
+				store.setEntry(index, entry.getValue());
+		}
+		return store;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> F mkIntermediateStore(
+			AnalysisState<A, H, V> entrystate) {
+		return (F) mkInternalStore(entrystate);
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> flatten(
+			CompactAdjacency<N, E, G> graph,
+			DenseFixpointStore<AnalysisState<A, H, V>, F> store) {
+		HashMap<N, AnalysisState<A, H, V>> finalResults = new HashMap<>(graph.size());
+		for (int index = 0; index < graph.size(); index++) {
+			if (!store.hasState(index))
+				continue;
+			finalResults.put(graph.nodeAt(index), store.getState(index));
+			for (Entry<N, AnalysisState<A, H, V>> e : store.getIntermediate(index))
+				finalResults.put(e.getKey(), e.getValue());
+		}
+
+		return finalResults;
+	}
+
 	/**
 	 * Builds a new instance of the {@link FunctionalLattice} that is used to
 	 * store the fixpoint results on internal nodes, that is, node that are
@@ -299,28 +692,33 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 			H extends HeapDomain<H>,
 			V extends ValueDomain<V>,
 			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> AnalysisState<A, H, V> getEntryState(
-			N current,
-			Map<N, AnalysisState<A, H, V>> startingPoints,
-			Map<N, Pair<AnalysisState<A, H, V>, F>> result)
-			throws SemanticException {
-		AnalysisState<A, H, V> entrystate = startingPoints.get(current);
-		Collection<N> preds = predecessorsOf(current);
-		List<AnalysisState<A, H, V>> states = new ArrayList<>(preds.size());
-
-		for (N pred : preds)
-			if (result.containsKey(pred)) {
-				// this might not have been computed yet
-				E edge = adjacencyMatrix.getEdgeConnecting(pred, current);
-				AnalysisState<A, H, V> traversed = edge.traverse(result.get(pred).getLeft());
-				// we clean it from out-of-scope variables
-				states.add(cleanUpPostState(pred, traversed));
+			CompactAdjacency<N, E, G> graph,
+			int current,
+			DenseFixpointStore<AnalysisState<A, H, V>, F> store,
+			boolean cleanEntries)
+			throws FixpointException {
+		AnalysisState<A, H, V> entrystate = store.getEntry(current);
+		try {
+			for (int k = 0; k < graph.predecessorsCount(current); k++) {
+				int pred = graph.predecessor(current, k);
+				if (store.hasState(pred)) {
+					// this might not have been computed yet
+					E edge = graph.ingoingEdge(current, k);
+					AnalysisState<A, H, V> traversed = edge.traverse(store.getState(pred));
+					// we clean it from out-of-scope variables
+					AnalysisState<A, H, V> cleaned = cleanUpPostState(graph.nodeAt(pred), traversed);
+					if (cleanEntries)
+						cleaned = cleanUpEntryState(graph.nodeAt(current), cleaned);
+					entrystate = entrystate == null ? cleaned : entrystate.lub(cleaned);
+				}
 			}
+		} catch (SemanticException e) {
+			throw new FixpointException(
+					"Exception while computing the entry state for '" + graph.nodeAt(current) + "' in " + this, e);
+		}
 
-		for (AnalysisState<A, H, V> s : states)
-			if (entrystate == null)
-				entrystate = s;
-			else
-				entrystate = entrystate.lub(s);
+		if (entrystate == null)
+			throw new FixpointException(graph.nodeAt(current) + " does not have an entry state");
 
 		return entrystate;
 	}
@@ -350,4 +748,32 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 			throws SemanticException {
 		return computedState;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Cleans up the state flowing into a node, before it is joined with the
+	 * ones flowing through the other ingoing edges of the node. This is an
+	 * optional operation, that is performed only by fixpoints that request it:
+	 * the default implementation of this method returns the given
+	 * {@code entryState}.
+	 *
+	 * @param <A>        the type of {@link AbstractState}
+	 * @param <H>        the type of {@link HeapDomain} embedded in the abstract
+	 *                       state
+	 * @param <V>        the type of {@link ValueDomain} embedded in the
+	 *                       abstract state
+	 * @param node       the node that the state is flowing into
+	 * @param entryState the state flowing into the given node
+	 *
+	 * @return a cleaned version of the entryState, according to the logic of
+	 *             the fixpoint graph
+	 *
+	 * @throws SemanticException if an error happens while cleaning the state
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> AnalysisState<A, H, V> cleanUpEntryState(N node,
+					AnalysisState<A, H, V> entryState)
+			throws SemanticException {
+		return entryState;
+	}
+}
@@ -0,0 +1,123 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+
+/**
+ * An immutable bundle of the settings of a fixpoint computation over a
+ * {@link FixpointGraph}:
+ * <ul>
+ * <li>the widening threshold, that is, the number of times after which
+ * {@link Lattice#lub(Lattice)} gets replaced by
+ * {@link Lattice#widening(Lattice)} (use {@code 0} to <b>always</b> use
+ * {@link Lattice#lub(Lattice)});</li>
+ * <li>whether or not the state flowing through each edge is cleaned with
+ * {@link FixpointGraph#cleanUpEntryState(Node, AnalysisState)}, using the
+ * destination of the edge, before it is joined with the ones flowing through
+ * the other ingoing edges;</li>
+ * <li>the maximum number of descending iterations, composing results through
+ * {@link Lattice#narrowing(Lattice)} and following a
+ * {@link WeakTopologicalOrder}, performed after the post-fixpoint has been
+ * reached (use {@code 0} to disable the descending phase);</li>
+ * <li>the {@link FixpointBudget} that is charged before each evaluation of a
+ * node;</li>
+ * <li>the {@link FixpointStatistics} where statistics about the computation are
+ * collected, or {@code null} if they should not be collected.</li>
+ * </ul>
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of nodes of the graph
+ */
+public class FixpointParameters<N> {
+
+	private final int widenAfter;
+
+	private final boolean cleanEntries;
+
+	private final int descendingRounds;
+
+	private final FixpointBudget budget;
+
+	private final FixpointStatistics<N> stats;
+
+	/**
+	 * Builds the parameters of a plain fixpoint computation, that does not
+	 * clean entry states, does not perform descending iterations, is not
+	 * bounded and does not collect statistics.
+	 *
+	 * @param widenAfter the widening threshold
+	 */
+	public FixpointParameters(int widenAfter) {
+		this(widenAfter, false, 0, FixpointBudget.UNLIMITED, null);
+	}
+
+	/**
+	 * Builds the parameters of a fixpoint computation.
+	 *
+	 * @param widenAfter       the widening threshold
+	 * @param cleanEntries     whether or not states flowing through edges
+	 *                             should be cleaned using their destination
+	 * @param descendingRounds the maximum number of descending iterations
+	 * @param budget           the budget that is charged before each evaluation
+	 *                             of a node
+	 * @param stats            the statistics where information about the
+	 *                             computation are collected, or {@code null}
+	 */
+	public FixpointParameters(int widenAfter, boolean cleanEntries, int descendingRounds, FixpointBudget budget,
+			FixpointStatistics<N> stats) {
+		this.widenAfter = widenAfter;
+		this.cleanEntries = cleanEntries;
+		this.descendingRounds = descendingRounds;
+		this.budget = budget;
+		this.stats = stats;
+	}
+
+	/**
+	 * Yields the widening threshold.
+	 *
+	 * @return the widening threshold
+	 */
+	public int getWidenAfter() {
+		return widenAfter;
+	}
+
+	/**
+	 * Yields whether or not states flowing through edges should be cleaned
+	 * using their destination.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isCleanEntries() {
+		return cleanEntries;
+	}
+
+	/**
+	 * Yields the maximum number of descending iterations.
+	 *
+	 * @return the maximum number of descending iterations
+	 */
+	public int getDescendingRounds() {
+		return descendingRounds;
+	}
+
+	/**
+	 * Yields the budget that is charged before each evaluation of a node.
+	 *
+	 * @return the budget
+	 */
+	public FixpointBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Yields the statistics where information about the computation are
+	 * collected.
+	 *
+	 * @return the statistics, or {@code null} if they should not be collected
+	 */
+	public FixpointStatistics<N> getStatistics() {
+		return stats;
+	}
+}
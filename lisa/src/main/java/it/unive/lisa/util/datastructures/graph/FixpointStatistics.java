@@ -0,0 +1,222 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.LatticeDecorator;
+import it.unive.lisa.analysis.lattices.FunctionalLattice;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the fixpoint computations over a {@link FixpointGraph},
+ * collected for each of its nodes. Statistics of different computations over
+ * the same graph (e.g., with different entry states) can be accumulated in the
+ * same instance, also concurrently.<br>
+ * <br>
+ * For each node, this object tracks the number of times its semantics has been
+ * evaluated, the number of times its result has been composed with the one of a
+ * previous iteration through {@link Lattice#lub(Lattice)} or
+ * {@link Lattice#widening(Lattice)}, the cumulative time spent evaluating its
+ * semantics (that, for nodes calling other graphs, includes the time spent
+ * analyzing the callees), and the size of the largest state computed for it
+ * (see {@link #sizeOf(AnalysisState)}).
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of nodes of the graph
+ */
+public class FixpointStatistics<N> {
+
+	private final Map<N, NodeStatistics> nodes;
+
+	private final LongAdder fixpoints;
+
+	/**
+	 * Builds an empty statistics object.
+	 */
+	public FixpointStatistics() {
+		this.nodes = new ConcurrentHashMap<>();
+		this.fixpoints = new LongAdder();
+	}
+
+	/**
+	 * Records that a new fixpoint computation has started.
+	 */
+	public void fixpointStarted() {
+		fixpoints.increment();
+	}
+
+	/**
+	 * Records an evaluation of the semantics of the given node.
+	 *
+	 * @param node   the node
+	 * @param nanos  the time spent evaluating the semantics, in nanoseconds
+	 * @param result the state computed by the evaluation
+	 */
+	public void evaluated(N node, long nanos, AnalysisState<?, ?, ?> result) {
+		NodeStatistics stats = of(node);
+		stats.evaluations.increment();
+		stats.nanos.add(nanos);
+		stats.maxStateSize.accumulateAndGet(sizeOf(result), Math::max);
+	}
+
+	/**
+	 * Records that the result of the given node has been composed with the one
+	 * of a previous iteration through {@link Lattice#lub(Lattice)}.
+	 *
+	 * @param node the node
+	 */
+	public void lubbed(N node) {
+		of(node).lubs.increment();
+	}
+
+	/**
+	 * Records that the result of the given node has been composed with the one
+	 * of a previous iteration through {@link Lattice#widening(Lattice)}.
+	 *
+	 * @param node the node
+	 */
+	public void widened(N node) {
+		of(node).widenings.increment();
+	}
+
+	private NodeStatistics of(N node) {
+		return nodes.computeIfAbsent(node, n -> new NodeStatistics());
+	}
+
+	/**
+	 * Yields the number of fixpoint computations whose statistics have been
+	 * collected in this object.
+	 *
+	 * @return the number of fixpoints
+	 */
+	public long getFixpoints() {
+		return fixpoints.sum();
+	}
+
+	/**
+	 * Yields the statistics collected for each node.
+	 *
+	 * @return an unmodifiable view of the statistics, indexed by node
+	 */
+	public Map<N, NodeStatistics> getNodes() {
+		return Collections.unmodifiableMap(nodes);
+	}
+
+	/**
+	 * Yields the statistics of the whole graph, obtained by summing the ones of
+	 * its nodes (with the exception of the state size, whose maximum is taken).
+	 *
+	 * @return the statistics of the graph
+	 */
+	public NodeStatistics getTotals() {
+		NodeStatistics totals = new NodeStatistics();
+		for (NodeStatistics stats : nodes.values()) {
+			totals.evaluations.add(stats.getEvaluations());
+			totals.lubs.add(stats.getLubs());
+			totals.widenings.add(stats.getWidenings());
+			totals.nanos.add(stats.getNanos());
+			totals.maxStateSize.accumulateAndGet(stats.getMaxStateSize(), Math::max);
+		}
+		return totals;
+	}
+
+	/**
+	 * Yields the size of the given state, that is, the number of keys of its
+	 * heap and value states, for the ones that are {@link FunctionalLattice}s
+	 * (e.g., the number of variables tracked by a non-relational domain).
+	 * Domains that are {@link LatticeDecorator}s are measured through the
+	 * decorated ones.
+	 *
+	 * @param state the state
+	 *
+	 * @return the size of the state
+	 */
+	public static int sizeOf(AnalysisState<?, ?, ?> state) {
+		if (state == null)
+			return 0;
+		return sizeOf(state.getState().getHeapState()) + sizeOf(state.getState().getValueState());
+	}
+
+	private static int sizeOf(Lattice<?> lattice) {
+		if (lattice instanceof LatticeDecorator)
+			return sizeOf(((LatticeDecorator<?>) lattice).getWrapped());
+		if (lattice instanceof FunctionalLattice)
+			return ((FunctionalLattice<?, ?, ?>) lattice).getKeys().size();
+		return 0;
+	}
+
+	/**
+	 * The statistics collected for a single node.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static final class NodeStatistics {
+
+		private final LongAdder evaluations = new LongAdder();
+
+		private final LongAdder lubs = new LongAdder();
+
+		private final LongAdder widenings = new LongAdder();
+
+		private final LongAdder nanos = new LongAdder();
+
+		private final AtomicInteger maxStateSize = new AtomicInteger();
+
+		private NodeStatistics() {
+		}
+
+		/**
+		 * Yields the number of evaluations of the semantics of the node.
+		 *
+		 * @return the number of evaluations
+		 */
+		public long getEvaluations() {
+			return evaluations.sum();
+		}
+
+		/**
+		 * Yields the number of times the result of the node has been composed
+		 * with the one of a previous iteration through
+		 * {@link Lattice#lub(Lattice)}.
+		 *
+		 * @return the number of lubs
+		 */
+		public long getLubs() {
+			return lubs.sum();
+		}
+
+		/**
+		 * Yields the number of times the result of the node has been composed
+		 * with the one of a previous iteration through
+		 * {@link Lattice#widening(Lattice)}.
+		 *
+		 * @return the number of widenings
+		 */
+		public long getWidenings() {
+			return widenings.sum();
+		}
+
+		/**
+		 * Yields the cumulative time spent evaluating the semantics of the
+		 * node, in nanoseconds.
+		 *
+		 * @return the cumulative time
+		 */
+		public long getNanos() {
+			return nanos.sum();
+		}
+
+		/**
+		 * Yields the size of the largest state computed for the node.
+		 *
+		 * @return the maximum state size
+		 */
+		public int getMaxStateSize() {
+			return maxStateSize.get();
+		}
+	}
+}
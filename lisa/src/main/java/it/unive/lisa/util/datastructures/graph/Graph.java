@@ -228,6 +228,18 @@ public abstract class Graph<G extends Graph<G, N, E>, N extends Node<N, E, G>, E
 		return adjacencyMatrix.predecessorsOf(node);
 	}
 
+	/**
+	 * Yields a {@link CompactAdjacency} snapshot of the current structure of
+	 * this graph, that enables allocation-free iteration over the neighbours of
+	 * each node. The snapshot is cached, and it is rebuilt only if this graph
+	 * has been modified since its creation.
+	 * 
+	 * @return the compact snapshot of this graph
+	 */
+	public final CompactAdjacency<N, E, G> compact() {
+		return adjacencyMatrix.compact();
+	}
+
 	/**
 	 * Dumps the content of this graph in the given writer, formatted as a dot
 	 * file.
@@ -0,0 +1,31 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.workset.WorkingSet;
+
+/**
+ * The strategies that can be used for choosing the order in which the nodes of
+ * a {@link FixpointGraph} are evaluated during a fixpoint computation.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public enum IterationStrategy {
+
+	/**
+	 * Nodes are evaluated in the order they are extracted from a
+	 * {@link WorkingSet}, where the followers of a node are added each time its
+	 * approximation changes. Every node is subject to
+	 * {@link Lattice#widening(Lattice)} once it has been evaluated enough
+	 * times.
+	 */
+	WORKLIST,
+
+	/**
+	 * Nodes are evaluated following a {@link WeakTopologicalOrder} of the
+	 * graph, computed once per graph: inner loops are stabilized before outer
+	 * ones, and {@link Lattice#widening(Lattice)} is applied only at the heads
+	 * of the loops.
+	 */
+	WEAK_TOPOLOGICAL_ORDER;
+}
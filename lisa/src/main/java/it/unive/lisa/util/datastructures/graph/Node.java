@@ -22,6 +22,17 @@ public interface Node<N extends Node<N, E, G>, E extends Edge<N, E, G>, G extend
 	 */
 	int setOffset(int offset);
 
+	/**
+	 * Yields the offset of this node, that is, its position inside the
+	 * {@link Graph} it belongs to, as assigned by {@link #setOffset(int)}.
+	 * Offsets are unique within a graph, and are assigned densely starting from
+	 * {@code 0}. Nodes that have not been added to a graph yet have a negative
+	 * offset.
+	 *
+	 * @return the offset of this node
+	 */
+	int getOffset();
+
 	/**
 	 * Checks if this node is effectively equal to the given one, that is, if
 	 * they have the same structure while potentially being different instances.
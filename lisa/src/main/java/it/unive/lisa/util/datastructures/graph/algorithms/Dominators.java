@@ -1,12 +1,11 @@
 package it.unive.lisa.util.datastructures.graph.algorithms;
 
+import it.unive.lisa.util.datastructures.graph.CompactAdjacency;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.Node;
 import it.unive.lisa.util.workset.FIFOWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Map;
@@ -64,35 +63,42 @@ public class Dominators<G extends Graph<G, N, E>, N extends Node<N, E, G>, E ext
 	 */
 	public Map<N, Set<N>> build(G graph) {
 		dominators.clear();
-		Collection<N> entries = graph.getEntrypoints();
+		CompactAdjacency<N, E, G> compact = graph.compact();
+		boolean[] entries = new boolean[compact.size()];
 		WorkingSet<N> ws = FIFOWorkingSet.mk();
-		entries.forEach(ws::push);
+		for (N entry : graph.getEntrypoints()) {
+			int index = compact.indexOf(entry);
+			if (index != -1)
+				entries[index] = true;
+			ws.push(entry);
+		}
+
 		while (!ws.isEmpty()) {
 			N current = ws.pop();
+			int index = compact.indexOf(current);
 
 			Set<N> res;
-			if (entries.contains(current))
+			if (index == -1 || entries[index])
 				res = new HashSet<>();
 			else
-				res = intersect(graph.predecessorsOf(current));
+				res = intersect(compact, index);
 			res.add(current);
 
 			if (!res.equals(dominators.get(current))) {
 				dominators.put(current, res);
-				graph.followersOf(current).forEach(ws::push);
+				if (index != -1)
+					for (int k = 0; k < compact.followersCount(index); k++)
+						ws.push(compact.nodeAt(compact.follower(index, k)));
 			}
 		}
 
 		return dominators;
 	}
 
-	private Set<N> intersect(Collection<N> nodes) {
-		if (nodes == null || nodes.isEmpty())
-			return Collections.emptySet();
-
+	private Set<N> intersect(CompactAdjacency<N, E, G> compact, int index) {
 		Set<N> res = null;
-		for (N node : nodes) {
-			Set<N> doms = dominators.get(node);
+		for (int k = 0; k < compact.predecessorsCount(index); k++) {
+			Set<N> doms = dominators.get(compact.nodeAt(compact.predecessor(index, k)));
 			if (doms != null) // might not have been processed yet
 				if (res == null)
 					res = new HashSet<>(doms);
@@ -0,0 +1,293 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An algorithm that computes a weak topological ordering of the nodes of a
+ * graph. A weak topological ordering is a well-parenthesized permutation of the
+ * nodes of the graph, where each pair of matching parenthesis delimits a
+ * {@link Component} of the graph (that is, a loop), and where the first node
+ * inside the parenthesis is the head of the component. Each edge that goes
+ * backward in the ordering always reaches the head of a component containing
+ * its source. Thus, when computing a fixpoint, iterating over the nodes
+ * following the ordering and stabilizing inner components before outer ones
+ * requires to apply widening only at component heads.<br>
+ * <br>
+ * The ordering is computed by recursively decomposing the graph into its
+ * strongly connected components (using Tarjan's algorithm), following the
+ * hierarchical decomposition proposed by Bourdoncle. The head of each component
+ * is the first node of the component that is reached during a depth-first visit
+ * of the graph. Only nodes that are reachable from the given roots are part of
+ * the ordering.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ * @param <G> the type of the target graphs
+ *
+ * @see <a href="https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<G extends Graph<G, N, E>, N extends Node<N, E, G>, E extends Edge<N, E, G>> {
+
+	private final List<Component<N>> components;
+
+	/**
+	 * Builds the weak topological order. To run the algorithm, use
+	 * {@link #build(Graph)} or {@link #build(Graph, Collection)}.
+	 */
+	public WeakTopologicalOrder() {
+		components = new ArrayList<>();
+	}
+
+	/**
+	 * Yields the last computed ordering through {@link #build(Graph)} or
+	 * {@link #build(Graph, Collection)}. The returned value is the list of
+	 * top-level components of the ordering, in the order they should be
+	 * visited.
+	 *
+	 * @return the top-level components of the last computed ordering
+	 */
+	public List<Component<N>> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Builds the weak topological ordering of the given graph, starting from
+	 * its entrypoints. The returned value, that can also be accessed later
+	 * through {@link #getComponents()}, is the list of top-level components of
+	 * the ordering, in the order they should be visited.
+	 *
+	 * @param graph the graph whose ordering is to be computed
+	 *
+	 * @return the top-level components of the ordering
+	 */
+	public List<Component<N>> build(G graph) {
+		return build(graph, graph.getEntrypoints());
+	}
+
+	/**
+	 * Builds the weak topological ordering of the given graph, starting from
+	 * the given roots. The returned value, that can also be accessed later
+	 * through {@link #getComponents()}, is the list of top-level components of
+	 * the ordering, in the order they should be visited.
+	 *
+	 * @param graph the graph whose ordering is to be computed
+	 * @param roots the nodes where the visit of the graph starts
+	 *
+	 * @return the top-level components of the ordering
+	 */
+	public List<Component<N>> build(G graph, Collection<N> roots) {
+		components.clear();
+		components.addAll(decompose(graph, roots, new HashSet<>(graph.getNodes())));
+		return components;
+	}
+
+	private List<Component<N>> decompose(G graph, Collection<N> roots, Set<N> scope) {
+		List<Set<N>> sccs = new Tarjan(graph, scope).run(roots);
+		// tarjan's algorithm yields the components in reverse topological
+		// order
+		Collections.reverse(sccs);
+
+		List<Component<N>> result = new ArrayList<>(sccs.size());
+		for (Set<N> scc : sccs) {
+			// the first element is the root of the component, that is, the
+			// first one reached by the visit
+			N head = scc.iterator().next();
+			Collection<N> followers = graph.followersOf(head);
+			if (scc.size() == 1 && !followers.contains(head))
+				result.add(new Component<>(head));
+			else {
+				scc.remove(head);
+				List<N> inner = new ArrayList<>(followers.size());
+				for (N follower : followers)
+					if (scc.contains(follower))
+						inner.add(follower);
+				result.add(new Component<>(head, decompose(graph, inner, scc)));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * An iterative implementation of Tarjan's algorithm for the computation of
+	 * strongly connected components, restricted to a subset of the nodes of a
+	 * graph.
+	 */
+	private class Tarjan {
+
+		private final G graph;
+
+		private final Set<N> scope;
+
+		private final Map<N, Integer> index;
+
+		private final Map<N, Integer> lowlink;
+
+		private final Deque<N> stack;
+
+		private final Set<N> onStack;
+
+		private final List<Set<N>> sccs;
+
+		private int next;
+
+		private Tarjan(G graph, Set<N> scope) {
+			this.graph = graph;
+			this.scope = scope;
+			this.index = new IdentityHashMap<>(scope.size());
+			this.lowlink = new IdentityHashMap<>(scope.size());
+			this.stack = new ArrayDeque<>();
+			this.onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+			this.sccs = new ArrayList<>();
+			this.next = 0;
+		}
+
+		private List<Set<N>> run(Collection<N> roots) {
+			for (N root : roots)
+				if (scope.contains(root) && !index.containsKey(root))
+					visit(root);
+			return sccs;
+		}
+
+		private void visit(N root) {
+			// each frame holds a node and the iterator over its followers
+			Deque<N> nodes = new ArrayDeque<>();
+			Deque<Iterator<N>> iterators = new ArrayDeque<>();
+			enter(root, nodes, iterators);
+
+			while (!nodes.isEmpty()) {
+				N current = nodes.peek();
+				Iterator<N> it = iterators.peek();
+				if (it.hasNext()) {
+					N follower = it.next();
+					if (!scope.contains(follower))
+						continue;
+					if (!index.containsKey(follower))
+						enter(follower, nodes, iterators);
+					else if (onStack.contains(follower))
+						lowlink.put(current, Math.min(lowlink.get(current), index.get(follower)));
+					continue;
+				}
+
+				nodes.pop();
+				iterators.pop();
+				if (!nodes.isEmpty()) {
+					N parent = nodes.peek();
+					lowlink.put(parent, Math.min(lowlink.get(parent), lowlink.get(current)));
+				}
+
+				if (lowlink.get(current).equals(index.get(current))) {
+					// current is the root of a component: we pop it last to
+					// keep it as the first element of the set
+					Deque<N> members = new ArrayDeque<>();
+					N member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						members.push(member);
+					} while (member != current);
+					sccs.add(new LinkedHashSet<>(members));
+				}
+			}
+		}
+
+		private void enter(N node, Deque<N> nodes, Deque<Iterator<N>> iterators) {
+			index.put(node, next);
+			lowlink.put(node, next);
+			next++;
+			stack.push(node);
+			onStack.add(node);
+			nodes.push(node);
+			iterators.push(graph.followersOf(node).iterator());
+		}
+	}
+
+	/**
+	 * A component of a weak topological ordering. A component is either a
+	 * single node that is not part of any loop (in which case {@link #isLoop()}
+	 * returns {@code false} and {@link #getBody()} is empty), or a loop,
+	 * identified by its head, whose body is a (possibly empty) list of nested
+	 * components.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of the nodes of the component
+	 */
+	public static final class Component<N> {
+
+		private final N head;
+
+		private final List<Component<N>> body;
+
+		private final boolean loop;
+
+		private Component(N head) {
+			this.head = head;
+			this.body = Collections.emptyList();
+			this.loop = false;
+		}
+
+		private Component(N head, List<Component<N>> body) {
+			this.head = head;
+			this.body = Collections.unmodifiableList(body);
+			this.loop = true;
+		}
+
+		/**
+		 * Yields the head of this component, that is, the only node of this
+		 * component if it is not a loop, or the node where the loop starts
+		 * otherwise.
+		 *
+		 * @return the head of this component
+		 */
+		public N getHead() {
+			return head;
+		}
+
+		/**
+		 * Yields the components that are nested in this one, in the order they
+		 * should be visited, excluding the head. If this component is not a
+		 * loop, the returned list is empty.
+		 *
+		 * @return the body of this component
+		 */
+		public List<Component<N>> getBody() {
+			return body;
+		}
+
+		/**
+		 * Yields whether or not this component is a loop, that is, if
+		 * {@link #getHead()} can be reached again starting from itself.
+		 *
+		 * @return {@code true} if that condition holds
+		 */
+		public boolean isLoop() {
+			return loop;
+		}
+
+		@Override
+		public String toString() {
+			if (!loop)
+				return String.valueOf(head);
+			return "(" + head + (body.isEmpty() ? "" : " " + StringUtils.join(body, " ")) + ")";
+		}
+	}
+}
@@ -107,6 +107,27 @@ public class FileManager {
 		return mkOutputFile(cleanupForDotFile(name) + ".dot", false);
 	}
 
+	/**
+	 * Yields the directory with the given name, creating it and all the missing
+	 * parent directories if needed. If {@code name} is relative, it will be
+	 * joined with the workdir used to initialize this file manager. Files
+	 * created inside the directory are not tracked by this manager, since they
+	 * are not outputs of the analysis (e.g., caches that are shared among
+	 * different executions).
+	 * 
+	 * @param name the name of the directory
+	 * 
+	 * @return the directory
+	 * 
+	 * @throws IOException if the directory cannot be created
+	 */
+	public File mkDirectory(String name) throws IOException {
+		File dir = Paths.get(name).isAbsolute() ? new File(name) : new File(workdir, name);
+		if (!dir.isDirectory() && !dir.mkdirs())
+			throw new IOException("Unable to create directory " + dir);
+		return dir;
+	}
+
 	private static String cleanupForDotFile(String name) {
 		String result = name.replace(' ', '_');
 		result = result.replace("::", ".");
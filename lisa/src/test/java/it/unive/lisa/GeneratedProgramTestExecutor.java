@@ -0,0 +1,140 @@
+package it.unive.lisa;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
+import it.unive.lisa.checks.semantic.SemanticCheck;
+import it.unive.lisa.imp.IMPProgramGenerator;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.nio.file.Paths;
+
+/**
+ * A base class for tests that run the same analysis on a program generated by
+ * an {@link IMPProgramGenerator} under different configurations, inspecting the
+ * results through a {@link SemanticCheck}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public abstract class GeneratedProgramTestExecutor {
+
+	/**
+	 * Generates a program with three classes of four methods each, whose
+	 * contents are determined by the given seed. The program is parsed anew at
+	 * each call, so that each analysis runs on its own cfgs.
+	 *
+	 * @param seed the seed of the generator
+	 *
+	 * @return the generated program
+	 *
+	 * @throws ParsingException if the generated program cannot be parsed
+	 */
+	protected static Program program(long seed) throws ParsingException {
+		return new IMPProgramGenerator().setClasses(3).setMethodsPerClass(4).setLoopDepth(1).setBranchDensity(0.5)
+				.setVariables(2).setCallFanOut(2).setSeed(seed).generateProgram();
+	}
+
+	/**
+	 * Builds a configuration that infers types and then runs an analysis with
+	 * the given heap domain and {@link Interval}s, executing the given check on
+	 * its results.
+	 *
+	 * @param workdir the name of the working directory, inside the test outputs
+	 * @param heap    the heap domain of the analysis
+	 * @param check   the check to execute
+	 *
+	 * @return the configuration
+	 *
+	 * @throws AnalysisSetupException if the abstract state cannot be built
+	 */
+	protected static LiSAConfiguration configuration(String workdir, HeapDomain<?> heap, SemanticCheck check)
+			throws AnalysisSetupException {
+		return new LiSAConfiguration().setInferTypes(true)
+				.setWorkdir(Paths.get(AnalysisTestExecutor.ACTUAL_RESULTS_DIR, workdir).toString())
+				.addSemanticCheck(check).setAbstractState(getDefaultFor(AbstractState.class, heap, new Interval()));
+	}
+
+	/**
+	 * Builds a configuration as
+	 * {@link #configuration(String, HeapDomain, SemanticCheck)} does, using the
+	 * default heap domain.
+	 *
+	 * @param workdir the name of the working directory, inside the test outputs
+	 * @param check   the check to execute
+	 *
+	 * @return the configuration
+	 *
+	 * @throws AnalysisSetupException if the abstract state cannot be built
+	 */
+	protected static LiSAConfiguration configuration(String workdir, SemanticCheck check)
+			throws AnalysisSetupException {
+		return configuration(workdir, getDefaultFor(HeapDomain.class), check);
+	}
+
+	/**
+	 * Runs LiSA on the given program.
+	 *
+	 * @param program       the program to analyze
+	 * @param configuration the configuration of the analysis
+	 *
+	 * @return the instance of LiSA that analyzed the program
+	 *
+	 * @throws AnalysisException if the analysis fails
+	 */
+	protected static LiSA run(Program program, LiSAConfiguration configuration) throws AnalysisException {
+		LiSA lisa = new LiSA(configuration);
+		lisa.run(program);
+		return lisa;
+	}
+
+	/**
+	 * A {@link SemanticCheck} that does nothing, and that visits every element
+	 * of the program. Subclasses override the callbacks they are interested in.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	protected abstract static class VisitingCheck implements SemanticCheck {
+
+		@Override
+		public void beforeExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+		}
+
+		@Override
+		public void afterExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+		}
+
+		@Override
+		public boolean visitCompilationUnit(CheckToolWithAnalysisResults<?, ?, ?> tool, CompilationUnit unit) {
+			return true;
+		}
+
+		@Override
+		public void visitGlobal(CheckToolWithAnalysisResults<?, ?, ?> tool, Unit unit, Global global,
+				boolean instance) {
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Statement node) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package it.unive.lisa.analysis.impl.numeric;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.type.Untyped;
+import org.junit.Test;
+
+public class IntervalTest {
+
+	private static final Interval DOMAIN = new Interval();
+
+	private static Interval singleton(int value) {
+		return DOMAIN.evalNonNullConstant(new Constant(Untyped.INSTANCE, value), null);
+	}
+
+	private static Interval upTo(int high) throws SemanticException {
+		// [high + 1, high + 1] widened with [high, high] yields [-Inf, high]
+		return singleton(high + 1).wideningAux(singleton(high));
+	}
+
+	private static Interval from(int low) throws SemanticException {
+		// [low - 1, low - 1] widened with [low, low] yields [low, +Inf]
+		return singleton(low - 1).wideningAux(singleton(low));
+	}
+
+	@Test
+	public void testGlbOfHalfUnboundedIntervals() throws SemanticException {
+		assertEquals("[-Inf, 5]", upTo(5).representation());
+		assertEquals("[0, +Inf]", from(0).representation());
+
+		// both bounds unbounded on the same side used to unbox a null bound
+		assertEquals("[-Inf, 3]", upTo(5).glbAux(upTo(3)).representation());
+		assertEquals("[-Inf, 3]", upTo(3).glbAux(upTo(5)).representation());
+		assertEquals("[2, +Inf]", from(0).glbAux(from(2)).representation());
+		assertEquals("[2, +Inf]", from(2).glbAux(from(0)).representation());
+
+		assertEquals("[0, 5]", from(0).glbAux(upTo(5)).representation());
+		assertEquals("[0, 5]", upTo(5).glbAux(from(0)).representation());
+		assertEquals("[1, 3]", singleton(1).lubAux(singleton(4)).glbAux(upTo(3)).representation());
+	}
+}
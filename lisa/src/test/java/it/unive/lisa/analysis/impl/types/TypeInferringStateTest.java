@@ -0,0 +1,128 @@
+package it.unive.lisa.analysis.impl.types;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.GeneratedProgramTestExecutor;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.callgraph.CallResolutionException;
+import it.unive.lisa.callgraph.impl.interproc.InterproceduralCallGraph;
+import it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph;
+import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Call;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public class TypeInferringStateTest extends GeneratedProgramTestExecutor {
+
+	private static final long SEED = 11;
+
+	private static final String DYNAMIC_RECEIVER = "class C { g() { return 7; } } "
+			+ "class A { g() { return 5; } f() { def o = this; def r = o.g(); return r; } }";
+
+	@Test
+	public void testIntraprocedural() throws ParsingException, AnalysisSetupException, AnalysisException {
+		compare(IntraproceduralCallGraph::new);
+	}
+
+	@Test
+	public void testInterprocedural() throws ParsingException, AnalysisSetupException, AnalysisException {
+		compare(InterproceduralCallGraph::new);
+	}
+
+	@Test
+	public void testReceiverNotThis() throws ParsingException, AnalysisSetupException, AnalysisException {
+		// the receiver of o.g() has no types before the analysis: only the
+		// ones inferred while the analysis runs restrict it to A.g
+		StateKind twoPhases = new StateKind(false);
+		Map<String, String> expected = run(IMPFrontend.processText(DYNAMIC_RECEIVER), new InterproceduralCallGraph(),
+				new PointBasedHeap(), twoPhases);
+		StateKind fused = new StateKind(true);
+		Collection<String> targets = new TreeSet<>();
+		Map<String, String> actual = run(IMPFrontend.processText(DYNAMIC_RECEIVER), new InterproceduralCallGraph() {
+			@Override
+			public Call resolve(UnresolvedCall call, ExternalSet<Type>[] types) throws CallResolutionException {
+				Call resolved = super.resolve(call, types);
+				for (CFG target : ((CFGCall) resolved).getTargets())
+					targets.add(target.getDescriptor().getFullSignature());
+				return resolved;
+			}
+		}, new PointBasedHeap(), fused);
+		assertEquals("Fusing type inference with the analysis changed the runtime types", expected, actual);
+		assertEquals("Fusing type inference with the analysis changed the results", twoPhases.values, fused.values);
+		assertEquals(Collections.singleton("untyped A::g(A)"), targets);
+	}
+
+	private static void compare(Supplier<CallGraph> callGraph)
+			throws ParsingException, AnalysisSetupException, AnalysisException {
+		HeapDomain<?> heap = getDefaultFor(HeapDomain.class);
+		StateKind twoPhases = new StateKind(false);
+		Map<String, String> expected = run(program(SEED), callGraph.get(), heap, twoPhases);
+		StateKind fused = new StateKind(true);
+		Map<String, String> actual = run(program(SEED), callGraph.get(), heap, fused);
+		assertFalse(expected.isEmpty());
+		assertEquals("Fusing type inference with the analysis changed the runtime types", expected, actual);
+		assertFalse(twoPhases.values.isEmpty());
+		assertEquals("Fusing type inference with the analysis changed the results", twoPhases.values, fused.values);
+	}
+
+	private static Map<String, String> run(Program program, CallGraph callGraph, HeapDomain<?> heap,
+			StateKind check) throws AnalysisSetupException, AnalysisException {
+		run(program, configuration("fused-types", heap, check).setFuseTypeInference(check.fused)
+				.setCallGraph(callGraph));
+
+		Map<String, String> types = new TreeMap<>();
+		for (CFG cfg : program.getAllCFGs())
+			for (Statement st : cfg.getNodes())
+				if (st instanceof Expression)
+					types.put(cfg.getDescriptor().getFullSignature() + ":" + st.getLocation() + ":" + st,
+							((Expression) st).getRuntimeTypes().toString());
+		return types;
+	}
+
+	private static class StateKind extends VisitingCheck {
+
+		private final boolean fused;
+
+		private final Map<String, String> values = new TreeMap<>();
+
+		private StateKind(boolean fused) {
+			this.fused = fused;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Statement node) {
+			AbstractState<?, ?, ?> state = tool.getResultOf(graph).getAnalysisStateAt(node).getState();
+			assertEquals(fused, state instanceof TypeInferringState);
+			// checks still reach the value domain of the analysis
+			assertTrue(state.getValueState() instanceof ValueEnvironment);
+			values.put(graph.getDescriptor().getFullSignature() + ":" + node.getLocation() + ":" + node,
+					// the offsets of calls are not stable across parsings
+					state.representation().replaceAll("call_ret_value@\\d+", "call_ret_value"));
+			return true;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package it.unive.lisa.analysis.profiling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.LiSAFactory;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.profiling.DomainProfiler.Operation;
+import it.unive.lisa.analysis.profiling.DomainProfiler.OperationStatistics;
+import it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class ProfilingDomainsTest {
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void testProfiledFixpoint() throws ParsingException, AnalysisSetupException, FixpointException {
+		Program p = IMPFrontend.processText("class prof { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		Statement ret = cfg.getNodes().stream().filter(st -> st instanceof Return).findFirst().get();
+
+		AbstractState plain = LiSAFactory.getDefaultFor(AbstractState.class, new MonolithicHeap(), new Interval());
+		DomainProfiler profiler = new DomainProfiler();
+		AbstractState profiled = profiler.decorate(plain);
+
+		CFGWithAnalysisResults<?, ?, ?> expected = cfg.fixpoint(
+				new AnalysisState((AbstractState) plain.top(), new ExpressionSet<>()),
+				new IntraproceduralCallGraph());
+		assertTrue("Operations of plain domains have been profiled", profiler.isEmpty());
+
+		CFGWithAnalysisResults<?, ?, ?> actual = cfg.fixpoint(
+				new AnalysisState((AbstractState) profiled.top(), new ExpressionSet<>()),
+				new IntraproceduralCallGraph());
+		assertFalse("No operation has been profiled", profiler.isEmpty());
+		assertEquals("Profiling changed the results of the analysis",
+				expected.getAnalysisStateAt(ret).toString(), actual.getAnalysisStateAt(ret).toString());
+		assertEquals("Profiling changed the size of the states",
+				FixpointStatistics.sizeOf(expected.getAnalysisStateAt(ret)),
+				FixpointStatistics.sizeOf(actual.getAnalysisStateAt(ret)));
+
+		Map<Operation, OperationStatistics> state = profiler.of(SimpleAbstractState.class);
+		Map<Operation, OperationStatistics> heap = profiler.of(MonolithicHeap.class);
+		Map<Operation, OperationStatistics> value = profiler.of(ValueEnvironment.class);
+		for (Operation op : new Operation[] { Operation.ASSIGN, Operation.LUB, Operation.WIDENING,
+				Operation.LESS_OR_EQUAL }) {
+			assertTrue("No " + op + " recorded on the state", state.containsKey(op));
+			assertTrue("No " + op + " recorded on the value domain", value.containsKey(op));
+		}
+		assertTrue("No smallStepSemantics recorded on the heap domain",
+				heap.containsKey(Operation.SMALL_STEP_SEMANTICS));
+		assertEquals("Inner operations are not counted separately", state.get(Operation.LUB).getCount(),
+				value.get(Operation.LUB).getCount());
+		assertFalse(profiler.histogram().isEmpty());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void testProfiledNarrowing() throws ParsingException, AnalysisSetupException, FixpointException {
+		Program p = IMPFrontend.processText("class prof { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+
+		AbstractState plain = LiSAFactory.getDefaultFor(AbstractState.class, new MonolithicHeap(), new Interval());
+		DomainProfiler profiler = new DomainProfiler();
+		AbstractState profiled = profiler.decorate(plain);
+
+		cfg.fixpoint(new AnalysisState((AbstractState) profiled.top(), new ExpressionSet<>()),
+				new IntraproceduralCallGraph(), new FixpointConfiguration());
+		assertFalse("Narrowing recorded without descending iterations",
+				profiler.of(SimpleAbstractState.class).containsKey(Operation.NARROWING));
+
+		cfg.fixpoint(new AnalysisState((AbstractState) profiled.top(), new ExpressionSet<>()),
+				new IntraproceduralCallGraph(),
+				new FixpointConfiguration(new LiSAConfiguration().setDescendingRounds(2)));
+		assertTrue("No narrowing recorded on the state",
+				profiler.of(SimpleAbstractState.class).containsKey(Operation.NARROWING));
+		assertTrue("No narrowing recorded on the value domain",
+				profiler.of(ValueEnvironment.class).containsKey(Operation.NARROWING));
+	}
+
+	@Test
+	public void testProfilingSwitch() throws ParsingException, AnalysisException, IOException {
+		Program p = IMPFrontend.processText("class prof { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		File workdir = new File("test-outputs/profiling");
+		LiSAConfiguration conf = new LiSAConfiguration().setWorkdir(workdir.getPath()).setProfileDomains(true)
+				.setAbstractState(LiSAFactory.getDefaultFor(AbstractState.class, new MonolithicHeap(), new Interval()))
+				.setCallGraph(new IntraproceduralCallGraph());
+		new LiSA(conf).run(p);
+
+		File profile = new File(workdir, "domain-profile.json");
+		assertTrue("The profile has not been dumped", profile.exists());
+		String content = FileUtils.readFileToString(profile, StandardCharsets.UTF_8);
+		assertTrue(content.contains(SimpleAbstractState.class.getName()));
+		assertTrue(content.contains(MonolithicHeap.class.getName()));
+		assertTrue(content.contains(ValueEnvironment.class.getName()));
+	}
+}
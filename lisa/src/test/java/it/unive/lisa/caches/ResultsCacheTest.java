@@ -0,0 +1,340 @@
+package it.unive.lisa.caches;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.combination.ValueCartesianProduct;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.heap.TypeBasedHeap;
+import it.unive.lisa.analysis.impl.heap.pointbased.FieldSensitivePointBasedHeap;
+import it.unive.lisa.analysis.impl.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.impl.numeric.IntegerConstantPropagation;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.impl.numeric.Parity;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph;
+import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
+import it.unive.lisa.checks.semantic.SemanticCheck;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.IMPProgramGenerator;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.util.datastructures.graph.FixpointGraph;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultsCacheTest {
+
+	private static final File ROOT = new File("test-outputs/results-cache/cache");
+
+	private static final String PROGRAM = "class cache {"
+			+ " f(x) { def y = x + 1; return y; }"
+			+ " g(x) { while (x > 0) x = x - 1; return x; }"
+			+ " h() { return 2; }"
+			+ " }";
+
+	@Before
+	public void cleanup() throws IOException {
+		deleteCache();
+	}
+
+	private static void deleteCache() throws IOException {
+		if (ROOT.exists())
+			FileUtils.forceDelete(ROOT);
+	}
+
+	private static CFG cfg(Program program, String name) {
+		return program.getAllCFGs().stream().filter(c -> c.getDescriptor().getName().equals(name)).findFirst().get();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static AnalysisState<?, ?, ?> entry(ValueDomain<?> value) throws AnalysisSetupException {
+		AbstractState<?, ?, ?> state = getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), value);
+		return new AnalysisState(state.top(), new Skip());
+	}
+
+	private static AnalysisState<?, ?, ?> entry() throws AnalysisSetupException {
+		return entry(new ValueEnvironment<>(new Interval()));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static CFGWithAnalysisResults<?, ?, ?> results(CFG cfg, AnalysisState<?, ?, ?> state) {
+		Map results = new HashMap<>();
+		for (Statement st : cfg.getNodes())
+			results.put(st, state);
+		return new CFGWithAnalysisResults(cfg, results);
+	}
+
+	private static void store(ResultsCache cache, CFG cfg, AnalysisState<?, ?, ?> entry, String conf) {
+		cache.store(cache.key(cfg, entry, conf), results(cfg, entry));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static CFGWithAnalysisResults<?, ?, ?> load(ResultsCache cache, CFG cfg, AnalysisState<?, ?, ?> entry,
+			String conf) {
+		return cache.load(cache.key(cfg, entry, conf), (AnalysisState) entry);
+	}
+
+	@Test
+	public void testChangedCFG() throws ParsingException, AnalysisSetupException, IOException {
+		StateCodec codec = new BinaryStateCodec();
+		AnalysisState<?, ?, ?> entry = entry();
+		Program program = IMPFrontend.processText(PROGRAM);
+		ResultsCache cache = new ResultsCache(ROOT, Long.MAX_VALUE, codec);
+		for (CFG cfg : program.getAllCFGs())
+			store(cache, cfg, entry, "conf");
+
+		Program changed = IMPFrontend.processText(PROGRAM.replace("x - 1", "x - 2"));
+		cache = new ResultsCache(ROOT, Long.MAX_VALUE, codec);
+		CFGWithAnalysisResults<?, ?, ?> loaded = load(cache, cfg(changed, "f"), entry, "conf");
+		assertNotNull(loaded);
+		for (Statement st : cfg(changed, "f").getNodes())
+			assertEquals(entry, loaded.getAnalysisStateAt(st));
+		assertNull(load(cache, cfg(changed, "g"), entry, "conf"));
+		assertNotNull(load(cache, cfg(changed, "h"), entry, "conf"));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		// different configurations and entry states are different entries
+		assertNull(load(cache, cfg(changed, "f"), entry, "other"));
+		assertNull(load(cache, cfg(changed, "f"), entry.top().bottom(), "conf"));
+	}
+
+	@Test
+	public void testDomainsInKey() throws ParsingException, AnalysisSetupException, IOException {
+		ResultsCache cache = new ResultsCache(ROOT, Long.MAX_VALUE, new BinaryStateCodec());
+		CFG cfg = cfg(IMPFrontend.processText(PROGRAM), "f");
+		AnalysisState<?, ?, ?> intervals = entry();
+		AnalysisState<?, ?, ?> signs = entry(new ValueEnvironment<>(new Sign()));
+		// both entry states are represented as top environments
+		assertEquals(intervals.toString(), signs.toString());
+		assertNotEquals(cache.key(cfg, intervals, "conf").toString(), cache.key(cfg, signs, "conf").toString());
+
+		store(cache, cfg, intervals, "conf");
+		assertNull(load(cache, cfg, signs, "conf"));
+		assertNotNull(load(cache, cfg, intervals, "conf"));
+	}
+
+	@Test
+	public void testEviction() throws ParsingException, AnalysisSetupException, IOException {
+		StateCodec codec = new BinaryStateCodec();
+		AnalysisState<?, ?, ?> entry = entry();
+		Program program = IMPFrontend.processText(PROGRAM);
+		ResultsCache cache = new ResultsCache(ROOT, Long.MAX_VALUE, codec);
+		store(cache, cfg(program, "f"), entry, "conf");
+		for (File file : cache.getDirectory().listFiles())
+			file.setLastModified(System.currentTimeMillis() - 60000);
+		store(cache, cfg(program, "g"), entry, "conf");
+		store(cache, cfg(program, "h"), entry, "conf");
+
+		long size = 0;
+		for (File file : cache.getDirectory().listFiles())
+			size += file.length();
+
+		// only the least recently used entry has to be evicted
+		cache = new ResultsCache(ROOT, size - 1, codec);
+		assertEquals(2, cache.getDirectory().listFiles().length);
+		assertNull(load(cache, cfg(program, "f"), entry, "conf"));
+		assertNotNull(load(cache, cfg(program, "g"), entry, "conf"));
+		assertNotNull(load(cache, cfg(program, "h"), entry, "conf"));
+	}
+
+	@Test
+	public void testVersionsAndCorruptedEntries() throws ParsingException, AnalysisSetupException, IOException {
+		File old = new File(ROOT, "v0");
+		assertTrue(old.mkdirs());
+		FileUtils.touch(new File(old, "entry.bin"));
+
+		StateCodec codec = new BinaryStateCodec();
+		AnalysisState<?, ?, ?> entry = entry();
+		Program program = IMPFrontend.processText(PROGRAM);
+		ResultsCache cache = new ResultsCache(ROOT, Long.MAX_VALUE, codec);
+		assertFalse(old.exists());
+		assertEquals("v" + ResultsCache.VERSION, cache.getDirectory().getName());
+
+		store(cache, cfg(program, "f"), entry, "conf");
+		File[] files = cache.getDirectory().listFiles();
+		assertEquals(1, files.length);
+		try (OutputStream out = new FileOutputStream(files[0])) {
+			out.write(new byte[] { 1, 2, 3 });
+		}
+		assertNull(load(cache, cfg(program, "f"), entry, "conf"));
+		assertFalse(files[0].exists());
+	}
+
+	@Test
+	public void testReuse() throws ParsingException, AnalysisSetupException, AnalysisException, IOException {
+		reuse(new MonolithicHeap(), new ValueEnvironment<>(new Interval()), false);
+		reuse(new TypeBasedHeap(), new ValueEnvironment<>(new IntegerConstantPropagation()), false);
+		reuse(new PointBasedHeap(), new ValueEnvironment<>(new Sign()), false);
+		reuse(new FieldSensitivePointBasedHeap(), new ValueCartesianProduct<>(
+				new ValueEnvironment<>(new Parity()), new ValueEnvironment<>(new Interval())), false);
+	}
+
+	@Test
+	public void testReuseWithFusedTypeInference()
+			throws ParsingException, AnalysisSetupException, AnalysisException, IOException {
+		reuse(new MonolithicHeap(), new ValueEnvironment<>(new Interval()), true);
+		reuse(new PointBasedHeap(), new ValueEnvironment<>(new Sign()), true);
+	}
+
+	private static void reuse(HeapDomain<?> heap, ValueDomain<?> value, boolean fused)
+			throws ParsingException, AnalysisSetupException, AnalysisException, IOException {
+		Map<String, Set<String>> expected = run(heap, value, fused, null);
+		deleteCache();
+
+		CountingCodec first = new CountingCodec();
+		assertEquals(expected, run(heap, value, fused, first));
+		assertEquals(0, first.decoded);
+		File directory = new File(ROOT, "v" + ResultsCache.VERSION);
+		int entries = directory.listFiles().length;
+		assertTrue(entries > 0);
+		assertTrue(first.encoded > entries);
+
+		// a fresh execution reads the results from disk, without analyzing
+		// unchanged cfgs again: the only encoded states are the entry states,
+		// used to build the keys of the entries
+		CountingCodec second = new CountingCodec();
+		assertEquals(expected, run(heap, value, fused, second));
+		assertEquals(entries, second.encoded);
+		assertTrue(second.decoded > 0);
+		assertEquals(entries, directory.listFiles().length);
+	}
+
+	@Test
+	public void testWideningThresholdInKey() throws ParsingException, AnalysisSetupException, AnalysisException {
+		HeapDomain<?> heap = new MonolithicHeap();
+		ValueDomain<?> value = new ValueEnvironment<>(new Interval());
+		run(heap, value, false, new CountingCodec());
+
+		CountingCodec other = new CountingCodec();
+		run(heap, value, false, other, FixpointGraph.DEFAULT_WIDENING_THRESHOLD + 1);
+		assertEquals(0, other.decoded);
+	}
+
+	private static Map<String, Set<String>> run(HeapDomain<?> heap, ValueDomain<?> value,
+			boolean fused, StateCodec codec) throws ParsingException, AnalysisSetupException, AnalysisException {
+		return run(heap, value, fused, codec, FixpointGraph.DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	private static Map<String, Set<String>> run(HeapDomain<?> heap, ValueDomain<?> value,
+			boolean fused, StateCodec codec, int wideningThreshold)
+			throws ParsingException, AnalysisSetupException, AnalysisException {
+		Program program = new IMPProgramGenerator().setClasses(2).setMethodsPerClass(4).setLoopDepth(1)
+				.setBranchDensity(0.5).setVariables(2).setCallFanOut(2).setSeed(5).generateProgram();
+		AllStates check = new AllStates();
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true).setFuseTypeInference(fused)
+				.setCallGraph(new IntraproceduralCallGraph()).setWorkdir("test-outputs/results-cache")
+				.setResultsCache(codec == null ? null : "cache").setStateCodec(codec).addSemanticCheck(check)
+				.setWideningThreshold(wideningThreshold)
+				.setAbstractState(getDefaultFor(AbstractState.class, heap, value));
+		new LiSA(conf).run(program);
+		assertFalse(check.states.isEmpty());
+		return check.states;
+	}
+
+	/**
+	 * A {@link BinaryStateCodec} counting the states it encodes and decodes.
+	 */
+	private static class CountingCodec extends BinaryStateCodec {
+
+		private int encoded, decoded;
+
+		@Override
+		public void encode(AnalysisState<?, ?, ?> state, DataOutput out) throws IOException {
+			super.encode(state, out);
+			encoded++;
+		}
+
+		@Override
+		public <A extends AbstractState<A, H, V>,
+				H extends HeapDomain<H>,
+				V extends ValueDomain<V>> AnalysisState<A, H, V> decode(AnalysisState<A, H, V> entryState,
+						DataInput in) throws IOException {
+			decoded++;
+			return super.decode(entryState, in);
+		}
+	}
+
+	/**
+	 * A check collecting the representations of the states computed for each
+	 * statement, indexed by the signature of their cfg and by the location and
+	 * the textual representation of the statement.
+	 */
+	private static class AllStates implements SemanticCheck {
+
+		private final Map<String, Set<String>> states = new TreeMap<>();
+
+		@Override
+		public void beforeExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+		}
+
+		@Override
+		public void afterExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+		}
+
+		@Override
+		public boolean visitCompilationUnit(CheckToolWithAnalysisResults<?, ?, ?> tool, CompilationUnit unit) {
+			return true;
+		}
+
+		@Override
+		public void visitGlobal(CheckToolWithAnalysisResults<?, ?, ?> tool, Unit unit, Global global,
+				boolean instance) {
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Statement node) {
+			// the offsets of calls are not stable across parsings
+			String state = tool.getResultOf(graph).getAnalysisStateAt(node).toString()
+					.replaceAll("call_ret_value@\\d+", "call_ret_value");
+			states.computeIfAbsent(graph.getDescriptor().getFullSignatureWithParNames() + "@" + node.getLocation()
+					+ ": " + node, k -> new TreeSet<>()).add(state);
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package it.unive.lisa.callgraph;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.callgraph.impl.interproc.BottomUpCallGraph;
+import it.unive.lisa.callgraph.impl.interproc.InterproceduralCallGraph;
+import it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph;
+import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
+import it.unive.lisa.checks.semantic.SemanticCheck;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ReachabilityTest {
+
+	private static final String PROGRAM = "class reach {"
+			+ " inc(x) { return x + 1; }"
+			+ " twice(x) { def y = this.inc(x); return this.inc(y); }"
+			+ " main() { def a = this.twice(1); return a; }"
+			+ " dead() { return this.unused(1); }"
+			+ " unused(x) { return x; }"
+			+ " rec(x) { def y = x - 1; return this.rec(y); }"
+			+ " }";
+
+	private static Program mkProgram(String... entryPoints) throws ParsingException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		for (String name : entryPoints)
+			program.addEntryPoint(cfg(program, name));
+		return program;
+	}
+
+	private static void prepare(Program program) throws ProgramValidationException {
+		// the types cache is filled as done by LiSA, to resolve calls on the
+		// types of this program
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		program.getRegisteredTypes().forEach(types::add);
+		program.validateAndFinalize();
+	}
+
+	private static CFG cfg(Program program, String name) {
+		return program.getAllCFGs().stream().filter(c -> c.getDescriptor().getName().equals(name)).findFirst().get();
+	}
+
+	private static Set<String> names(Collection<CFG> cfgs) {
+		return cfgs.stream().map(c -> c.getDescriptor().getName()).collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	private static Set<String> set(String... names) {
+		Set<String> result = new TreeSet<>();
+		for (String name : names)
+			result.add(name);
+		return result;
+	}
+
+	@Test
+	public void testReachableCFGs() throws ParsingException, ProgramValidationException,
+			CallGraphConstructionException {
+		Program program = mkProgram("main");
+		prepare(program);
+		CallGraph callGraph = new IntraproceduralCallGraph();
+		callGraph.build(program);
+		assertEquals(set("main", "twice", "inc"), names(callGraph.getReachableCFGs()));
+
+		program.addEntryPoint(cfg(program, "rec"));
+		assertEquals(set("main", "twice", "inc", "rec"), names(callGraph.getReachableCFGs()));
+	}
+
+	@Test
+	public void testNoEntryPoints() throws ParsingException, ProgramValidationException,
+			CallGraphConstructionException {
+		Program program = mkProgram();
+		prepare(program);
+		CallGraph callGraph = new IntraproceduralCallGraph();
+		callGraph.build(program);
+		assertEquals(program.getAllCFGs().size(), callGraph.getReachableCFGs().size());
+	}
+
+	@Test(expected = ProgramValidationException.class)
+	public void testForeignEntryPoint() throws ParsingException, ProgramValidationException {
+		Program program = mkProgram();
+		program.addEntryPoint(cfg(mkProgram(), "main"));
+		program.validateAndFinalize();
+	}
+
+	@Test
+	public void testIntraproceduralAnalysis() throws ParsingException, AnalysisSetupException, AnalysisException {
+		run(new IntraproceduralCallGraph(), 1);
+	}
+
+	@Test
+	public void testInterproceduralAnalysis() throws ParsingException, AnalysisSetupException, AnalysisException {
+		run(new InterproceduralCallGraph(), 1);
+	}
+
+	@Test
+	public void testBottomUpAnalysis() throws ParsingException, AnalysisSetupException, AnalysisException {
+		run(new BottomUpCallGraph(), 1);
+		run(new BottomUpCallGraph(), 4);
+	}
+
+	private static void run(CallGraph callGraph, int parallelism)
+			throws ParsingException, AnalysisSetupException, AnalysisException {
+		Program program = mkProgram("main");
+		VisitedCFGs check = new VisitedCFGs();
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true).setCallGraph(callGraph)
+				.setParallelism(parallelism).setWorkdir("test-outputs/reachability").addSemanticCheck(check)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		new LiSA(conf).run(program);
+
+		assertEquals(set("main", "twice", "inc"), check.visited);
+		assertNotNull(callGraph.getAnalysisResultsOf(cfg(program, "main")));
+		assertFalse(program.getEntryPoints().isEmpty());
+		for (String name : new String[] { "dead", "unused", "rec" })
+			assertTrue(name + " has been analyzed", callGraph.getAnalysisResultsOf(cfg(program, name)) == null);
+	}
+
+	private static class VisitedCFGs implements SemanticCheck {
+
+		private final Set<String> visited = new ConcurrentSkipListSet<>();
+
+		@Override
+		public void beforeExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+		}
+
+		@Override
+		public void afterExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+		}
+
+		@Override
+		public boolean visitCompilationUnit(CheckToolWithAnalysisResults<?, ?, ?> tool, CompilationUnit unit) {
+			return true;
+		}
+
+		@Override
+		public void visitGlobal(CheckToolWithAnalysisResults<?, ?, ?> tool, Unit unit, Global global,
+				boolean instance) {
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph) {
+			assertNotNull(tool.getResultOf(graph));
+			visited.add(graph.getDescriptor().getName());
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Statement node) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
@@ -1,18 +1,26 @@
 package it.unive.lisa.checks;
 
+import static org.junit.Assert.assertEquals;
+
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.checks.syntactic.CheckTool;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
+import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 
 public class ChecksExecutorTest extends AnalysisTestExecutor {
@@ -59,4 +67,72 @@ public class ChecksExecutorTest extends AnalysisTestExecutor {
 		LiSAConfiguration conf = new LiSAConfiguration().addSyntacticCheck(new VariableI());
 		perform("syntactic", "expressions.imp", conf);
 	}
+
+	@Test
+	public void testParallelSyntacticChecks() throws IOException, ParsingException {
+		LiSAConfiguration conf = new LiSAConfiguration().addSyntacticCheck(new VariableI()).setParallelChecks(true)
+				.setParallelism(4);
+		perform("syntactic", "expressions.imp", conf);
+	}
+
+	private static class Recorder implements SyntacticCheck {
+
+		private final int limit;
+
+		private final List<String> visited = new ArrayList<>();
+
+		private Recorder(int limit) {
+			this.limit = limit;
+		}
+
+		private boolean record(Object element) {
+			visited.add(String.valueOf(element));
+			return visited.size() < limit;
+		}
+
+		@Override
+		public void beforeExecution(CheckTool tool) {
+		}
+
+		@Override
+		public void afterExecution(CheckTool tool) {
+		}
+
+		@Override
+		public boolean visit(CheckTool tool, CFG graph, Statement node) {
+			return record(node);
+		}
+
+		@Override
+		public boolean visit(CheckTool tool, CFG g) {
+			return record(g);
+		}
+
+		@Override
+		public boolean visit(CheckTool tool, CFG graph, Edge edge) {
+			return record(edge);
+		}
+
+		@Override
+		public boolean visitCompilationUnit(CheckTool tool, CompilationUnit unit) {
+			return true;
+		}
+
+		@Override
+		public void visitGlobal(CheckTool tool, Unit unit, Global global, boolean instance) {
+		}
+	}
+
+	@Test
+	public void testFusedTraversal() throws ParsingException {
+		Program program = IMPFrontend.processFile("imp-testcases/syntactic/expressions.imp");
+		List<Recorder> fused = Arrays.asList(new Recorder(3), new Recorder(Integer.MAX_VALUE), new Recorder(10));
+		ChecksExecutor.executeAll(new CheckTool(), program, fused);
+
+		for (Recorder check : fused) {
+			Recorder alone = new Recorder(check.limit);
+			ChecksExecutor.executeAll(new CheckTool(), program, Collections.singleton(alone));
+			assertEquals("Fusing the traversals changed the visited elements", alone.visited, check.visited);
+		}
+	}
 }
@@ -0,0 +1,160 @@
+package it.unive.lisa.checks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.GeneratedProgramTestExecutor;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.callgraph.CallGraph;
+import it.unive.lisa.callgraph.impl.interproc.BottomUpCallGraph;
+import it.unive.lisa.callgraph.impl.intraproc.IntraproceduralCallGraph;
+import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
+import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public class StreamingChecksTest extends GeneratedProgramTestExecutor {
+
+	private static final long SEED = 7;
+
+	@Test
+	public void testIntraprocedural() throws ParsingException, AnalysisSetupException, AnalysisException {
+		compare(IntraproceduralCallGraph::new, 1);
+		compare(IntraproceduralCallGraph::new, 4);
+	}
+
+	@Test
+	public void testBottomUp() throws ParsingException, AnalysisSetupException, AnalysisException {
+		compare(BottomUpCallGraph::new, 1);
+		compare(BottomUpCallGraph::new, 4);
+	}
+
+	@Test
+	public void testSkippedUnits() throws ParsingException, AnalysisSetupException, AnalysisException {
+		for (boolean streaming : new boolean[] { false, true }) {
+			Program program = program(SEED);
+			CompilationUnit skipped = program.getUnits().iterator().next();
+			SkipUnit check = new SkipUnit(skipped);
+			run(program, configuration("streaming", check).setStreamingChecks(streaming));
+
+			assertEquals(program.getUnits().size(), check.units);
+			assertFalse(check.visited.isEmpty());
+			for (CFG cfg : check.visited)
+				assertNotSame("The cfgs of a unit that the check does not visit have been visited: " + cfg, skipped,
+						cfg.getDescriptor().getUnit());
+		}
+	}
+
+	private static void compare(Supplier<CallGraph> callGraph, int parallelism)
+			throws ParsingException, AnalysisSetupException, AnalysisException {
+		Set<Warning> expected = run(callGraph.get(), parallelism, false);
+		Set<Warning> actual = run(callGraph.get(), parallelism, true);
+		assertFalse(expected.isEmpty());
+		assertEquals("Streaming the results to the checks changed the warnings", expected, actual);
+	}
+
+	private static Set<Warning> run(CallGraph callGraph, int parallelism, boolean streaming)
+			throws ParsingException, AnalysisSetupException, AnalysisException {
+		Program program = program(SEED);
+		ReturnStates check = new ReturnStates();
+		LiSA lisa = run(program, configuration("streaming", check).setCallGraph(callGraph).setParallelism(parallelism)
+				.setStreamingChecks(streaming));
+
+		assertTrue(check.started);
+		assertTrue(check.completed);
+		assertEquals(program.getUnits().size(), check.units);
+		for (CFG cfg : program.getAllCFGs())
+			if (streaming)
+				assertNull("Results of " + cfg + " have not been released", callGraph.getAnalysisResultsOf(cfg));
+			else
+				assertNotNull(callGraph.getAnalysisResultsOf(cfg));
+		return new TreeSet<>(lisa.getWarnings());
+	}
+
+	private static class SkipUnit extends VisitingCheck {
+
+		private final CompilationUnit skipped;
+
+		private final Collection<CFG> visited = new ArrayList<>();
+
+		private int units;
+
+		private SkipUnit(CompilationUnit skipped) {
+			this.skipped = skipped;
+		}
+
+		@Override
+		public boolean visitCompilationUnit(CheckToolWithAnalysisResults<?, ?, ?> tool, CompilationUnit unit) {
+			units++;
+			return unit != skipped;
+		}
+
+		@Override
+		public void visitGlobal(CheckToolWithAnalysisResults<?, ?, ?> tool, Unit unit, Global global,
+				boolean instance) {
+			assertNotSame(skipped, unit);
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph) {
+			visited.add(graph);
+			return false;
+		}
+	}
+
+	private static class ReturnStates extends VisitingCheck {
+
+		private boolean started, completed;
+
+		private int units;
+
+		@Override
+		public void beforeExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+			assertFalse(started);
+			started = true;
+		}
+
+		@Override
+		public void afterExecution(CheckToolWithAnalysisResults<?, ?, ?> tool) {
+			assertFalse(completed);
+			completed = true;
+		}
+
+		@Override
+		public boolean visitCompilationUnit(CheckToolWithAnalysisResults<?, ?, ?> tool, CompilationUnit unit) {
+			units++;
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph) {
+			assertTrue(started);
+			assertFalse(completed);
+			return true;
+		}
+
+		@Override
+		public boolean visit(CheckToolWithAnalysisResults<?, ?, ?> tool, CFG graph, Statement node) {
+			if (graph.getNormalExitpoints().contains(node))
+				tool.warnOn(node, tool.getResultOf(graph).getAnalysisStateAt(node).toString());
+			return true;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package it.unive.lisa.cron.interproc;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.AnalysisTestExecutor;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.callgraph.impl.interproc.BottomUpCallGraph;
+import org.junit.Test;
+
+public class BottomUpAnalysisTest extends AnalysisTestExecutor {
+
+	@Test
+	public void testInterval() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true).setInferTypes(true)
+				.setCallGraph(new BottomUpCallGraph())
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interproc-bottom-up", "program.imp", conf);
+	}
+
+	@Test
+	public void testIntervalParallel() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true).setInferTypes(true).setParallelism(4)
+				.setCallGraph(new BottomUpCallGraph())
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interproc-bottom-up", "program.imp", conf);
+	}
+}
@@ -0,0 +1,35 @@
+package it.unive.lisa.cron.interproc;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.AnalysisTestExecutor;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.callgraph.impl.interproc.InterproceduralCallGraph;
+import org.junit.Test;
+
+public class InterproceduralAnalysisTest extends AnalysisTestExecutor {
+
+	@Test
+	public void testInterval() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true).setInferTypes(true)
+				.setCallGraph(new InterproceduralCallGraph())
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interproc", "program.imp", conf);
+	}
+
+	@Test
+	public void testIntervalWithEvictions() throws AnalysisSetupException {
+		// evicted summaries are recomputed, leading to the same results
+		InterproceduralCallGraph callGraph = new InterproceduralCallGraph(1);
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true).setInferTypes(true)
+				.setCallGraph(callGraph)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interproc", "program.imp", conf);
+		assertTrue(callGraph.getEvictions() > 0);
+	}
+}
@@ -36,6 +36,13 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 		perform("interval", "program.imp", conf);
 	}
 
+	@Test
+	public void testIntervalParallel() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true).setParallelism(4)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interval", "program.imp", conf);
+	}
+
 	@Test
 	public void testIntegerConstantPropagation() throws AnalysisSetupException {
 		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
@@ -0,0 +1,251 @@
+package it.unive.lisa.imp;
+
+import it.unive.lisa.program.Program;
+import java.util.Random;
+
+/**
+ * A generator of synthetic IMP programs, whose size and shape are controlled by
+ * a set of parameters. Generated programs are made of classes with the same
+ * number of fields and methods, where each method:
+ * <ul>
+ * <li>declares a fixed number of local variables;</li>
+ * <li>contains a block of assignments, where each assignment is replaced by a
+ * conditional with the given probability, followed by loops nested up to the
+ * given depth, each containing a block of the same kind;</li>
+ * <li>allocates an object of its own class and writes its fields;</li>
+ * <li>calls a fixed number of methods of the same class that are declared
+ * before it, so that the call graph is acyclic.</li>
+ * </ul>
+ * Generation is deterministic: the same parameters and seed always yield the
+ * same program text.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class IMPProgramGenerator {
+
+	private static final int STATEMENTS_PER_BLOCK = 3;
+
+	private static final int FIELDS = 2;
+
+	private int classes;
+
+	private int methodsPerClass;
+
+	private int loopDepth;
+
+	private double branchDensity;
+
+	private int variables;
+
+	private int callFanOut;
+
+	private long seed;
+
+	/**
+	 * Builds a new generator. Its default parameters are:
+	 * <ul>
+	 * <li>1 class</li>
+	 * <li>4 methods per class</li>
+	 * <li>loops nested up to depth 1</li>
+	 * <li>branch density of 0.3</li>
+	 * <li>4 variables per method</li>
+	 * <li>call fan-out of 1</li>
+	 * <li>seed 0</li>
+	 * </ul>
+	 */
+	public IMPProgramGenerator() {
+		this.classes = 1;
+		this.methodsPerClass = 4;
+		this.loopDepth = 1;
+		this.branchDensity = 0.3;
+		this.variables = 4;
+		this.callFanOut = 1;
+		this.seed = 0;
+	}
+
+	/**
+	 * Sets the number of classes to generate.
+	 *
+	 * @param classes the number of classes
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setClasses(int classes) {
+		this.classes = classes;
+		return this;
+	}
+
+	/**
+	 * Sets the number of methods to generate in each class.
+	 *
+	 * @param methodsPerClass the number of methods per class
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setMethodsPerClass(int methodsPerClass) {
+		this.methodsPerClass = methodsPerClass;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum nesting depth of the loops of each method. A depth of
+	 * {@code 0} yields loop-free methods.
+	 *
+	 * @param loopDepth the nesting depth
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setLoopDepth(int loopDepth) {
+		this.loopDepth = loopDepth;
+		return this;
+	}
+
+	/**
+	 * Sets the probability, between {@code 0} and {@code 1}, that a statement
+	 * of a block is a conditional instead of an assignment.
+	 *
+	 * @param branchDensity the probability of generating a conditional
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setBranchDensity(double branchDensity) {
+		this.branchDensity = branchDensity;
+		return this;
+	}
+
+	/**
+	 * Sets the number of local variables declared in each method.
+	 *
+	 * @param variables the number of variables (at least {@code 1})
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setVariables(int variables) {
+		this.variables = variables;
+		return this;
+	}
+
+	/**
+	 * Sets the number of calls contained in each method. Calls always target
+	 * methods of the same class that have been declared before the caller, thus
+	 * the first methods of each class contain less calls.
+	 *
+	 * @param callFanOut the number of calls per method
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setCallFanOut(int callFanOut) {
+		this.callFanOut = callFanOut;
+		return this;
+	}
+
+	/**
+	 * Sets the seed used for the random choices of the generator.
+	 *
+	 * @param seed the seed
+	 *
+	 * @return the current (modified) generator
+	 */
+	public IMPProgramGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Yields the total number of methods that this generator will produce.
+	 *
+	 * @return the number of methods
+	 */
+	public int getMethods() {
+		return classes * methodsPerClass;
+	}
+
+	/**
+	 * Generates the text of the program.
+	 *
+	 * @return the IMP code of the program
+	 */
+	public String generate() {
+		Random random = new Random(seed);
+		StringBuilder code = new StringBuilder();
+		for (int c = 0; c < classes; c++) {
+			code.append("class C").append(c).append(" {\n");
+			for (int f = 0; f < FIELDS; f++)
+				code.append("\tf").append(f).append(";\n");
+			for (int m = 0; m < methodsPerClass; m++)
+				method(code, random, c, m);
+			code.append("}\n\n");
+		}
+		return code.toString();
+	}
+
+	/**
+	 * Generates the program and parses it through
+	 * {@link IMPFrontend#processText(String)}.
+	 *
+	 * @return the parsed program
+	 *
+	 * @throws ParsingException if the generated program cannot be parsed
+	 */
+	public Program generateProgram() throws ParsingException {
+		return IMPFrontend.processText(generate());
+	}
+
+	private void method(StringBuilder code, Random random, int clazz, int method) {
+		code.append("\n\tm").append(method).append("(p0, p1) {\n");
+		for (int v = 0; v < variables; v++)
+			indent(code, 2).append("def v").append(v).append(" = ").append(v % 2 == 0 ? "p0" : "p1").append(" + ")
+					.append(v).append(";\n");
+
+		block(code, random, loopDepth, 2);
+
+		indent(code, 2).append("def o = new C").append(clazz).append("(").append(var(random)).append(", ")
+				.append(var(random)).append(");\n");
+		for (int f = 0; f < FIELDS; f++)
+			indent(code, 2).append("o.f").append(f).append(" = ").append(var(random)).append(";\n");
+
+		for (int i = 0; i < callFanOut && method > 0; i++)
+			indent(code, 2).append(var(random)).append(" = this.m").append(random.nextInt(method)).append("(")
+					.append(var(random)).append(", o.f").append(i % FIELDS).append(");\n");
+
+		indent(code, 2).append("return ").append(var(random)).append(";\n");
+		indent(code, 1).append("}\n");
+	}
+
+	private void block(StringBuilder code, Random random, int depth, int indent) {
+		for (int i = 0; i < STATEMENTS_PER_BLOCK; i++)
+			if (random.nextDouble() < branchDensity) {
+				indent(code, indent).append("if (").append(var(random)).append(" < ").append(var(random))
+						.append(") {\n");
+				assignment(code, random, indent + 1);
+				indent(code, indent).append("} else {\n");
+				assignment(code, random, indent + 1);
+				indent(code, indent).append("}\n");
+			} else
+				assignment(code, random, indent);
+
+		if (depth > 0) {
+			String counter = var(random);
+			indent(code, indent).append("while (").append(counter).append(" < ").append(random.nextInt(100))
+					.append(") {\n");
+			indent(code, indent + 1).append(counter).append(" = ").append(counter).append(" + 1;\n");
+			block(code, random, depth - 1, indent + 1);
+			indent(code, indent).append("}\n");
+		}
+	}
+
+	private void assignment(StringBuilder code, Random random, int indent) {
+		indent(code, indent).append(var(random)).append(" = ").append(var(random))
+				.append(random.nextBoolean() ? " + " : " - ").append(random.nextInt(10)).append(";\n");
+	}
+
+	private String var(Random random) {
+		return "v" + random.nextInt(variables);
+	}
+
+	private static StringBuilder indent(StringBuilder code, int level) {
+		for (int i = 0; i < level; i++)
+			code.append('\t');
+		return code;
+	}
+}
@@ -0,0 +1,46 @@
+package it.unive.lisa.imp.test;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.imp.IMPProgramGenerator;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import org.junit.Test;
+
+public class IMPProgramGeneratorTest {
+
+	private static IMPProgramGenerator generator() {
+		return new IMPProgramGenerator().setClasses(3).setMethodsPerClass(5).setLoopDepth(2).setBranchDensity(0.5)
+				.setVariables(3).setCallFanOut(2).setSeed(42);
+	}
+
+	@Test
+	public void testDeterminism() {
+		assertEquals("The same parameters generated different programs", generator().generate(),
+				generator().generate());
+		assertNotEquals("Different seeds generated the same program", generator().generate(),
+				generator().setSeed(43).generate());
+	}
+
+	@Test
+	public void testGeneratedProgram() throws ParsingException, AnalysisSetupException, AnalysisException {
+		Program program = generator().generateProgram();
+		assertEquals(3, program.getUnits().size());
+		assertEquals(15, program.getAllCFGs().size());
+
+		// regression: the intervals generated by the conditions used to fail
+		// their greatest lower bound
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true).setWorkdir("test-outputs/imp-generator")
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		new LiSA(conf).run(program);
+	}
+}
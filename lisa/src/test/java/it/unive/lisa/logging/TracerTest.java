@@ -0,0 +1,66 @@
+package it.unive.lisa.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unive.lisa.logging.Tracer.Span;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class TracerTest {
+
+	@Test
+	public void testNotCollecting() {
+		Tracer tracer = new Tracer(false);
+		tracer.trace("phase", "outer", () -> tracer.trace("phase", "inner", () -> {
+		}));
+		assertTrue(tracer.getSpans().isEmpty());
+	}
+
+	@Test
+	public void testNesting() {
+		Tracer tracer = new Tracer(true);
+		Span span = tracer.begin("phase", "outer");
+		tracer.trace("fixpoint", "inner", () -> {
+		});
+		span.close();
+		assertTrue(span.getEnd() >= span.getStart());
+
+		Map<String, Span> spans = new HashMap<>();
+		for (Span closed : tracer.getSpans())
+			spans.put(closed.getName(), closed);
+		assertEquals(2, spans.size());
+		Span outer = spans.get("outer"), inner = spans.get("inner");
+		assertEquals("fixpoint", inner.getCategory());
+		assertEquals(outer.getThread(), inner.getThread());
+		assertTrue(outer.getStart() <= inner.getStart());
+		assertTrue(inner.getEnd() <= outer.getEnd());
+	}
+
+	@Test
+	public void testChromeTraceFormat() throws IOException {
+		Tracer tracer = new Tracer(true);
+		tracer.trace("phase", "outer", () -> tracer.trace("phase", "inner", () -> {
+		}));
+
+		StringWriter writer = new StringWriter();
+		tracer.dump(writer);
+		JsonNode events = new ObjectMapper().readTree(writer.toString()).get("traceEvents");
+		int complete = 0, metadata = 0;
+		for (JsonNode event : events)
+			if (event.get("ph").asText().equals("X")) {
+				complete++;
+				assertTrue(event.has("ts"));
+				assertTrue(event.get("dur").asDouble() >= 0);
+				assertEquals(Thread.currentThread().getId(), event.get("tid").asLong());
+			} else if (event.get("ph").asText().equals("M"))
+				metadata++;
+		assertEquals(2, complete);
+		assertEquals(1, metadata);
+	}
+}
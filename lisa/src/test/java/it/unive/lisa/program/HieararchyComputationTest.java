@@ -1,5 +1,6 @@
 package it.unive.lisa.program;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -7,6 +8,10 @@ import static org.junit.Assert.assertTrue;
 import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import org.junit.Test;
 
 public class HieararchyComputationTest {
@@ -183,4 +188,40 @@ public class HieararchyComputationTest {
 
 		overrides(fooFirst, fooThird);
 	}
+
+	@Test
+	public void testDispatchTables() throws ParsingException, ProgramValidationException {
+		Program prog = IMPFrontend.processFile("imp-testcases/program-finalization/tree-sanitized.imp");
+		prog.validateAndFinalize();
+
+		CompilationUnit first = findUnit(prog, "first");
+		CompilationUnit third = findUnit(prog, "third");
+		CompilationUnit fourth = findUnit(prog, "fourth");
+		CompilationUnit sixth = findUnit(prog, "sixth");
+
+		CFG fooFirst = findCFG(first, "foo");
+		CFG fooThird = findCFG(third, "foo");
+		CFG fooFourth = findCFG(fourth, "foo");
+
+		// the receiver is the first parameter
+		assertEquals(Collections.singleton(fooFirst), new HashSet<>(first.getInstanceCodeMembersByName("foo", 3)));
+		assertEquals(Collections.singleton(fooFourth), new HashSet<>(fourth.getInstanceCodeMembersByName("foo", 3)));
+		assertEquals(Collections.singleton(fooThird), new HashSet<>(sixth.getInstanceCodeMembersByName("foo", 3)));
+		assertTrue(sixth.getInstanceCodeMembersByName("foo", 2).isEmpty());
+		assertTrue(sixth.getInstanceCodeMembersByName("bar", 3).isEmpty());
+
+		for (CompilationUnit unit : prog.getUnits())
+			for (CodeMember cm : unit.getInstanceCodeMembers(true)) {
+				String name = cm.getDescriptor().getName();
+				int arity = cm.getDescriptor().getArgs().length;
+				Collection<CodeMember> expected = new HashSet<>();
+				for (CodeMember candidate : unit.getInstanceCodeMembersByName(name, true))
+					if (candidate.getDescriptor().getArgs().length == arity)
+						expected.add(candidate);
+				assertEquals(expected, new HashSet<>(unit.getInstanceCodeMembersByName(name, arity)));
+			}
+
+		assertEquals(5, prog.getAllCodeMembersByName("foo", 3).size());
+		assertTrue(prog.getAllCodeMembersByName("foo", 1).isEmpty());
+	}
 }
@@ -1,10 +1,27 @@
 package it.unive.lisa.program.cfg;
 
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.CancellationToken;
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
 import it.unive.lisa.analysis.impl.numeric.Sign;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
@@ -13,7 +30,14 @@ import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics;
+import it.unive.lisa.util.datastructures.graph.FixpointStatistics.NodeStatistics;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
+import java.util.Collections;
 import org.junit.Test;
 
 public class FixpointTest {
@@ -28,6 +52,13 @@ public class FixpointTest {
 				new ExpressionSet<>());
 	}
 
+	private AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+			ValueEnvironment<Interval>> mkIntervalState() {
+		return new AnalysisState<>(
+				new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval())),
+				new ExpressionSet<>());
+	}
+
 	@Test
 	public void testEmptyCFG() {
 		CFG cfg = new CFG(new CFGDescriptor(new CompilationUnit(null, "foo", false), false, "foo"));
@@ -62,4 +93,159 @@ public class FixpointTest {
 			fail("The fixpoint computation has thrown an exception");
 		}
 	}
+
+	@Test
+	public void testWeakTopologicalOrderOnNestedLoops() throws ParsingException, SemanticException {
+		Program p = IMPFrontend.processText("class nested { foo() { def x = 0; def y = 0; "
+				+ "while (x < 10) { y = 0; while (y < x) y = y + 1; x = x + 1; } return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		FixpointConfiguration conf = new FixpointConfiguration(
+				new LiSAConfiguration().setIterationStrategy(IterationStrategy.WEAK_TOPOLOGICAL_ORDER));
+		try {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> wto = cfg.fixpoint(mkState(), mkCallGraph(), conf);
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> worklist = cfg.fixpoint(mkState(), mkCallGraph());
+			for (Statement st : cfg.getNodes())
+				assertTrue("The result on " + st + " is not at least as precise as the one of the worklist strategy",
+						wto.getAnalysisStateAt(st).lessOrEqual(worklist.getAnalysisStateAt(st)));
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+	}
+
+	@Test
+	public void testDeadVariablesPruning() throws ParsingException, SemanticException {
+		Program p = IMPFrontend.processText("class dead { foo() { def x = 1; def y = 2; def z = x + 1; "
+				+ "while (z < 10) z = z + 1; return z; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		Statement ret = cfg.getNodes().stream().filter(Return.class::isInstance).findFirst().get();
+		assertEquals(Collections.singleton("z"), cfg.getLiveness().getLiveBefore(ret));
+
+		FixpointConfiguration conf = new FixpointConfiguration(new LiSAConfiguration().setPruneDeadVariables(true));
+		try {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> pruned = cfg.fixpoint(mkState(), mkCallGraph(), conf);
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> full = cfg.fixpoint(mkState(), mkCallGraph());
+			for (Statement st : cfg.getNodes()) {
+				ValueEnvironment<Sign> prunedEnv = pruned.getAnalysisStateAt(st).getState().getValueState();
+				ValueEnvironment<Sign> fullEnv = full.getAnalysisStateAt(st).getState().getValueState();
+				for (Identifier id : prunedEnv.getKeys())
+					assertEquals("The value of " + id + " after " + st + " changed", fullEnv.getState(id),
+							prunedEnv.getState(id));
+			}
+
+			ValueEnvironment<Sign> atReturn = pruned.getAnalysisStateAt(ret).getState().getValueState();
+			for (Identifier id : atReturn.getKeys())
+				assertFalse(id + " is dead but it has not been pruned",
+						id.getName().equals("x") || id.getName().equals("y"));
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+	}
+
+	@Test
+	public void testDeadVariablesPruningWithFieldAccess()
+			throws ParsingException, AnalysisSetupException, AnalysisException {
+		Program p = IMPFrontend.processText("class A { a; foo() { def o = new A(1); o.a = 5; def y = o.a; "
+				+ "return y; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		Statement read = cfg.getNodes().stream().filter(st -> st.toString().startsWith("y = ")).findFirst().get();
+		// o is read through the receiver of the access
+		assertEquals(Collections.singleton("o"), cfg.getLiveness().getLiveBefore(read));
+
+		// pruning o before the access used to leave it without an entry state
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true).setPruneDeadVariables(true)
+				.setWorkdir("test-outputs/pruning")
+				.setAbstractState(getDefaultFor(AbstractState.class, new PointBasedHeap(), new Interval()));
+		new LiSA(conf).run(p);
+	}
+
+	@Test
+	public void testDescendingIterations() throws ParsingException, SemanticException {
+		Program p = IMPFrontend.processText("class desc { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		Statement ret = cfg.getNodes().stream().filter(Return.class::isInstance).findFirst().get();
+		for (IterationStrategy strategy : IterationStrategy.values()) {
+			FixpointConfiguration conf = new FixpointConfiguration(
+					new LiSAConfiguration().setIterationStrategy(strategy).setDescendingRounds(2));
+			try {
+				CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+						ValueEnvironment<Interval>> narrowed = cfg.fixpoint(mkIntervalState(), mkCallGraph(), conf);
+				CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+						ValueEnvironment<Interval>> widened = cfg.fixpoint(mkIntervalState(), mkCallGraph());
+				// without widening, the loop is fully unrolled
+				CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+						ValueEnvironment<Interval>> precise = cfg.fixpoint(mkIntervalState(), mkCallGraph(), 0);
+				for (Statement st : cfg.getNodes())
+					assertEquals("The descending iterations did not reach the least fixpoint on " + st + " with "
+							+ strategy, precise.getAnalysisStateAt(st), narrowed.getAnalysisStateAt(st));
+
+				assertNotEquals("The widened result on " + ret + " is already precise",
+						precise.getAnalysisStateAt(ret), widened.getAnalysisStateAt(ret));
+			} catch (FixpointException e) {
+				e.printStackTrace(System.err);
+				fail("The fixpoint computation has thrown an exception");
+			}
+		}
+	}
+
+	@Test
+	public void testEvaluationsBudget() throws ParsingException, SemanticException {
+		Program p = IMPFrontend
+				.processText("class budget { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		FixpointConfiguration conf = new FixpointConfiguration(new LiSAConfiguration().setCFGEvaluationsLimit(3));
+		try {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> result = cfg.fixpoint(mkState(), mkCallGraph(), conf);
+			for (Statement st : cfg.getNodes())
+				assertTrue("The result on " + st + " is not top", result.getAnalysisStateAt(st).isTop());
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		assertEquals(1, conf.getBudget().getWarnings().size());
+		assertEquals(cfg, conf.getBudget().getWarnings().iterator().next().getCFG());
+	}
+
+	@Test(expected = FixpointException.class)
+	public void testCancellation() throws ParsingException, FixpointException {
+		Program p = IMPFrontend
+				.processText("class cancel { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		CancellationToken token = new CancellationToken();
+		FixpointConfiguration conf = new FixpointConfiguration(new LiSAConfiguration().setCancellationToken(token));
+		token.cancel();
+		cfg.fixpoint(mkState(), mkCallGraph(), conf);
+	}
+
+	@Test
+	public void testStatistics() throws ParsingException {
+		Program p = IMPFrontend.processText("class stats { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		assertNull(new FixpointConfiguration(new LiSAConfiguration()).getStatistics());
+
+		FixpointConfiguration conf = new FixpointConfiguration(new LiSAConfiguration().setDumpStatistics(true));
+		try {
+			cfg.fixpoint(mkIntervalState(), mkCallGraph(), conf);
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		FixpointStatistics<Statement> stats = conf.getStatistics().of(cfg);
+		assertEquals("Wrong number of fixpoints", 1, stats.getFixpoints());
+		for (Statement st : cfg.getNodes())
+			assertTrue(st + " has not been evaluated", stats.getNodes().get(st).getEvaluations() > 0);
+		NodeStatistics totals = stats.getTotals();
+		assertTrue("No widening has been recorded", totals.getWidenings() > 0);
+		assertTrue("No lub has been recorded", totals.getLubs() > 0);
+		// x and the returned value
+		assertEquals("Wrong maximum state size", 2, totals.getMaxStateSize());
+	}
 }
@@ -0,0 +1,308 @@
+package it.unive.lisa.scaling;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.dataflow.DefiniteForwardDataflowDomain;
+import it.unive.lisa.analysis.dataflow.PossibleForwardDataflowDomain;
+import it.unive.lisa.analysis.dataflow.impl.AvailableExpressions;
+import it.unive.lisa.analysis.dataflow.impl.ConstantPropagation;
+import it.unive.lisa.analysis.dataflow.impl.ReachingDefinitions;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.impl.numeric.Parity;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.callgraph.impl.interproc.InterproceduralCallGraph;
+import it.unive.lisa.imp.IMPProgramGenerator;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * A macro-benchmark that runs {@link LiSA#run(Program)} on programs of
+ * increasing size produced by an {@link IMPProgramGenerator}, once for each of
+ * the shipped domains, recording the time and the peak heap usage of each run.
+ * The size of the program is doubled at each step by doubling its number of
+ * classes, and the growth of the running time between consecutive steps is
+ * expressed as the exponent {@code k} such that
+ * {@code t2 / t1 = (n2 / n1) ^ k}, where {@code n} is the number of generated
+ * methods: steps whose exponent is above the given threshold are reported as
+ * super-linear. Results are dumped, in json and csv format, to the output
+ * directory. Run with {@code ./gradlew scalingBenchmark}, passing options
+ * through {@code -PscalingArgs="<options>"}, where options are:
+ * <ul>
+ * <li>{@code --domains d1,d2,...}: the domains to run, among {@link #DOMAINS}
+ * (default: all of them)</li>
+ * <li>{@code --steps n}: the number of size steps (default: 5)</li>
+ * <li>{@code --methods n}: the methods per class (default: 8)</li>
+ * <li>{@code --depth n}: the loop nesting depth (default: 2)</li>
+ * <li>{@code --branches d}: the branch density (default: 0.3)</li>
+ * <li>{@code --variables n}: the variables per method (default: 4)</li>
+ * <li>{@code --fanout n}: the calls per method (default: 2)</li>
+ * <li>{@code --repetitions n}: the runs for each step, keeping the fastest one
+ * (default: 3)</li>
+ * <li>{@code --threshold d}: the exponent above which a step is super-linear
+ * (default: 1.5)</li>
+ * <li>{@code --timeout ms}: the analysis timeout of each run, after which the
+ * remaining cfgs are mapped to top and the step is reported as exhausted
+ * (default: 60000, {@code 0} for no timeout)</li>
+ * <li>{@code --interprocedural}: use an {@link InterproceduralCallGraph}
+ * instead of the default one</li>
+ * <li>{@code --fail-on-superlinear}: exit with a non-zero status if a
+ * super-linear step is found</li>
+ * <li>{@code --output dir}: the output directory (default:
+ * {@code build/reports/scaling})</li>
+ * </ul>
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class ScalingBenchmark {
+
+	/**
+	 * The names of the domains that can be benchmarked
+	 */
+	public static final List<String> DOMAINS = Arrays.asList("interval", "sign", "parity", "pointbased",
+			"available-expressions", "constant-propagation", "reaching-definitions");
+
+	private final Map<String, String> options;
+
+	private final File output;
+
+	private ScalingBenchmark(Map<String, String> options) {
+		this.options = options;
+		this.output = new File(options.getOrDefault("output", "build/reports/scaling"));
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the options of the benchmark
+	 *
+	 * @throws Exception if something goes wrong while generating or analyzing
+	 *                       the programs, or while dumping the results
+	 */
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++)
+			if (!args[i].startsWith("--"))
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			else if (i + 1 < args.length && !args[i + 1].startsWith("--"))
+				options.put(args[i].substring(2), args[++i]);
+			else
+				options.put(args[i].substring(2), "true");
+
+		List<Step> steps = new ScalingBenchmark(options).run();
+		if (options.containsKey("fail-on-superlinear") && steps.stream().anyMatch(s -> s.superLinear))
+			System.exit(1);
+	}
+
+	private List<Step> run() throws AnalysisSetupException, ParsingException, AnalysisException, IOException {
+		List<String> domains = options.containsKey("domains")
+				? Arrays.asList(options.get("domains").split(","))
+				: DOMAINS;
+		int stepCount = intOption("steps", 5);
+		int repetitions = intOption("repetitions", 3);
+		double threshold = Double.parseDouble(options.getOrDefault("threshold", "1.5"));
+
+		List<Step> steps = new ArrayList<>();
+		for (String domain : domains) {
+			// warm up the jvm on the smallest program
+			analyze(domain, generator(1));
+			Step previous = null;
+			for (int i = 0; i < stepCount; i++) {
+				IMPProgramGenerator generator = generator(1 << i);
+				Step step = new Step(domain, 1 << i, generator.getMethods());
+				step.nanos = Long.MAX_VALUE;
+				for (int r = 0; r < repetitions; r++) {
+					Step current = analyze(domain, generator);
+					step.nanos = Math.min(step.nanos, current.nanos);
+					step.peakHeap = Math.max(step.peakHeap, current.peakHeap);
+					step.exhausted |= current.exhausted;
+				}
+
+				if (previous != null) {
+					step.exponent = Math.log((double) step.nanos / previous.nanos)
+							/ Math.log((double) step.methods / previous.methods);
+					step.superLinear = step.exponent > threshold;
+				}
+
+				System.out.println(step);
+				steps.add(step);
+				previous = step;
+			}
+		}
+
+		dump(steps, threshold);
+		return steps;
+	}
+
+	private IMPProgramGenerator generator(int classes) {
+		return new IMPProgramGenerator()
+				.setClasses(classes)
+				.setMethodsPerClass(intOption("methods", 8))
+				.setLoopDepth(intOption("depth", 2))
+				.setBranchDensity(Double.parseDouble(options.getOrDefault("branches", "0.3")))
+				.setVariables(intOption("variables", 4))
+				.setCallFanOut(intOption("fanout", 2));
+	}
+
+	private int intOption(String name, int defaultValue) {
+		return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+	}
+
+	private Step analyze(String domain, IMPProgramGenerator generator)
+			throws AnalysisSetupException, ParsingException, AnalysisException, IOException {
+		// programs are modified by the analysis, so each run needs a fresh one
+		Program program = generator.generateProgram();
+		File workdir = Files.createTempDirectory("lisa-scaling").toFile();
+		LiSAConfiguration conf = new LiSAConfiguration()
+				.setWorkdir(workdir.getAbsolutePath())
+				.setInferTypes(true)
+				.setAnalysisTimeout(intOption("timeout", 60000))
+				.setAbstractState(state(domain));
+		if (options.containsKey("interprocedural"))
+			conf.setCallGraph(new InterproceduralCallGraph());
+
+		System.gc();
+		List<MemoryPoolMXBean> pools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+				pools.add(pool);
+			}
+
+		LiSA lisa = new LiSA(conf);
+		long start = System.nanoTime();
+		try {
+			lisa.run(program);
+		} finally {
+			FileUtils.deleteQuietly(workdir);
+		}
+
+		Step step = new Step(domain, 0, generator.getMethods());
+		step.nanos = System.nanoTime() - start;
+		// no checks are executed, so warnings can only come from the budget
+		step.exhausted = !lisa.getWarnings().isEmpty();
+		// the sum of the peaks of the single pools is an upper bound of the
+		// actual peak, as pools might have reached their peaks at different
+		// times
+		for (MemoryPoolMXBean pool : pools)
+			step.peakHeap += pool.getPeakUsage().getUsed();
+		return step;
+	}
+
+	private static AbstractState<?, ?, ?> state(String domain) throws AnalysisSetupException {
+		switch (domain) {
+		case "interval":
+			return getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval());
+		case "sign":
+			return getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign());
+		case "parity":
+			return getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Parity());
+		case "pointbased":
+			return getDefaultFor(AbstractState.class, new PointBasedHeap(), new Interval());
+		case "available-expressions":
+			return getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+					new DefiniteForwardDataflowDomain<>(new AvailableExpressions()));
+		case "constant-propagation":
+			return getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+					new DefiniteForwardDataflowDomain<>(new ConstantPropagation()));
+		case "reaching-definitions":
+			return getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+					new PossibleForwardDataflowDomain<>(new ReachingDefinitions()));
+		default:
+			throw new IllegalArgumentException("Unknown domain '" + domain + "', expected one of " + DOMAINS);
+		}
+	}
+
+	private void dump(List<Step> steps, double threshold) throws IOException {
+		output.mkdirs();
+
+		List<Map<String, Object>> rows = new ArrayList<>(steps.size());
+		for (Step step : steps) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("domain", step.domain);
+			row.put("classes", step.classes);
+			row.put("methods", step.methods);
+			row.put("millis", TimeUnit.NANOSECONDS.toMillis(step.nanos));
+			row.put("peakHeapBytes", step.peakHeap);
+			row.put("exponent", Double.isNaN(step.exponent) ? null : step.exponent);
+			row.put("superLinear", step.superLinear);
+			row.put("exhausted", step.exhausted);
+			rows.add(row);
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("options", options);
+		report.put("threshold", threshold);
+		report.put("steps", rows);
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(output, "results.json"),
+				report);
+
+		try (Writer writer = new FileWriter(new File(output, "results.csv"))) {
+			writer.write("domain,classes,methods,millis,peakHeapBytes,exponent,superLinear,exhausted\n");
+			for (Map<String, Object> row : rows) {
+				StringBuilder line = new StringBuilder();
+				for (Object value : row.values())
+					line.append(line.length() == 0 ? "" : ",").append(value == null ? "" : value);
+				writer.write(line.append("\n").toString());
+			}
+		}
+	}
+
+	private static class Step {
+
+		private final String domain;
+
+		private final int classes;
+
+		private final int methods;
+
+		private long nanos;
+
+		private long peakHeap;
+
+		private double exponent = Double.NaN;
+
+		private boolean superLinear;
+
+		private boolean exhausted;
+
+		private Step(String domain, int classes, int methods) {
+			this.domain = domain;
+			this.classes = classes;
+			this.methods = methods;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d methods in %d ms, peak heap %d MB%s%s", domain, methods,
+					TimeUnit.NANOSECONDS.toMillis(nanos), peakHeap >> 20,
+					Double.isNaN(exponent) ? ""
+							: String.format(", exponent %.2f%s", exponent, superLinear ? " (super-linear)" : ""),
+					exhausted ? ", budget exhausted" : "");
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package it.unive.lisa.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.type.VoidType;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import org.junit.Test;
+
+public class SymbolicExpressionInternerTest {
+
+	private static ExternalSet<Type> untyped() {
+		return Caches.types().mkSingletonSet(Untyped.INSTANCE);
+	}
+
+	private static ExternalSet<Type> voidType() {
+		return Caches.types().mkSingletonSet(VoidType.INSTANCE);
+	}
+
+	@Test
+	public void testCanonicalInstances() {
+		SymbolicExpressionInterner interner = new SymbolicExpressionInterner();
+		Variable x = interner.intern(new Variable(untyped(), "x"));
+		assertSame(x, interner.intern(new Variable(untyped(), "x")));
+		Variable y = interner.intern(new Variable(untyped(), "y"));
+		assertNotSame(x, y);
+
+		Constant one = interner.intern(new Constant(Untyped.INSTANCE, 1));
+		assertSame(one, interner.intern(new Constant(Untyped.INSTANCE, 1)));
+		Constant two = interner.intern(new Constant(Untyped.INSTANCE, 2));
+		assertNotSame(one, two);
+		assertEquals(4, interner.size());
+
+		interner.clear();
+		assertEquals(0, interner.size());
+		assertNotSame(x, interner.intern(new Variable(untyped(), "x")));
+	}
+
+	@Test
+	public void testStrictness() {
+		SymbolicExpressionInterner interner = new SymbolicExpressionInterner();
+		Variable x = interner.intern(new Variable(untyped(), "x"));
+		Variable xVoid = interner.intern(new Variable(voidType(), "x"));
+		// identifiers are equal regardless of their types, but interning
+		// must not alter them
+		assertEquals(x, xVoid);
+		assertNotSame(x, xVoid);
+		assertEquals(voidType(), xVoid.getTypes());
+
+		HeapLocation strong = interner.intern(new HeapLocation(untyped(), "x", false));
+		HeapLocation weak = interner.intern(new HeapLocation(untyped(), "x", true));
+		assertNotSame(strong, weak);
+		assertNotSame(x, strong);
+	}
+
+	@Test
+	public void testNestedExpressions() {
+		SymbolicExpressionInterner interner = new SymbolicExpressionInterner();
+		BinaryExpression sum = interner.intern(new BinaryExpression(untyped(), new Variable(untyped(), "x"),
+				new Constant(Untyped.INSTANCE, 1), BinaryOperator.NUMERIC_ADD));
+		assertSame(interner.intern(new Variable(untyped(), "x")), sum.getLeft());
+		assertSame(interner.intern(new Constant(Untyped.INSTANCE, 1)), sum.getRight());
+
+		UnaryExpression not = interner.intern(new UnaryExpression(untyped(),
+				new BinaryExpression(untyped(), new Variable(untyped(), "x"), new Constant(Untyped.INSTANCE, 1),
+						BinaryOperator.NUMERIC_ADD),
+				UnaryOperator.LOGICAL_NOT));
+		assertSame(sum, not.getExpression());
+		assertSame(not, interner.intern(new UnaryExpression(untyped(), sum, UnaryOperator.LOGICAL_NOT)));
+	}
+
+	@Test
+	public void testOwnedTypes() {
+		SymbolicExpressionInterner interner = new SymbolicExpressionInterner();
+		ExternalSet<Type> types = untyped();
+		Variable x = interner.intern(new Variable(types, "x"));
+		types.clear();
+		assertEquals(untyped(), x.getTypes());
+		assertSame(x, interner.intern(new Variable(untyped(), "x")));
+	}
+
+	@Test
+	public void testUnreachableInstancesAreReleased() throws InterruptedException {
+		SymbolicExpressionInterner interner = new SymbolicExpressionInterner();
+		Variable x = interner.intern(new Variable(untyped(), "x"));
+		for (int i = 0; i < 100; i++)
+			interner.intern(new Variable(untyped(), "tmp" + i));
+
+		// collection is not guaranteed to happen on request
+		for (int i = 0; i < 50 && interner.size() > 1; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(1, interner.size());
+		assertSame(x, interner.intern(new Variable(untyped(), "x")));
+	}
+}
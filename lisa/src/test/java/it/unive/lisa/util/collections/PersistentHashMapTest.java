@@ -0,0 +1,170 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+	private static final int LIMIT = 5000;
+
+	private static final Random random = new Random();
+
+	/**
+	 * A key whose hash is fixed, to force collisions.
+	 */
+	private static class Colliding {
+		private final int id;
+		private final int hash;
+
+		private Colliding(int id, int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Colliding && ((Colliding) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "c" + id;
+		}
+	}
+
+	private static <K, V> void check(Map<K, V> expected, PersistentHashMap<K, V> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (Map.Entry<K, V> e : expected.entrySet()) {
+			assertTrue(actual.containsKey(e.getKey()));
+			assertEquals(e.getValue(), actual.get(e.getKey()));
+		}
+		Set<K> keys = new HashSet<>();
+		for (Map.Entry<K, V> e : actual.entrySet())
+			assertTrue("Duplicate key " + e.getKey(), keys.add(e.getKey()));
+		assertEquals(expected.keySet(), keys);
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < LIMIT; i++) {
+			int key = random.nextInt(LIMIT / 2);
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(key), actual.remove(key));
+			else
+				assertEquals(expected.put(key, i), actual.put(key, i));
+		}
+		check(expected, actual);
+
+		for (Integer key : new HashSet<>(expected.keySet())) {
+			assertEquals(expected.remove(key), actual.remove(key));
+			assertNull(actual.get(key));
+		}
+		check(expected, actual);
+		assertTrue(actual.isEmpty());
+	}
+
+	@Test
+	public void testCollisions() {
+		Map<Colliding, String> expected = new HashMap<>();
+		PersistentHashMap<Colliding, String> actual = new PersistentHashMap<>();
+		for (int i = 0; i < 200; i++) {
+			Colliding key = new Colliding(i, i % 7);
+			expected.put(key, "v" + i);
+			actual.put(key, "v" + i);
+		}
+		check(expected, actual);
+
+		for (int i = 0; i < 200; i += 3) {
+			Colliding key = new Colliding(i, i % 7);
+			assertEquals(expected.remove(key), actual.remove(key));
+		}
+		check(expected, actual);
+
+		expected.put(null, "null");
+		actual.put(null, "null");
+		check(expected, actual);
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		PersistentHashMap<Integer, Integer> original = new PersistentHashMap<>();
+		for (int i = 0; i < 1000; i++)
+			original.put(i, i);
+		Map<Integer, Integer> snapshot = new HashMap<>(original);
+
+		PersistentHashMap<Integer, Integer> copy = new PersistentHashMap<>(original);
+		assertEquals(original, copy);
+		copy.put(5, -5);
+		copy.remove(6);
+		copy.put(2000, 2000);
+
+		check(snapshot, original);
+		assertFalse(original.equals(copy));
+		assertEquals(Integer.valueOf(-5), copy.get(5));
+		assertFalse(copy.containsKey(6));
+	}
+
+	@Test
+	public void testUnsharedKeys() {
+		PersistentHashMap<Integer, Integer> original = new PersistentHashMap<>();
+		for (int i = 0; i < 1000; i++)
+			original.put(i, i);
+
+		PersistentHashMap<Integer, Integer> copy = new PersistentHashMap<>(original);
+		copy.put(5, -5);
+		copy.remove(6);
+		copy.put(2000, 2000);
+
+		Set<Integer> mine = new HashSet<>(), theirs = new HashSet<>();
+		original.collectUnsharedKeys(copy, mine, theirs);
+		assertTrue(mine.contains(5));
+		assertTrue(mine.contains(6));
+		assertTrue(theirs.contains(5));
+		assertTrue(theirs.contains(2000));
+		assertFalse(theirs.contains(6));
+		// only the modified paths should be visited
+		assertTrue(mine.size() < 100);
+		assertTrue(theirs.size() < 100);
+
+		// every key outside of the collected ones is mapped to the same value
+		for (int i = 0; i < 1000; i++)
+			if (!mine.contains(i) && !theirs.contains(i))
+				assertEquals(original.get(i), copy.get(i));
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < 500; i++) {
+			expected.put(i, i);
+			actual.put(i, i);
+		}
+
+		for (Iterator<Map.Entry<Integer, Integer>> it = actual.entrySet().iterator(); it.hasNext();)
+			if (it.next().getKey() % 2 == 0)
+				it.remove();
+		expected.keySet().removeIf(k -> k % 2 == 0);
+		check(expected, actual);
+	}
+}
@@ -0,0 +1,168 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ExternalSetCacheTest {
+
+	private static final int THREADS = 8;
+
+	private static final int ELEMENTS = 5000;
+
+	@Test
+	public void testIndexes() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		for (int i = 0; i < ELEMENTS; i++)
+			assertEquals(i, cache.indexOfOrAdd("e" + i));
+		assertEquals(ELEMENTS, cache.size());
+
+		for (int i = 0; i < ELEMENTS; i++) {
+			assertEquals(i, cache.indexOf("e" + i));
+			assertEquals("e" + i, cache.get(i));
+		}
+		assertEquals(-1, cache.indexOf("foo"));
+		assertEquals(-1, cache.indexOf(null));
+
+		int nullIndex = cache.indexOfOrAdd(null);
+		assertEquals(ELEMENTS, nullIndex);
+		assertEquals(nullIndex, cache.indexOfOrAdd(null));
+		assertNull(cache.get(nullIndex));
+		assertEquals(ELEMENTS + 1, cache.getAllElements().size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(-1, cache.indexOf("e0"));
+		assertEquals(0, cache.indexOfOrAdd("e1"));
+	}
+
+	@Test
+	public void testConcurrentAdditions() throws Exception {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<int[]>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++)
+				futures.add(executor.submit(() -> {
+					// all threads add the same elements, reading them back
+					// immediately
+					int[] indexes = new int[ELEMENTS];
+					for (int i = 0; i < ELEMENTS; i++) {
+						indexes[i] = cache.indexOfOrAdd("e" + i);
+						assertEquals("e" + i, cache.get(indexes[i]));
+					}
+					return indexes;
+				}));
+
+			int[] expected = futures.get(0).get();
+			for (Future<int[]> future : futures) {
+				int[] indexes = future.get();
+				for (int i = 0; i < ELEMENTS; i++)
+					assertEquals(expected[i], indexes[i]);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(ELEMENTS, cache.size());
+		Set<String> all = new HashSet<>(cache.getAllElements());
+		assertEquals(ELEMENTS, all.size());
+		for (int i = 0; i < ELEMENTS; i++)
+			assertTrue(all.contains("e" + i));
+	}
+
+	@Test
+	public void testCanonicalSets() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> first = cache.mkEmptySet();
+		ExternalSet<String> second = cache.mkEmptySet();
+		for (int i = 0; i < 100; i++) {
+			first.add("e" + i);
+			second.add("e" + (99 - i));
+		}
+
+		ExternalSet<String> canonical = cache.canonical(first);
+		assertTrue(cache.isCanonical(canonical));
+		assertFalse(cache.isCanonical(first));
+		assertSame(canonical, cache.canonical(second));
+		assertSame(canonical, cache.canonical(canonical));
+		assertEquals(first, canonical);
+		assertEquals(canonical, first);
+		assertEquals(first.hashCode(), canonical.hashCode());
+		assertEquals(100, canonical.size());
+
+		first.remove("e99");
+		first.remove("e98");
+		assertNotEquals(canonical, cache.canonical(first));
+		second.remove("e98");
+		second.remove("e99");
+		assertSame(cache.canonical(first), cache.canonical(second));
+
+		assertSame(cache.mkCanonicalSingletonSet("e5"), cache.mkCanonicalSingletonSet("e5"));
+		assertSame(cache.mkCanonicalSingletonSet("e5"), cache.canonical(cache.mkSingletonSet("e5")));
+		assertSame(cache.mkCanonicalSingletonSet(null), cache.mkCanonicalSingletonSet(null));
+		assertSame(cache.canonical(cache.mkEmptySet()), cache.canonical(cache.mkEmptySet()));
+
+		ExternalSet<String> universal = cache.mkUniversalSet();
+		assertSame(universal, cache.canonical(universal));
+		assertFalse(cache.isCanonical(universal));
+	}
+
+	@Test
+	public void testClearReleasesCanonicalSets() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> before = cache.mkCanonicalSingletonSet("a");
+		assertSame(before, cache.canonical(cache.mkSingletonSet("a")));
+
+		cache.clear();
+		ExternalSet<String> after = cache.mkCanonicalSingletonSet("a");
+		assertNotSame(before, after);
+		assertSame(after, cache.canonical(cache.mkSingletonSet("a")));
+		// sets created before clearing are still compared by their elements
+		assertEquals(before, after);
+		assertEquals(after, before);
+		assertNotEquals(before, cache.mkCanonicalSingletonSet("b"));
+	}
+
+	@Test
+	public void testCanonicalSetsAreImmutable() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> canonical = cache.mkCanonicalSingletonSet("a");
+		List<Runnable> modifications = new ArrayList<>();
+		modifications.add(() -> canonical.add("b"));
+		modifications.add(() -> canonical.addAll(cache.mkSingletonSet("b")));
+		modifications.add(() -> canonical.addAll(Collections.singleton("b")));
+		modifications.add(() -> canonical.remove("a"));
+		modifications.add(() -> canonical.removeAll(Collections.singleton("a")));
+		modifications.add(() -> canonical.retainAll(Collections.emptySet()));
+		modifications.add(() -> canonical.clear());
+		for (Runnable modification : modifications)
+			try {
+				modification.run();
+				fail("A canonical set has been modified");
+			} catch (UnsupportedOperationException e) {
+				// expected
+			}
+
+		ExternalSet<String> copy = canonical.copy();
+		copy.add("b");
+		assertEquals(2, copy.size());
+		assertEquals(1, canonical.size());
+		assertFalse(cache.isCanonical(copy));
+	}
+}
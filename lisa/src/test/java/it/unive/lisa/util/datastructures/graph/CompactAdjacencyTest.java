@@ -0,0 +1,94 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class CompactAdjacencyTest {
+
+	private static CFG parse(String code) throws ParsingException {
+		Program p = IMPFrontend.processText(code);
+		return p.getAllCFGs().iterator().next();
+	}
+
+	private static void check(CFG cfg) {
+		CompactAdjacency<Statement, Edge, CFG> compact = cfg.compact();
+		assertEquals(cfg.getNodesCount(), compact.size());
+		for (Statement node : cfg.getNodes()) {
+			int index = compact.indexOf(node);
+			assertSame(node, compact.nodeAt(index));
+
+			Set<Statement> followers = new HashSet<>();
+			for (int k = 0; k < compact.followersCount(index); k++) {
+				Statement follower = compact.nodeAt(compact.follower(index, k));
+				followers.add(follower);
+				assertSame(cfg.getEdgeConnecting(node, follower), compact.outgoingEdge(index, k));
+				assertSame(cfg.getEdgeConnecting(node, follower),
+						compact.getEdgeConnecting(index, compact.follower(index, k)));
+			}
+			assertEquals(cfg.followersOf(node), followers);
+			assertEquals(followers.size(), compact.followersCount(index));
+
+			Set<Statement> predecessors = new HashSet<>();
+			for (int k = 0; k < compact.predecessorsCount(index); k++) {
+				Statement pred = compact.nodeAt(compact.predecessor(index, k));
+				predecessors.add(pred);
+				assertSame(cfg.getEdgeConnecting(pred, node), compact.ingoingEdge(index, k));
+			}
+			assertEquals(cfg.predecessorsOf(node), predecessors);
+			assertEquals(predecessors.size(), compact.predecessorsCount(index));
+		}
+	}
+
+	@Test
+	public void testStructure() throws ParsingException {
+		check(parse("class c { foo() { def x = 0; def y = 0; "
+				+ "while (x < 10) { if (x > 5) y = y + 1; else y = y - 1; x = x + 1; } return y; } }"));
+	}
+
+	@Test
+	public void testStructureAfterSimplification() throws ParsingException {
+		CFG cfg = parse("class c { foo() { def x = 0; if (x > 5) x = 1; return x; } }");
+		cfg.simplify();
+		check(cfg);
+	}
+
+	@Test
+	public void testCaching() throws ParsingException {
+		CFG cfg = parse("class c { foo() { def x = 0; return x; } }");
+		CompactAdjacency<Statement, Edge, CFG> compact = cfg.compact();
+		assertSame(compact, cfg.compact());
+
+		Statement st = new NoOp(cfg);
+		cfg.addNode(st);
+		CompactAdjacency<Statement, Edge, CFG> other = cfg.compact();
+		assertNotSame(compact, other);
+		assertEquals(-1, compact.indexOf(st));
+		assertTrue(other.indexOf(st) != -1);
+		check(cfg);
+	}
+
+	@Test
+	public void testReassignedOffsets() throws ParsingException {
+		CFG cfg = parse("class c { foo() { def x = 0; x = x + 1; return x; } }");
+		CompactAdjacency<Statement, Edge, CFG> compact = cfg.compact();
+		// adding the nodes to another matrix changes their offsets
+		AdjacencyMatrix<Statement, Edge, CFG> other = new AdjacencyMatrix<>();
+		for (Statement node : cfg.getNodes())
+			other.addNode(node);
+		for (Statement node : cfg.getNodes())
+			assertSame(node, compact.nodeAt(compact.indexOf(node)));
+	}
+}
@@ -0,0 +1,80 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Component;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+public class WeakTopologicalOrderTest {
+
+	private static List<Component<Statement>> build(String code) throws ParsingException {
+		Program p = IMPFrontend.processText(code);
+		CFG cfg = p.getAllCFGs().iterator().next();
+		List<Component<Statement>> wto = new WeakTopologicalOrder<CFG, Statement, Edge>().build(cfg);
+
+		// every node must appear exactly once
+		List<Statement> flat = new ArrayList<>();
+		flatten(wto, flat);
+		assertEquals("Some nodes appear more than once in " + wto, flat.size(), new HashSet<>(flat).size());
+		assertEquals("Some nodes are missing from " + wto, new HashSet<>(cfg.getNodes()), new HashSet<>(flat));
+		return wto;
+	}
+
+	private static void flatten(List<Component<Statement>> components, List<Statement> result) {
+		for (Component<Statement> c : components) {
+			result.add(c.getHead());
+			flatten(c.getBody(), result);
+		}
+	}
+
+	@Test
+	public void testStraightLine() throws ParsingException {
+		List<Component<Statement>> wto = build("class c { foo() { def x = 0; x = x + 1; return x; } }");
+		assertEquals(3, wto.size());
+		for (Component<Statement> c : wto)
+			assertFalse(c + " should not be a loop", c.isLoop());
+		assertEquals("x = 0", wto.get(0).getHead().toString());
+		assertEquals("return x", wto.get(2).getHead().toString());
+	}
+
+	@Test
+	public void testSingleLoop() throws ParsingException {
+		List<Component<Statement>> wto = build(
+				"class c { foo() { def x = 0; while (x < 10) x = x + 1; return x; } }");
+		assertEquals(3, wto.size());
+		Component<Statement> loop = wto.get(1);
+		assertTrue(loop + " should be a loop", loop.isLoop());
+		assertEquals("<(x, 10)", loop.getHead().toString());
+		assertEquals(1, loop.getBody().size());
+		assertFalse(loop.getBody().get(0).isLoop());
+	}
+
+	@Test
+	public void testNestedLoops() throws ParsingException {
+		List<Component<Statement>> wto = build("class c { foo() { def x = 0; def y = 0; "
+				+ "while (x < 10) { y = 0; while (y < x) y = y + 1; x = x + 1; } return x; } }");
+		Component<Statement> outer = wto.stream().filter(Component::isLoop).findFirst().get();
+		assertEquals("<(x, 10)", outer.getHead().toString());
+		Component<Statement> inner = outer.getBody().stream().filter(Component::isLoop).findFirst().get();
+		assertEquals("<(y, x)", inner.getHead().toString());
+		assertEquals(1, outer.getBody().stream().filter(Component::isLoop).count());
+		assertEquals(1, inner.getBody().size());
+
+		// y = 0 must come before the inner loop, x = x + 1 after it
+		List<Component<Statement>> body = outer.getBody();
+		assertEquals("y = 0", body.get(0).getHead().toString());
+		assertEquals(inner, body.get(1));
+		assertEquals("x = +(x, 1)", body.get(2).getHead().toString());
+	}
+}